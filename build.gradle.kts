@@ -22,6 +22,7 @@ val releasePublishModules = listOf(
     "muyun-database-core",
     "muyun-database-core-json-jackson",
     "muyun-database-jdbi",
+    "muyun-database-processor",
     "muyun-database-spring-boot-starter",
     "muyun-database-quarkus",
     "muyun-database-quarkus-deployment"
@@ -0,0 +1,89 @@
+plugins {
+    java
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+dependencies {
+    implementation(project(":muyun-database-jdbi"))
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator.annprocess)
+    annotationProcessor(project(":muyun-database-processor"))
+
+    implementation(libs.hdrhistogram)
+    implementation(libs.hikariCP)
+    implementation(libs.embedded.postgres)
+    runtimeOnly(libs.bundles.database.drivers)
+}
+
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+
+// ./gradlew :muyun-database-benchmarks:jmh [-Pjmh.include=SqlPlan] [-Pjmh.args="-f 1 -wi 2 -i 3"]
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks and writes JSON results to build/reports/jmh/results.json."
+
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val include = providers.gradleProperty("jmh.include").orElse(".*")
+    val extraArgs = providers.gradleProperty("jmh.args").orElse("")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(include.get(), "-rf", "json", "-rff", jmhResults.get().asFile.absolutePath) +
+                extraArgs.get().split(" ").filter { it.isNotBlank() }
+    })
+    doFirst {
+        jmhResults.get().asFile.parentFile.mkdirs()
+    }
+}
+
+// ./gradlew :muyun-database-benchmarks:jmhCompare -Pjmh.baseline=docs/perf-history/jmh-xxx.json [-Pjmh.threshold=10]
+tasks.register<JavaExec>("jmhCompare") {
+    group = "benchmark"
+    description = "Compares build/reports/jmh/results.json with a baseline JMH JSON file and fails on regressions."
+
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("net.ximatai.muyun.database.benchmarks.JmhResultComparison")
+    val baseline = providers.gradleProperty("jmh.baseline")
+    val threshold = providers.gradleProperty("jmh.threshold").orElse("10")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            rootProject.file(baseline.get()).absolutePath,
+            jmhResults.get().asFile.absolutePath,
+            threshold.get()
+        )
+    })
+}
+
+// ./gradlew :muyun-database-benchmarks:perfBaseline [-Pperf.jdbcUrl=jdbc:mysql://... -Pperf.user=... -Pperf.password=...]
+tasks.register<JavaExec>("perfBaseline") {
+    group = "benchmark"
+    description = "Runs the end-to-end EntityDao baseline and writes docs/perf-history/perf-baseline-YYYYMMDD.md."
+
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("net.ximatai.muyun.database.benchmarks.baseline.PerfBaselineRunner")
+    workingDir = rootProject.projectDir
+    val options = mapOf(
+        "jdbc-url" to "perf.jdbcUrl",
+        "user" to "perf.user",
+        "password" to "perf.password",
+        "warmup" to "perf.warmup",
+        "requests" to "perf.requests",
+        "baseline" to "perf.baseline"
+    ).mapValues { providers.gradleProperty(it.value) }
+    val version = project.version.toString()
+    val failedOutput = layout.buildDirectory.dir("reports/perf")
+    argumentProviders.add(CommandLineArgumentProvider {
+        options.filterValues { it.isPresent }.map { "--${it.key}=${it.value.get()}" } + listOf(
+            "--output-dir=${rootProject.file("docs/perf-history").absolutePath}",
+            "--failed-output-dir=${failedOutput.get().asFile.absolutePath}",
+            "--version=$version"
+        )
+    })
+}
@@ -0,0 +1,190 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.core.annotation.Column;
+import net.ximatai.muyun.database.core.annotation.Id;
+import net.ximatai.muyun.database.core.annotation.Table;
+import net.ximatai.muyun.database.core.builder.ColumnType;
+import net.ximatai.muyun.database.core.metadata.DBColumn;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基准共用的内存数据：一张 12 列的订单表（实体、列元数据、行数据）以及集合编码用的实体，全部不依赖数据库。
+ * 实体字段为包级可见，编译期生成的描述符可直接读写
+ */
+public final class BenchmarkFixtures {
+
+    public static final String SCHEMA = "bench";
+    public static final String TABLE = "bench_order";
+    public static final String PK = "id";
+
+    private static final String[] COLUMNS = {
+            "id", "v_code", "v_name", "v_status", "v_tenant_id", "n_amount",
+            "i_quantity", "i_priority", "b_deleted", "t_create", "t_update", "v_remark"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 表的列元数据，键为列名
+     */
+    public static Map<String, DBColumn> columnMap() {
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        for (String name : COLUMNS) {
+            DBColumn column = new DBColumn();
+            column.setName(name);
+            columns.put(name, column);
+        }
+        columns.get(PK).setPrimaryKey();
+        return columns;
+    }
+
+    /**
+     * 一行完整的写入数据，另带一个表中不存在的键
+     */
+    public static Map<String, Object> row(int index) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", "order-" + index);
+        row.put("v_code", "C" + index);
+        row.put("v_name", "order name " + index);
+        row.put("v_status", index % 3 == 0 ? "CLOSED" : "OPEN");
+        row.put("v_tenant_id", "tenant-" + index % 8);
+        row.put("n_amount", new BigDecimal("1024.50").add(BigDecimal.valueOf(index)));
+        row.put("i_quantity", index % 100);
+        row.put("i_priority", index % 5);
+        row.put("b_deleted", false);
+        row.put("t_create", new Timestamp(1_700_000_000_000L + index));
+        row.put("t_update", new Timestamp(1_700_000_100_000L + index));
+        row.put("v_remark", "remark " + index);
+        row.put("unknown_key", "ignored");
+        return row;
+    }
+
+    public static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = row(i);
+            row.remove("unknown_key");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static OrderEntity order(int index) {
+        OrderEntity order = new OrderEntity();
+        order.id = "order-" + index;
+        order.code = "C" + index;
+        order.name = "order name " + index;
+        order.status = index % 3 == 0 ? "CLOSED" : "OPEN";
+        order.tenantId = "tenant-" + index % 8;
+        order.amount = new BigDecimal("1024.50").add(BigDecimal.valueOf(index));
+        order.quantity = index % 100;
+        order.priority = index % 5;
+        order.deleted = false;
+        order.createdAt = new Timestamp(1_700_000_000_000L + index);
+        order.updatedAt = new Timestamp(1_700_000_100_000L + index);
+        order.remark = "remark " + index;
+        return order;
+    }
+
+    public static Set<String> tags(int count) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            tags.add("tag-" + i);
+        }
+        return tags;
+    }
+
+    @Table(name = TABLE, schema = SCHEMA)
+    public static class OrderEntity {
+        @Id
+        @Column(length = 64)
+        String id;
+
+        @Column(name = "v_code", length = 32)
+        String code;
+
+        @Column(name = "v_name")
+        String name;
+
+        @Column(name = "v_status", length = 16)
+        String status;
+
+        @Column(name = "v_tenant_id", length = 32)
+        String tenantId;
+
+        @Column(name = "n_amount", precision = 12, scale = 2)
+        BigDecimal amount;
+
+        @Column(name = "i_quantity")
+        Integer quantity;
+
+        @Column(name = "i_priority")
+        int priority;
+
+        @Column(name = "b_deleted")
+        Boolean deleted;
+
+        @Column(name = "t_create")
+        Timestamp createdAt;
+
+        @Column(name = "t_update")
+        Timestamp updatedAt;
+
+        @Column(name = "v_remark")
+        String remark;
+    }
+
+    @Table(name = "bench_tag_set", schema = SCHEMA)
+    public static class CsvSetEntity {
+        @Id
+        @Column
+        String id;
+
+        @Column(type = ColumnType.SET)
+        Set<String> tags;
+
+        public CsvSetEntity tags(Set<String> tags) {
+            this.tags = tags;
+            return this;
+        }
+    }
+
+    @Table(name = "bench_tag_json_set", schema = SCHEMA)
+    public static class JsonSetEntity {
+        @Id
+        @Column
+        String id;
+
+        @Column(type = ColumnType.JSON_SET)
+        Set<String> tags;
+
+        public JsonSetEntity tags(Set<String> tags) {
+            this.tags = tags;
+            return this;
+        }
+    }
+
+    @Table(name = "bench_tag_array", schema = SCHEMA)
+    public static class ArrayEntity {
+        @Id
+        @Column
+        String id;
+
+        @Column(type = ColumnType.ARRAY)
+        List<String> tags;
+
+        public ArrayEntity tags(Set<String> tags) {
+            this.tags = new ArrayList<>(tags);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.core.orm.EntityMapper;
+import net.ximatai.muyun.database.core.orm.EntityMeta;
+import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集合列（SET / JSON_SET / ARRAY）的写入编码与读取解码。FieldValueCodec 不对外公开，
+ * 这里通过只含一个集合列的实体经 {@link EntityMapper} 测量，主键不参与编码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionCodecBenchmark {
+
+    @Param({"SET", "JSON_SET", "ARRAY"})
+    public String columnType;
+
+    @Param({"4", "64"})
+    public int size;
+
+    private EntityMeta meta;
+    private Object entity;
+    private Map<String, Object> row;
+
+    @Setup
+    public void setUp() {
+        Set<String> tags = BenchmarkFixtures.tags(size);
+        entity = switch (columnType) {
+            case "SET" -> new BenchmarkFixtures.CsvSetEntity().tags(tags);
+            case "JSON_SET" -> new BenchmarkFixtures.JsonSetEntity().tags(tags);
+            case "ARRAY" -> new BenchmarkFixtures.ArrayEntity().tags(tags);
+            default -> throw new IllegalArgumentException("Unsupported column type: " + columnType);
+        };
+        meta = new EntityMetaResolver().resolve(entity.getClass());
+        row = EntityMapper.toMap(meta, entity, false, false);
+    }
+
+    @Benchmark
+    public Map<String, Object> encode() {
+        return EntityMapper.toMap(meta, entity, false, false);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return EntityMapper.fromMap(meta, row, meta.getEntityClass());
+    }
+}
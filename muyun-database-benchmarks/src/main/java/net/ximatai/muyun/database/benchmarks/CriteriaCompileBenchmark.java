@@ -0,0 +1,99 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.orm.CompiledCriteria;
+import net.ximatai.muyun.database.core.orm.Criteria;
+import net.ximatai.muyun.database.core.orm.CriteriaCompileOptions;
+import net.ximatai.muyun.database.core.orm.CriteriaSqlCompiler;
+import net.ximatai.muyun.database.core.orm.DatabaseValueConverter;
+import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
+import net.ximatai.muyun.database.core.orm.InListStrategy;
+import net.ximatai.muyun.database.core.orm.TableMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Criteria 编译开销：常见的列表页条件与带嵌套分组、长 IN 列表的条件，对比模板缓存开启与关闭
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaCompileBenchmark {
+
+    @Param({"512", "0"})
+    public int templateCacheSize;
+
+    @Param({"POSTGRESQL", "MYSQL"})
+    public DBInfo.Type dbType;
+
+    private CriteriaSqlCompiler compiler;
+    private CriteriaSqlCompiler paddedCompiler;
+    private TableMeta tableMeta;
+    private List<String> codes;
+
+    @Setup
+    public void setUp() {
+        CriteriaCompileOptions options = CriteriaCompileOptions.defaults().withTemplateCacheSize(templateCacheSize);
+        compiler = new CriteriaSqlCompiler(DatabaseValueConverter.DEFAULT, options);
+        paddedCompiler = new CriteriaSqlCompiler(DatabaseValueConverter.DEFAULT,
+                options.withInListStrategy(InListStrategy.PADDED));
+        tableMeta = new EntityMetaResolver().resolve(BenchmarkFixtures.OrderEntity.class).asTableMeta();
+        codes = IntStream.range(0, 37).mapToObj(i -> "C" + i).toList();
+    }
+
+    @Benchmark
+    public CompiledCriteria listPage() {
+        Criteria criteria = Criteria.of()
+                .eq("tenantId", "tenant-1")
+                .eq("deleted", false)
+                .in("status", List.of("OPEN", "PENDING"))
+                .like("name", "%order%");
+        return compiler.compile(criteria, tableMeta, dbType);
+    }
+
+    @Benchmark
+    public CompiledCriteria nestedGroups() {
+        Criteria criteria = Criteria.of()
+                .eq("tenantId", "tenant-1")
+                .between("createdAt", new Timestamp(1_700_000_000_000L), new Timestamp(1_800_000_000_000L))
+                .andGroup(group -> group
+                        .gte("amount", new BigDecimal("100.00"))
+                        .orGroup(inner -> inner
+                                .eq("priority", 1)
+                                .isNotNull("remark")))
+                .andGroup(group -> group
+                        .eq("status", "OPEN")
+                        .orEq("status", "PENDING")
+                        .orIsNull("updatedAt"))
+                .notIn("code", List.of("X1", "X2", "X3"));
+        return compiler.compile(criteria, tableMeta, dbType);
+    }
+
+    @Benchmark
+    public CompiledCriteria longInList() {
+        return compiler.compile(Criteria.of().eq("tenantId", "tenant-1").in("code", codes), tableMeta, dbType);
+    }
+
+    @Benchmark
+    public CompiledCriteria longInListPadded() {
+        return paddedCompiler.compile(Criteria.of().eq("tenantId", "tenant-1").in("code", codes), tableMeta, dbType);
+    }
+}
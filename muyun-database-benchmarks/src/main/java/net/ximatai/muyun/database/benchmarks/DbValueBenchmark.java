@@ -0,0 +1,80 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
+import net.ximatai.muyun.database.jdbi.JdbiMetaDataLoader;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写入前按列类型转换参数值（{@code getDBValue}）的开销。Jdbi 连接工厂在被使用时直接报错，确保基准不触达数据库
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbValueBenchmark {
+
+    private JdbiDatabaseOperations<String> operations;
+    private List<String> stringArray;
+    private List<Object> numberArray;
+
+    @Setup
+    public void setUp() {
+        Jdbi jdbi = Jdbi.create(() -> {
+            throw new SQLException("Benchmarks must not open database connections");
+        });
+        operations = new JdbiDatabaseOperations<>(jdbi, new JdbiMetaDataLoader(jdbi), String.class, "id");
+        stringArray = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+        numberArray = List.of(1, "2", 3L, 4, "5", 6, 7L, "8");
+    }
+
+    @Benchmark
+    public Object varchar() {
+        return operations.getDBValue(12345, "varchar");
+    }
+
+    @Benchmark
+    public Object int8FromString() {
+        return operations.getDBValue("9007199254740993", "int8");
+    }
+
+    @Benchmark
+    public Object numericFromString() {
+        return operations.getDBValue("1024.50", "numeric");
+    }
+
+    @Benchmark
+    public Object timestampFromString() {
+        return operations.getDBValue("2024-05-01 12:30:00", "timestamp");
+    }
+
+    @Benchmark
+    public Object bool() {
+        return operations.getDBValue("true", "bool");
+    }
+
+    @Benchmark
+    public Object varcharArray() {
+        return operations.getDBValue(stringArray, "_varchar");
+    }
+
+    @Benchmark
+    public Object int4Array() {
+        return operations.getDBValue(numberArray, "_int4");
+    }
+}
@@ -0,0 +1,87 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.core.annotation.AnnotationProcessor;
+import net.ximatai.muyun.database.core.orm.EntityMapper;
+import net.ximatai.muyun.database.core.orm.EntityMeta;
+import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体与行 Map 互转：单行 toMap/fromMap，以及按 10000 行结果集逐行 fromMap（结果按每行折算）。
+ * metadata=descriptor 使用 muyun-database-processor 生成的描述符，reflection 使用注解反射解析的元数据
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"descriptor", "reflection"})
+    public String metadata;
+
+    private EntityMeta meta;
+    private BenchmarkFixtures.OrderEntity order;
+    private Map<String, Object> row;
+    private Map<String, Object> upperCaseRow;
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() {
+        EntityMetaResolver resolver = "descriptor".equals(metadata)
+                ? new EntityMetaResolver()
+                : new EntityMetaResolver(AnnotationProcessor::fromEntityClass);
+        meta = resolver.resolve(BenchmarkFixtures.OrderEntity.class);
+        order = BenchmarkFixtures.order(1);
+        row = BenchmarkFixtures.rows(1).getFirst();
+        upperCaseRow = new LinkedHashMap<>();
+        row.forEach((column, value) -> upperCaseRow.put(column.toUpperCase(), value));
+        rows = BenchmarkFixtures.rows(ROWS);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return EntityMapper.toMap(meta, order, false, true);
+    }
+
+    @Benchmark
+    public BenchmarkFixtures.OrderEntity fromMap() {
+        return EntityMapper.fromMap(meta, row, BenchmarkFixtures.OrderEntity.class);
+    }
+
+    /**
+     * 列名大小写与注解不一致（如 Oracle 风格的大写标签）时的映射
+     */
+    @Benchmark
+    public BenchmarkFixtures.OrderEntity fromMapCaseInsensitive() {
+        return EntityMapper.fromMap(meta, upperCaseRow, BenchmarkFixtures.OrderEntity.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromMapRows(Blackhole blackhole) {
+        for (Map<String, Object> current : rows) {
+            blackhole.consume(EntityMapper.fromMap(meta, current, BenchmarkFixtures.OrderEntity.class));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比两份 JMH JSON 结果（{@code -rf json}），按基准方法与参数逐项输出变化百分比；
+ * 任一项劣化超过阈值（默认 10%）时以退出码 1 结束。吞吐类模式（thrpt）以下降为劣化，其余模式以耗时上升为劣化
+ * <p>
+ * 用法：{@code JmhResultComparison <baseline.json> <current.json> [thresholdPercent]}
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.score(), now.score(), change, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", missing, baseline.get(missing).score(), "-", "missing");
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonNode> param : run.path("params").properties()) {
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String mode = run.path("mode").asText();
+            JsonNode metric = run.path("primaryMetric");
+            String key = run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString())
+                    + " [" + mode + ", " + metric.path("scoreUnit").asText() + "]";
+            results.put(key, new Result(metric.path("score").asDouble(), "thrpt".equals(mode)));
+        }
+        return results;
+    }
+
+    private record Result(double score, boolean higherIsBetter) {
+    }
+}
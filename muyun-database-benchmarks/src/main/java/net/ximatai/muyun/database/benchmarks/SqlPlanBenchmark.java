@@ -0,0 +1,77 @@
+package net.ximatai.muyun.database.benchmarks;
+
+import net.ximatai.muyun.database.core.metadata.DBColumn;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.sql.SqlPlanBuilder;
+import net.ximatai.muyun.database.core.sql.SqlPlanCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写入 SQL 的渲染开销：每次调用都重新渲染的 prepare* 与经 {@link SqlPlanCache} 复用的 cached*
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlPlanBenchmark {
+
+    @Param({"POSTGRESQL", "MYSQL"})
+    public DBInfo.Type dbType;
+
+    private Map<String, DBColumn> columnMap;
+    private Map<String, Object> row;
+    private List<String> upsertColumns;
+    private SqlPlanCache cache;
+
+    @Setup
+    public void setUp() {
+        columnMap = BenchmarkFixtures.columnMap();
+        row = BenchmarkFixtures.row(1);
+        upsertColumns = SqlPlanBuilder.writableColumns(row, columnMap);
+        cache = new SqlPlanCache(64);
+    }
+
+    @Benchmark
+    public SqlPlanBuilder.InsertPlan prepareInsertPlan() {
+        return SqlPlanBuilder.prepareInsertPlan(BenchmarkFixtures.SCHEMA, BenchmarkFixtures.TABLE, row, columnMap, dbType);
+    }
+
+    @Benchmark
+    public SqlPlanBuilder.InsertPlan cachedInsertPlan() {
+        return SqlPlanBuilder.cachedInsertPlan(cache, BenchmarkFixtures.SCHEMA, BenchmarkFixtures.TABLE, row, columnMap, dbType);
+    }
+
+    @Benchmark
+    public SqlPlanBuilder.PreparedSql prepareUpdateSql() {
+        return SqlPlanBuilder.prepareUpdateSql(BenchmarkFixtures.SCHEMA, BenchmarkFixtures.TABLE, row, columnMap,
+                BenchmarkFixtures.PK, dbType);
+    }
+
+    @Benchmark
+    public SqlPlanBuilder.PreparedSql cachedUpdateSql() {
+        return SqlPlanBuilder.cachedUpdatePlan(cache, BenchmarkFixtures.SCHEMA, BenchmarkFixtures.TABLE, row, columnMap,
+                BenchmarkFixtures.PK, dbType).bind(row);
+    }
+
+    @Benchmark
+    public SqlPlanBuilder.PreparedSql prepareAtomicUpsertSql() {
+        return SqlPlanBuilder.prepareAtomicUpsertSql(BenchmarkFixtures.SCHEMA, BenchmarkFixtures.TABLE, upsertColumns,
+                BenchmarkFixtures.PK, row, dbType);
+    }
+}
@@ -0,0 +1,217 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按 docs/PERFORMANCE_BASELINE.md 的格式输出基线报告，并从已归档的报告中读回第 2 节的指标
+ */
+final class BaselineReport {
+
+    static final String MYSQL = "MySQL";
+    static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String THROUGHPUT = "吞吐 (ops/s)";
+    private static final String P95 = "P95 (ms)";
+    private static final String P99 = "P99 (ms)";
+
+    private BaselineReport() {
+    }
+
+    static String key(String database, String scenario, int concurrency) {
+        return database + "/" + scenario + "/" + concurrency;
+    }
+
+    static String render(Environment environment,
+                         List<ScenarioResult> crud,
+                         List<ScenarioResult> contention,
+                         List<SemanticCheck> checks,
+                         String baselineName,
+                         List<RegressionGate.Comparison> comparisons,
+                         boolean passed) {
+        StringBuilder out = new StringBuilder();
+        out.append("# 性能基线 ").append(environment.date()).append("\n\n");
+
+        out.append("## 1. 测试环境\n\n");
+        out.append("1. 日期：").append(environment.date()).append('\n');
+        out.append("2. 版本（git commit/tag）：").append(environment.version()).append('\n');
+        out.append("3. 数据库（MySQL/PostgreSQL）：").append(environment.databaseProduct()).append('\n');
+        out.append("4. 机器规格（CPU/内存）：").append(environment.machine()).append('\n');
+        out.append("5. JVM 参数：").append(environment.jvm()).append('\n');
+        out.append("6. 请求数：").append(environment.requests()).append("\n\n");
+
+        out.append("## 2. 场景与指标\n\n");
+        out.append("### 2.1 单表 CRUD 与查询（EntityDao）\n\n");
+        for (String database : List.of(MYSQL, POSTGRESQL)) {
+            out.append("#### ").append(database).append("\n\n");
+            if (!database.equals(environment.database())) {
+                out.append("本次未测。\n\n");
+                continue;
+            }
+            out.append("| 场景 | 并发 | ").append(THROUGHPUT).append(" | P50 (ms) | ").append(P95).append(" | ").append(P99).append(" |\n");
+            out.append("| --- | --- | ---: | ---: | ---: | ---: |\n");
+            for (ScenarioResult result : crud) {
+                out.append("| ").append(result.scenario())
+                        .append(" | ").append(result.concurrency())
+                        .append(" | ").append(format(result.opsPerSecond(), 1))
+                        .append(" | ").append(format(result.p50(), 3))
+                        .append(" | ").append(format(result.p95(), 3))
+                        .append(" | ").append(format(result.p99(), 3))
+                        .append(" |\n");
+            }
+            out.append('\n');
+        }
+
+        out.append("### 2.2 并发 atomic upsert\n\n");
+        for (String database : List.of(MYSQL, POSTGRESQL)) {
+            out.append("#### ").append(database).append("\n\n");
+            if (!database.equals(environment.database())) {
+                out.append("本次未测。\n\n");
+                continue;
+            }
+            out.append("| 场景 | 并发 | 总请求 | 错误数 | ").append(THROUGHPUT).append(" | ").append(P95).append(" | ").append(P99).append(" |\n");
+            out.append("| --- | --- | ---: | ---: | ---: | ---: | ---: |\n");
+            for (ScenarioResult result : contention) {
+                out.append("| ").append(result.scenario())
+                        .append(" | ").append(result.concurrency())
+                        .append(" | ").append(result.requests())
+                        .append(" | ").append(result.errors())
+                        .append(" | ").append(format(result.opsPerSecond(), 1))
+                        .append(" | ").append(format(result.p95(), 3))
+                        .append(" | ").append(format(result.p99(), 3))
+                        .append(" |\n");
+            }
+            out.append('\n');
+        }
+
+        out.append("## 3. 语义校验\n\n");
+        for (int i = 0; i < checks.size(); i++) {
+            SemanticCheck check = checks.get(i);
+            out.append(i + 1).append(". ").append(check.passed() ? "通过" : "未通过").append("：")
+                    .append(check.description());
+            if (check.detail() != null && !check.detail().isBlank()) {
+                out.append("（").append(check.detail()).append("）");
+            }
+            out.append('\n');
+        }
+        out.append('\n');
+
+        out.append("## 4. 发布门槛\n\n");
+        out.append("门槛：吞吐下降不超过 ").append(format(RegressionGate.MAX_THROUGHPUT_DROP_PERCENT, 0))
+                .append("%，P95/P99 回归不超过 ").append(format(RegressionGate.MAX_LATENCY_INCREASE_PERCENT, 0))
+                .append("%，语义校验全部通过。\n\n");
+        if (baselineName == null) {
+            out.append("没有可对比的历史基线，本次结果作为首个基线。\n\n");
+        } else {
+            out.append("对比基线：`").append(baselineName).append("`\n\n");
+            if (comparisons.isEmpty()) {
+                out.append("基线中没有与本次相同数据库的场景。\n\n");
+            } else {
+                out.append("| 场景 | 并发 | 指标 | 基线 | 本次 | 变化 | 结论 |\n");
+                out.append("| --- | --- | --- | ---: | ---: | ---: | --- |\n");
+                for (RegressionGate.Comparison comparison : comparisons) {
+                    int digits = comparison.metric().equals(THROUGHPUT) ? 1 : 3;
+                    out.append("| ").append(comparison.scenario())
+                            .append(" | ").append(comparison.concurrency())
+                            .append(" | ").append(comparison.metric())
+                            .append(" | ").append(format(comparison.baseline(), digits))
+                            .append(" | ").append(format(comparison.current(), digits))
+                            .append(" | ").append(String.format(Locale.ROOT, "%+.1f%%", comparison.changePercent()))
+                            .append(" | ").append(comparison.passed() ? "通过" : "超出门槛")
+                            .append(" |\n");
+                }
+                out.append('\n');
+            }
+        }
+        out.append("结论：").append(passed ? "通过" : "未通过").append('\n');
+        return out.toString();
+    }
+
+    /**
+     * 读取报告第 2 节各表格的吞吐与 P95/P99，键为 {@link #key(String, String, int)}；
+     * 未填写数值的行（如 PERFORMANCE_BASELINE.md 中的空模板）会被跳过
+     */
+    static Map<String, Metrics> parse(List<String> lines) {
+        Map<String, Metrics> metrics = new HashMap<>();
+        String database = null;
+        List<String> header = null;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("## ") && !trimmed.startsWith("## 2.")) {
+                if (trimmed.startsWith("## 3")) {
+                    break;
+                }
+                continue;
+            }
+            if (trimmed.startsWith("#### ")) {
+                database = trimmed.substring(5).trim();
+                header = null;
+                continue;
+            }
+            if (!trimmed.startsWith("|")) {
+                header = null;
+                continue;
+            }
+            if (database == null) {
+                continue;
+            }
+            List<String> cells = cells(trimmed);
+            if (header == null) {
+                header = cells;
+                continue;
+            }
+            if (cells.getFirst().startsWith("---")) {
+                continue;
+            }
+            int throughput = header.indexOf(THROUGHPUT);
+            int p95 = header.indexOf(P95);
+            int p99 = header.indexOf(P99);
+            int concurrency = header.indexOf("并发");
+            if (throughput < 0 || p95 < 0 || p99 < 0 || concurrency < 0 || cells.size() < header.size()) {
+                continue;
+            }
+            try {
+                metrics.put(
+                        key(database, cells.getFirst(), Integer.parseInt(cells.get(concurrency))),
+                        new Metrics(
+                                Double.parseDouble(cells.get(throughput)),
+                                Double.parseDouble(cells.get(p95)),
+                                Double.parseDouble(cells.get(p99))
+                        )
+                );
+            } catch (NumberFormatException e) {
+                // 模板中的空白行
+            }
+        }
+        return metrics;
+    }
+
+    private static List<String> cells(String row) {
+        String body = row.substring(1, row.endsWith("|") ? row.length() - 1 : row.length());
+        return Arrays.stream(body.split("\\|", -1)).map(String::trim).toList();
+    }
+
+    private static String format(double value, int digits) {
+        return String.format(Locale.ROOT, "%." + digits + "f", value);
+    }
+
+    record Metrics(double opsPerSecond, double p95, double p99) {
+    }
+
+    /**
+     * 报告第 1 节的测试环境
+     *
+     * @param database 本次测量填入的小节（{@link #MYSQL} / {@link #POSTGRESQL}）
+     */
+    record Environment(String date,
+                       String version,
+                       String database,
+                       String databaseProduct,
+                       String machine,
+                       String jvm,
+                       String requests) {
+    }
+}
@@ -0,0 +1,86 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import net.ximatai.muyun.database.core.orm.Criteria;
+import net.ximatai.muyun.database.core.orm.EntityDao;
+import net.ximatai.muyun.database.core.orm.PageRequest;
+import net.ximatai.muyun.database.core.orm.PageResult;
+import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
+import net.ximatai.muyun.database.core.orm.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 不依赖 Spring/Quarkus 的 {@link EntityDao}，与两者仓库代理相同地把调用转给 {@link SimpleEntityManager}
+ */
+final class EntityManagerDao<T, ID> implements EntityDao<T, ID> {
+
+    private final Class<T> entityClass;
+    private final SimpleEntityManager entityManager;
+
+    EntityManagerDao(Class<T> entityClass, SimpleEntityManager entityManager) {
+        this.entityClass = Objects.requireNonNull(entityClass, "entityClass must not be null");
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager must not be null");
+    }
+
+    @Override
+    public boolean ensureTable() {
+        return entityManager.ensureTable(entityClass);
+    }
+
+    @Override
+    public ID insert(T entity) {
+        return entityManager.insert(entity);
+    }
+
+    @Override
+    public List<ID> insertAll(Collection<T> entities) {
+        return entityManager.insertAll(entities);
+    }
+
+    @Override
+    public int updateById(T entity) {
+        return entityManager.update(entity);
+    }
+
+    @Override
+    public int deleteById(ID id) {
+        return entityManager.deleteById(entityClass, id);
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return entityManager.exists(entityClass, id);
+    }
+
+    @Override
+    public T findById(ID id) {
+        return entityManager.findById(entityClass, id);
+    }
+
+    @Override
+    public List<T> query(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
+        return entityManager.query(entityClass, criteria, pageRequest, sorts);
+    }
+
+    @Override
+    public PageResult<T> pageQuery(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
+        return entityManager.pageQuery(entityClass, criteria, pageRequest, sorts);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return entityManager.count(entityClass, criteria);
+    }
+
+    @Override
+    public int upsert(T entity) {
+        return entityManager.upsert(entity);
+    }
+
+    @Override
+    public int[] upsertAll(Collection<T> entities) {
+        return entityManager.upsertAll(entities);
+    }
+}
@@ -0,0 +1,287 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.orm.Criteria;
+import net.ximatai.muyun.database.core.orm.DefaultSimpleEntityManager;
+import net.ximatai.muyun.database.core.orm.EntityDao;
+import net.ximatai.muyun.database.core.orm.PageRequest;
+import net.ximatai.muyun.database.core.orm.Sort;
+import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
+import net.ximatai.muyun.database.jdbi.JdbiMetaDataLoader;
+import org.jdbi.v3.core.Jdbi;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 端到端性能基线：经 {@link JdbiDatabaseOperations} 驱动 {@link EntityDao}，跑 PERFORMANCE_BASELINE.md 中的场景，
+ * 以 HdrHistogram 统计 P50/P95/P99 与吞吐，生成 {@code perf-baseline-YYYYMMDD.md}。
+ * <p>
+ * 未指定 {@code --jdbc-url} 时启动嵌入式 PostgreSQL；指定后可对任意 MySQL/PostgreSQL 实例测量。
+ * 与最近一份历史基线相比超出门槛或语义校验失败时，报告改写到 {@code --failed-output-dir} 并以退出码 1 结束。
+ * <p>
+ * 参数：{@code --jdbc-url --user --password --warmup --requests --output-dir --failed-output-dir --baseline --version}
+ */
+public final class PerfBaselineRunner {
+
+    private static final int SEED_ROWS = 10_000;
+    private static final int SEED_BATCH = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String REPORT_PREFIX = "perf-baseline-";
+
+    private PerfBaselineRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!run(parse(args))) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return 是否通过语义校验与发布门槛
+     */
+    private static boolean run(Map<String, String> options) throws Exception {
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "500"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "5000"));
+        Path outputDir = Path.of(options.getOrDefault("output-dir", "docs/perf-history"));
+        Path failedOutputDir = Path.of(options.getOrDefault("failed-output-dir", "build/reports/perf"));
+
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = options.get("jdbc-url");
+        String user = options.getOrDefault("user", "");
+        String password = options.getOrDefault("password", "");
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            user = "postgres";
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(32);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            Jdbi jdbi = Jdbi.create(dataSource);
+            JdbiDatabaseOperations<String> operations =
+                    new JdbiDatabaseOperations<>(jdbi, new JdbiMetaDataLoader(jdbi), String.class, "id");
+            EntityDao<PerfOrder, String> dao =
+                    new EntityManagerDao<>(PerfOrder.class, new DefaultSimpleEntityManager(operations));
+
+            boolean mysql = operations.getDBInfo().getDatabaseType() == DBInfo.Type.MYSQL;
+            String database = mysql ? BaselineReport.MYSQL : BaselineReport.POSTGRESQL;
+            String product = jdbi.withHandle(handle -> {
+                DatabaseMetaData metaData = handle.getConnection().getMetaData();
+                return metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion();
+            }) + (embedded == null ? "" : "（嵌入式）");
+
+            prepare(operations, dao);
+
+            ScenarioRunner runner = new ScenarioRunner(warmup, requests);
+            List<ScenarioResult> crud = new ArrayList<>();
+            crud.add(runner.run("insert", 1, i -> dao.insert(PerfOrder.of("insert-" + i, i))));
+            crud.add(runner.run("update", 1, i -> {
+                PerfOrder order = PerfOrder.of(seedId(i % SEED_ROWS), i);
+                order.name = "updated " + i;
+                dao.updateById(order);
+            }));
+            crud.add(runner.run("query", 1, i ->
+                    dao.query(criteria(i), PageRequest.of(1, PAGE_SIZE), Sort.desc("createdAt"))));
+            crud.add(runner.run("pageQuery", 1, i ->
+                    dao.pageQuery(criteria(i), PageRequest.of(1 + i % 5, PAGE_SIZE), Sort.desc("createdAt"))));
+            crud.add(runner.run("count", 1, i -> dao.count(criteria(i))));
+
+            List<SemanticCheck> checks = new ArrayList<>();
+            List<ScenarioResult> contention = new ArrayList<>();
+            contention.add(contention(runner, dao, "same-pk contention", 12, checks));
+            contention.add(contention(runner, dao, "high contention", 24, checks));
+
+            checks.add(errorCheck(crud, contention));
+            checks.add(leakCheck(dataSource));
+
+            List<ScenarioResult> all = new ArrayList<>(crud);
+            all.addAll(contention);
+
+            String date = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+            String fileName = REPORT_PREFIX + date + ".md";
+            Optional<Path> baseline = options.containsKey("baseline")
+                    ? Optional.of(Path.of(options.get("baseline")))
+                    : latestBaseline(outputDir, fileName);
+            List<RegressionGate.Comparison> comparisons = baseline.isPresent()
+                    ? RegressionGate.compare(database, all,
+                    BaselineReport.parse(Files.readAllLines(baseline.get(), StandardCharsets.UTF_8)))
+                    : List.of();
+            boolean passed = checks.stream().allMatch(SemanticCheck::passed)
+                    && comparisons.stream().allMatch(RegressionGate.Comparison::passed);
+
+            BaselineReport.Environment environment = new BaselineReport.Environment(
+                    LocalDate.now().toString(),
+                    version(options.getOrDefault("version", "")),
+                    database,
+                    product,
+                    machine(),
+                    jvm(),
+                    "每个场景预热 " + warmup + " 次、计时 " + requests + " 次；表中预置 " + SEED_ROWS + " 行"
+            );
+            String report = BaselineReport.render(
+                    environment,
+                    crud,
+                    contention,
+                    checks,
+                    baseline.map(path -> path.getFileName().toString()).orElse(null),
+                    comparisons,
+                    passed
+            );
+
+            Path target = (passed ? outputDir : failedOutputDir).resolve(fileName);
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, report, StandardCharsets.UTF_8);
+            System.out.println(report);
+            System.out.println((passed ? "Baseline written to " : "Regression gate failed, report written to ")
+                    + target.toAbsolutePath());
+            return passed;
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static void prepare(JdbiDatabaseOperations<String> operations, EntityDao<PerfOrder, String> dao) {
+        dao.ensureTable();
+        operations.execute("delete from perf_order");
+        List<PerfOrder> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < SEED_ROWS; i++) {
+            batch.add(PerfOrder.of(seedId(i), i));
+            if (batch.size() == SEED_BATCH) {
+                dao.insertAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static ScenarioResult contention(ScenarioRunner runner,
+                                             EntityDao<PerfOrder, String> dao,
+                                             String scenario,
+                                             int concurrency,
+                                             List<SemanticCheck> checks) throws InterruptedException {
+        String id = "contention-" + concurrency;
+        ScenarioResult result = runner.run(scenario, concurrency, i -> dao.upsert(PerfOrder.of(id, i)));
+        long rows = dao.count(Criteria.of().eq("id", id));
+        checks.add(new SemanticCheck(
+                scenario + " 并发写后，目标主键仅保留单行",
+                rows == 1,
+                "主键 " + id + " 共 " + rows + " 行"
+        ));
+        return result;
+    }
+
+    private static SemanticCheck errorCheck(List<ScenarioResult> crud, List<ScenarioResult> contention) {
+        List<String> failures = Stream.concat(crud.stream(), contention.stream())
+                .filter(result -> result.errors() > 0)
+                .map(result -> result.scenario() + " 错误 " + result.errors() + " 次，首个：" + result.firstError())
+                .toList();
+        return new SemanticCheck("无异常（包括唯一约束冲突）泄漏到业务层", failures.isEmpty(), String.join("；", failures));
+    }
+
+    private static SemanticCheck leakCheck(HikariDataSource dataSource) throws InterruptedException {
+        int active = dataSource.getHikariPoolMXBean().getActiveConnections();
+        for (int i = 0; i < 50 && active > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            active = dataSource.getHikariPoolMXBean().getActiveConnections();
+        }
+        return new SemanticCheck("回归执行期间无连接泄漏", active == 0, "结束时活跃连接 " + active);
+    }
+
+    private static Criteria criteria(int index) {
+        return Criteria.of()
+                .eq("status", PerfOrder.STATUSES[index % PerfOrder.STATUSES.length])
+                .eq("tenantId", PerfOrder.tenant(index));
+    }
+
+    private static String seedId(int index) {
+        return String.format("seed-%06d", index);
+    }
+
+    /**
+     * 最近一份历史报告（文件名按日期排序），不包括本次将要写入的同名文件
+     */
+    private static Optional<Path> latestBaseline(Path outputDir, String currentFileName) throws IOException {
+        if (!Files.isDirectory(outputDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(outputDir)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(REPORT_PREFIX) && name.endsWith(".md") && !name.equals(currentFileName);
+                    })
+                    .max((left, right) -> left.getFileName().toString().compareTo(right.getFileName().toString()));
+        }
+    }
+
+    private static String version(String projectVersion) {
+        String commit = "";
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (process.waitFor() == 0) {
+                commit = output;
+            }
+        } catch (IOException e) {
+            // 不在 git 工作区时只记录项目版本
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (commit.isEmpty()) {
+            return projectVersion;
+        }
+        return projectVersion.isEmpty() ? commit : projectVersion + "（" + commit + "）";
+    }
+
+    private static String machine() {
+        String memory = "";
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            memory = "，内存 " + os.getTotalMemorySize() / (1024 * 1024) + " MB";
+        }
+        return Runtime.getRuntime().availableProcessors() + " 核" + memory + "，"
+                + System.getProperty("os.name") + " " + System.getProperty("os.arch");
+    }
+
+    private static String jvm() {
+        List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        return "Java " + Runtime.version() + "，" + (arguments.isEmpty() ? "默认参数" : String.join(" ", arguments));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            String value = arg.substring(split + 1);
+            if (!value.isEmpty()) {
+                options.put(arg.substring(2, split), value);
+            }
+        }
+        return options;
+    }
+}
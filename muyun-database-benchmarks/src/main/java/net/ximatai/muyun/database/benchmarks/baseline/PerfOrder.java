@@ -0,0 +1,67 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import net.ximatai.muyun.database.core.annotation.Column;
+import net.ximatai.muyun.database.core.annotation.Id;
+import net.ximatai.muyun.database.core.annotation.Indexed;
+import net.ximatai.muyun.database.core.annotation.Table;
+import net.ximatai.muyun.database.core.builder.ColumnType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * 端到端基线使用的订单表，按状态与租户查询、按创建时间排序
+ */
+@Table(name = "perf_order")
+public class PerfOrder {
+
+    static final String[] STATUSES = {"OPEN", "CLOSED", "PENDING"};
+    static final int TENANTS = 8;
+
+    @Id
+    @Column(type = ColumnType.VARCHAR, length = 64, nullable = false)
+    String id;
+
+    @Column(name = "v_code", length = 32)
+    String code;
+
+    @Column(name = "v_name", length = 128)
+    String name;
+
+    @Indexed
+    @Column(name = "v_status", length = 16)
+    String status;
+
+    @Indexed
+    @Column(name = "v_tenant_id", length = 32)
+    String tenantId;
+
+    @Column(name = "n_amount", precision = 12, scale = 2)
+    BigDecimal amount;
+
+    @Column(name = "i_quantity")
+    Integer quantity;
+
+    @Column(name = "t_create")
+    Timestamp createdAt;
+
+    public PerfOrder() {
+    }
+
+    static PerfOrder of(String id, int index) {
+        PerfOrder order = new PerfOrder();
+        order.id = id;
+        order.code = "C" + index;
+        order.name = "order " + index;
+        order.status = STATUSES[index % STATUSES.length];
+        order.tenantId = tenant(index);
+        order.amount = BigDecimal.valueOf(index % 10_000, 2);
+        order.quantity = index % 100;
+        order.createdAt = new Timestamp(1_700_000_000_000L + index * 1000L);
+        return order;
+    }
+
+    static String tenant(int index) {
+        return "tenant-" + index % TENANTS;
+    }
+}
@@ -0,0 +1,59 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发布门槛：与基线相比吞吐下降不超过 10%，P95/P99 上升不超过 15%
+ */
+final class RegressionGate {
+
+    static final double MAX_THROUGHPUT_DROP_PERCENT = 10;
+    static final double MAX_LATENCY_INCREASE_PERCENT = 15;
+
+    private RegressionGate() {
+    }
+
+    /**
+     * 逐项对比本次结果与基线；基线中没有的场景不参与对比
+     *
+     * @param database 本次测量的数据库小节名（MySQL / PostgreSQL）
+     */
+    static List<Comparison> compare(String database,
+                                    List<ScenarioResult> results,
+                                    Map<String, BaselineReport.Metrics> baseline) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            BaselineReport.Metrics before = baseline.get(BaselineReport.key(database, result.scenario(), result.concurrency()));
+            if (before == null) {
+                continue;
+            }
+            comparisons.add(compare(result, "吞吐 (ops/s)", before.opsPerSecond(), result.opsPerSecond(), true));
+            comparisons.add(compare(result, "P95 (ms)", before.p95(), result.p95(), false));
+            comparisons.add(compare(result, "P99 (ms)", before.p99(), result.p99(), false));
+        }
+        return comparisons;
+    }
+
+    private static Comparison compare(ScenarioResult result,
+                                      String metric,
+                                      double before,
+                                      double now,
+                                      boolean higherIsBetter) {
+        double change = before == 0 ? 0 : (now - before) / before * 100;
+        double limit = higherIsBetter ? MAX_THROUGHPUT_DROP_PERCENT : MAX_LATENCY_INCREASE_PERCENT;
+        double worse = higherIsBetter ? -change : change;
+        return new Comparison(result.scenario(), result.concurrency(), metric, before, now, change, limit, worse <= limit);
+    }
+
+    record Comparison(String scenario,
+                      int concurrency,
+                      String metric,
+                      double baseline,
+                      double current,
+                      double changePercent,
+                      double limitPercent,
+                      boolean passed) {
+    }
+}
@@ -0,0 +1,25 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+/**
+ * 单个场景的测量结果，延迟单位为毫秒
+ *
+ * @param scenario     场景名，与 PERFORMANCE_BASELINE.md 表格中的名称一致
+ * @param concurrency  并发线程数
+ * @param requests     计时阶段的总请求数
+ * @param errors       抛出异常的请求数
+ * @param opsPerSecond 吞吐
+ * @param p50          P50 延迟
+ * @param p95          P95 延迟
+ * @param p99          P99 延迟
+ * @param firstError   首个异常的描述，没有异常时为 null
+ */
+record ScenarioResult(String scenario,
+                      int concurrency,
+                      long requests,
+                      long errors,
+                      double opsPerSecond,
+                      double p50,
+                      double p95,
+                      double p99,
+                      String firstError) {
+}
@@ -0,0 +1,126 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * 以固定并发执行场景：先预热，再按请求数计时，每个线程记录自己的 HdrHistogram 后合并。
+ * 预热阶段的异常被忽略，计时阶段的异常计入错误数
+ */
+final class ScenarioRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int warmupRequests;
+    private final int measuredRequests;
+
+    ScenarioRunner(int warmupRequests, int measuredRequests) {
+        this.warmupRequests = warmupRequests;
+        this.measuredRequests = measuredRequests;
+    }
+
+    /**
+     * @param operation 接收全局递增的请求序号；预热与计时阶段的序号不重复
+     */
+    ScenarioResult run(String scenario, int concurrency, IntConsumer operation) throws InterruptedException {
+        execute(concurrency, perThread(warmupRequests, concurrency), 0, operation, null);
+
+        int perThread = perThread(measuredRequests, concurrency);
+        Histogram histogram = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        AtomicLong errors = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long elapsed = execute(concurrency, perThread, perThread(warmupRequests, concurrency) * concurrency, operation,
+                new Recording(histogram, errors, firstError));
+
+        long requests = (long) perThread * concurrency;
+        double seconds = elapsed / 1_000_000_000.0;
+        return new ScenarioResult(
+                scenario,
+                concurrency,
+                requests,
+                errors.get(),
+                requests / seconds,
+                millis(histogram, 50),
+                millis(histogram, 95),
+                millis(histogram, 99),
+                firstError.get()
+        );
+    }
+
+    private long execute(int concurrency,
+                         int perThread,
+                         int offset,
+                         IntConsumer operation,
+                         Recording recording) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Histogram>> futures = new ArrayList<>(concurrency);
+            for (int thread = 0; thread < concurrency; thread++) {
+                int base = offset + thread * perThread;
+                futures.add(executor.submit(() -> {
+                    Histogram local = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+                    ready.countDown();
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            operation.accept(base + i);
+                        } catch (RuntimeException e) {
+                            if (recording == null) {
+                                continue;
+                            }
+                            recording.errors().incrementAndGet();
+                            recording.firstError().compareAndSet(null, e.getClass().getName() + ": " + e.getMessage());
+                        }
+                        local.recordValue(Math.min(System.nanoTime() - begin, HIGHEST_TRACKABLE_NANOS));
+                    }
+                    return local;
+                }));
+            }
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Histogram> future : futures) {
+                Histogram local = await(future);
+                if (recording != null) {
+                    recording.histogram().add(local);
+                }
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Histogram await(Future<Histogram> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario thread failed", e.getCause());
+        }
+    }
+
+    private static int perThread(int requests, int concurrency) {
+        return Math.max(1, requests / concurrency);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    private record Recording(Histogram histogram, AtomicLong errors, AtomicReference<String> firstError) {
+    }
+}
@@ -0,0 +1,7 @@
+package net.ximatai.muyun.database.benchmarks.baseline;
+
+/**
+ * PERFORMANCE_BASELINE.md 第 3 节的一项语义校验结果
+ */
+record SemanticCheck(String description, boolean passed, String detail) {
+}
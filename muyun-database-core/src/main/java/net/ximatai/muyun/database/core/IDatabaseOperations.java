@@ -4,11 +4,21 @@ import net.ximatai.muyun.database.core.exception.MuYunDatabaseException;
 import net.ximatai.muyun.database.core.exception.TableNotFound;
 import net.ximatai.muyun.database.core.builder.sql.SchemaBuildRules;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.metadata.DBSchema;
 import net.ximatai.muyun.database.core.metadata.DBTable;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+import net.ximatai.muyun.database.core.sql.BulkInsertSupport;
+import net.ximatai.muyun.database.core.sql.ResultSetRowMapper;
 import net.ximatai.muyun.database.core.sql.SqlPlanBuilder;
+import net.ximatai.muyun.database.core.sql.SqlPlanCache;
 
 import java.sql.Array;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,6 +45,38 @@ public interface IDatabaseOperations<K> {
      */
     default void resetDBInfo() {
         getMetaDataLoader().resetInfo();
+        SqlPlanCache.shared().clear();
+    }
+
+    /**
+     * 批量预取模式下所有表的列、主键、注释与索引元数据
+     * 空模式名表示默认模式，适合启动期一次性拉齐大量实体表前调用
+     */
+    default void prefetchMetadata(Collection<String> schemas) {
+        if (schemas == null) {
+            return;
+        }
+        Set<String> targets = new LinkedHashSet<>();
+        for (String schema : schemas) {
+            targets.add(schema == null || schema.isBlank() ? getDefaultSchemaName() : schema);
+        }
+        targets.forEach(getMetaDataLoader()::prefetchSchema);
+    }
+
+    /**
+     * 失效单表元数据缓存，下次访问时重新确认表是否存在并加载列与索引
+     */
+    default void invalidateTable(String schema, String tableName) {
+        getMetaDataLoader().invalidateTable(schema, tableName);
+        SqlPlanCache.shared().invalidate(schema, tableName);
+    }
+
+    /**
+     * 失效单个模式及其所有表的元数据缓存
+     */
+    default void invalidateSchema(String schema) {
+        getMetaDataLoader().invalidateSchema(schema);
+        SqlPlanCache.shared().invalidateSchema(schema);
     }
 
     /**
@@ -58,15 +100,23 @@ public interface IDatabaseOperations<K> {
     }
 
     /**
-     * 兜底处理动态建表后的元数据缓存滞后：首次缺表时刷新缓存并重试一次。
+     * 兜底处理动态建表后的元数据缓存滞后：首次缺表时只失效该表缓存并重试一次。
      */
     default DBTable resolveTable(String schema, String tableName) {
         try {
-            return getDBInfo().getSchema(schema).getTable(tableName);
+            return requireSchema(schema, tableName).getTable(tableName);
         } catch (TableNotFound first) {
-            resetDBInfo();
-            return getDBInfo().getSchema(schema).getTable(tableName);
+            invalidateTable(schema, tableName);
+            return requireSchema(schema, tableName).getTable(tableName);
+        }
+    }
+
+    private DBSchema requireSchema(String schema, String tableName) {
+        DBSchema dbSchema = getDBInfo().getSchema(schema);
+        if (dbSchema == null) {
+            throw new TableNotFound(tableName, schema);
         }
+        return dbSchema;
     }
 
     /**
@@ -131,7 +181,7 @@ public interface IDatabaseOperations<K> {
     default K insertItem(String schema, String tableName, Map<String, Object> params, String pkName) {
         DBTable table = resolveTable(schema, tableName);
         Map<String, Object> transformed = transformDataForDB(table, params);
-        SqlPlanBuilder.InsertPlan plan = SqlPlanBuilder.prepareInsertPlan(
+        SqlPlanBuilder.InsertPlan plan = SqlPlanBuilder.cachedInsertPlan(
                 schema,
                 tableName,
                 transformed,
@@ -182,20 +232,234 @@ public interface IDatabaseOperations<K> {
         }
 
         DBTable table = resolveTable(schema, tableName);
-        List<Map<String, Object>> transformedList = list.stream().map(it -> transformDataForDB(table, it)).collect(Collectors.toList());
-        SqlPlanBuilder.InsertPlan plan = SqlPlanBuilder.prepareInsertPlan(
+        Map<String, Object> first = transformDataForDB(table, list.getFirst());
+        SqlPlanBuilder.InsertPlan plan = SqlPlanBuilder.cachedInsertPlan(
                 schema,
                 tableName,
-                transformedList.getFirst(),
+                first,
                 table.getColumnMap(),
                 getDBInfo().getDatabaseType()
         );
-        List<Map<String, Object>> bindParamsList = transformedList.stream()
-                .map(row -> SqlPlanBuilder.toBindMap(row, plan.columns(), plan.bindNames()))
-                .toList();
+        // 逐行转换后直接生成绑定参数，不再额外保留一份转换后的列表
+        List<Map<String, Object>> bindParamsList = new ArrayList<>(list.size());
+        bindParamsList.add(SqlPlanBuilder.toBindMap(first, plan.columns(), plan.bindNames()));
+        for (Map<String, Object> row : list.subList(1, list.size())) {
+            bindParamsList.add(SqlPlanBuilder.toBindMap(transformDataForDB(table, row), plan.columns(), plan.bindNames()));
+        }
         return this.batchInsert(plan.sql(), bindParamsList);
     }
 
+    /**
+     * 分片批量插入（使用默认模式）
+     */
+    default BulkInsertResult<K> bulkInsert(String tableName,
+                                           Iterator<? extends Map<String, Object>> rows,
+                                           BulkInsertOptions options) {
+        return this.bulkInsert(getDefaultSchemaName(), tableName, rows, options);
+    }
+
+    /**
+     * 分片批量插入，数据源为流；流会在插入结束后关闭
+     */
+    default BulkInsertResult<K> bulkInsert(String schema,
+                                           String tableName,
+                                           Stream<? extends Map<String, Object>> rows,
+                                           BulkInsertOptions options) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        try (Stream<? extends Map<String, Object>> source = rows) {
+            return this.bulkInsert(schema, tableName, source.iterator(), options);
+        }
+    }
+
+    /**
+     * 分片批量插入
+     * 按需从数据源读取并转换行，每满 batchSize 行执行一次批处理，内存中最多保留一个分片；
+     * 插入语句以第一行的列集合生成，后续行缺失的列按 null 绑定
+     *
+     * @return 插入行数、影响行数、分片数以及（开启时的）生成主键
+     */
+    default BulkInsertResult<K> bulkInsert(String schema,
+                                           String tableName,
+                                           Iterator<? extends Map<String, Object>> rows,
+                                           BulkInsertOptions options) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        BulkInsertOptions effective = options == null ? BulkInsertOptions.defaults() : options;
+        if (!rows.hasNext()) {
+            return BulkInsertResult.empty();
+        }
+
+        DBTable table = resolveTable(schema, tableName);
+        Map<String, Object> first = transformDataForDB(table, rows.next());
+        SqlPlanBuilder.InsertPlan plan = SqlPlanBuilder.cachedInsertPlan(
+                schema,
+                tableName,
+                first,
+                table.getColumnMap(),
+                getDBInfo().getDatabaseType()
+        );
+        Iterator<Map<String, Object>> transformed = transformedRows(table, first, rows);
+        Iterator<Map<String, Object>> bindRows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return transformed.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                return SqlPlanBuilder.toBindMap(transformed.next(), plan.columns(), plan.bindNames());
+            }
+        };
+        return executeBulkInsert(plan.sql(), bindRows, effective);
+    }
+
+    /**
+     * 是否支持数据库原生批量装载（PostgreSQL COPY ... FROM STDIN）
+     */
+    default boolean supportsCopyIn() {
+        return false;
+    }
+
+    /**
+     * 以数据库原生批量装载写入记录，数据源为流；流会在装载结束后关闭
+     */
+    default BulkInsertResult<K> copyIn(String schema,
+                                       String tableName,
+                                       Stream<? extends Map<String, Object>> rows,
+                                       BulkInsertOptions options) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        try (Stream<? extends Map<String, Object>> source = rows) {
+            return this.copyIn(schema, tableName, source.iterator(), options);
+        }
+    }
+
+    /**
+     * 以数据库原生批量装载写入记录
+     * PostgreSQL 下按需读取并转换行，编码后直接写入 COPY 管道，不缓存整个数据集；每满 batchSize 行写入管道后回调一次进度，
+     * 进度中的行数为已发送的行数，COPY 结束成功后才整体生效。
+     * 列集合以第一行为准，后续行缺失的列写入 NULL（不使用列默认值）；不回取主键。
+     * 不支持时退化为不回取主键的 {@link #bulkInsert(String, String, Iterator, BulkInsertOptions)}
+     *
+     * @return 装载行数与分片（进度）数，生成主键始终为空
+     */
+    default BulkInsertResult<K> copyIn(String schema,
+                                       String tableName,
+                                       Iterator<? extends Map<String, Object>> rows,
+                                       BulkInsertOptions options) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        BulkInsertOptions effective = (options == null ? BulkInsertOptions.defaults() : options).withoutGeneratedKeys();
+        if (!supportsCopyIn()) {
+            return this.bulkInsert(schema, tableName, rows, effective);
+        }
+        if (!rows.hasNext()) {
+            return BulkInsertResult.empty();
+        }
+
+        DBTable table = resolveTable(schema, tableName);
+        Map<String, Object> first = transformDataForDB(table, rows.next());
+        List<String> columns = SqlPlanBuilder.writableColumns(first, table.getColumnMap());
+        String sql = SqlPlanBuilder.buildCopyInSql(schema, tableName, columns, getDBInfo().getDatabaseType());
+        return executeCopyIn(sql, columns, transformedRows(table, first, rows), effective);
+    }
+
+    private Iterator<Map<String, Object>> transformedRows(DBTable table,
+                                                          Map<String, Object> first,
+                                                          Iterator<? extends Map<String, Object>> rest) {
+        return new Iterator<>() {
+            private Map<String, Object> pending = first;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null || rest.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                Map<String, Object> row = pending != null ? pending : transformDataForDB(table, rest.next());
+                pending = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * 是否支持多行 VALUES 插入
+     */
+    default boolean supportsMultiRowInsert() {
+        return false;
+    }
+
+    /**
+     * 单条多行插入语句最多包含的行数，实际行数还受绑定参数上限 {@link SqlPlanBuilder#MAX_BIND_PARAMETERS} 约束
+     */
+    default int getMultiRowInsertMaxRows() {
+        return SqlPlanBuilder.DEFAULT_MULTI_ROW_INSERT_ROWS;
+    }
+
+    /**
+     * 以多行 VALUES 语句插入记录（使用默认主键列）
+     */
+    default List<K> insertRows(String schema, String tableName, List<Map<String, Object>> rows) {
+        return insertRows(schema, tableName, rows, getPKName());
+    }
+
+    /**
+     * 以多行 VALUES 语句插入记录
+     * 写入列集合相同的行合并为 insert ... values (...), (...)，按绑定参数上限与 {@link #getMultiRowInsertMaxRows()} 自动分片；
+     * 各分片独立执行，需要整体原子性时请在事务中调用；不支持多行插入时逐行调用 {@link #insertItem(String, String, Map, String)}
+     *
+     * @return 与输入顺序一致的主键列表，显式给出的主键原样返回
+     */
+    default List<K> insertRows(String schema, String tableName, List<Map<String, Object>> rows, String pkName) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<K> keys = new ArrayList<>(rows.size());
+        if (!supportsMultiRowInsert()) {
+            for (Map<String, Object> row : rows) {
+                keys.add(insertItem(schema, tableName, row, pkName));
+            }
+            return keys;
+        }
+
+        DBTable table = resolveTable(schema, tableName);
+        DBInfo.Type dbType = getDBInfo().getDatabaseType();
+        List<Map<String, Object>> transformed = new ArrayList<>(rows.size());
+        Map<List<String>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = transformDataForDB(table, rows.get(i));
+            transformed.add(row);
+            keys.add(findPrimaryKeyValue(rows.get(i), pkName).orElse(null));
+            groups.computeIfAbsent(SqlPlanBuilder.writableColumns(row, table.getColumnMap()), columns -> new ArrayList<>())
+                    .add(i);
+        }
+
+        for (Map.Entry<List<String>, List<Integer>> group : groups.entrySet()) {
+            List<String> columns = group.getKey();
+            List<Integer> indexes = group.getValue();
+            int chunkSize = SqlPlanBuilder.multiRowInsertRows(Math.max(1, columns.size()), getMultiRowInsertMaxRows());
+            for (int from = 0; from < indexes.size(); from += chunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+                SqlPlanBuilder.MultiRowInsertPlan plan = SqlPlanBuilder.cachedMultiRowInsertPlan(
+                        schema, tableName, columns, chunk.size(), dbType);
+                Map<String, Object> bindParams = plan.bind(chunk.stream().map(transformed::get).toList());
+                if (chunk.stream().allMatch(index -> keys.get(index) != null)) {
+                    this.update(plan.sql(), bindParams);
+                    continue;
+                }
+                List<K> generated = this.multiRowInsert(plan.sql(), bindParams, pkName);
+                if (generated.size() != chunk.size()) {
+                    throw new MuYunDatabaseException("Multi-row insert into " + tableName + " returned "
+                            + generated.size() + " keys for " + chunk.size() + " rows");
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    keys.set(chunk.get(i), generated.get(i));
+                }
+            }
+        }
+        return keys;
+    }
+
     /**
      * 更新记录（使用默认模式）
      */
@@ -220,14 +484,14 @@ public interface IDatabaseOperations<K> {
     default int updateItem(String schema, String tableName, Map<String, Object> params, String pkName) {
         DBTable table = resolveTable(schema, tableName);
         Map<String, Object> transformed = transformDataForDB(table, params);
-        SqlPlanBuilder.PreparedSql plan = SqlPlanBuilder.prepareUpdateSql(
+        SqlPlanBuilder.PreparedSql plan = SqlPlanBuilder.cachedUpdatePlan(
                 schema,
                 tableName,
                 transformed,
                 table.getColumnMap(),
                 pkName,
                 getDBInfo().getDatabaseType()
-        );
+        ).bind(transformed);
         return this.update(plan.sql(), plan.params());
     }
 
@@ -417,6 +681,79 @@ public interface IDatabaseOperations<K> {
         return atomicUpsertItem(getDefaultSchemaName(), tableName, params);
     }
 
+    /**
+     * 使用数据库方言批量原子 upsert（使用默认主键列）
+     */
+    default int[] atomicUpsertList(String schema, String tableName, List<Map<String, Object>> rows) {
+        return atomicUpsertList(schema, tableName, rows, getPKName());
+    }
+
+    /**
+     * 使用数据库方言批量原子 upsert
+     * 相邻且写入列集合相同的行合并为多行 insert ... on conflict / on duplicate key update，按绑定参数上限与
+     * {@link #getMultiRowInsertMaxRows()} 分片；同一主键在分片内重复出现时另起分片，保证按输入顺序后写覆盖前写。
+     * 各分片独立执行，需要整体原子性时请在事务中调用；不支持多行插入时逐行调用 {@link #atomicUpsertItem(String, String, Map, String)}
+     *
+     * @return 每条语句处理的行数（插入或更新的行数之和，按执行顺序），即各分片的输入行数；
+     * 不是驱动返回的影响行数：MySQL 的 on duplicate key update 对插入计 1、对有变化的更新计 2、对无变化的更新计 0，
+     * 无法换算为插入与更新行数，因此不透出
+     */
+    default int[] atomicUpsertList(String schema, String tableName, List<Map<String, Object>> rows, String pkName) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        if (!supportsAtomicUpsert()) {
+            throw new UnsupportedOperationException("Atomic upsert is not supported by this IDatabaseOperations implementation");
+        }
+        if (!supportsMultiRowInsert()) {
+            int[] processed = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                atomicUpsertItem(schema, tableName, rows.get(i), pkName);
+                processed[i] = 1;
+            }
+            return processed;
+        }
+
+        DBTable table = resolveTable(schema, tableName);
+        DBInfo.Type dbType = getDBInfo().getDatabaseType();
+        List<Integer> processed = new ArrayList<>();
+        List<Map<String, Object>> chunk = new ArrayList<>();
+        Set<Object> chunkKeys = new HashSet<>();
+        List<String> chunkColumns = null;
+        int chunkSize = 0;
+        for (Map<String, Object> row : rows) {
+            Object pkValue = findPrimaryKeyValue(row, pkName)
+                    .orElseThrow(() -> new MuYunDatabaseException("The primary key value must not be null"));
+            Map<String, Object> transformed = transformDataForDB(table, row);
+            List<String> columns = SqlPlanBuilder.writableColumns(transformed, table.getColumnMap());
+            if (!chunk.isEmpty() && (chunk.size() == chunkSize || !columns.equals(chunkColumns) || chunkKeys.contains(pkValue))) {
+                processed.add(upsertRowsChunk(schema, tableName, chunkColumns, chunk, pkName, dbType));
+                chunk.clear();
+                chunkKeys.clear();
+            }
+            if (chunk.isEmpty()) {
+                chunkColumns = columns;
+                chunkSize = SqlPlanBuilder.multiRowInsertRows(Math.max(1, columns.size()), getMultiRowInsertMaxRows());
+            }
+            chunk.add(transformed);
+            chunkKeys.add(pkValue);
+        }
+        if (!chunk.isEmpty()) {
+            processed.add(upsertRowsChunk(schema, tableName, chunkColumns, chunk, pkName, dbType));
+        }
+        return processed.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int upsertRowsChunk(String schema,
+                                String tableName,
+                                List<String> columns,
+                                List<Map<String, Object>> chunk,
+                                String pkName,
+                                DBInfo.Type dbType) {
+        SqlPlanBuilder.MultiRowInsertPlan plan = SqlPlanBuilder.cachedMultiRowUpsertPlan(
+                schema, tableName, columns, pkName, chunk.size(), dbType);
+        this.update(plan.sql(), plan.bind(chunk));
+        return chunk.size();
+    }
+
     default int legacyUpsertItem(String tableName, Map<String, Object> params) {
         return legacyUpsertItem(getDefaultSchemaName(), tableName, params);
     }
@@ -495,6 +832,22 @@ public interface IDatabaseOperations<K> {
         return this.row("SELECT * FROM " + quoteSchemaTable(schema, tableName) + " WHERE " + quoteIdentifier(pkName) + "=:id", Collections.singletonMap("id", id));
     }
 
+    /**
+     * 查询单条记录，仅选取指定列；columns 为空时等同于 {@link #getItem(String, String, Object, String)}
+     *
+     * @return 记录映射，未找到时返回null
+     */
+    default Map<String, Object> getItem(String schema, String tableName, K id, String pkName, Collection<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return getItem(schema, tableName, id, pkName);
+        }
+        DBTable dbTable = resolveTable(schema, tableName);
+        Objects.requireNonNull(dbTable);
+
+        String selectList = columns.stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+        return this.row("SELECT " + selectList + " FROM " + quoteSchemaTable(schema, tableName) + " WHERE " + quoteIdentifier(pkName) + "=:id", Collections.singletonMap("id", id));
+    }
+
     // 基础CRUD操作方法
 
     /**
@@ -522,6 +875,44 @@ public interface IDatabaseOperations<K> {
      */
     List<K> batchInsert(String sql, List<Map<String, Object>> paramsList);
 
+    /**
+     * 分片执行批量插入
+     * 默认实现逐个分片调用 {@link #batchInsert(String, List)}；实现类可覆盖以复用连接与预编译语句、跳过主键回取
+     */
+    default BulkInsertResult<K> executeBulkInsert(String sql,
+                                                  Iterator<Map<String, Object>> paramsIterator,
+                                                  BulkInsertOptions options) {
+        return BulkInsertSupport.<K>execute(paramsIterator, options, (chunk, generatedKeys) -> {
+            List<K> keys = batchInsert(sql, chunk);
+            if (generatedKeys != null) {
+                generatedKeys.addAll(keys);
+            }
+            return chunk.size();
+        });
+    }
+
+    /**
+     * 执行一次原生批量装载
+     *
+     * @param columns 装载列，顺序与 SQL 一致
+     * @param rows    已转换为数据库值的行
+     */
+    default BulkInsertResult<K> executeCopyIn(String sql,
+                                              List<String> columns,
+                                              Iterator<Map<String, Object>> rows,
+                                              BulkInsertOptions options) {
+        throw new UnsupportedOperationException("COPY is not supported by this IDatabaseOperations implementation");
+    }
+
+    /**
+     * 执行一条多行插入语句
+     *
+     * @return 按行顺序返回的主键
+     */
+    default List<K> multiRowInsert(String sql, Map<String, Object> params, String pkName) {
+        throw new UnsupportedOperationException("Multi-row insert is not supported by this IDatabaseOperations implementation");
+    }
+
     /**
      * 查询单行（可变参数）
      */
@@ -570,6 +961,75 @@ public interface IDatabaseOperations<K> {
         return this.query(sql, Collections.emptyList());
     }
 
+    /**
+     * 流式查询多行（映射参数）
+     * 结果在遍历时逐行读取，返回的流占用数据库连接与游标，使用完毕必须关闭（推荐 try-with-resources）；
+     * 默认实现先通过 {@link #query(String, Map)} 一次性读取全部结果
+     */
+    default Stream<Map<String, Object>> stream(String sql, Map<String, Object> params) {
+        return this.query(sql, params).stream();
+    }
+
+    /**
+     * 流式查询多行（列表参数）
+     */
+    default Stream<Map<String, Object>> stream(String sql, List<Object> params) {
+        return this.query(sql, params).stream();
+    }
+
+    /**
+     * 语句级指标的接收方（耗时、行数、异常、写重试），默认不记录
+     */
+    default DatabaseMetrics getMetrics() {
+        return DatabaseMetrics.noop();
+    }
+
+    /**
+     * 是否在实体管理器、表网关与仓库调用期间为语句绑定操作、表与仓库方法标签（{@link DatabaseMetricsContext}）；
+     * 指标或慢 SQL 记录任一启用时为 true，都未启用时省去绑定
+     */
+    default boolean isStatementLabelingEnabled() {
+        return getMetrics().isEnabled();
+    }
+
+    /**
+     * 慢 Criteria 查询的执行计划采样，默认关闭
+     */
+    default QueryPlanSampler getQueryPlanSampler() {
+        return QueryPlanSampler.disabled();
+    }
+
+    /**
+     * 是否支持 {@link ResultSetRowMapper} 直接映射结果集
+     */
+    default boolean supportsResultSetMapping() {
+        return false;
+    }
+
+    /**
+     * 查询多行并由 {@link ResultSetRowMapper} 直接映射，不经过中间的行映射表，默认不支持
+     */
+    default <T> List<T> query(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        throw new UnsupportedOperationException("ResultSet mapping is not supported by this IDatabaseOperations implementation");
+    }
+
+    /**
+     * 流式查询多行并由 {@link ResultSetRowMapper} 直接映射，返回的流使用完毕必须关闭，默认不支持
+     */
+    default <T> Stream<T> stream(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        throw new UnsupportedOperationException("ResultSet mapping is not supported by this IDatabaseOperations implementation");
+    }
+
+    /**
+     * 流式遍历查询结果，遍历结束后自动关闭游标
+     */
+    default void forEach(String sql, Map<String, Object> params, Consumer<? super Map<String, Object>> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        try (Stream<Map<String, Object>> rows = this.stream(sql, params)) {
+            rows.forEach(action);
+        }
+    }
+
     /**
      * 更新操作（映射参数）
      */
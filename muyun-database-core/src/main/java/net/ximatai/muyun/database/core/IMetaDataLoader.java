@@ -19,6 +19,33 @@ public interface IMetaDataLoader {
 
     void resetInfo();
 
+    /**
+     * Drops cached metadata of one table so the next access re-checks that
+     * the table exists and reloads its columns and indexes. Loaders that cannot
+     * invalidate a single table fall back to {@link #resetInfo()}.
+     */
+    default void invalidateTable(String schema, String table) {
+        resetInfo();
+    }
+
+    /**
+     * Drops cached metadata of one schema and all of its tables. Loaders that
+     * cannot invalidate a single schema fall back to {@link #resetInfo()}.
+     */
+    default void invalidateSchema(String schema) {
+        resetInfo();
+    }
+
+    /**
+     * Loads columns, primary keys, comments and indexes of every table in one
+     * schema with a few bulk catalog queries and fills the table caches, so
+     * later {@link #getColumnMap(String, String)} / {@link #getIndexList(String, String)}
+     * calls are not needed per table. The default implementation does nothing
+     * and tables keep loading lazily.
+     */
+    default void prefetchSchema(String schema) {
+    }
+
     List<DBIndex> getIndexList(String schema, String table);
 
     Map<String, DBColumn> getColumnMap(String schema, String table);
@@ -8,6 +8,8 @@ import net.ximatai.muyun.database.core.builder.sql.SchemaBuildRules;
 import net.ximatai.muyun.database.core.builder.sql.TableBuilderSqlDialect;
 import net.ximatai.muyun.database.core.exception.MuYunDatabaseException;
 import net.ximatai.muyun.database.core.metadata.*;
+import net.ximatai.muyun.database.core.orm.EntityDescriptor;
+import net.ximatai.muyun.database.core.orm.EntityDescriptors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,7 +33,9 @@ public class TableBuilder {
     }
 
     public boolean build(Class<?> entityClass) {
-        TableWrapper wrapper = AnnotationProcessor.fromEntityClass(entityClass);
+        TableWrapper wrapper = EntityDescriptors.find(entityClass)
+                .map(EntityDescriptor::tableWrapper)
+                .orElseGet(() -> AnnotationProcessor.fromEntityClass(entityClass));
         return build(wrapper);
     }
 
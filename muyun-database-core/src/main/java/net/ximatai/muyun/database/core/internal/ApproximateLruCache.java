@@ -0,0 +1,106 @@
+package net.ximatai.muyun.database.core.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * 有界的近似 LRU 缓存，供 SQL 计划、条件模板等热路径缓存使用。
+ * 基于 ConcurrentHashMap，读取不加锁，只在条目上记录最近访问时间；超出容量时由一个线程扫描并淘汰访问时间最早的条目，
+ * 其它线程不等待，并发写入时条目数可能短暂超出容量
+ */
+public final class ApproximateLruCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public ApproximateLruCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be >= 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 返回缓存的值并刷新其访问时间，未缓存时返回 null
+     */
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.touch();
+        return node.value;
+    }
+
+    /**
+     * 未缓存时加入并按需淘汰，返回最终缓存中的值（并发加入同一键时以先加入者为准）
+     */
+    public V putIfAbsent(K key, V value) {
+        if (maxSize == 0) {
+            return value;
+        }
+        Node<V> existing = entries.putIfAbsent(key, new Node<>(value));
+        if (existing != null) {
+            existing.touch();
+            return existing.value;
+        }
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return value;
+    }
+
+    public void removeIf(Predicate<? super K> filter) {
+        entries.keySet().removeIf(filter);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (entries.size() > maxSize) {
+                Map.Entry<K, Node<V>> eldest = null;
+                for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+                    if (eldest == null || entry.getValue().accessed < eldest.getValue().accessed) {
+                        eldest = entry;
+                    }
+                }
+                if (eldest == null) {
+                    break;
+                }
+                entries.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private volatile long accessed = System.nanoTime();
+
+        private Node(V value) {
+            this.value = value;
+        }
+
+        private void touch() {
+            accessed = System.nanoTime();
+        }
+    }
+}
@@ -108,6 +108,15 @@ public class DBColumn {
         };
     }
 
+    /**
+     * 获取数据库返回的原始默认值字符串，不做任何格式化
+     *
+     * @return 原始默认值
+     */
+    public String getDefaultValueRaw() {
+        return defaultValue;
+    }
+
     public void setDefaultValue(String defaultValue) {
         this.defaultValue = defaultValue;
     }
@@ -1,11 +1,15 @@
 package net.ximatai.muyun.database.core.metadata;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * 数据库信息元数据类
  * 封装数据库的基本信息和模式集合，支持多模式数据库
+ * 模式集合为并发安全结构，按需解析同一模式时只会执行一次加载
  */
 public class DBInfo {
 
@@ -19,7 +23,9 @@ public class DBInfo {
 
     private String typeName;           // 数据库类型名称
     private String name;               // 数据库名称
-    private Set<DBSchema> schemas = new HashSet<>();  // 数据库模式集合
+    private final Map<String, DBSchema> schemas = new ConcurrentHashMap<>();  // 数据库模式集合
+    private volatile Function<String, DBSchema> schemaResolver; // 按需加载未缓存模式，返回null表示不存在
+    private final OnDemandLoader<DBSchema> schemaLoader = new OnDemandLoader<>();
 
     /**
      * 构造函数
@@ -52,10 +58,33 @@ public class DBInfo {
      * @return 当前DBInfo实例
      */
     public DBInfo addSchema(DBSchema schema) {
-        this.schemas.add(schema);
+        this.schemas.putIfAbsent(schema.getName(), schema);
         return this;
     }
 
+    /**
+     * 移除已缓存的模式，下次访问时重新解析
+     *
+     * @param schemaName 模式名称
+     * @return 当前DBInfo实例
+     */
+    public DBInfo removeSchema(String schemaName) {
+        if (schemaName != null) {
+            schemaLoader.invalidate(schemaName, this.schemas);
+        }
+        return this;
+    }
+
+    /**
+     * 查找已缓存的模式，不触发按需加载
+     *
+     * @param schemaName 模式名称
+     * @return 已缓存的模式对象，未缓存时返回null
+     */
+    public DBSchema getLoadedSchema(String schemaName) {
+        return schemaName == null ? null : schemas.get(schemaName);
+    }
+
     /**
      * 获取默认模式名称
      * PostgreSQL使用"public"，MySQL使用数据库名称
@@ -75,21 +104,44 @@ public class DBInfo {
         return getSchema(getDefaultSchemaName());
     }
 
+    /**
+     * 设置按需模式解析器
+     * 未缓存的模式会通过解析器单独加载并加入缓存，用于元数据懒加载模式
+     *
+     * @param schemaResolver 模式解析器，返回null表示模式不存在
+     * @return 当前DBInfo实例
+     */
+    public DBInfo setSchemaResolver(Function<String, DBSchema> schemaResolver) {
+        this.schemaResolver = schemaResolver;
+        return this;
+    }
+
     /**
      * 根据名称查找模式
+     * 设置了模式解析器时，未缓存的模式会按需加载
      *
      * @param schemaName 模式名称
      * @return 匹配的模式对象，未找到时返回null
      */
     public DBSchema getSchema(String schemaName) {
-        return schemas.stream()
-                .filter(schema -> schemaName.equals(schema.getName()))
-                .findFirst()
-                .orElse(null);
+        if (schemaName == null) {
+            return null;
+        }
+        DBSchema cached = schemas.get(schemaName);
+        Function<String, DBSchema> resolver = schemaResolver;
+        if (cached != null || resolver == null) {
+            return cached;
+        }
+        return schemaLoader.load(schemaName, schemas, resolver);
     }
 
+    /**
+     * 获取已加载模式的快照
+     *
+     * @return 模式集合快照
+     */
     public Set<DBSchema> getSchemas() {
-        return schemas;
+        return new LinkedHashSet<>(schemas.values());
     }
 
     public String getTypeName() {
@@ -2,13 +2,16 @@ package net.ximatai.muyun.database.core.metadata;
 
 import net.ximatai.muyun.database.core.exception.TableNotFound;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class DBSchema {
 
     private String name;
-    private Map<String, DBTable> tables = new HashMap<>();
+    private volatile Map<String, DBTable> tables = new ConcurrentHashMap<>();
+    private volatile Function<String, DBTable> tableResolver;
+    private final OnDemandLoader<DBTable> tableLoader = new OnDemandLoader<>();
 
     public DBSchema(String name) {
         this.name = name;
@@ -19,7 +22,16 @@ public class DBSchema {
     }
 
     public DBSchema setTables(Map<String, DBTable> tables) {
-        this.tables = tables;
+        this.tables = new ConcurrentHashMap<>(tables);
+        return this;
+    }
+
+    /**
+     * 设置按需表解析器，未缓存的表会单独查询一次；返回null表示表不存在。
+     * {@link #getTables()} 只包含已加载的表。
+     */
+    public DBSchema setTableResolver(Function<String, DBTable> tableResolver) {
+        this.tableResolver = tableResolver;
         return this;
     }
 
@@ -27,11 +39,18 @@ public class DBSchema {
         if (!containsTable(name)) {
             throw new TableNotFound(name, this.name);
         }
-        return this.tables.get(name);
+        DBTable table = this.tables.get(name);
+        if (table == null) {
+            // 并发失效后视为未找到，由调用方按需重试
+            throw new TableNotFound(name, this.name);
+        }
+        return table;
     }
 
     public DBSchema removeTable(String name) {
-        this.tables.remove(name);
+        if (name != null) {
+            tableLoader.invalidate(name, this.tables);
+        }
         return this;
     }
 
@@ -54,6 +73,17 @@ public class DBSchema {
     }
 
     public boolean containsTable(String tableName) {
-        return getTables().containsKey(tableName);
+        if (tableName == null) {
+            return false;
+        }
+        if (getTables().containsKey(tableName)) {
+            return true;
+        }
+        Function<String, DBTable> resolver = tableResolver;
+        if (resolver == null) {
+            return false;
+        }
+        // 同一张表的并发按需加载只执行一次，查询在缓存 Map 之外执行
+        return tableLoader.load(tableName, getTables(), resolver) != null;
     }
 }
@@ -2,6 +2,7 @@ package net.ximatai.muyun.database.core.metadata;
 
 import net.ximatai.muyun.database.core.IMetaDataLoader;
 import net.ximatai.muyun.database.core.builder.TableBase;
+import net.ximatai.muyun.database.core.sql.SqlPlanCache;
 
 import java.util.List;
 import java.util.Map;
@@ -12,9 +13,13 @@ public class DBTable extends TableBase {
 
     private String description;
 
-    private Map<String, DBColumn> columnMap;
+    private final Object columnLock = new Object();
 
-    private List<DBIndex> indexList;
+    private final Object indexLock = new Object();
+
+    private volatile Map<String, DBColumn> columnMap;
+
+    private volatile List<DBIndex> indexList;
 
     public DBTable(IMetaDataLoader iMetaDataLoader) {
         this.iMetaDataLoader = iMetaDataLoader;
@@ -39,18 +44,58 @@ public class DBTable extends TableBase {
         return this;
     }
 
+    /**
+     * 获取列元数据，首次访问时加载；并发访问同一张表只会加载一次
+     */
     public Map<String, DBColumn> getColumnMap() {
-        if (columnMap == null) {
-            columnMap = iMetaDataLoader.getColumnMap(schema, name);
+        Map<String, DBColumn> loaded = columnMap;
+        if (loaded == null) {
+            synchronized (columnLock) {
+                loaded = columnMap;
+                if (loaded == null) {
+                    loaded = iMetaDataLoader.getColumnMap(schema, name);
+                    columnMap = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 写入批量预取的列元数据，替换当前缓存
+     */
+    public DBTable setColumnMap(Map<String, DBColumn> columnMap) {
+        synchronized (columnLock) {
+            this.columnMap = columnMap;
+        }
+        return this;
+    }
+
+    /**
+     * 写入批量预取的索引元数据，替换当前缓存
+     */
+    public DBTable setIndexList(List<DBIndex> indexList) {
+        synchronized (indexLock) {
+            this.indexList = indexList;
         }
-        return columnMap;
+        return this;
     }
 
+    /**
+     * 获取索引元数据，首次访问时加载；并发访问同一张表只会加载一次
+     */
     public List<DBIndex> getIndexList() {
-        if (indexList == null) {
-            indexList = iMetaDataLoader.getIndexList(schema, name);
+        List<DBIndex> loaded = indexList;
+        if (loaded == null) {
+            synchronized (indexLock) {
+                loaded = indexList;
+                if (loaded == null) {
+                    loaded = iMetaDataLoader.getIndexList(schema, name);
+                    indexList = loaded;
+                }
+            }
         }
-        return indexList;
+        return loaded;
     }
 
     public boolean contains(String column) {
@@ -66,10 +111,16 @@ public class DBTable extends TableBase {
     }
 
     public void resetColumns() {
-        this.columnMap = null;
+        // 与加载互斥，避免进行中的加载在重置后写回旧数据
+        synchronized (columnLock) {
+            this.columnMap = null;
+        }
+        SqlPlanCache.shared().invalidate(schema, name);
     }
 
     public void resetIndexes() {
-        this.indexList = null;
+        synchronized (indexLock) {
+            this.indexList = null;
+        }
     }
 }
@@ -0,0 +1,78 @@
+package net.ximatai.muyun.database.core.metadata;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 元数据按需加载：同一键的并发加载只执行一次，其余调用等待同一结果。
+ * 加载在缓存 Map 之外执行，不持有 ConcurrentHashMap 的桶锁，不阻塞其它键，解析器也可以再次访问缓存；
+ * 加载期间被 {@link #invalidate} 的结果不会留在缓存中
+ */
+final class OnDemandLoader<V> {
+
+    private final Map<String, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 返回缓存中的值，未缓存时经 {@code resolver} 加载并加入缓存；解析器返回 null 表示不存在，不缓存
+     */
+    V load(String key, Map<String, V> cache, Function<String, V> resolver) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Flight<V> mine = new Flight<>(Thread.currentThread(), new CompletableFuture<>());
+        Flight<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // 解析器在本线程内再次加载同一键时直接解析，不等待自己
+            return running.owner() == Thread.currentThread() ? resolver.apply(key) : await(running.result());
+        }
+        try {
+            V loaded = resolver.apply(key);
+            V result = loaded;
+            if (loaded != null) {
+                V existing = cache.putIfAbsent(key, loaded);
+                result = existing == null ? loaded : existing;
+            }
+            if (!inFlight.remove(key, mine) && loaded != null) {
+                // 加载期间已失效，撤回刚加入的结果
+                cache.remove(key, loaded);
+            }
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, mine);
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * 移除缓存值并作废进行中的加载
+     */
+    void invalidate(String key, Map<String, V> cache) {
+        inFlight.remove(key);
+        cache.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            Throwable cause = Objects.requireNonNullElse(ex.getCause(), ex);
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private record Flight<V>(Thread owner, CompletableFuture<V> result) {
+    }
+}
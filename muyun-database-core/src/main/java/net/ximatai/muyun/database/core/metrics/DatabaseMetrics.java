@@ -0,0 +1,41 @@
+package net.ximatai.muyun.database.core.metrics;
+
+/**
+ * Receiver of per-statement timings, row counts, errors and write retries.
+ * <p>
+ * Implementations are called on the executing thread after every statement, so they must be thread safe and
+ * cheap. Streamed queries are not recorded because their rows are produced after the call returns. The
+ * {@link #noop()} instance is the default and reports {@link #isEnabled()} {@code false}, which lets callers skip
+ * collecting labels altogether.
+ */
+public interface DatabaseMetrics {
+
+    static DatabaseMetrics noop() {
+        return NoopDatabaseMetrics.INSTANCE;
+    }
+
+    /**
+     * Whether recorded values are kept; callers may skip label bookkeeping when this returns {@code false}.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records one finished statement.
+     *
+     * @param tags          statement labels
+     * @param durationNanos wall-clock execution time
+     * @param rows          rows inserted, affected or returned; {@code 0} when the statement failed
+     * @param error         the failure, or {@code null} when the statement succeeded
+     */
+    void recordOperation(DatabaseMetricsTags tags, long durationNanos, long rows, Throwable error);
+
+    /**
+     * Records that a write statement is retried after a transient failure.
+     *
+     * @param attempt the attempt that failed, starting at 1
+     */
+    default void recordRetry(DatabaseMetricsTags tags, int attempt, Throwable cause) {
+    }
+}
@@ -0,0 +1,97 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound labels for statements issued inside an entity manager, table gateway or repository call.
+ * <p>
+ * The innermost operation wins: a repository method that calls {@code pageQuery} labels the page statement as
+ * {@link DatabaseOperationType#QUERY} and its count statement as {@link DatabaseOperationType#COUNT}, both tagged
+ * with the repository name. Labels are restored when the call returns, so nested calls and thread reuse are safe.
+ */
+public final class DatabaseMetricsContext {
+
+    private static final ThreadLocal<Labels> CURRENT = new ThreadLocal<>();
+
+    private DatabaseMetricsContext() {
+    }
+
+    /**
+     * Runs {@code action} with statements tagged by {@code repository}.
+     */
+    public static <R> R callInRepository(String repository, Supplier<R> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        try (Scope ignored = openRepository(repository)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Tags statements issued until the returned scope is closed by {@code repository}; for callers that cannot
+     * pass a {@link Supplier}, such as proxies rethrowing checked exceptions.
+     */
+    public static Scope openRepository(String repository) {
+        Labels previous = CURRENT.get();
+        CURRENT.set(previous == null
+                ? new Labels(null, null, null, repository)
+                : new Labels(previous.operation(), previous.schema(), previous.table(), repository));
+        return () -> restore(previous);
+    }
+
+    /**
+     * Runs {@code action} with statements tagged by {@code operation} on {@code schema.table}; the enclosing
+     * repository label is kept.
+     */
+    public static <R> R call(DatabaseOperationType operation, String schema, String table, Supplier<R> action) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Labels previous = CURRENT.get();
+        Labels labels = new Labels(operation, schema, table, previous == null ? null : previous.repository());
+        return callWith(labels, previous, action);
+    }
+
+    /**
+     * Labels of a statement issued now; {@code statementType} is used when no operation is bound.
+     */
+    public static DatabaseMetricsTags tags(DatabaseOperationType statementType) {
+        Labels labels = CURRENT.get();
+        if (labels == null) {
+            return DatabaseMetricsTags.of(statementType);
+        }
+        return new DatabaseMetricsTags(
+                labels.operation() == null ? statementType : labels.operation(),
+                labels.schema(),
+                labels.table(),
+                labels.repository());
+    }
+
+    private static <R> R callWith(Labels labels, Labels previous, Supplier<R> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        CURRENT.set(labels);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(Labels previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Restores the labels that were bound when the scope was opened.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Labels(DatabaseOperationType operation, String schema, String table, String repository) {
+    }
+}
@@ -0,0 +1,18 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.Objects;
+
+/**
+ * Labels of one recorded statement. {@code schema}, {@code table} and {@code repository} are {@code null} when the
+ * statement was not issued through an entity manager, table gateway or repository.
+ */
+public record DatabaseMetricsTags(DatabaseOperationType operation, String schema, String table, String repository) {
+
+    public DatabaseMetricsTags {
+        Objects.requireNonNull(operation, "operation must not be null");
+    }
+
+    public static DatabaseMetricsTags of(DatabaseOperationType operation) {
+        return new DatabaseMetricsTags(operation, null, null, null);
+    }
+}
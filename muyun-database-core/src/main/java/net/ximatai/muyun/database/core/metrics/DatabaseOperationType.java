@@ -0,0 +1,32 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.Locale;
+
+/**
+ * Kind of database operation a recorded statement belongs to.
+ * <p>
+ * Statements issued by {@link net.ximatai.muyun.database.core.orm.SimpleEntityManager},
+ * {@link net.ximatai.muyun.database.core.orm.RuntimeTableGateway} and repositories carry the type of the calling
+ * operation (for example the count statement of a page query is a {@link #COUNT}); raw SQL executed directly on
+ * {@link net.ximatai.muyun.database.core.IDatabaseOperations} carries the statement kind.
+ */
+public enum DatabaseOperationType {
+    INSERT,
+    UPDATE,
+    UPSERT,
+    DELETE,
+    QUERY,
+    ROW,
+    COUNT,
+    BATCH,
+    EXECUTE;
+
+    private final String tagValue = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Lower-case name used as a metric tag value.
+     */
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,27 @@
+package net.ximatai.muyun.database.core.metrics;
+
+/**
+ * Aggregated executions of one {@link SqlFingerprint fingerprint} within the {@link SlowQueryLog} window.
+ *
+ * @param tags labels of the most recent execution
+ */
+public record FingerprintStats(String fingerprint,
+                               DatabaseMetricsTags tags,
+                               long count,
+                               long slowCount,
+                               long errorCount,
+                               long totalNanos,
+                               long maxNanos) {
+
+    public double totalMillis() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    public double meanMillis() {
+        return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+    }
+
+    public double maxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,18 @@
+package net.ximatai.muyun.database.core.metrics;
+
+final class NoopDatabaseMetrics implements DatabaseMetrics {
+
+    static final NoopDatabaseMetrics INSTANCE = new NoopDatabaseMetrics();
+
+    private NoopDatabaseMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordOperation(DatabaseMetricsTags tags, long durationNanos, long rows, Throwable error) {
+    }
+}
@@ -0,0 +1,35 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.List;
+
+/**
+ * Result of one sampled {@code EXPLAIN}: the raw JSON plan, the sequential scans over large tables found in it and
+ * the index suggestions derived from their filter columns.
+ */
+public record QueryPlanReport(QueryPlanTarget target,
+                              String sql,
+                              long durationNanos,
+                              String plan,
+                              List<SequentialScan> sequentialScans,
+                              List<String> suggestions) {
+
+    public QueryPlanReport {
+        sequentialScans = List.copyOf(sequentialScans);
+        suggestions = List.copyOf(suggestions);
+    }
+
+    public boolean hasFindings() {
+        return !sequentialScans.isEmpty();
+    }
+
+    /**
+     * Full scan of {@code table}; {@code tableRows} is the planner's row estimate for the table and {@code columns}
+     * are the table columns referenced by the scan filter, in order of appearance.
+     */
+    public record SequentialScan(String table, long tableRows, String filter, List<String> columns) {
+
+        public SequentialScan {
+            columns = List.copyOf(columns);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metadata.DBIndex;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.metadata.DBSchema;
+import net.ximatai.muyun.database.core.metadata.DBTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Captures query plans for slow Criteria queries.
+ * <p>
+ * When a query issued by the entity manager or a runtime table gateway takes at least the threshold, a sample of
+ * those executions (see {@link #setSamplingRate(double)}) re-runs the same SQL and parameters under
+ * {@code EXPLAIN (FORMAT JSON)} on PostgreSQL or {@code EXPLAIN FORMAT=JSON} on MySQL on a background executor.
+ * Each statement fingerprint is explained at most once per cooldown. Sequential scans of tables with at least
+ * {@link #setLargeTableRows(long) largeTableRows} rows are reported together with an {@code @Indexed} or
+ * {@code @CompositeIndex} suggestion built from the columns in the scan filter; the default listener logs reports
+ * with findings at WARN and the rest at DEBUG.
+ * <p>
+ * {@code EXPLAIN} runs through the operations passed to the constructor, outside the caller's transaction, so it
+ * should be a non-transactional instance such as the application's {@code JdbiDatabaseOperations}.
+ */
+public class QueryPlanSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanSampler.class);
+
+    public static final double DEFAULT_SAMPLING_RATE = 0.1;
+    public static final Duration DEFAULT_COOLDOWN = Duration.ofMinutes(10);
+    public static final long DEFAULT_LARGE_TABLE_ROWS = 10_000;
+
+    static final int MAX_TRACKED_FINGERPRINTS = 1024;
+    static final int QUEUE_CAPACITY = 16;
+    private static final String POSTGRES_TABLE_ROWS_SQL = "SELECT c.reltuples AS reltuples FROM pg_class c "
+            + "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relname = :table AND n.nspname = :schema";
+    private static final QueryPlanSampler DISABLED = new QueryPlanSampler();
+
+    private final IDatabaseOperations<?> operations;
+    private final long thresholdNanos;
+    private final Executor executor;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private volatile double samplingRate = DEFAULT_SAMPLING_RATE;
+    private volatile long cooldownNanos = DEFAULT_COOLDOWN.toNanos();
+    private volatile long largeTableRows = DEFAULT_LARGE_TABLE_ROWS;
+    private volatile Consumer<QueryPlanReport> listener = QueryPlanSampler::log;
+
+    private QueryPlanSampler() {
+        this.operations = null;
+        this.thresholdNanos = Long.MAX_VALUE;
+        this.executor = null;
+    }
+
+    public QueryPlanSampler(IDatabaseOperations<?> operations, Duration threshold) {
+        this(operations, threshold, newExecutor());
+    }
+
+    /**
+     * @param executor runs {@code EXPLAIN}; should reject work rather than queue without bound
+     */
+    public QueryPlanSampler(IDatabaseOperations<?> operations, Duration threshold, Executor executor) {
+        this.operations = Objects.requireNonNull(operations, "operations must not be null");
+        Objects.requireNonNull(threshold, "threshold must not be null");
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * Sampler that never explains; the default of {@link IDatabaseOperations#getQueryPlanSampler()}.
+     */
+    public static QueryPlanSampler disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return operations != null;
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * Fraction of slow executions that are considered for {@code EXPLAIN}, {@code 0} to {@code 1}; defaults to
+     * {@value #DEFAULT_SAMPLING_RATE}.
+     */
+    public QueryPlanSampler setSamplingRate(double samplingRate) {
+        if (samplingRate < 0 || samplingRate > 1) {
+            throw new IllegalArgumentException("samplingRate must be between 0 and 1");
+        }
+        this.samplingRate = samplingRate;
+        return this;
+    }
+
+    /**
+     * Minimum time between two plans for the same statement fingerprint; defaults to 10 minutes.
+     */
+    public QueryPlanSampler setCooldown(Duration cooldown) {
+        Objects.requireNonNull(cooldown, "cooldown must not be null");
+        this.cooldownNanos = cooldown.toNanos();
+        return this;
+    }
+
+    /**
+     * Row estimate from which a sequentially scanned table counts as large; defaults to
+     * {@value #DEFAULT_LARGE_TABLE_ROWS}.
+     */
+    public QueryPlanSampler setLargeTableRows(long largeTableRows) {
+        this.largeTableRows = largeTableRows;
+        return this;
+    }
+
+    /**
+     * Replaces the report listener; the default logs reports with findings at WARN and the rest at DEBUG.
+     */
+    public QueryPlanSampler onReport(Consumer<QueryPlanReport> listener) {
+        this.listener = Objects.requireNonNull(listener, "listener must not be null");
+        return this;
+    }
+
+    /**
+     * Called after a Criteria query; schedules {@code EXPLAIN} when the query was slow, sampled and its fingerprint
+     * is not cooling down. {@code target} is only resolved when a plan is scheduled.
+     */
+    public void afterQuery(String sql, Map<String, Object> params, long durationNanos, Supplier<QueryPlanTarget> target) {
+        if (!isEnabled() || durationNanos < thresholdNanos) {
+            return;
+        }
+        if (samplingRate < 1 && ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+            return;
+        }
+        String fingerprint = SqlFingerprint.of(sql);
+        long now = System.nanoTime();
+        Long last = lastExplained.get(fingerprint);
+        if (last != null && now - last < cooldownNanos) {
+            return;
+        }
+        if (last == null && lastExplained.size() >= MAX_TRACKED_FINGERPRINTS) {
+            lastExplained.clear();
+        }
+        boolean claimed = last == null
+                ? lastExplained.putIfAbsent(fingerprint, now) == null
+                : lastExplained.replace(fingerprint, last, now);
+        if (!claimed) {
+            return;
+        }
+        QueryPlanTarget resolved = target.get();
+        Map<String, Object> boundParams = params == null ? Map.of() : new HashMap<>(params);
+        try {
+            executor.execute(() -> report(sql, boundParams, durationNanos, resolved));
+        } catch (RejectedExecutionException ex) {
+            lastExplained.remove(fingerprint, now);
+            logger.debug("Query plan capture skipped, executor is busy: {}", fingerprint);
+        }
+    }
+
+    private void report(String sql, Map<String, Object> params, long durationNanos, QueryPlanTarget target) {
+        QueryPlanReport report;
+        try {
+            report = explain(sql, params, durationNanos, target);
+        } catch (RuntimeException ex) {
+            logger.debug("Query plan capture failed for {}", SqlFingerprint.of(sql), ex);
+            return;
+        }
+        listener.accept(report);
+    }
+
+    /**
+     * Runs {@code EXPLAIN} for {@code sql} and analyzes the plan.
+     */
+    QueryPlanReport explain(String sql, Map<String, Object> params, long durationNanos, QueryPlanTarget target) {
+        DBInfo.Type type = operations.getDBInfo().getDatabaseType();
+        List<Map<String, Object>> rows = operations.query(QueryPlans.explainSql(type, sql), params);
+        String plan = rows.isEmpty() || rows.getFirst().isEmpty()
+                ? "[]"
+                : String.valueOf(rows.getFirst().values().iterator().next());
+
+        List<QueryPlanReport.SequentialScan> scans = new ArrayList<>();
+        List<String> suggestions = new ArrayList<>();
+        for (QueryPlans.Scan scan : QueryPlans.scans(type, QueryPlans.parseJson(plan))) {
+            String schema = scan.schema() == null ? target.schema() : scan.schema();
+            long tableRows = type == DBInfo.Type.POSTGRESQL
+                    ? postgresTableRows(schema, scan.table(), scan.estimatedRows())
+                    : scan.estimatedRows();
+            if (tableRows < largeTableRows) {
+                continue;
+            }
+            DBTable table = table(schema, scan.table());
+            Collection<String> columns = table == null ? target.fieldsByColumn().keySet() : table.getColumnMap().keySet();
+            QueryPlanReport.SequentialScan found = new QueryPlanReport.SequentialScan(
+                    scan.table(), tableRows, scan.filter(), QueryPlans.filterColumns(scan.filter(), columns));
+            scans.add(found);
+            String suggestion = QueryPlans.suggestion(target, found, indexes(table));
+            if (suggestion != null && !suggestions.contains(suggestion)) {
+                suggestions.add(suggestion);
+            }
+        }
+        return new QueryPlanReport(target, sql, durationNanos, plan, scans, suggestions);
+    }
+
+    /**
+     * Table row estimate from {@code pg_class}; falls back to the plan estimate for tables never analyzed.
+     */
+    private long postgresTableRows(String schema, String table, long planRows) {
+        try {
+            List<Map<String, Object>> rows = operations.query(POSTGRES_TABLE_ROWS_SQL, Map.of("table", table, "schema", schema));
+            if (!rows.isEmpty() && rows.getFirst().get("reltuples") instanceof Number reltuples && reltuples.longValue() >= 0) {
+                return Math.max(reltuples.longValue(), planRows);
+            }
+        } catch (RuntimeException ex) {
+            logger.debug("Could not read the row estimate of {}.{}", schema, table, ex);
+        }
+        return planRows;
+    }
+
+    private DBTable table(String schema, String table) {
+        try {
+            DBSchema dbSchema = operations.getDBInfo().getSchema(schema);
+            return dbSchema == null || !dbSchema.containsTable(table) ? null : dbSchema.getTable(table);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static List<List<String>> indexes(DBTable table) {
+        if (table == null) {
+            return List.of();
+        }
+        try {
+            return table.getIndexList().stream().map(DBIndex::getColumns).toList();
+        } catch (RuntimeException ex) {
+            return List.of();
+        }
+    }
+
+    private static void log(QueryPlanReport report) {
+        if (report.hasFindings()) {
+            logger.warn("Slow query ({} ms) on {} scans large tables sequentially: {}; sql: {}",
+                    report.durationNanos() / 1_000_000, report.target().table(), report.suggestions(), report.sql());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Slow query ({} ms) on {} plan: {}", report.durationNanos() / 1_000_000,
+                    report.target().table(), report.plan());
+        }
+    }
+
+    private static Executor newExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "muyun-query-plan-sampler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,20 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.Map;
+
+/**
+ * Table a sampled query reads from, used to turn sequential scans into index suggestions.
+ *
+ * @param entityClass   the mapped entity, or {@code null} for runtime tables
+ * @param fieldsByColumn field name by column name; columns without a field are suggested by column name
+ */
+public record QueryPlanTarget(String schema, String table, Class<?> entityClass, Map<String, String> fieldsByColumn) {
+
+    public QueryPlanTarget {
+        fieldsByColumn = fieldsByColumn == null ? Map.of() : Map.copyOf(fieldsByColumn);
+    }
+
+    String fieldName(String column) {
+        return fieldsByColumn.getOrDefault(column, column);
+    }
+}
@@ -0,0 +1,303 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JSON plan parsing and sequential-scan analysis for {@link QueryPlanSampler}.
+ */
+final class QueryPlans {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+    private static final Pattern LITERALS_AND_CASTS = Pattern.compile("'(?:[^']|'')*'|::\\s*[A-Za-z_][A-Za-z0-9_]*");
+    private static final int MAX_INDEX_COLUMNS = 4;
+
+    private QueryPlans() {
+    }
+
+    static String explainSql(DBInfo.Type type, String sql) {
+        return switch (type) {
+            case POSTGRESQL -> "EXPLAIN (FORMAT JSON) " + sql;
+            case MYSQL -> "EXPLAIN FORMAT=JSON " + sql;
+        };
+    }
+
+    /**
+     * Full scans in the plan: PostgreSQL {@code Seq Scan} nodes and MySQL tables with {@code access_type = ALL}.
+     * {@link Scan#estimatedRows()} is the MySQL rows examined per scan or the PostgreSQL output row estimate.
+     */
+    static List<Scan> scans(DBInfo.Type type, Object plan) {
+        List<Scan> scans = new ArrayList<>();
+        collect(type, plan, scans);
+        return scans;
+    }
+
+    private static void collect(DBInfo.Type type, Object node, List<Scan> scans) {
+        if (node instanceof Map<?, ?> map) {
+            Scan scan = switch (type) {
+                case POSTGRESQL -> "Seq Scan".equals(map.get("Node Type"))
+                        ? new Scan(text(map.get("Schema")), text(map.get("Relation Name")), number(map.get("Plan Rows")),
+                        text(map.get("Filter")))
+                        : null;
+                case MYSQL -> "ALL".equals(map.get("access_type"))
+                        ? new Scan(null, text(map.get("table_name")), number(map.get("rows_examined_per_scan")),
+                        text(map.get("attached_condition")))
+                        : null;
+            };
+            if (scan != null && scan.table() != null) {
+                scans.add(scan);
+            }
+            map.values().forEach(value -> collect(type, value, scans));
+        } else if (node instanceof Collection<?> values) {
+            values.forEach(value -> collect(type, value, scans));
+        }
+    }
+
+    /**
+     * Table columns referenced by {@code filter}, in order of appearance; matching ignores case and skips string
+     * literals and PostgreSQL cast types.
+     */
+    static List<String> filterColumns(String filter, Collection<String> tableColumns) {
+        if (filter == null || filter.isEmpty() || tableColumns.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> byLowerCase = new LinkedHashMap<>();
+        tableColumns.forEach(column -> byLowerCase.putIfAbsent(column.toLowerCase(Locale.ROOT), column));
+        Set<String> columns = new LinkedHashSet<>();
+        Matcher matcher = IDENTIFIER.matcher(LITERALS_AND_CASTS.matcher(filter).replaceAll(" "));
+        while (matcher.find() && columns.size() < MAX_INDEX_COLUMNS) {
+            String column = byLowerCase.get(matcher.group().toLowerCase(Locale.ROOT));
+            if (column != null) {
+                columns.add(column);
+            }
+        }
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Index suggestion for a sequential scan filtering on {@code columns}, or {@code null} when there is nothing to
+     * suggest. Entity tables get an {@code @Indexed} or {@code @CompositeIndex} annotation, runtime tables an index
+     * on the columns. When an existing index already starts with the first filter column the planner preferred the
+     * scan anyway, which is reported instead.
+     */
+    static String suggestion(QueryPlanTarget target, QueryPlanReport.SequentialScan scan, List<List<String>> indexes) {
+        List<String> columns = scan.columns();
+        if (columns.isEmpty()) {
+            return "Full scan of " + scan.table() + " (~" + scan.tableRows() + " rows) without a filter column; "
+                    + "narrow the criteria or page the query";
+        }
+        for (List<String> index : indexes) {
+            if (!index.isEmpty() && index.getFirst().equalsIgnoreCase(columns.getFirst())) {
+                return "Index on " + scan.table() + " (" + String.join(", ", index) + ") exists but the planner chose "
+                        + "a full scan; check the filter selectivity or refresh table statistics";
+            }
+        }
+        boolean entityTable = target.entityClass() != null && target.table().equalsIgnoreCase(scan.table());
+        if (!entityTable) {
+            return "Add an index on " + scan.table() + " (" + String.join(", ", columns) + ")";
+        }
+        String entity = target.entityClass().getSimpleName();
+        if (columns.size() == 1) {
+            return "Add @Indexed to " + entity + "." + target.fieldName(columns.getFirst())
+                    + " (column " + columns.getFirst() + ")";
+        }
+        return "Add @CompositeIndex(columns = {\"" + String.join("\", \"", columns) + "\"}) to " + entity;
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static long number(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return (long) Double.parseDouble(text);
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Minimal JSON reader for plan output: objects become {@link LinkedHashMap}, arrays {@link ArrayList}, numbers
+     * {@link Double} and literals {@link Boolean} or {@code null}.
+     */
+    static Object parseJson(String json) {
+        JsonReader reader = new JsonReader(json);
+        Object value = reader.value();
+        reader.skipWhitespace();
+        if (reader.position < json.length()) {
+            throw reader.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    record Scan(String schema, String table, long estimatedRows, String filter) {
+    }
+
+    private static final class JsonReader {
+        private final String json;
+        private int position;
+
+        private JsonReader(String json) {
+            this.json = json;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            char c = json.charAt(position);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> number();
+            };
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected object key");
+                }
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                object.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<>();
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+            while (true) {
+                array.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String string() {
+            StringBuilder out = new StringBuilder();
+            position++;
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (position >= json.length()) {
+                    break;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > json.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        out.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> out.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Object literal(String text, Object value) {
+            if (!json.startsWith(text, position)) {
+                throw error("Unexpected token");
+            }
+            position += text.length();
+            return value;
+        }
+
+        private Double number() {
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Unexpected character '" + json.charAt(position) + "'");
+            }
+            try {
+                return Double.valueOf(json.substring(start, position));
+            } catch (NumberFormatException ex) {
+                throw error("Invalid number");
+            }
+        }
+
+        private char peek() {
+            return position < json.length() ? json.charAt(position) : '\0';
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " of query plan JSON");
+        }
+    }
+}
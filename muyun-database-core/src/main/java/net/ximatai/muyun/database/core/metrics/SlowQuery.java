@@ -0,0 +1,27 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.time.Instant;
+
+/**
+ * One statement that ran longer than the {@link SlowQueryLog} threshold.
+ *
+ * @param fingerprint normalized statement, see {@link SqlFingerprint}
+ * @param sql         statement text as executed, without bound values
+ * @param tags        issuing operation, table and repository
+ * @param bindCount   number of bound parameters
+ * @param rows        rows returned or affected, {@code -1} when unknown
+ * @param failed      whether the statement threw
+ */
+public record SlowQuery(Instant finishedAt,
+                        String fingerprint,
+                        String sql,
+                        DatabaseMetricsTags tags,
+                        long durationNanos,
+                        int bindCount,
+                        long rows,
+                        boolean failed) {
+
+    public double durationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+}
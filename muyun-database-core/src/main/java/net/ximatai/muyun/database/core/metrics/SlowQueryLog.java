@@ -0,0 +1,255 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Slow statement log with per-fingerprint totals over a rolling window.
+ * <p>
+ * Every recorded statement is added to the totals of its {@link SqlFingerprint fingerprint}; statements at or
+ * above the threshold are also passed to the listener (a WARN log line by default) and kept in a ring of the most
+ * recent slow statements. The window is split into {@value #BUCKETS} buckets that are replaced by compare-and-set
+ * as time moves on, so recording never takes a lock and old executions age out bucket by bucket.
+ * {@link #topFingerprints()} returns the fingerprints with the highest total time in the window, which surfaces
+ * frequent moderately slow statements as well as rare very slow ones.
+ */
+public class SlowQueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(500);
+    public static final int DEFAULT_TOP_N = 20;
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(5);
+
+    static final int BUCKETS = 6;
+    static final int MAX_FINGERPRINTS_PER_BUCKET = 2000;
+    static final int RECENT_CAPACITY = 100;
+    static final String OTHER_FINGERPRINT = "(other)";
+
+    private final long thresholdNanos;
+    private final int topN;
+    private final long bucketNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final AtomicReferenceArray<SlowQuery> recent = new AtomicReferenceArray<>(RECENT_CAPACITY);
+    private final AtomicLong recentSequence = new AtomicLong();
+    private volatile Consumer<SlowQuery> listener = SlowQueryLog::log;
+
+    public SlowQueryLog() {
+        this(DEFAULT_THRESHOLD, DEFAULT_TOP_N, DEFAULT_WINDOW);
+    }
+
+    public SlowQueryLog(Duration threshold, int topN, Duration window) {
+        this(threshold, topN, window, System::nanoTime);
+    }
+
+    SlowQueryLog(Duration threshold, int topN, Duration window, LongSupplier nanoClock) {
+        Objects.requireNonNull(threshold, "threshold must not be null");
+        Objects.requireNonNull(window, "window must not be null");
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        if (topN <= 0) {
+            throw new IllegalArgumentException("topN must be > 0");
+        }
+        if (window.toNanos() < BUCKETS) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.topN = topN;
+        this.bucketNanos = window.toNanos() / BUCKETS;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Replaces the slow statement listener; the default writes one WARN line per slow statement.
+     */
+    public SlowQueryLog onSlowQuery(Consumer<SlowQuery> listener) {
+        this.listener = Objects.requireNonNull(listener, "listener must not be null");
+        return this;
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(bucketNanos * BUCKETS);
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    /**
+     * Records one executed statement.
+     *
+     * @param rows rows returned or affected, {@code -1} when unknown
+     */
+    public void record(String sql, DatabaseMetricsTags tags, long durationNanos, int bindCount, long rows, boolean failed) {
+        String fingerprint = SqlFingerprint.of(sql);
+        currentBucket().stats(fingerprint).add(tags, durationNanos, durationNanos >= thresholdNanos, failed);
+        if (durationNanos >= thresholdNanos) {
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), fingerprint, sql, tags, durationNanos, bindCount, rows, failed);
+            recent.set((int) (recentSequence.getAndIncrement() % RECENT_CAPACITY), slowQuery);
+            listener.accept(slowQuery);
+        }
+    }
+
+    /**
+     * Fingerprints with the highest total time in the window, highest first, at most {@link #getTopN()}.
+     */
+    public List<FingerprintStats> topFingerprints() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        Map<String, Merged> merged = new HashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || bucket.epoch <= epoch - BUCKETS || bucket.epoch > epoch) {
+                continue;
+            }
+            bucket.stats.forEach((fingerprint, stats) -> merged.computeIfAbsent(fingerprint, key -> new Merged())
+                    .add(stats, bucket.epoch));
+        }
+        return merged.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparingLong(FingerprintStats::totalNanos).reversed())
+                .limit(topN)
+                .toList();
+    }
+
+    /**
+     * Most recent slow statements, newest first, at most {@value #RECENT_CAPACITY}.
+     */
+    public List<SlowQuery> recentSlowQueries() {
+        long next = recentSequence.get();
+        List<SlowQuery> queries = new ArrayList<>();
+        for (long sequence = next - 1; sequence >= 0 && sequence >= next - RECENT_CAPACITY; sequence--) {
+            SlowQuery query = recent.get((int) (sequence % RECENT_CAPACITY));
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Drops all totals and recent slow statements.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, null);
+        }
+        for (int i = 0; i < RECENT_CAPACITY; i++) {
+            recent.set(i, null);
+        }
+    }
+
+    private Bucket currentBucket() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        int slot = Math.floorMod(epoch, BUCKETS);
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.epoch < epoch) {
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+            bucket = buckets.get(slot);
+        }
+        return bucket;
+    }
+
+    private static void log(SlowQuery query) {
+        DatabaseMetricsTags tags = query.tags();
+        logger.warn("Slow SQL {} ms [operation={}, table={}, repository={}, binds={}, rows={}{}]: {}",
+                String.format("%.1f", query.durationMillis()),
+                tags.operation().tagValue(),
+                tags.table() == null ? "-" : (tags.schema() == null ? "" : tags.schema() + ".") + tags.table(),
+                tags.repository() == null ? "-" : tags.repository(),
+                query.bindCount(),
+                query.rows() < 0 ? "?" : query.rows(),
+                query.failed() ? ", failed" : "",
+                query.fingerprint());
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private Stats stats(String fingerprint) {
+            Stats existing = stats.get(fingerprint);
+            if (existing != null) {
+                return existing;
+            }
+            String key = stats.size() >= MAX_FINGERPRINTS_PER_BUCKET ? OTHER_FINGERPRINT : fingerprint;
+            return stats.computeIfAbsent(key, ignored -> new Stats());
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private volatile DatabaseMetricsTags tags;
+
+        private void add(DatabaseMetricsTags tags, long durationNanos, boolean slow, boolean failed) {
+            this.tags = tags;
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            if (slow) {
+                slowCount.increment();
+            }
+            if (failed) {
+                errorCount.increment();
+            }
+        }
+    }
+
+    private static final class Merged {
+        private long count;
+        private long slowCount;
+        private long errorCount;
+        private long totalNanos;
+        private long maxNanos;
+        private long latestEpoch = Long.MIN_VALUE;
+        private DatabaseMetricsTags tags;
+
+        private void add(Stats stats, long epoch) {
+            count += stats.count.sum();
+            slowCount += stats.slowCount.sum();
+            errorCount += stats.errorCount.sum();
+            totalNanos += stats.totalNanos.sum();
+            maxNanos = Math.max(maxNanos, stats.maxNanos.get());
+            if (epoch > latestEpoch) {
+                latestEpoch = epoch;
+                tags = stats.tags;
+            }
+        }
+
+        private FingerprintStats toStats(String fingerprint) {
+            return new FingerprintStats(fingerprint, tags, count, slowCount, errorCount, totalNanos, maxNanos);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized statement text used to group executions of the same statement shape.
+ * <p>
+ * String and numeric literals, named ({@code :name}) and positional ({@code ?}) parameters become {@code ?};
+ * comments are dropped and whitespace is collapsed. Parenthesized parameter lists collapse to {@code (?+)} and
+ * repeated tuples to {@code (?+), ...}, so {@code IN} lists and multi-row {@code VALUES} of any arity share one
+ * fingerprint. Quoted identifiers and PostgreSQL {@code ::type} casts are kept.
+ */
+public final class SqlFingerprint {
+
+    private static final int CACHE_SIZE = 4096;
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, \\?)*\\)");
+    private static final Pattern REPEATED_TUPLES = Pattern.compile("\\(\\?\\+\\)(?:, \\(\\?\\+\\))+");
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    /**
+     * Fingerprint of {@code sql}; results are cached by statement text.
+     */
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fingerprint = normalize(sql);
+        if (CACHE.size() >= CACHE_SIZE) {
+            CACHE.clear();
+        }
+        CACHE.put(sql, fingerprint);
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean space = false;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = skipTo(sql, i + 2, "\n");
+                space = true;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipTo(sql, i + 2, "*/");
+                space = true;
+            } else if (c == '\'') {
+                i = skipStringLiteral(sql, i + 1);
+                emit(out, "?", space);
+                space = false;
+            } else if (c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                emit(out, sql.substring(i, end), space);
+                space = false;
+                i = end;
+            } else if (c == ':' && i + 1 < length && sql.charAt(i + 1) == ':') {
+                out.append("::");
+                space = false;
+                i += 2;
+            } else if (c == ':' && i + 1 < length && Character.isJavaIdentifierStart(sql.charAt(i + 1))) {
+                i = skipWord(sql, i + 1);
+                emit(out, "?", space);
+                space = false;
+            } else if (Character.isDigit(c) && !endsWithWord(out, space)) {
+                i = skipNumber(sql, i);
+                emit(out, "?", space);
+                space = false;
+            } else if (Character.isJavaIdentifierPart(c)) {
+                int end = skipWord(sql, i);
+                emit(out, sql.substring(i, end), space);
+                space = false;
+                i = end;
+            } else {
+                emit(out, String.valueOf(c), space && c != ')' && c != ',');
+                space = false;
+                i++;
+            }
+        }
+        String collapsed = PARAMETER_LIST.matcher(out).replaceAll("(?+)");
+        return REPEATED_TUPLES.matcher(collapsed).replaceAll("(?+), ...");
+    }
+
+    private static void emit(StringBuilder out, String token, boolean space) {
+        if (out.isEmpty()) {
+            out.append(token);
+            return;
+        }
+        char last = out.charAt(out.length() - 1);
+        if (last == ',') {
+            out.append(' ');
+        } else if (space && last != '(') {
+            out.append(' ');
+        }
+        out.append(token);
+    }
+
+    private static boolean endsWithWord(StringBuilder out, boolean space) {
+        return !space && !out.isEmpty() && Character.isJavaIdentifierPart(out.charAt(out.length() - 1));
+    }
+
+    private static int skipTo(String sql, int from, String terminator) {
+        int end = sql.indexOf(terminator, from);
+        return end < 0 ? sql.length() : end + terminator.length();
+    }
+
+    private static int skipStringLiteral(String sql, int from) {
+        int i = from;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWord(String sql, int from) {
+        int i = from;
+        while (i < sql.length() && Character.isJavaIdentifierPart(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNumber(String sql, int from) {
+        int i = from;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            boolean exponentSign = (c == '+' || c == '-') && (sql.charAt(i - 1) == 'e' || sql.charAt(i - 1) == 'E');
+            if (!Character.isLetterOrDigit(c) && c != '.' && !exponentSign) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,29 @@
+package net.ximatai.muyun.database.core.orm;
+
+/**
+ * How {@code pageQuery} obtains {@link PageResult#getTotal()}.
+ */
+public enum CountStrategy {
+    /**
+     * Separate {@code SELECT COUNT(*)} before the page query.
+     */
+    EXACT,
+    /**
+     * {@code COUNT(*) OVER()} on the page query itself: one round trip, suited to small and medium tables.
+     */
+    WINDOW,
+    /**
+     * Counts at most {@link PageRequest#getCountCap()} rows; beyond that the total is reported as "cap+"
+     * ({@link PageResult#isTotalCapped()}).
+     */
+    CAPPED,
+    /**
+     * Planner statistics instead of a scan: table statistics when the criteria is empty, the {@code EXPLAIN} row
+     * estimate on PostgreSQL otherwise. Falls back to an exact count when no estimate is available.
+     */
+    ESTIMATED,
+    /**
+     * No count at all; the result reports {@link PageResult#UNKNOWN_TOTAL}.
+     */
+    NONE
+}
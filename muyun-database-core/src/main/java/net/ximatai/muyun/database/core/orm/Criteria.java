@@ -9,6 +9,7 @@ import java.util.function.Supplier;
 
 public class Criteria {
     private final CriteriaGroup root = CriteriaGroup.create();
+    private final List<String> selectedFields = new ArrayList<>();
 
     public static Criteria of() {
         return new Criteria();
@@ -20,6 +21,7 @@ public class Criteria {
         if (!source.isEmpty()) {
             copy.root.andGroup(CriteriaGroup.copyOf(source.getRoot()));
         }
+        copy.selectedFields.addAll(source.selectedFields);
         return copy;
     }
 
@@ -264,6 +266,23 @@ public class Criteria {
         return or(null, CriteriaOperator.RAW, condition);
     }
 
+    /**
+     * Restricts the selected columns to these fields (or column names); without a selection, queries read every
+     * mapped column. Fields left out stay unset on the returned entities.
+     */
+    public Criteria select(String... fields) {
+        Objects.requireNonNull(fields, "fields must not be null");
+        selectedFields.clear();
+        for (String field : fields) {
+            selectedFields.add(Objects.requireNonNull(field, "field must not be null"));
+        }
+        return this;
+    }
+
+    public List<String> getSelectedFields() {
+        return Collections.unmodifiableList(selectedFields);
+    }
+
     public List<CriteriaClause> getClauses() {
         List<CriteriaClause> list = new ArrayList<>();
         collectClauses(root, list);
@@ -0,0 +1,73 @@
+package net.ximatai.muyun.database.core.orm;
+
+import java.util.Objects;
+
+/**
+ * Options for {@link CriteriaSqlCompiler}: template cache size and how {@code IN} lists are rendered. Instances are
+ * immutable; every {@code with*} call returns a copy.
+ */
+public final class CriteriaCompileOptions {
+
+    public static final int DEFAULT_IN_LIST_CHUNK_SIZE = 10_000;
+
+    private static final CriteriaCompileOptions DEFAULTS = new CriteriaCompileOptions(
+            CriteriaSqlCompiler.DEFAULT_TEMPLATE_CACHE_SIZE,
+            InListStrategy.EXACT,
+            DEFAULT_IN_LIST_CHUNK_SIZE
+    );
+
+    private final int templateCacheSize;
+    private final InListStrategy inListStrategy;
+    private final int inListChunkSize;
+
+    private CriteriaCompileOptions(int templateCacheSize, InListStrategy inListStrategy, int inListChunkSize) {
+        this.templateCacheSize = templateCacheSize;
+        this.inListStrategy = inListStrategy;
+        this.inListChunkSize = inListChunkSize;
+    }
+
+    public static CriteriaCompileOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Maximum number of cached criteria templates; {@code 0} disables the cache.
+     */
+    public CriteriaCompileOptions withTemplateCacheSize(int templateCacheSize) {
+        if (templateCacheSize < 0) {
+            throw new IllegalArgumentException("templateCacheSize must be >= 0");
+        }
+        return new CriteriaCompileOptions(templateCacheSize, inListStrategy, inListChunkSize);
+    }
+
+    public CriteriaCompileOptions withInListStrategy(InListStrategy inListStrategy) {
+        return new CriteriaCompileOptions(
+                templateCacheSize,
+                Objects.requireNonNull(inListStrategy, "inListStrategy must not be null"),
+                inListChunkSize
+        );
+    }
+
+    /**
+     * Longest placeholder list of a single {@code IN}; longer lists are split into chunks joined with {@code OR}
+     * ({@code AND} for {@code NOT IN}). Does not apply to {@link InListStrategy#ANY_ARRAY}, which binds one parameter.
+     */
+    public CriteriaCompileOptions withInListChunkSize(int inListChunkSize) {
+        if (inListChunkSize <= 0) {
+            throw new IllegalArgumentException("inListChunkSize must be positive");
+        }
+        return new CriteriaCompileOptions(templateCacheSize, inListStrategy, inListChunkSize);
+    }
+
+    public int getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    public InListStrategy getInListStrategy() {
+        return inListStrategy;
+    }
+
+    public int getInListChunkSize() {
+        return inListChunkSize;
+    }
+}
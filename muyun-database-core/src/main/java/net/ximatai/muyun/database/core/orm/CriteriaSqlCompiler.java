@@ -1,8 +1,10 @@
 package net.ximatai.muyun.database.core.orm;
 
 import net.ximatai.muyun.database.core.builder.ColumnType;
+import net.ximatai.muyun.database.core.internal.ApproximateLruCache;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -10,22 +12,66 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Compiles {@link Criteria} trees into SQL WHERE fragments.
+ * <p>
+ * Criteria compiled against a {@link TableMeta} are cached as templates keyed by the table metadata, database type
+ * and a structural fingerprint of the criteria (joins, nesting, operators, fields, value counts and raw SQL text).
+ * A criteria with a known shape only re-binds its values; column resolution, identifier quoting and raw fragment
+ * rewriting run once per shape. Compilation against an arbitrary {@link CriteriaColumnResolver} is never cached,
+ * because the resolver is not guaranteed to answer the same way twice. The cache holds at most
+ * {@link CriteriaCompileOptions#getTemplateCacheSize()} templates; lookups do not lock and a full cache evicts the
+ * template with the oldest access time (approximate LRU, see {@link ApproximateLruCache}).
+ * <p>
+ * {@code IN} lists follow {@link CriteriaCompileOptions#getInListStrategy()}: padded lists share one template per
+ * power-of-two bucket, array binding shares one template for every length and element type. Array binding applies
+ * only when the converted values share a type the driver maps to an SQL array (String, Integer, Long, Boolean,
+ * Float, Double, UUID); other lists are padded.
+ */
 public final class CriteriaSqlCompiler {
 
+    public static final int DEFAULT_TEMPLATE_CACHE_SIZE = 512;
+
+    /**
+     * Element types the PostgreSQL driver binds as SQL arrays out of the box.
+     */
+    static final Set<Class<?>> ARRAY_ELEMENT_TYPES = Set.of(
+            String.class, Integer.class, Long.class, Boolean.class, Float.class, Double.class, UUID.class);
+
     private static final Pattern NAMED_PARAM_PATTERN = Pattern.compile(":([A-Za-z_][A-Za-z0-9_]*)");
 
     private final EnumMap<CriteriaOperator, ClauseRenderer> renderers = new EnumMap<>(CriteriaOperator.class);
     private final DatabaseValueConverter valueConverter;
+    private final CriteriaCompileOptions options;
+    private final ApproximateLruCache<TemplateKey, Template> templates;
+    private final LongAdder templateHits = new LongAdder();
+    private final LongAdder templateMisses = new LongAdder();
 
     public CriteriaSqlCompiler() {
         this(DatabaseValueConverter.DEFAULT);
     }
 
     public CriteriaSqlCompiler(DatabaseValueConverter valueConverter) {
+        this(valueConverter, DEFAULT_TEMPLATE_CACHE_SIZE);
+    }
+
+    /**
+     * @param templateCacheSize maximum number of cached criteria templates, {@code 0} disables the cache
+     */
+    public CriteriaSqlCompiler(DatabaseValueConverter valueConverter, int templateCacheSize) {
+        this(valueConverter, CriteriaCompileOptions.defaults().withTemplateCacheSize(templateCacheSize));
+    }
+
+    public CriteriaSqlCompiler(DatabaseValueConverter valueConverter, CriteriaCompileOptions options) {
         this.valueConverter = valueConverter == null ? DatabaseValueConverter.DEFAULT : valueConverter;
+        this.options = options == null ? CriteriaCompileOptions.defaults() : options;
+        this.templates = new ApproximateLruCache<>(this.options.getTemplateCacheSize());
         renderers.put(CriteriaOperator.EQ, (clause, context) -> compare(clause, context, "="));
         renderers.put(CriteriaOperator.NE, (clause, context) -> compare(clause, context, "<>"));
         renderers.put(CriteriaOperator.GT, (clause, context) -> compare(clause, context, ">"));
@@ -36,8 +82,8 @@ public final class CriteriaSqlCompiler {
         renderers.put(CriteriaOperator.IS_NULL, (clause, context) -> resolveColumn(clause, context) + " IS NULL");
         renderers.put(CriteriaOperator.IS_NOT_NULL, (clause, context) -> resolveColumn(clause, context) + " IS NOT NULL");
         renderers.put(CriteriaOperator.BETWEEN, this::renderBetween);
-        renderers.put(CriteriaOperator.IN, this::renderIn);
-        renderers.put(CriteriaOperator.NOT_IN, this::renderNotIn);
+        renderers.put(CriteriaOperator.IN, (clause, context) -> renderInList(clause, context, false));
+        renderers.put(CriteriaOperator.NOT_IN, (clause, context) -> renderInList(clause, context, true));
         renderers.put(CriteriaOperator.IN_SUBQUERY, (clause, context) -> renderInSubQuery(clause, context, false));
         renderers.put(CriteriaOperator.NOT_IN_SUBQUERY, (clause, context) -> renderInSubQuery(clause, context, true));
         renderers.put(CriteriaOperator.EXISTS, (clause, context) -> renderExists(clause, context, false));
@@ -70,8 +116,27 @@ public final class CriteriaSqlCompiler {
         Objects.requireNonNull(tableMeta, "tableMeta must not be null");
         Objects.requireNonNull(dbType, "dbType must not be null");
 
+        if (options.getTemplateCacheSize() == 0) {
+            templateMisses.increment();
+            ClauseContext context = new ClauseContext(tableMeta, dbType, tableMeta, valueConverter);
+            return new CompiledCriteria(compileGroup(criteria.getRoot(), context), context.params);
+        }
+
+        List<CriteriaClause> clauses = new ArrayList<>();
+        StringBuilder fingerprint = new StringBuilder();
+        ClauseContext probe = usesArrayBinding(dbType) ? new ClauseContext(tableMeta, dbType, tableMeta, valueConverter) : null;
+        fingerprint(criteria.getRoot(), probe, dbType, fingerprint, clauses);
+        TemplateKey key = new TemplateKey(tableMeta, dbType, fingerprint.toString());
+        Template template = templates.get(key);
+        if (template != null) {
+            templateHits.increment();
+            return template.bind(clauses);
+        }
+
+        templateMisses.increment();
         ClauseContext context = new ClauseContext(tableMeta, dbType, tableMeta, valueConverter);
         String sql = compileGroup(criteria.getRoot(), context);
+        templates.putIfAbsent(key, new Template(sql, List.copyOf(context.bindings)));
         return new CompiledCriteria(sql, context.params);
     }
 
@@ -83,6 +148,74 @@ public final class CriteriaSqlCompiler {
         return compile(criteria, meta.asTableMeta(), dbType);
     }
 
+    public int templateCacheSize() {
+        return templates.size();
+    }
+
+    public long templateHitCount() {
+        return templateHits.sum();
+    }
+
+    public long templateMissCount() {
+        return templateMisses.sum();
+    }
+
+    public void clearTemplates() {
+        templates.clear();
+    }
+
+    /**
+     * Appends everything that shapes the rendered SQL, and collects the clauses in the order the compiler visits
+     * them, which is the order template bindings refer to. Under array binding the {@code probe} context converts
+     * {@code IN} values to find their element type, which decides between the array and the padded rendering.
+     */
+    private void fingerprint(CriteriaGroup group,
+                             ClauseContext probe,
+                             DBInfo.Type dbType,
+                             StringBuilder target,
+                             List<CriteriaClause> clauses) {
+        for (CriteriaGroup.Entry entry : group.getEntries()) {
+            target.append(entry.getJoin() == CriteriaJoin.OR ? '|' : '&');
+            if (entry.getNode() instanceof CriteriaClause clause) {
+                clauses.add(clause);
+                target.append(clause.getOperator() == null ? "-" : clause.getOperator().name()).append('(');
+                appendSized(target, clause.getField());
+                int size = clause.getValues().size();
+                if (isInList(clause) && size > 0) {
+                    Class<?> elementType = probe == null ? null : probe.arrayElementType(clause);
+                    target.append(elementType != null ? "#a" + elementType.getName() : "#i" + inListPlaceholders(size));
+                } else {
+                    target.append('#').append(size);
+                }
+                if (size == 1) {
+                    Object value = clause.getValues().get(0);
+                    if (value instanceof SqlRawCondition raw) {
+                        target.append('r');
+                        appendSized(target, raw.getSql());
+                    } else if (value instanceof SqlSubQuery subQuery) {
+                        target.append('s');
+                        appendSized(target, subQuery.getSql());
+                    }
+                }
+                target.append(')');
+            } else if (entry.getNode() instanceof CriteriaGroup nested) {
+                target.append('[');
+                fingerprint(nested, probe, dbType, target, clauses);
+                target.append(']');
+            } else {
+                target.append('?');
+            }
+        }
+    }
+
+    private static void appendSized(StringBuilder target, String text) {
+        if (text == null) {
+            target.append('-');
+        } else {
+            target.append(text.length()).append(':').append(text);
+        }
+    }
+
     private String compileGroup(CriteriaGroup group, ClauseContext context) {
         List<String> parts = new ArrayList<>();
         for (CriteriaGroup.Entry entry : group.getEntries()) {
@@ -109,6 +242,7 @@ public final class CriteriaSqlCompiler {
     }
 
     private String compileClause(CriteriaClause clause, ClauseContext context) {
+        context.clauseIndex++;
         ClauseRenderer renderer = renderers.get(clause.getOperator());
         if (renderer == null) {
             throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Unsupported criteria operator: " + clause.getOperator());
@@ -117,8 +251,9 @@ public final class CriteriaSqlCompiler {
     }
 
     private String compare(CriteriaClause clause, ClauseContext context, String op) {
+        requireValue(clause);
         String key = "p" + context.nextParamIndex();
-        context.params.put(key, context.toDatabaseValue(clause, firstValue(clause)));
+        context.bind(key, clause, context.valueAt(clause, 0));
         return resolveColumn(clause, context) + " " + op + " :" + key;
     }
 
@@ -129,37 +264,65 @@ public final class CriteriaSqlCompiler {
         String key = "p" + context.nextParamIndex();
         String key1 = key + "_1";
         String key2 = key + "_2";
-        context.params.put(key1, context.toDatabaseValue(clause, clause.getValues().get(0)));
-        context.params.put(key2, context.toDatabaseValue(clause, clause.getValues().get(1)));
+        context.bind(key1, clause, context.valueAt(clause, 0));
+        context.bind(key2, clause, context.valueAt(clause, 1));
         return resolveColumn(clause, context) + " BETWEEN :" + key1 + " AND :" + key2;
     }
 
-    private String renderIn(CriteriaClause clause, ClauseContext context) {
-        if (clause.getValues().isEmpty()) {
-            return "1 = 0";
+    private String renderInList(CriteriaClause clause, ClauseContext context, boolean not) {
+        int size = clause.getValues().size();
+        if (size == 0) {
+            return not ? "1 = 1" : "1 = 0";
         }
         String key = "p" + context.nextParamIndex();
+        Class<?> elementType = usesArrayBinding(context.dbType) ? context.arrayElementType(clause) : null;
+        if (elementType != null) {
+            context.bind(key, clause, context.arrayOf(clause, elementType));
+            return resolveColumn(clause, context) + (not ? " <> ALL(:" : " = ANY(:") + key + ")";
+        }
+
+        int placeholders = inListPlaceholders(size);
+        List<String> chunks = new ArrayList<>();
         List<String> holders = new ArrayList<>();
-        for (int i = 0; i < clause.getValues().size(); i++) {
+        for (int i = 0; i < placeholders; i++) {
             String listKey = key + "_" + i;
             holders.add(":" + listKey);
-            context.params.put(listKey, context.toDatabaseValue(clause, clause.getValues().get(i)));
+            context.bind(listKey, clause, context.paddedValueAt(clause, i));
+            if (holders.size() == options.getInListChunkSize() || i == placeholders - 1) {
+                chunks.add(String.join(", ", holders));
+                holders.clear();
+            }
+        }
+        String column = resolveColumn(clause, context);
+        String keyword = not ? " NOT IN (" : " IN (";
+        if (chunks.size() == 1) {
+            return column + keyword + chunks.get(0) + ")";
         }
-        return resolveColumn(clause, context) + " IN (" + String.join(", ", holders) + ")";
+        List<String> parts = chunks.stream().map(chunk -> column + keyword + chunk + ")").toList();
+        return "(" + String.join(not ? " AND " : " OR ", parts) + ")";
     }
 
-    private String renderNotIn(CriteriaClause clause, ClauseContext context) {
-        if (clause.getValues().isEmpty()) {
-            return "1 = 1";
-        }
-        String key = "p" + context.nextParamIndex();
-        List<String> holders = new ArrayList<>();
-        for (int i = 0; i < clause.getValues().size(); i++) {
-            String listKey = key + "_" + i;
-            holders.add(":" + listKey);
-            context.params.put(listKey, context.toDatabaseValue(clause, clause.getValues().get(i)));
+    private static boolean isInList(CriteriaClause clause) {
+        return clause.getOperator() == CriteriaOperator.IN || clause.getOperator() == CriteriaOperator.NOT_IN;
+    }
+
+    private boolean usesArrayBinding(DBInfo.Type dbType) {
+        return options.getInListStrategy() == InListStrategy.ANY_ARRAY && dbType == DBInfo.Type.POSTGRESQL;
+    }
+
+    /**
+     * Placeholder count for a list of {@code size} values: full chunks first, then the remainder, padded to the
+     * next power of two (at most a full chunk) unless the strategy is {@link InListStrategy#EXACT}. The count alone
+     * determines the rendered SQL, so it is what the template fingerprint records.
+     */
+    private int inListPlaceholders(int size) {
+        int chunkSize = options.getInListChunkSize();
+        int full = (size - 1) / chunkSize * chunkSize;
+        int rest = size - full;
+        if (options.getInListStrategy() == InListStrategy.EXACT || rest == 1) {
+            return size;
         }
-        return resolveColumn(clause, context) + " NOT IN (" + String.join(", ", holders) + ")";
+        return full + Math.min(Integer.highestOneBit(rest - 1) << 1, chunkSize);
     }
 
     private String renderContains(CriteriaClause clause, ClauseContext context) {
@@ -167,7 +330,7 @@ public final class CriteriaSqlCompiler {
             throw new OrmException(OrmException.Code.INVALID_CRITERIA, "CONTAINS requires exactly one value");
         }
         CollectionField collection = resolveCollectionField(clause, context);
-        String key = bindCollectionElement(collection.fieldMeta, clause.getValues().get(0), context);
+        String key = bindCollectionElement(collection.fieldMeta, clause, 0, context);
         return renderCollectionContains(collection, key, context.dbType);
     }
 
@@ -180,8 +343,8 @@ public final class CriteriaSqlCompiler {
             return emptyExpression;
         }
         List<String> keys = new ArrayList<>();
-        for (Object value : clause.getValues()) {
-            keys.add(bindCollectionElement(collection.fieldMeta, value, context));
+        for (int i = 0; i < clause.getValues().size(); i++) {
+            keys.add(bindCollectionElement(collection.fieldMeta, clause, i, context));
         }
         if (collection.fieldMeta.getColumnType() == ColumnType.ARRAY) {
             List<String> valueExpressions = keys.stream().map(key -> ":" + key).toList();
@@ -249,7 +412,13 @@ public final class CriteriaSqlCompiler {
         return new CollectionField(fieldMeta, columnSql);
     }
 
-    private String bindCollectionElement(FieldMeta fieldMeta, Object value, ClauseContext context) {
+    private String bindCollectionElement(FieldMeta fieldMeta, CriteriaClause clause, int index, ClauseContext context) {
+        String key = "p" + context.nextParamIndex();
+        context.bind(key, clause, current -> encodeCollectionElement(fieldMeta, current.getValues().get(index)));
+        return key;
+    }
+
+    private Object encodeCollectionElement(FieldMeta fieldMeta, Object value) {
         Object encoded;
         try {
             encoded = FieldValueCodec.toCollectionElementDatabaseValue(fieldMeta, value, valueConverter);
@@ -259,27 +428,25 @@ public final class CriteriaSqlCompiler {
         if (encoded == null) {
             throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Collection criteria value must not be null or blank");
         }
-        String key = "p" + context.nextParamIndex();
-        context.params.put(key, encoded);
-        return key;
+        return encoded;
     }
 
     private String renderInSubQuery(CriteriaClause clause, ClauseContext context, boolean notIn) {
         SqlSubQuery subQuery = asSubQuery(clause);
-        String rewritten = rewriteNamedParams(subQuery.getSql(), subQuery.getParams(), context);
+        String rewritten = rewriteNamedParams(clause, subQuery.getSql(), subQuery.getParams(), context);
         String keyword = notIn ? " NOT IN " : " IN ";
         return resolveColumn(clause, context) + keyword + "(" + rewritten + ")";
     }
 
     private String renderExists(CriteriaClause clause, ClauseContext context, boolean notExists) {
         SqlSubQuery subQuery = asSubQuery(clause);
-        String rewritten = rewriteNamedParams(subQuery.getSql(), subQuery.getParams(), context);
+        String rewritten = rewriteNamedParams(clause, subQuery.getSql(), subQuery.getParams(), context);
         return (notExists ? "NOT EXISTS (" : "EXISTS (") + rewritten + ")";
     }
 
     private String renderRaw(CriteriaClause clause, ClauseContext context) {
         SqlRawCondition raw = asRawCondition(clause);
-        return rewriteNamedParams(raw.getSql(), raw.getParams(), context);
+        return rewriteNamedParams(clause, raw.getSql(), raw.getParams(), context);
     }
 
     private String resolveColumn(CriteriaClause clause, ClauseContext context) {
@@ -307,7 +474,10 @@ public final class CriteriaSqlCompiler {
         return raw;
     }
 
-    private String rewriteNamedParams(String rawSql, Map<String, Object> sourceParams, ClauseContext context) {
+    private String rewriteNamedParams(CriteriaClause clause,
+                                      String rawSql,
+                                      Map<String, Object> sourceParams,
+                                      ClauseContext context) {
         if (rawSql.contains("?")) {
             throw new OrmException(OrmException.Code.INVALID_CRITERIA, "SQL fragment must use named parameters instead of positional '?'");
         }
@@ -324,27 +494,56 @@ public final class CriteriaSqlCompiler {
         }
         matcher.appendTail(buffer);
         renamed.forEach((original, rewritten) ->
-                context.params.put(rewritten, valueConverter.toDatabaseValue(sourceParams.get(original))));
+                context.bind(rewritten, clause, current -> fragmentParam(current, original)));
         return buffer.toString();
     }
 
-    private Object firstValue(CriteriaClause clause) {
+    private Object fragmentParam(CriteriaClause clause, String name) {
+        Object fragment = clause.getValues().get(0);
+        Map<String, Object> params = fragment instanceof SqlRawCondition raw
+                ? raw.getParams()
+                : ((SqlSubQuery) fragment).getParams();
+        if (!params.containsKey(name)) {
+            throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Missing sql parameter: " + name);
+        }
+        return valueConverter.toDatabaseValue(params.get(name));
+    }
+
+    private void requireValue(CriteriaClause clause) {
         if (clause.getValues().isEmpty()) {
             throw new OrmException(OrmException.Code.INVALID_CRITERIA, clause.getOperator() + " requires one value");
         }
-        return clause.getValues().get(0);
     }
 
     private record CollectionField(FieldMeta fieldMeta, String columnSql) {
     }
 
+    private record TemplateKey(TableMeta tableMeta, DBInfo.Type dbType, String fingerprint) {
+    }
+
+    private record Binding(String key, int clauseIndex, ValueBinder binder) {
+    }
+
+    private record Template(String sql, List<Binding> bindings) {
+
+        private CompiledCriteria bind(List<CriteriaClause> clauses) {
+            Map<String, Object> params = new HashMap<>();
+            for (Binding binding : bindings) {
+                params.put(binding.key(), binding.binder().bind(clauses.get(binding.clauseIndex())));
+            }
+            return new CompiledCriteria(sql, params);
+        }
+    }
+
     private static class ClauseContext {
         private final CriteriaColumnResolver columnResolver;
         private final DBInfo.Type dbType;
         private final TableMeta tableMeta;
         private final DatabaseValueConverter valueConverter;
         private final Map<String, Object> params = new HashMap<>();
+        private final List<Binding> bindings = new ArrayList<>();
         private int paramIndex;
+        private int clauseIndex = -1;
 
         private ClauseContext(CriteriaColumnResolver columnResolver,
                               DBInfo.Type dbType,
@@ -360,8 +559,67 @@ public final class CriteriaSqlCompiler {
             return paramIndex++;
         }
 
-        private Object toDatabaseValue(CriteriaClause clause, Object value) {
+        /**
+         * Binds a parameter now and records how to bind it again from a clause of the same shape.
+         */
+        private void bind(String key, CriteriaClause clause, ValueBinder binder) {
+            params.put(key, binder.bind(clause));
+            bindings.add(new Binding(key, clauseIndex, binder));
+        }
+
+        private ValueBinder valueAt(CriteriaClause clause, int index) {
+            FieldMeta fieldMeta = resolveFieldMeta(clause.getField());
+            return current -> toDatabaseValue(fieldMeta, current.getValues().get(index));
+        }
+
+        /**
+         * Placeholders past the end of the list repeat the last value, which leaves IN / NOT IN semantics unchanged.
+         */
+        private ValueBinder paddedValueAt(CriteriaClause clause, int index) {
+            FieldMeta fieldMeta = resolveFieldMeta(clause.getField());
+            return current -> {
+                List<Object> values = current.getValues();
+                return toDatabaseValue(fieldMeta, values.get(Math.min(index, values.size() - 1)));
+            };
+        }
+
+        /**
+         * Common class of the converted non-null values when it is one of {@link #ARRAY_ELEMENT_TYPES}, otherwise
+         * {@code null}: mixed, all-null and other element types (timestamps, decimals, ...) have no driver array
+         * mapping and are rendered as a padded list instead.
+         */
+        private Class<?> arrayElementType(CriteriaClause clause) {
             FieldMeta fieldMeta = resolveFieldMeta(clause.getField());
+            Class<?> common = null;
+            for (Object value : clause.getValues()) {
+                Object converted = toDatabaseValue(fieldMeta, value);
+                if (converted == null) {
+                    continue;
+                }
+                if (common != null && common != converted.getClass()) {
+                    return null;
+                }
+                common = converted.getClass();
+            }
+            return common != null && ARRAY_ELEMENT_TYPES.contains(common) ? common : null;
+        }
+
+        /**
+         * Binds all values as one Java array of {@code elementType}, the type the template was rendered for.
+         */
+        private ValueBinder arrayOf(CriteriaClause clause, Class<?> elementType) {
+            FieldMeta fieldMeta = resolveFieldMeta(clause.getField());
+            return current -> {
+                List<Object> values = current.getValues();
+                Object[] typed = (Object[]) Array.newInstance(elementType, values.size());
+                for (int i = 0; i < typed.length; i++) {
+                    typed[i] = toDatabaseValue(fieldMeta, values.get(i));
+                }
+                return typed;
+            };
+        }
+
+        private Object toDatabaseValue(FieldMeta fieldMeta, Object value) {
             try {
                 if (fieldMeta == null) {
                     return valueConverter.toDatabaseValue(value);
@@ -401,4 +659,9 @@ public final class CriteriaSqlCompiler {
     private interface ClauseRenderer {
         String render(CriteriaClause clause, ClauseContext context);
     }
+
+    @FunctionalInterface
+    private interface ValueBinder {
+        Object bind(CriteriaClause clause);
+    }
 }
@@ -2,14 +2,28 @@ package net.ximatai.muyun.database.core.orm;
 
 import net.ximatai.muyun.database.core.IDatabaseOperations;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.QueryPlanTarget;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DefaultSimpleEntityManager implements SimpleEntityManager {
 
@@ -18,6 +32,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
     private final UpsertStrategy upsertStrategy;
     private final CriteriaSqlCompiler criteriaCompiler;
     private final DatabaseValueConverter valueConverter;
+    private final Map<Class<?>, String> defaultSelectLists = new ConcurrentHashMap<>();
+    private final Map<List<Class<?>>, ProjectionMapper<?>> projectionMappers = new ConcurrentHashMap<>();
 
     @SuppressWarnings("unchecked")
     public DefaultSimpleEntityManager(IDatabaseOperations<?> operations) {
@@ -51,11 +67,20 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
                                       UpsertStrategy upsertStrategy,
                                       EntityMetaResolver metaResolver,
                                       DatabaseValueConverter valueConverter) {
+        this(operations, upsertStrategy, metaResolver, valueConverter, CriteriaCompileOptions.defaults());
+    }
+
+    @SuppressWarnings("unchecked")
+    public DefaultSimpleEntityManager(IDatabaseOperations<?> operations,
+                                      UpsertStrategy upsertStrategy,
+                                      EntityMetaResolver metaResolver,
+                                      DatabaseValueConverter valueConverter,
+                                      CriteriaCompileOptions compileOptions) {
         this.operations = (IDatabaseOperations<Object>) operations;
         this.metaResolver = Objects.requireNonNull(metaResolver, "metaResolver must not be null");
         this.upsertStrategy = upsertStrategy == null ? UpsertStrategy.ATOMIC_PREFERRED : upsertStrategy;
         this.valueConverter = valueConverter == null ? DatabaseValueConverter.DEFAULT : valueConverter;
-        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter);
+        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter, compileOptions);
     }
 
     protected EntityMeta resolveMeta(Class<?> entityClass) {
@@ -75,6 +100,18 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         return new SchemaManager(operations).ensureTable(meta.getTableWrapper(), options);
     }
 
+    @Override
+    public void prefetchMetadata(Collection<Class<?>> entityClasses) {
+        if (entityClasses == null || entityClasses.isEmpty()) {
+            return;
+        }
+        Set<String> schemas = new LinkedHashSet<>();
+        for (Class<?> entityClass : entityClasses) {
+            schemas.add(schema(resolveMeta(entityClass)));
+        }
+        operations.prefetchMetadata(schemas);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T, ID> ID insert(T entity) {
@@ -84,7 +121,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         Object currentId = meta.getIdField().read(entity);
 
         Map<String, Object> body = EntityMapper.toMap(meta, entity, false, currentId != null, valueConverter);
-        Object id = operations.insertItem(schema(meta), meta.getTableName(), body, meta.getIdColumnName());
+        Object id = observe(DatabaseOperationType.INSERT, meta,
+                () -> operations.insertItem(schema(meta), meta.getTableName(), body, meta.getIdColumnName()));
 
         if (currentId == null && id != null) {
             meta.getIdField().write(entity, id);
@@ -94,6 +132,81 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         return (ID) currentId;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T, ID> List<ID> insertAll(Collection<T> entities) {
+        Objects.requireNonNull(entities, "entities must not be null");
+
+        List<T> items = new ArrayList<>(entities);
+        Map<Class<?>, List<Integer>> byType = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            T entity = Objects.requireNonNull(items.get(i), "entity must not be null");
+            byType.computeIfAbsent(entity.getClass(), type -> new ArrayList<>()).add(i);
+        }
+
+        List<ID> ids = new ArrayList<>(Collections.nCopies(items.size(), null));
+        for (Map.Entry<Class<?>, List<Integer>> group : byType.entrySet()) {
+            EntityMeta meta = resolveMeta(group.getKey());
+            List<Integer> indexes = group.getValue();
+            List<Object> currentIds = new ArrayList<>(indexes.size());
+            List<Map<String, Object>> bodies = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                T entity = items.get(index);
+                Object currentId = meta.getIdField().read(entity);
+                currentIds.add(currentId);
+                bodies.add(EntityMapper.toMap(meta, entity, false, currentId != null, valueConverter));
+            }
+
+            List<Object> keys = observe(DatabaseOperationType.BATCH, meta,
+                    () -> operations.insertRows(schema(meta), meta.getTableName(), bodies, meta.getIdColumnName()));
+            for (int i = 0; i < indexes.size(); i++) {
+                Object currentId = currentIds.get(i);
+                Object id = keys.get(i);
+                if (currentId == null && id != null) {
+                    meta.getIdField().write(items.get(indexes.get(i)), id);
+                    ids.set(indexes.get(i), (ID) id);
+                } else {
+                    ids.set(indexes.get(i), (ID) currentId);
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public <T> BulkInsertResult<Object> copyIn(Class<T> entityClass,
+                                               Iterator<? extends T> entities,
+                                               BulkInsertOptions options) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        Objects.requireNonNull(entities, "entities must not be null");
+
+        EntityMeta meta = resolveMeta(entityClass);
+        Iterator<Map<String, Object>> rows = new Iterator<>() {
+            private Boolean withId;
+
+            @Override
+            public boolean hasNext() {
+                return entities.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                T entity = Objects.requireNonNull(entities.next(), "entity must not be null");
+                boolean hasId = meta.getIdField().read(entity) != null;
+                if (withId == null) {
+                    withId = hasId;
+                } else if (withId != hasId) {
+                    throw new OrmException(OrmException.Code.INVALID_ENTITY,
+                            "copyIn requires every entity to either set or omit the id");
+                }
+                // COPY writes a fixed column list: nulls become NULL, an unset id is left to the column default
+                return EntityMapper.toMap(meta, entity, true, hasId, valueConverter);
+            }
+        };
+        return observe(DatabaseOperationType.BATCH, meta,
+                () -> operations.copyIn(schema(meta), meta.getTableName(), rows, options));
+    }
+
     @Override
     public <T> int update(T entity) {
         return update(entity, NullUpdateStrategy.INCLUDE_NULLS);
@@ -114,7 +227,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         Map<String, Object> body = EntityMapper.toMap(meta, entity, includeNull, false, valueConverter);
         body.put(meta.getIdColumnName(), id);
 
-        return operations.updateItem(schema(meta), meta.getTableName(), body, meta.getIdColumnName());
+        return observe(DatabaseOperationType.UPDATE, meta,
+                () -> operations.updateItem(schema(meta), meta.getTableName(), body, meta.getIdColumnName()));
     }
 
     @Override
@@ -133,7 +247,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
             where.putAll(resolveConditionColumns(meta, conditions));
         }
         where.put(meta.getIdColumnName(), id);
-        return operations.patchUpdateItemWhere(schema(meta), meta.getTableName(), body, where, meta.getIdColumnName());
+        return observe(DatabaseOperationType.UPDATE, meta,
+                () -> operations.patchUpdateItemWhere(schema(meta), meta.getTableName(), body, where, meta.getIdColumnName()));
     }
 
     @Override
@@ -147,7 +262,37 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         }
 
         Map<String, Object> body = EntityMapper.toMap(meta, entity, true, true, valueConverter);
-        return executeUpsert(schema(meta), meta.getTableName(), body, meta.getIdColumnName());
+        return observe(DatabaseOperationType.UPSERT, meta,
+                () -> executeUpsert(schema(meta), meta.getTableName(), body, meta.getIdColumnName()));
+    }
+
+    @Override
+    public <T> int[] upsertAll(Collection<T> entities) {
+        Objects.requireNonNull(entities, "entities must not be null");
+
+        Map<Class<?>, List<T>> byType = new LinkedHashMap<>();
+        for (T entity : entities) {
+            Objects.requireNonNull(entity, "entity must not be null");
+            byType.computeIfAbsent(entity.getClass(), type -> new ArrayList<>()).add(entity);
+        }
+
+        List<Integer> affected = new ArrayList<>();
+        for (Map.Entry<Class<?>, List<T>> group : byType.entrySet()) {
+            EntityMeta meta = resolveMeta(group.getKey());
+            List<Map<String, Object>> bodies = new ArrayList<>(group.getValue().size());
+            for (T entity : group.getValue()) {
+                if (meta.getIdField().read(entity) == null) {
+                    throw new OrmException(OrmException.Code.INVALID_ENTITY, "entity id must not be null");
+                }
+                bodies.add(EntityMapper.toMap(meta, entity, true, true, valueConverter));
+            }
+            int[] counts = observe(DatabaseOperationType.UPSERT, meta,
+                    () -> executeUpsertAll(schema(meta), meta.getTableName(), bodies, meta.getIdColumnName()));
+            for (int count : counts) {
+                affected.add(count);
+            }
+        }
+        return affected.stream().mapToInt(Integer::intValue).toArray();
     }
 
     @Override
@@ -155,7 +300,16 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         Objects.requireNonNull(entityClass, "entityClass must not be null");
 
         EntityMeta meta = resolveMeta(entityClass);
-        Map<String, Object> row = operations.getItem(schema(meta), meta.getTableName(), id, meta.getIdColumnName());
+        if (mapsResultSets(meta, entityClass)) {
+            String sql = "SELECT " + selectList(meta, null)
+                    + " FROM " + SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType())
+                    + " WHERE " + SqlIdentifiers.quote(meta.getIdColumnName(), databaseType()) + "=:id";
+            List<T> found = observe(DatabaseOperationType.ROW, meta, () -> operations.query(
+                    sql, Collections.singletonMap("id", id), new EntityRowMapper<>(meta, entityClass, valueConverter)));
+            return found.isEmpty() ? null : found.getFirst();
+        }
+        Map<String, Object> row = observe(DatabaseOperationType.ROW, meta,
+                () -> operations.getItem(schema(meta), meta.getTableName(), id, meta.getIdColumnName(), mappedColumns(meta)));
         return EntityMapper.fromMap(meta, row, entityClass, valueConverter);
     }
 
@@ -164,7 +318,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         Objects.requireNonNull(entityClass, "entityClass must not be null");
 
         EntityMeta meta = resolveMeta(entityClass);
-        return operations.deleteItem(schema(meta), meta.getTableName(), id, meta.getIdColumnName());
+        return observe(DatabaseOperationType.DELETE, meta,
+                () -> operations.deleteItem(schema(meta), meta.getTableName(), id, meta.getIdColumnName()));
     }
 
     @Override
@@ -177,7 +332,8 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
             where.putAll(resolveConditionColumns(meta, conditions));
         }
         where.put(meta.getIdColumnName(), id);
-        return operations.deleteItemWhere(schema(meta), meta.getTableName(), where);
+        return observe(DatabaseOperationType.DELETE, meta,
+                () -> operations.deleteItemWhere(schema(meta), meta.getTableName(), where));
     }
 
     @Override
@@ -193,7 +349,9 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         EntityMeta meta = resolveMeta(entityClass);
         String schemaDotTable = SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType());
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ")
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(selectList(meta, null))
+                .append(" FROM ")
                 .append(schemaDotTable);
         appendOrderBy(sql, meta, sorts);
         sql.append(" LIMIT :limit OFFSET :offset");
@@ -202,10 +360,7 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         params.put("limit", pageRequest.getLimit());
         params.put("offset", pageRequest.getOffset());
 
-        List<Map<String, Object>> rows = operations.query(sql.toString(), params);
-        return rows.stream()
-                .map(row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter))
-                .collect(Collectors.toList());
+        return queryEntities(meta, entityClass, sql.toString(), params);
     }
 
     @Override
@@ -218,6 +373,9 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         Objects.requireNonNull(entityClass, "entityClass must not be null");
         Objects.requireNonNull(pageRequest, "pageRequest must not be null");
 
+        if (pageRequest.getCountStrategy() != null && pageRequest.getCountStrategy() != CountStrategy.EXACT) {
+            return pageQuery(entityClass, Criteria.of(), pageRequest, sorts);
+        }
         EntityMeta meta = resolveMeta(entityClass);
         long total = countTotal(meta, null, Map.of());
         List<T> records = findAll(entityClass, pageRequest, sorts);
@@ -238,8 +396,36 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         EntityMeta meta = resolveMeta(entityClass);
         CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ")
-                .append(SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType()));
+        Map<String, Object> params = new HashMap<>();
+        String sql = pageSql(meta, selectList(meta, criteria), compiled, pageRequest, false, params, sorts);
+        return queryEntities(meta, entityClass, sql, params);
+    }
+
+    private List<Map<String, Object>> queryPage(EntityMeta meta,
+                                                String selectList,
+                                                CompiledCriteria compiled,
+                                                PageRequest pageRequest,
+                                                boolean windowCount,
+                                                Sort... sorts) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = pageSql(meta, selectList, compiled, pageRequest, windowCount, params, sorts);
+        return criteriaQuery(meta, sql, params, () -> operations.query(sql, params));
+    }
+
+    /**
+     * Page SQL for the compiled criteria; fills {@code params} with the criteria, limit and offset parameters.
+     */
+    private String pageSql(EntityMeta meta,
+                           String selectList,
+                           CompiledCriteria compiled,
+                           PageRequest pageRequest,
+                           boolean windowCount,
+                           Map<String, Object> params,
+                           Sort... sorts) {
+        String schemaDotTable = SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType());
+        StringBuilder sql = new StringBuilder(windowCount
+                ? WindowCount.selectFrom(selectList, schemaDotTable)
+                : "SELECT " + selectList + " FROM " + schemaDotTable);
         if (!compiled.getSql().isEmpty()) {
             sql.append(" WHERE ").append(compiled.getSql());
         }
@@ -247,16 +433,29 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         appendOrderBy(sql, meta, sorts);
         sql.append(" LIMIT :limit OFFSET :offset");
 
-        Map<String, Object> params = new HashMap<>(compiled.getParams());
+        params.putAll(compiled.getParams());
         params.put("limit", pageRequest.getLimit());
         params.put("offset", pageRequest.getOffset());
+        return sql.toString();
+    }
 
-        List<Map<String, Object>> rows = operations.query(sql.toString(), params);
-        return rows.stream()
+    /**
+     * Reads entities straight from the result set when the operations support it, otherwise maps row maps.
+     */
+    private <T> List<T> queryEntities(EntityMeta meta, Class<T> entityClass, String sql, Map<String, Object> params) {
+        if (mapsResultSets(meta, entityClass)) {
+            return criteriaQuery(meta, sql, params,
+                    () -> operations.query(sql, params, new EntityRowMapper<>(meta, entityClass, valueConverter)));
+        }
+        return criteriaQuery(meta, sql, params, () -> operations.query(sql, params)).stream()
                 .map(row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter))
                 .collect(Collectors.toList());
     }
 
+    private boolean mapsResultSets(EntityMeta meta, Class<?> entityClass) {
+        return entityClass == meta.getEntityClass() && operations.supportsResultSetMapping();
+    }
+
     @Override
     public <T> List<T> list(Class<T> entityClass, Criteria criteria, Sort... sorts) {
         Objects.requireNonNull(entityClass, "entityClass must not be null");
@@ -265,18 +464,74 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         EntityMeta meta = resolveMeta(entityClass);
         CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ")
+        return queryEntities(meta, entityClass, listSql(meta, selectList(meta, criteria), compiled, sorts), compiled.getParams());
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> entityClass, Criteria criteria, Sort... sorts) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        Objects.requireNonNull(criteria, "criteria must not be null");
+
+        EntityMeta meta = resolveMeta(entityClass);
+        CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
+
+        String sql = listSql(meta, selectList(meta, criteria), compiled, sorts);
+        if (mapsResultSets(meta, entityClass)) {
+            return operations.stream(sql, compiled.getParams(), new EntityRowMapper<>(meta, entityClass, valueConverter));
+        }
+        return operations.stream(sql, compiled.getParams())
+                .map(row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter));
+    }
+
+    @Override
+    public <T, R> List<R> listAs(Class<T> entityClass, Class<R> projectionType, Criteria criteria, Sort... sorts) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        Objects.requireNonNull(criteria, "criteria must not be null");
+
+        EntityMeta meta = resolveMeta(entityClass);
+        ProjectionMapper<R> mapper = projectionMapper(meta, projectionType);
+        CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
+        String sql = listSql(meta, quoteColumns(mapper.columns()), compiled, sorts);
+        return criteriaQuery(meta, sql, compiled.getParams(), () -> operations.query(sql, compiled.getParams())).stream()
+                .map(row -> mapper.map(row, valueConverter))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <T, R> List<R> queryAs(Class<T> entityClass,
+                                  Class<R> projectionType,
+                                  Criteria criteria,
+                                  PageRequest pageRequest,
+                                  Sort... sorts) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        Objects.requireNonNull(criteria, "criteria must not be null");
+        Objects.requireNonNull(pageRequest, "pageRequest must not be null");
+
+        EntityMeta meta = resolveMeta(entityClass);
+        ProjectionMapper<R> mapper = projectionMapper(meta, projectionType);
+        CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
+        return queryPage(meta, quoteColumns(mapper.columns()), compiled, pageRequest, false, sorts).stream()
+                .map(row -> mapper.map(row, valueConverter))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> ProjectionMapper<R> projectionMapper(EntityMeta meta, Class<R> projectionType) {
+        Objects.requireNonNull(projectionType, "projectionType must not be null");
+        return (ProjectionMapper<R>) projectionMappers.computeIfAbsent(
+                List.of(meta.getEntityClass(), projectionType),
+                ignored -> new ProjectionMapper<>(meta, projectionType)
+        );
+    }
+
+    private String listSql(EntityMeta meta, String selectList, CompiledCriteria compiled, Sort... sorts) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(selectList).append(" FROM ")
                 .append(SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType()));
         if (!compiled.getSql().isEmpty()) {
             sql.append(" WHERE ").append(compiled.getSql());
         }
-
         appendOrderBy(sql, meta, sorts);
-
-        List<Map<String, Object>> rows = operations.query(sql.toString(), compiled.getParams());
-        return rows.stream()
-                .map(row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter))
-                .collect(Collectors.toList());
+        return sql.toString();
     }
 
     @Override
@@ -292,9 +547,61 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
 
         EntityMeta meta = resolveMeta(entityClass);
         CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
-        long total = countTotal(meta, compiled.getSql(), compiled.getParams());
-        List<T> records = query(entityClass, criteria, pageRequest, sorts);
-        return PageResult.of(records, total, pageRequest);
+        CountStrategy strategy = pageRequest.getCountStrategy() == null ? CountStrategy.EXACT : pageRequest.getCountStrategy();
+        PageCounts.Total total = switch (strategy) {
+            case WINDOW, NONE -> null;
+            case EXACT, CAPPED, ESTIMATED -> observe(DatabaseOperationType.COUNT, meta, () ->
+                    PageCounts.count(operations, schema(meta), meta.getTableName(), compiled.getSql(), compiled.getParams(), pageRequest));
+        };
+        if (strategy != CountStrategy.WINDOW) {
+            Map<String, Object> params = new HashMap<>();
+            String sql = pageSql(meta, selectList(meta, criteria), compiled, pageRequest, false, params, sorts);
+            List<T> records = queryEntities(meta, entityClass, sql, params);
+            return strategy == CountStrategy.NONE
+                    ? PageResult.unknownTotal(records, pageRequest)
+                    : total.toResult(records, pageRequest);
+        }
+        List<Map<String, Object>> rows = queryPage(meta, selectList(meta, criteria), compiled, pageRequest, true, sorts);
+        List<T> records = rows.stream()
+                .map(row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter))
+                .collect(Collectors.toList());
+        long windowTotal = WindowCount.total(rows, pageRequest, () -> countTotal(meta, compiled.getSql(), compiled.getParams()));
+        return PageResult.of(records, windowTotal, pageRequest);
+    }
+
+    @Override
+    public <T> KeysetPage<T> keysetQuery(Class<T> entityClass, Criteria criteria, KeysetRequest request, Sort... sorts) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        Objects.requireNonNull(criteria, "criteria must not be null");
+        Objects.requireNonNull(request, "request must not be null");
+
+        EntityMeta meta = resolveMeta(entityClass);
+        CompiledCriteria compiled = criteriaCompiler.compile(criteria, meta, databaseType());
+        List<Map.Entry<String, SortDirection>> sortColumns = new ArrayList<>();
+        for (Sort sort : sorts == null ? new Sort[0] : sorts) {
+            if (sort == null) {
+                continue;
+            }
+            String columnName = meta.resolveColumnName(sort.getField());
+            if (columnName == null || !SqlIdentifiers.isSafe(columnName)) {
+                throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Unknown or unsafe sort field: " + sort.getField());
+            }
+            sortColumns.add(Map.entry(columnName, sort.getDirection()));
+        }
+        KeysetQuery keyset = new KeysetQuery(meta.getTableName(), sortColumns, meta.getIdColumnName(),
+                KeysetQuery.nullableColumns(operations.getDBInfo(), schema(meta), meta.getTableName(), sortColumns),
+                databaseType());
+
+        Map<String, Object> params = new HashMap<>(compiled.getParams());
+        String sql = keyset.render(
+                "SELECT " + selectList(meta, criteria, keyset.columns())
+                        + " FROM " + SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType()),
+                compiled.getSql(),
+                request,
+                params
+        );
+        return keyset.toPage(criteriaQuery(meta, sql, params, () -> operations.query(sql, params)), request,
+                row -> EntityMapper.fromMap(meta, row, entityClass, valueConverter));
     }
 
     @Override
@@ -319,7 +626,7 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         String schemaDotTable = SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType());
         String pkColumn = SqlIdentifiers.quote(meta.getIdColumnName(), databaseType());
         String sql = "SELECT 1 FROM " + schemaDotTable + " WHERE " + pkColumn + " = :id LIMIT 1";
-        Map<String, Object> row = operations.row(sql, Map.of("id", id));
+        Map<String, Object> row = observe(DatabaseOperationType.ROW, meta, () -> operations.row(sql, Map.of("id", id)));
         return row != null && !row.isEmpty();
     }
 
@@ -331,14 +638,74 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
     }
 
     private long countTotal(EntityMeta meta, String whereSql, Map<String, Object> params) {
-        String schemaDotTable = SqlIdentifiers.qualified(schema(meta), meta.getTableName(), databaseType());
-        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM ").append(schemaDotTable);
-        if (whereSql != null && !whereSql.isBlank()) {
-            sql.append(" WHERE ").append(whereSql);
+        return observe(DatabaseOperationType.COUNT, meta,
+                () -> PageCounts.exact(operations, schema(meta), meta.getTableName(), whereSql, params));
+    }
+
+    /**
+     * Labels the statements issued by {@code action} with the entity operation and table when metrics or the slow query log
+     * need them.
+     */
+    private <R> R observe(DatabaseOperationType operation, EntityMeta meta, Supplier<R> action) {
+        if (!operations.isStatementLabelingEnabled()) {
+            return action.get();
         }
-        Map<String, Object> row = operations.row(sql.toString(), params == null ? Map.of() : params);
-        Long count = CountValueResolver.resolve(row);
-        return count == null ? 0L : count;
+        return DatabaseMetricsContext.call(operation, schema(meta), meta.getTableName(), action);
+    }
+
+    /**
+     * Runs a Criteria query under {@link #observe}; its duration is reported to the operations' query plan sampler.
+     */
+    private <R> R criteriaQuery(EntityMeta meta, String sql, Map<String, Object> params, Supplier<R> action) {
+        QueryPlanSampler sampler = operations.getQueryPlanSampler();
+        if (!sampler.isEnabled()) {
+            return observe(DatabaseOperationType.QUERY, meta, action);
+        }
+        long start = System.nanoTime();
+        R result = observe(DatabaseOperationType.QUERY, meta, action);
+        sampler.afterQuery(sql, params, System.nanoTime() - start, () -> planTarget(meta));
+        return result;
+    }
+
+    private QueryPlanTarget planTarget(EntityMeta meta) {
+        Map<String, String> fieldsByColumn = new HashMap<>();
+        meta.getFields().forEach(field -> fieldsByColumn.put(field.getColumnName(), field.getFieldName()));
+        return new QueryPlanTarget(schema(meta), meta.getTableName(), meta.getEntityClass(), fieldsByColumn);
+    }
+
+    /**
+     * Quoted select list: the fields chosen by {@link Criteria#select(String...)} plus {@code requiredColumns}, or
+     * every mapped column of the entity when nothing is selected. Unmapped columns of wide tables are never read.
+     */
+    private String selectList(EntityMeta meta, Criteria criteria, List<String> requiredColumns) {
+        List<String> selected = criteria == null ? List.of() : criteria.getSelectedFields();
+        if (selected.isEmpty()) {
+            return defaultSelectLists.computeIfAbsent(meta.getEntityClass(), ignored -> quoteColumns(mappedColumns(meta)));
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : selected) {
+            String columnName = meta.resolveColumnName(field);
+            if (columnName == null || !SqlIdentifiers.isSafe(columnName)) {
+                throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Unknown or unsafe select field: " + field);
+            }
+            columns.add(columnName);
+        }
+        columns.addAll(requiredColumns);
+        return quoteColumns(columns);
+    }
+
+    private String selectList(EntityMeta meta, Criteria criteria) {
+        return selectList(meta, criteria, List.of());
+    }
+
+    private List<String> mappedColumns(EntityMeta meta) {
+        return meta.getFields().stream().map(EntityFieldMeta::getColumnName).toList();
+    }
+
+    private String quoteColumns(Collection<String> columns) {
+        return columns.stream()
+                .map(column -> SqlIdentifiers.quote(column, databaseType()))
+                .collect(Collectors.joining(", "));
     }
 
     private void appendOrderBy(StringBuilder sql, EntityMeta meta, Sort... sorts) {
@@ -394,6 +761,18 @@ public class DefaultSimpleEntityManager implements SimpleEntityManager {
         return executeUpsert(schema, tableName, body, operations.getPKName());
     }
 
+    private int[] executeUpsertAll(String schema, String tableName, List<Map<String, Object>> bodies, String pkName) {
+        if (upsertStrategy == UpsertStrategy.LEGACY_ONLY || !operations.supportsAtomicUpsert()) {
+            int[] processed = new int[bodies.size()];
+            for (int i = 0; i < bodies.size(); i++) {
+                executeUpsert(schema, tableName, bodies.get(i), pkName);
+                processed[i] = 1;
+            }
+            return processed;
+        }
+        return operations.atomicUpsertList(schema, tableName, bodies, pkName);
+    }
+
     private int executeUpsert(String schema, String tableName, Map<String, Object> body, String pkName) {
         if (upsertStrategy == UpsertStrategy.LEGACY_ONLY) {
             return operations.legacyUpsertItem(schema, tableName, body, pkName);
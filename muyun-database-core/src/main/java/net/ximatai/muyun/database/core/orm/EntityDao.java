@@ -1,7 +1,11 @@
 package net.ximatai.muyun.database.core.orm;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface EntityDao<T, ID> {
 
@@ -9,6 +13,14 @@ public interface EntityDao<T, ID> {
 
     ID insert(T entity);
 
+    default List<ID> insertAll(Collection<T> entities) {
+        List<ID> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            ids.add(insert(entity));
+        }
+        return ids;
+    }
+
     int updateById(T entity);
 
     default int updateByIdAndCondition(T entity, Map<String, Object> conditions) {
@@ -35,13 +47,48 @@ public interface EntityDao<T, ID> {
         throw new UnsupportedOperationException("unpaged list is not supported by this EntityDao implementation");
     }
 
+    default <R> List<R> listAs(Class<R> projectionType, Criteria criteria, Sort... sorts) {
+        throw new UnsupportedOperationException("listAs is not supported by this EntityDao implementation");
+    }
+
+    default <R> List<R> queryAs(Class<R> projectionType, Criteria criteria, PageRequest pageRequest, Sort... sorts) {
+        throw new UnsupportedOperationException("queryAs is not supported by this EntityDao implementation");
+    }
+
+    default Stream<T> stream(Criteria criteria, Sort... sorts) {
+        throw new UnsupportedOperationException("stream is not supported by this EntityDao implementation");
+    }
+
+    default void forEach(Criteria criteria, Consumer<? super T> action, Sort... sorts) {
+        try (Stream<T> records = stream(criteria, sorts)) {
+            records.forEach(action);
+        }
+    }
+
     PageResult<T> pageQuery(Criteria criteria, PageRequest pageRequest, Sort... sorts);
 
     default PageResult<T> page(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
         return pageQuery(criteria, pageRequest, sorts);
     }
 
+    default KeysetPage<T> keysetQuery(Criteria criteria, KeysetRequest request, Sort... sorts) {
+        throw new UnsupportedOperationException("keysetQuery is not supported by this EntityDao implementation");
+    }
+
     long count(Criteria criteria);
 
     int upsert(T entity);
+
+    /**
+     * @see SimpleEntityManager#upsertAll(Collection)
+     */
+    default int[] upsertAll(Collection<T> entities) {
+        int[] processed = new int[entities.size()];
+        int index = 0;
+        for (T entity : entities) {
+            upsert(entity);
+            processed[index++] = 1;
+        }
+        return processed;
+    }
 }
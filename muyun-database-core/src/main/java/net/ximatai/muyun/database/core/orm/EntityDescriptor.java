@@ -0,0 +1,29 @@
+package net.ximatai.muyun.database.core.orm;
+
+import net.ximatai.muyun.database.core.builder.TableWrapper;
+
+import java.util.List;
+
+/**
+ * Compile-time description of a {@code @Table} entity, generated by the {@code muyun-database-processor} annotation
+ * processor and discovered through {@link java.util.ServiceLoader}. When one is present for an entity,
+ * {@link EntityMetaResolver} and {@link net.ximatai.muyun.database.core.builder.TableBuilder} use it instead of
+ * reading the entity's annotations and fields reflectively.
+ */
+public interface EntityDescriptor<T> {
+
+    Class<T> entityType();
+
+    /**
+     * Table definition equivalent to {@link net.ximatai.muyun.database.core.annotation.AnnotationProcessor#fromEntityClass(Class)};
+     * a new instance on every call.
+     */
+    TableWrapper tableWrapper();
+
+    /**
+     * Mapped fields in the order the annotation scan would report them.
+     */
+    List<EntityFieldDescriptor> fields();
+
+    T newInstance();
+}
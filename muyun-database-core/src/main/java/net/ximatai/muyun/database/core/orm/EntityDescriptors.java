@@ -0,0 +1,75 @@
+package net.ximatai.muyun.database.core.orm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Registry of generated {@link EntityDescriptor}s, loaded once per class loader through {@link ServiceLoader}.
+ * Descriptors reference their loader's classes, so they are held softly to let reloaded loaders be collected. Set the system property {@code muyun.database.entity-descriptors=false} to ignore them and always use reflection.
+ */
+public final class EntityDescriptors {
+
+    public static final String ENABLED_PROPERTY = "muyun.database.entity-descriptors";
+
+    private static final int MAX_PROVIDER_FAILURES = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityDescriptors.class);
+    private static final Map<ClassLoader, SoftReference<Map<Class<?>, EntityDescriptor<?>>>> BY_LOADER = new WeakHashMap<>();
+
+    private EntityDescriptors() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<EntityDescriptor<T>> find(Class<T> entityClass) {
+        if (entityClass == null || !Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return Optional.empty();
+        }
+        ClassLoader loader = entityClass.getClassLoader();
+        if (loader == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((EntityDescriptor<T>) descriptors(loader).get(entityClass));
+    }
+
+    private static Map<Class<?>, EntityDescriptor<?>> descriptors(ClassLoader loader) {
+        synchronized (BY_LOADER) {
+            SoftReference<Map<Class<?>, EntityDescriptor<?>>> cached = BY_LOADER.get(loader);
+            Map<Class<?>, EntityDescriptor<?>> descriptors = cached == null ? null : cached.get();
+            if (descriptors == null) {
+                descriptors = load(loader);
+                BY_LOADER.put(loader, new SoftReference<>(descriptors));
+            }
+            return descriptors;
+        }
+    }
+
+    private static Map<Class<?>, EntityDescriptor<?>> load(ClassLoader loader) {
+        Map<Class<?>, EntityDescriptor<?>> descriptors = new HashMap<>();
+        @SuppressWarnings("rawtypes")
+        Iterator<EntityDescriptor> services = ServiceLoader.load(EntityDescriptor.class, loader).iterator();
+        int failures = 0;
+        while (failures < MAX_PROVIDER_FAILURES) {
+            try {
+                if (!services.hasNext()) {
+                    return descriptors;
+                }
+                EntityDescriptor<?> descriptor = services.next();
+                descriptors.putIfAbsent(descriptor.entityType(), descriptor);
+            } catch (ServiceConfigurationError | LinkageError e) {
+                // a stale or broken descriptor is skipped and its entity falls back to reflection
+                failures++;
+                logger.warn("Ignoring entity descriptor: {}", e.toString());
+            }
+        }
+        return descriptors;
+    }
+}
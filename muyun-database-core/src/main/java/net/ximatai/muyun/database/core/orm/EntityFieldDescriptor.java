@@ -0,0 +1,36 @@
+package net.ximatai.muyun.database.core.orm;
+
+import net.ximatai.muyun.database.core.builder.ColumnType;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * One mapped field of an {@link EntityDescriptor}.
+ *
+ * @param declaringClass    class declaring the field, used to fall back to reflective access
+ * @param elementType       collection or array element type, {@code null} when not declared
+ * @param getter            reads the field from an entity, {@code null} when the generated code cannot reach it
+ * @param setter            writes the field on an entity, {@code null} when the generated code cannot reach it
+ */
+public record EntityFieldDescriptor(String fieldName,
+                                    Class<?> declaringClass,
+                                    Class<?> fieldType,
+                                    Class<?> elementType,
+                                    String columnName,
+                                    ColumnType columnType,
+                                    ColumnType elementColumnType,
+                                    boolean id,
+                                    Function<Object, Object> getter,
+                                    BiConsumer<Object, Object> setter) {
+
+    public EntityFieldDescriptor {
+        Objects.requireNonNull(fieldName, "fieldName must not be null");
+        Objects.requireNonNull(declaringClass, "declaringClass must not be null");
+        Objects.requireNonNull(fieldType, "fieldType must not be null");
+        Objects.requireNonNull(columnName, "columnName must not be null");
+        Objects.requireNonNull(columnType, "columnType must not be null");
+        elementColumnType = elementColumnType == null ? ColumnType.UNKNOWN : elementColumnType;
+    }
+}
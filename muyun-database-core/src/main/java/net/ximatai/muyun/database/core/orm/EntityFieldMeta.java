@@ -3,11 +3,34 @@ package net.ximatai.muyun.database.core.orm;
 import net.ximatai.muyun.database.core.builder.ColumnType;
 import net.ximatai.muyun.database.core.annotation.TypeMapper;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class EntityFieldMeta implements FieldMeta {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle FUNCTION_APPLY;
+    private static final MethodHandle BI_CONSUMER_ACCEPT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply", GETTER_TYPE);
+            BI_CONSUMER_ACCEPT = lookup.findVirtual(BiConsumer.class, "accept", SETTER_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final Field field;
+    private final Class<?> fieldType;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
     private final String fieldName;
     private final String columnName;
     private final ColumnType columnType;
@@ -25,6 +48,7 @@ public class EntityFieldMeta implements FieldMeta {
                            ColumnType elementColumnType,
                            boolean id) {
         this.field = field;
+        this.fieldType = field.getType();
         this.fieldName = field.getName();
         this.columnName = columnName;
         this.columnType = columnType;
@@ -32,6 +56,52 @@ public class EntityFieldMeta implements FieldMeta {
         this.id = id;
         this.collectionElementType = TypeMapper.inferElementJavaType(field);
         this.field.setAccessible(true);
+        this.getter = unreflect(field, true);
+        this.setter = unreflect(field, false);
+    }
+
+    /**
+     * Builds the field from a generated {@link EntityFieldDescriptor}; its accessors are used as is and the field is only
+     * looked up reflectively when the generated code could not reach it.
+     */
+    public EntityFieldMeta(EntityFieldDescriptor descriptor) {
+        this.fieldType = descriptor.fieldType();
+        this.fieldName = descriptor.fieldName();
+        this.columnName = descriptor.columnName();
+        this.columnType = descriptor.columnType();
+        this.elementColumnType = descriptor.elementColumnType();
+        this.id = descriptor.id();
+        this.collectionElementType = Optional.ofNullable(descriptor.elementType());
+        this.field = descriptor.getter() == null || descriptor.setter() == null ? declaredField(descriptor) : null;
+        this.getter = descriptor.getter() == null ? unreflect(field, true) : FUNCTION_APPLY.bindTo(descriptor.getter());
+        this.setter = descriptor.setter() == null ? unreflect(field, false) : BI_CONSUMER_ACCEPT.bindTo(descriptor.setter());
+    }
+
+    private static Field declaredField(EntityFieldDescriptor descriptor) {
+        try {
+            Field field = descriptor.declaringClass().getDeclaredField(descriptor.fieldName());
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException | RuntimeException e) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING,
+                    "Failed to access field: " + descriptor.declaringClass().getName() + "." + descriptor.fieldName(), e);
+        }
+    }
+
+    /**
+     * Field handles adapted to {@code (Object)Object} / {@code (Object, Object)void} so they can be invoked exactly
+     * without per-call reflection checks. Returns {@code null} when the field cannot be unreflected (e.g. a record
+     * component), in which case access falls back to {@link Field}.
+     */
+    private static MethodHandle unreflect(Field field, boolean getter) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return getter
+                    ? lookup.unreflectGetter(field).asType(GETTER_TYPE)
+                    : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
     }
 
     @Override
@@ -61,7 +131,7 @@ public class EntityFieldMeta implements FieldMeta {
 
     @Override
     public Class<?> getFieldType() {
-        return field.getType();
+        return fieldType;
     }
 
     @Override
@@ -71,16 +141,24 @@ public class EntityFieldMeta implements FieldMeta {
 
     public Object read(Object target) {
         try {
-            return field.get(target);
-        } catch (IllegalAccessException e) {
+            return getter == null ? field.get(target) : (Object) getter.invokeExact(target);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new OrmException(OrmException.Code.INVALID_MAPPING, "Failed to read field: " + fieldName, e);
         }
     }
 
     public void write(Object target, Object value) {
         try {
-            field.set(target, value);
-        } catch (IllegalAccessException | IllegalArgumentException e) {
+            if (setter == null) {
+                field.set(target, value);
+            } else {
+                setter.invokeExact(target, value);
+            }
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new OrmException(OrmException.Code.INVALID_MAPPING, "Failed to write field: " + fieldName, e);
         }
     }
@@ -48,6 +48,9 @@ public final class EntityMapper {
             return null;
         }
         DatabaseValueConverter converter = valueConverter == null ? DatabaseValueConverter.DEFAULT : valueConverter;
+        if (entityClass == meta.getEntityClass()) {
+            return entityClass.cast(meta.mappingPlan().map(row, converter));
+        }
 
         T entity = instantiate(entityClass);
 
@@ -64,7 +67,7 @@ public final class EntityMapper {
         return entity;
     }
 
-    private static Object findByColumn(Map<String, Object> row, String columnName) {
+    static Object findByColumn(Map<String, Object> row, String columnName) {
         if (row.containsKey(columnName)) {
             return row.get(columnName);
         }
@@ -0,0 +1,154 @@
+package net.ximatai.muyun.database.core.orm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-entity row mapping plan, built once per {@link EntityMeta}: a constructor handle, the field accessors and the
+ * row key each field was last found under. Row maps of one query share their key spelling, so after the first row a
+ * column that does not match exactly (e.g. an upper-cased label) is looked up directly instead of scanning the row.
+ * Result sets are read by column position, resolved once per result set.
+ */
+final class EntityMappingPlan {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<?> entityClass;
+    private final EntityFieldMeta[] fields;
+    private final String[] columns;
+    // Racy but benign: entries are immutable strings and a stale or missing entry only costs a lookup.
+    private final String[] resolvedKeys;
+    private final Supplier<?> instantiator;
+    private final MethodHandle constructor;
+    private final Exception constructorFailure;
+
+    EntityMappingPlan(Class<?> entityClass, List<EntityFieldMeta> fields) {
+        this(entityClass, fields, null);
+    }
+
+    /**
+     * @param instantiator generated factory used instead of the reflective no-args constructor, may be {@code null}
+     */
+    EntityMappingPlan(Class<?> entityClass, List<EntityFieldMeta> fields, Supplier<?> instantiator) {
+        this.entityClass = entityClass;
+        this.instantiator = instantiator;
+        this.fields = fields.toArray(EntityFieldMeta[]::new);
+        this.columns = new String[this.fields.length];
+        for (int i = 0; i < this.fields.length; i++) {
+            columns[i] = this.fields[i].getColumnName();
+        }
+        this.resolvedKeys = new String[this.fields.length];
+
+        MethodHandle handle = null;
+        Exception failure = null;
+        if (instantiator != null) {
+            this.constructor = null;
+            this.constructorFailure = null;
+            return;
+        }
+        try {
+            Constructor<?> declared = entityClass.getDeclaredConstructor();
+            declared.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(declared).asType(CONSTRUCTOR_TYPE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            failure = e;
+        }
+        this.constructor = handle;
+        this.constructorFailure = failure;
+    }
+
+    Object map(Map<String, Object> row, DatabaseValueConverter converter) {
+        Object entity = instantiate();
+        for (int i = 0; i < fields.length; i++) {
+            Object value = valueAt(row, i);
+            if (value != null) {
+                fields[i].write(entity, FieldValueCodec.fromDatabaseValue(value, fields[i], converter));
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 1-based result set position of each field's column, matched case-insensitively by label; 0 when absent.
+     */
+    int[] columnIndexes(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> positions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            positions.put(metaData.getColumnLabel(i), i);
+        }
+        int[] indexes = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            indexes[i] = positions.getOrDefault(columns[i], 0);
+        }
+        return indexes;
+    }
+
+    Object map(ResultSet rs, int[] columnIndexes, DatabaseValueConverter converter) throws SQLException {
+        Object entity = instantiate();
+        for (int i = 0; i < fields.length; i++) {
+            if (columnIndexes[i] == 0) {
+                continue;
+            }
+            Object value = rs.getObject(columnIndexes[i]);
+            if (value != null) {
+                fields[i].write(entity, FieldValueCodec.fromDatabaseValue(value, fields[i], converter));
+            }
+        }
+        return entity;
+    }
+
+    Object instantiate() {
+        if (instantiator != null) {
+            return instantiator.get();
+        }
+        if (constructor == null) {
+            throw noArgsConstructor(constructorFailure);
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw noArgsConstructor(e);
+        }
+    }
+
+    private Object valueAt(Map<String, Object> row, int index) {
+        String column = columns[index];
+        Object value = row.get(column);
+        if (value != null || row.containsKey(column)) {
+            return value;
+        }
+        String resolved = resolvedKeys[index];
+        if (resolved != null) {
+            value = row.get(resolved);
+            if (value != null || row.containsKey(resolved)) {
+                return value;
+            }
+        }
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (column.equalsIgnoreCase(entry.getKey())) {
+                resolvedKeys[index] = entry.getKey();
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private OrmException noArgsConstructor(Throwable cause) {
+        return new OrmException(
+                OrmException.Code.INVALID_ENTITY,
+                "Entity must provide a no-args constructor: " + entityClass.getName(),
+                cause
+        );
+    }
+}
@@ -3,6 +3,7 @@ package net.ximatai.muyun.database.core.orm;
 import net.ximatai.muyun.database.core.builder.TableWrapper;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 public class EntityMeta {
     private final Class<?> entityClass;
@@ -12,6 +13,7 @@ public class EntityMeta {
     private final List<EntityFieldMeta> fields;
     private final EntityFieldMeta idField;
     private final TableMeta tableMeta;
+    private final EntityMappingPlan mappingPlan;
 
     private final Map<String, EntityFieldMeta> fieldNameMap = new HashMap<>();
     private final Map<String, EntityFieldMeta> columnNameMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
@@ -23,6 +25,18 @@ public class EntityMeta {
             TableWrapper tableWrapper,
             List<EntityFieldMeta> fields,
             EntityFieldMeta idField
+    ) {
+        this(entityClass, tableName, schema, tableWrapper, fields, idField, null);
+    }
+
+    EntityMeta(
+            Class<?> entityClass,
+            String tableName,
+            String schema,
+            TableWrapper tableWrapper,
+            List<EntityFieldMeta> fields,
+            EntityFieldMeta idField,
+            Supplier<?> instantiator
     ) {
         this.entityClass = entityClass;
         this.tableName = tableName;
@@ -36,6 +50,7 @@ public class EntityMeta {
             columnNameMap.put(field.getColumnName(), field);
         });
         this.tableMeta = new TableMeta(tableName, schema, fields, idField);
+        this.mappingPlan = new EntityMappingPlan(entityClass, this.fields, instantiator);
     }
 
     public Class<?> getEntityClass() {
@@ -91,4 +106,8 @@ public class EntityMeta {
     public TableMeta asTableMeta() {
         return tableMeta;
     }
+
+    EntityMappingPlan mappingPlan() {
+        return mappingPlan;
+    }
 }
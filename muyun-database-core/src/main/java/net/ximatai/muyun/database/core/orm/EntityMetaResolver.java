@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -16,13 +17,26 @@ public class EntityMetaResolver {
 
     private final Map<Class<?>, EntityMeta> cache = new ConcurrentHashMap<>();
     private final Function<Class<?>, TableWrapper> tableResolver;
+    private final boolean useDescriptors;
 
+    /**
+     * Resolves entities from their annotations, preferring a generated {@link EntityDescriptor} when one is on the
+     * class path.
+     */
     public EntityMetaResolver() {
-        this(AnnotationProcessor::fromEntityClass);
+        this(AnnotationProcessor::fromEntityClass, true);
     }
 
+    /**
+     * Resolves entities with a custom table resolver; generated descriptors are not used.
+     */
     public EntityMetaResolver(Function<Class<?>, TableWrapper> tableResolver) {
+        this(tableResolver, false);
+    }
+
+    private EntityMetaResolver(Function<Class<?>, TableWrapper> tableResolver, boolean useDescriptors) {
         this.tableResolver = Objects.requireNonNull(tableResolver, "tableResolver must not be null");
+        this.useDescriptors = useDescriptors;
     }
 
     public EntityMeta resolve(Class<?> entityClass) {
@@ -33,6 +47,12 @@ public class EntityMetaResolver {
     }
 
     private EntityMeta buildMeta(Class<?> entityClass) {
+        if (useDescriptors) {
+            Optional<? extends EntityDescriptor<?>> descriptor = EntityDescriptors.find(entityClass);
+            if (descriptor.isPresent()) {
+                return buildMeta(descriptor.get());
+            }
+        }
         TableWrapper wrapper;
         try {
             wrapper = tableResolver.apply(entityClass);
@@ -74,6 +94,24 @@ public class EntityMetaResolver {
         return new EntityMeta(entityClass, wrapper.getName(), wrapper.getSchema(), wrapper, fields, idField);
     }
 
+    private EntityMeta buildMeta(EntityDescriptor<?> descriptor) {
+        Class<?> entityClass = descriptor.entityType();
+        TableWrapper wrapper = descriptor.tableWrapper();
+        List<EntityFieldMeta> fields = new ArrayList<>();
+        EntityFieldMeta idField = null;
+        for (EntityFieldDescriptor field : descriptor.fields()) {
+            EntityFieldMeta fieldMeta = new EntityFieldMeta(field);
+            fields.add(fieldMeta);
+            if (field.id()) {
+                idField = fieldMeta;
+            }
+        }
+        if (idField == null) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING, "No @Id field found in class: " + entityClass.getName());
+        }
+        return new EntityMeta(entityClass, wrapper.getName(), wrapper.getSchema(), wrapper, fields, idField, descriptor::newInstance);
+    }
+
     private String resolveColumnName(Field field, Column column, Id id) {
         if (id != null && !id.name().isEmpty()) {
             return id.name();
@@ -0,0 +1,43 @@
+package net.ximatai.muyun.database.core.orm;
+
+import net.ximatai.muyun.database.core.sql.ResultSetRowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps result set rows straight into entities through the entity's {@link EntityMappingPlan}, reading columns by
+ * position and converting them with {@link FieldValueCodec}, so no row map is built per row.
+ */
+final class EntityRowMapper<T> implements ResultSetRowMapper<T> {
+
+    private final Class<T> entityClass;
+    private final EntityMappingPlan plan;
+    private final DatabaseValueConverter valueConverter;
+    private final int[] columnIndexes;
+
+    EntityRowMapper(EntityMeta meta, Class<T> entityClass, DatabaseValueConverter valueConverter) {
+        this(entityClass, meta.mappingPlan(), valueConverter, null);
+    }
+
+    private EntityRowMapper(Class<T> entityClass,
+                            EntityMappingPlan plan,
+                            DatabaseValueConverter valueConverter,
+                            int[] columnIndexes) {
+        this.entityClass = entityClass;
+        this.plan = plan;
+        this.valueConverter = valueConverter;
+        this.columnIndexes = columnIndexes;
+    }
+
+    @Override
+    public T map(ResultSet rs) throws SQLException {
+        int[] indexes = columnIndexes == null ? plan.columnIndexes(rs.getMetaData()) : columnIndexes;
+        return entityClass.cast(plan.map(rs, indexes, valueConverter));
+    }
+
+    @Override
+    public ResultSetRowMapper<T> specialize(ResultSet rs) throws SQLException {
+        return new EntityRowMapper<>(entityClass, plan, valueConverter, plan.columnIndexes(rs.getMetaData()));
+    }
+}
@@ -0,0 +1,23 @@
+package net.ximatai.muyun.database.core.orm;
+
+/**
+ * How {@code IN}/{@code NOT IN} criteria render their value lists.
+ */
+public enum InListStrategy {
+    /**
+     * One placeholder per value; every list length yields a different SQL text.
+     */
+    EXACT,
+    /**
+     * Pads the placeholder list to the next power of two by repeating the last value, so list lengths share
+     * a logarithmic number of SQL texts (and prepared statements).
+     */
+    PADDED,
+    /**
+     * Binds the whole list as one array parameter ({@code = ANY(:p)} / {@code <> ALL(:p)}) on PostgreSQL, one SQL
+     * text for every length. Values are bound as a Java array of their common type when it is String, Integer, Long,
+     * Boolean, Float, Double or UUID; mixed, all-null and other types (timestamps, decimals, ...) have no driver array
+     * mapping and fall back to {@link #PADDED}, as do other databases.
+     */
+    ANY_ARRAY
+}
@@ -0,0 +1,37 @@
+package net.ximatai.muyun.database.core.orm;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a keyset query. {@link #getNextCursor()} is an opaque token for {@link KeysetRequest#after(String, int)}
+ * and is {@code null} on the last page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> records;
+    private final String nextCursor;
+    private final int pageSize;
+
+    public KeysetPage(List<T> records, String nextCursor, int pageSize) {
+        this.records = Objects.requireNonNull(records, "records must not be null");
+        this.nextCursor = nextCursor;
+        this.pageSize = pageSize;
+    }
+
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,379 @@
+package net.ximatai.muyun.database.core.orm;
+
+import net.ximatai.muyun.database.core.metadata.DBColumn;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.metadata.DBSchema;
+import net.ximatai.muyun.database.core.metadata.DBTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Renders keyset (seek) pages and encodes their cursors. The sort columns always end with the primary key so the
+ * order is total; the cursor carries the sort values of the last row of a page plus a hash of the table and sort
+ * shape, so a cursor cannot be replayed against a different ordering.
+ * <p>
+ * Sort values may be NULL. The seek predicate follows each database's default NULL ordering (PostgreSQL sorts NULL
+ * above every value, MySQL below), so rows with NULL sort values are neither skipped nor repeated. Columns the
+ * catalog reports as nullable give up the index-friendly row-value comparison when NULLs sort after the cursor.
+ */
+final class KeysetQuery {
+
+    private static final byte VERSION = 1;
+    private static final String PARAM_PREFIX = "k_";
+
+    private final List<String> columns = new ArrayList<>();
+    private final List<SortDirection> directions = new ArrayList<>();
+    private final Set<String> nullableColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final DBInfo.Type dbType;
+    private final int signature;
+
+    /**
+     * @param table       table name, part of the cursor signature
+     * @param sortColumns resolved, safe column names paired with their directions, in order
+     * @param pkColumn    primary key column, appended as tie-breaker unless already sorted
+     * @param nullable    sort columns that may hold NULL, see {@link #nullableColumns}
+     */
+    KeysetQuery(String table,
+                List<Map.Entry<String, SortDirection>> sortColumns,
+                String pkColumn,
+                Set<String> nullable,
+                DBInfo.Type dbType) {
+        this.dbType = Objects.requireNonNull(dbType, "dbType must not be null");
+        for (Map.Entry<String, SortDirection> sort : sortColumns) {
+            if (columns.stream().noneMatch(sort.getKey()::equalsIgnoreCase)) {
+                columns.add(sort.getKey());
+                directions.add(sort.getValue());
+            }
+        }
+        if (pkColumn == null || !SqlIdentifiers.isSafe(pkColumn)) {
+            throw new OrmException(OrmException.Code.INVALID_CRITERIA, "Keyset pagination requires a primary key column");
+        }
+        if (columns.stream().noneMatch(pkColumn::equalsIgnoreCase)) {
+            columns.add(pkColumn);
+            directions.add(directions.isEmpty() ? SortDirection.ASC : directions.getLast());
+        }
+        StringBuilder shape = new StringBuilder(table);
+        for (int i = 0; i < columns.size(); i++) {
+            shape.append('|').append(columns.get(i).toLowerCase()).append(' ').append(directions.get(i).name());
+        }
+        this.signature = shape.toString().hashCode();
+        nullable.stream().filter(column -> !column.equalsIgnoreCase(pkColumn)).forEach(nullableColumns::add);
+    }
+
+    /**
+     * Sort columns the loaded catalog reports as nullable. Schemas, tables or columns missing from the metadata
+     * count as NOT NULL; a NULL cursor value is still handled, only NULL rows after a non-null cursor rely on this.
+     */
+    static Set<String> nullableColumns(DBInfo info,
+                                       String schema,
+                                       String table,
+                                       List<Map.Entry<String, SortDirection>> sortColumns) {
+        Set<String> nullable = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        DBSchema dbSchema = schema == null ? null : info.getSchema(schema);
+        if (dbSchema == null || !dbSchema.containsTable(table)) {
+            return nullable;
+        }
+        DBTable dbTable = dbSchema.getTable(table);
+        for (Map.Entry<String, SortDirection> sort : sortColumns) {
+            DBColumn column = dbTable.getColumn(sort.getKey());
+            if (column != null && column.isNullable()) {
+                nullable.add(sort.getKey());
+            }
+        }
+        return nullable;
+    }
+
+    /**
+     * Sort columns including the primary key tie-breaker; rows must carry all of them to derive a cursor.
+     */
+    List<String> columns() {
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Builds the page SQL for {@code selectFrom} ("SELECT ... FROM table"), adding the cursor parameters and a
+     * {@code limit} of one extra row, which tells whether a next page exists.
+     */
+    String render(String selectFrom, String whereSql, KeysetRequest request, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder(selectFrom);
+        List<String> conditions = new ArrayList<>();
+        if (whereSql != null && !whereSql.isBlank()) {
+            conditions.add("(" + whereSql + ")");
+        }
+        if (!request.isFirst()) {
+            List<Object> values = decode(request.getCursor());
+            for (int i = 0; i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    params.put(PARAM_PREFIX + i, values.get(i));
+                }
+            }
+            conditions.add(seekPredicate(values));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        List<String> orderBy = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            orderBy.add(quoted(i) + " " + directions.get(i).name());
+        }
+        sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        sql.append(" LIMIT :limit");
+        params.put("limit", request.getLimit() + 1);
+        return sql.toString();
+    }
+
+    /**
+     * Trims the look-ahead row and derives the next cursor from the last row kept.
+     */
+    <T> KeysetPage<T> toPage(List<Map<String, Object>> rows, KeysetRequest request, Function<Map<String, Object>, T> mapper) {
+        int limit = request.getLimit();
+        boolean hasNext = rows.size() > limit;
+        List<Map<String, Object>> kept = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encode(kept.getLast()) : null;
+        return new KeysetPage<>(kept.stream().map(mapper).toList(), nextCursor, limit);
+    }
+
+    /**
+     * Uses a row-value comparison when all directions agree and no NULL can sort after the cursor (index friendly on
+     * both MySQL and PostgreSQL), and the expanded {@code a > x OR (a = x AND b > y)} form otherwise.
+     */
+    private String seekPredicate(List<Object> values) {
+        boolean uniform = directions.stream().allMatch(directions.getFirst()::equals);
+        if (uniform && !values.contains(null) && (nullableColumns.isEmpty() || !nullsAfter(0))) {
+            List<String> left = new ArrayList<>();
+            List<String> right = new ArrayList<>();
+            for (int i = 0; i < columns.size(); i++) {
+                left.add(quoted(i));
+                right.add(":" + PARAM_PREFIX + i);
+            }
+            if (columns.size() == 1) {
+                return left.getFirst() + " " + operator(0) + " " + right.getFirst();
+            }
+            return "(" + String.join(", ", left) + ") " + operator(0) + " (" + String.join(", ", right) + ")";
+        }
+
+        List<String> branches = new ArrayList<>();
+        List<String> equal = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String after = after(i, values.get(i));
+            if (after != null) {
+                List<String> terms = new ArrayList<>(equal);
+                terms.add(after);
+                branches.add("(" + String.join(" AND ", terms) + ")");
+            }
+            equal.add(quoted(i) + (values.get(i) == null ? " IS NULL" : " = :" + PARAM_PREFIX + i));
+        }
+        return "(" + String.join(" OR ", branches) + ")";
+    }
+
+    /**
+     * Condition for rows sorting strictly after {@code value} in the column at {@code index}, or {@code null} when
+     * no row can (a NULL cursor value in a column whose NULLs sort last).
+     */
+    private String after(int index, Object value) {
+        if (value == null) {
+            return nullsAfter(index) ? null : quoted(index) + " IS NOT NULL";
+        }
+        String seek = quoted(index) + " " + operator(index) + " :" + PARAM_PREFIX + index;
+        if (nullableColumns.contains(columns.get(index)) && nullsAfter(index)) {
+            return "(" + seek + " OR " + quoted(index) + " IS NULL)";
+        }
+        return seek;
+    }
+
+    /**
+     * Whether NULLs follow non-null values in the column's sort order: PostgreSQL treats NULL as larger than any
+     * value, MySQL as smaller.
+     */
+    private boolean nullsAfter(int index) {
+        return (directions.get(index) == SortDirection.ASC) == (dbType == DBInfo.Type.POSTGRESQL);
+    }
+
+    private String operator(int index) {
+        return directions.get(index) == SortDirection.DESC ? "<" : ">";
+    }
+
+    private String quoted(int index) {
+        return SqlIdentifiers.quote(columns.get(index), dbType);
+    }
+
+    String encode(Map<String, Object> row) {
+        Map<String, Object> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        values.putAll(row);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(signature);
+            out.writeByte(columns.size());
+            for (String column : columns) {
+                writeValue(out, column, values.get(column));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    List<Object> decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION || in.readInt() != signature || in.readByte() != columns.size()) {
+                throw invalidCursor(null);
+            }
+            List<Object> values = new ArrayList<>(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                values.add(readValue(in));
+            }
+            if (in.available() > 0) {
+                throw invalidCursor(null);
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | java.time.DateTimeException e) {
+            throw invalidCursor(e);
+        }
+    }
+
+    private static OrmException invalidCursor(Throwable cause) {
+        return new OrmException(OrmException.Code.INVALID_CRITERIA,
+                "Keyset cursor is malformed or does not match this query's table and sort order", cause);
+    }
+
+    private static void writeValue(DataOutputStream out, String column, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte('N');
+            case String text -> {
+                out.writeByte('S');
+                writeText(out, text);
+            }
+            case Integer number -> {
+                out.writeByte('I');
+                out.writeInt(number);
+            }
+            case Long number -> {
+                out.writeByte('J');
+                out.writeLong(number);
+            }
+            case Short number -> {
+                out.writeByte('I');
+                out.writeInt(number);
+            }
+            case BigInteger number -> {
+                out.writeByte('G');
+                writeText(out, number.toString());
+            }
+            case BigDecimal number -> {
+                out.writeByte('D');
+                writeText(out, number.toString());
+            }
+            case Double number -> {
+                out.writeByte('F');
+                out.writeDouble(number);
+            }
+            case Float number -> {
+                out.writeByte('f');
+                out.writeFloat(number);
+            }
+            case Boolean flag -> {
+                out.writeByte('Z');
+                out.writeBoolean(flag);
+            }
+            case Timestamp timestamp -> {
+                out.writeByte('T');
+                out.writeLong(timestamp.getTime());
+                out.writeInt(timestamp.getNanos());
+            }
+            case java.sql.Date date -> {
+                out.writeByte('l');
+                writeText(out, date.toLocalDate().toString());
+            }
+            case LocalDate date -> {
+                out.writeByte('l');
+                writeText(out, date.toString());
+            }
+            case LocalDateTime dateTime -> {
+                out.writeByte('L');
+                writeText(out, dateTime.toString());
+            }
+            case Instant instant -> {
+                out.writeByte('i');
+                writeText(out, instant.toString());
+            }
+            case OffsetDateTime dateTime -> {
+                out.writeByte('O');
+                writeText(out, dateTime.toString());
+            }
+            case UUID uuid -> {
+                out.writeByte('U');
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            default -> throw new OrmException(OrmException.Code.INVALID_CRITERIA,
+                    "Unsupported keyset sort value type for column " + column + ": " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case 'N' -> null;
+            case 'S' -> readText(in);
+            case 'I' -> in.readInt();
+            case 'J' -> in.readLong();
+            case 'G' -> new BigInteger(readText(in));
+            case 'D' -> new BigDecimal(readText(in));
+            case 'F' -> in.readDouble();
+            case 'f' -> in.readFloat();
+            case 'Z' -> in.readBoolean();
+            case 'T' -> {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                yield timestamp;
+            }
+            case 'l' -> LocalDate.parse(readText(in));
+            case 'L' -> LocalDateTime.parse(readText(in));
+            case 'i' -> Instant.parse(readText(in));
+            case 'O' -> OffsetDateTime.parse(readText(in));
+            case 'U' -> new UUID(in.readLong(), in.readLong());
+            default -> throw new IOException("Unknown keyset value type: " + (char) type);
+        };
+    }
+
+    /**
+     * Length-prefixed UTF-8, unlike {@link DataOutputStream#writeUTF(String)} not limited to 64 KB.
+     */
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid keyset text length: " + length);
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
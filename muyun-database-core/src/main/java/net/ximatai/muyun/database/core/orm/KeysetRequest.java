@@ -0,0 +1,41 @@
+package net.ximatai.muyun.database.core.orm;
+
+/**
+ * Page request for keyset (seek) pagination: either the first page or the page following a cursor returned by
+ * {@link KeysetPage#getNextCursor()}. Unlike {@link PageRequest}, the database never scans skipped rows.
+ */
+public class KeysetRequest {
+    private final String cursor;
+    private final int limit;
+
+    private KeysetRequest(String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    public static KeysetRequest first(int limit) {
+        return new KeysetRequest(null, limit);
+    }
+
+    public static KeysetRequest after(String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new IllegalArgumentException("cursor must not be blank");
+        }
+        return new KeysetRequest(cursor, limit);
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isFirst() {
+        return cursor == null;
+    }
+}
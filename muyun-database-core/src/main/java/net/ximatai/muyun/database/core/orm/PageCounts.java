@@ -0,0 +1,142 @@
+package net.ximatai.muyun.database.core.orm;
+
+import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Total counting for {@code pageQuery} under the {@link CountStrategy} modes that issue a separate statement
+ * (EXACT, CAPPED, ESTIMATED).
+ */
+final class PageCounts {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*([0-9.eE+]+)");
+
+    private PageCounts() {
+    }
+
+    /**
+     * Page total as counted, still without records.
+     */
+    record Total(long value, boolean capped, boolean estimated) {
+        <T> PageResult<T> toResult(List<T> records, PageRequest pageRequest) {
+            if (capped) {
+                return PageResult.capped(records, value, pageRequest);
+            }
+            if (estimated) {
+                return PageResult.estimated(records, value, pageRequest);
+            }
+            return PageResult.of(records, value, pageRequest);
+        }
+    }
+
+    static Total count(IDatabaseOperations<?> operations,
+                       String schema,
+                       String table,
+                       String whereSql,
+                       Map<String, Object> params,
+                       PageRequest pageRequest) {
+        CountStrategy strategy = pageRequest.getCountStrategy();
+        if (strategy == CountStrategy.CAPPED) {
+            return capped(operations, schema, table, whereSql, params, pageRequest.getCountCap());
+        }
+        if (strategy == CountStrategy.ESTIMATED) {
+            Long estimate = estimate(operations, schema, table, whereSql, params);
+            if (estimate != null) {
+                return new Total(estimate, false, true);
+            }
+        }
+        return new Total(exact(operations, schema, table, whereSql, params), false, false);
+    }
+
+    static long exact(IDatabaseOperations<?> operations,
+                      String schema,
+                      String table,
+                      String whereSql,
+                      Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM ")
+                .append(SqlIdentifiers.qualified(schema, table, databaseType(operations)));
+        appendWhere(sql, whereSql);
+        Long count = CountValueResolver.resolve(operations.row(sql.toString(), params == null ? Map.of() : params));
+        return count == null ? 0L : count;
+    }
+
+    /**
+     * Counts through a derived table limited to cap + 1 rows, so the scan stops as soon as the cap is exceeded.
+     */
+    private static Total capped(IDatabaseOperations<?> operations,
+                                String schema,
+                                String table,
+                                String whereSql,
+                                Map<String, Object> params,
+                                int cap) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM (SELECT 1 FROM ")
+                .append(SqlIdentifiers.qualified(schema, table, databaseType(operations)));
+        appendWhere(sql, whereSql);
+        sql.append(" LIMIT :count_cap) capped_rows");
+
+        Map<String, Object> countParams = new HashMap<>(params == null ? Map.of() : params);
+        countParams.put("count_cap", cap + 1);
+        Long count = CountValueResolver.resolve(operations.row(sql.toString(), countParams));
+        long counted = count == null ? 0L : count;
+        return counted > cap ? new Total(cap, true, false) : new Total(counted, false, false);
+    }
+
+    /**
+     * Returns {@code null} when the database has no usable estimate (e.g. a never-analyzed table), letting the
+     * caller count exactly instead.
+     */
+    private static Long estimate(IDatabaseOperations<?> operations,
+                                 String schema,
+                                 String table,
+                                 String whereSql,
+                                 Map<String, Object> params) {
+        DBInfo.Type dbType = databaseType(operations);
+        boolean unfiltered = whereSql == null || whereSql.isBlank();
+        if (dbType == DBInfo.Type.POSTGRESQL) {
+            if (unfiltered) {
+                return positive(operations.row(
+                        "SELECT c.reltuples AS total_count FROM pg_catalog.pg_class c"
+                                + " JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                                + " WHERE n.nspname = :schema_name AND c.relname = :table_name",
+                        Map.of("schema_name", schema, "table_name", table)));
+            }
+            StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM ")
+                    .append(SqlIdentifiers.qualified(schema, table, dbType));
+            appendWhere(sql, whereSql);
+            List<Map<String, Object>> plan = operations.query(sql.toString(), params == null ? Map.of() : params);
+            if (plan.isEmpty() || plan.getFirst().isEmpty()) {
+                return null;
+            }
+            Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.getFirst().values().iterator().next()));
+            return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1))) : null;
+        }
+        if (dbType == DBInfo.Type.MYSQL && unfiltered) {
+            return positive(operations.row(
+                    "SELECT TABLE_ROWS AS total_count FROM information_schema.TABLES"
+                            + " WHERE TABLE_SCHEMA = :schema_name AND TABLE_NAME = :table_name",
+                    Map.of("schema_name", schema, "table_name", table)));
+        }
+        return null;
+    }
+
+    private static Long positive(Map<String, Object> row) {
+        Long value = CountValueResolver.resolve(row);
+        return value == null || value <= 0 ? null : value;
+    }
+
+    private static void appendWhere(StringBuilder sql, String whereSql) {
+        if (whereSql != null && !whereSql.isBlank()) {
+            sql.append(" WHERE ").append(whereSql);
+        }
+    }
+
+    private static DBInfo.Type databaseType(IDatabaseOperations<?> operations) {
+        return operations.getDBInfo().getDatabaseType();
+    }
+}
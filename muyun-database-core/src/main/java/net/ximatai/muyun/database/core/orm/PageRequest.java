@@ -1,10 +1,18 @@
 package net.ximatai.muyun.database.core.orm;
 
 public class PageRequest {
+    public static final int DEFAULT_COUNT_CAP = 1000;
+
     private final int offset;
     private final int limit;
+    private final CountStrategy countStrategy;
+    private final int countCap;
 
     public PageRequest(int offset, int limit) {
+        this(offset, limit, null, DEFAULT_COUNT_CAP);
+    }
+
+    private PageRequest(int offset, int limit, CountStrategy countStrategy, int countCap) {
         if (offset < 0) {
             throw new IllegalArgumentException("offset must be >= 0");
         }
@@ -13,6 +21,11 @@ public class PageRequest {
         }
         this.offset = offset;
         this.limit = limit;
+        if (countCap <= 0) {
+            throw new IllegalArgumentException("countCap must be > 0");
+        }
+        this.countStrategy = countStrategy;
+        this.countCap = countCap;
     }
 
     public static PageRequest of(int pageNumber, int pageSize) {
@@ -29,4 +42,26 @@ public class PageRequest {
     public int getLimit() {
         return limit;
     }
+
+    /**
+     * Count strategy for this call; {@code null} means the repository default (see {@link CountStrategy#EXACT}).
+     */
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Row limit of {@link CountStrategy#CAPPED}.
+     */
+    public int getCountCap() {
+        return countCap;
+    }
+
+    public PageRequest withCountStrategy(CountStrategy countStrategy) {
+        return new PageRequest(offset, limit, countStrategy, countCap);
+    }
+
+    public PageRequest withCappedCount(int countCap) {
+        return new PageRequest(offset, limit, CountStrategy.CAPPED, countCap);
+    }
 }
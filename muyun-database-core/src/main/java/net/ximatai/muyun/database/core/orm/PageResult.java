@@ -13,27 +13,67 @@ public class PageResult<T> {
     private final int pageNum;
     private final int pageSize;
     private final long pages;
+    private final boolean totalCapped;
+    private final boolean totalEstimated;
 
     public PageResult(List<T> records, long total, int pageNum, int pageSize, long pages) {
+        this(records, total, pageNum, pageSize, pages, false, false);
+    }
+
+    private PageResult(List<T> records,
+                       long total,
+                       int pageNum,
+                       int pageSize,
+                       long pages,
+                       boolean totalCapped,
+                       boolean totalEstimated) {
         this.records = Objects.requireNonNull(records, "records must not be null");
         this.total = total;
         this.pageNum = pageNum;
         this.pageSize = pageSize;
         this.pages = pages;
+        this.totalCapped = totalCapped;
+        this.totalEstimated = totalEstimated;
     }
 
     public static <T> PageResult<T> of(List<T> records, long total, PageRequest pageRequest) {
+        return of(records, total, pageRequest, false, false);
+    }
+
+    /**
+     * Result whose matching rows exceed {@code cap}: the total reads as "cap+" and pages cover the first cap rows.
+     */
+    public static <T> PageResult<T> capped(List<T> records, long cap, PageRequest pageRequest) {
+        return of(records, cap, pageRequest, true, false);
+    }
+
+    public static <T> PageResult<T> estimated(List<T> records, long total, PageRequest pageRequest) {
+        return of(records, total, pageRequest, false, true);
+    }
+
+    private static <T> PageResult<T> of(List<T> records,
+                                        long total,
+                                        PageRequest pageRequest,
+                                        boolean totalCapped,
+                                        boolean totalEstimated) {
         Objects.requireNonNull(pageRequest, "pageRequest must not be null");
         int pageSize = pageRequest.getLimit();
         int pageNum = pageRequest.getOffset() / pageSize + 1;
         long pages = total < 0 ? UNKNOWN_PAGES : (total == 0 ? 0 : (total + pageSize - 1) / pageSize);
-        return new PageResult<>(records, total, pageNum, pageSize, pages);
+        return new PageResult<>(records, total, pageNum, pageSize, pages, totalCapped, totalEstimated);
     }
 
     public static <T> PageResult<T> unknownTotal(List<T> records, PageRequest pageRequest) {
         return of(records, UNKNOWN_TOTAL, pageRequest);
     }
 
+    /**
+     * Same paging and total information over different records, e.g. after mapping rows.
+     */
+    public <R> PageResult<R> withRecords(List<R> records) {
+        return new PageResult<>(records, total, pageNum, pageSize, pages, totalCapped, totalEstimated);
+    }
+
     public List<T> getRecords() {
         return records;
     }
@@ -57,4 +97,18 @@ public class PageResult<T> {
     public boolean isTotalKnown() {
         return total >= 0;
     }
+
+    /**
+     * {@code true} when more rows match than were counted; {@link #getTotal()} is then a lower bound.
+     */
+    public boolean isTotalCapped() {
+        return totalCapped;
+    }
+
+    /**
+     * {@code true} when {@link #getTotal()} comes from planner statistics rather than a count.
+     */
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
 }
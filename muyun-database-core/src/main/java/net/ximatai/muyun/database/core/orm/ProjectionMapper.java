@@ -0,0 +1,93 @@
+package net.ximatai.muyun.database.core.orm;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps rows into a projection type whose properties are a subset of an entity's fields, matched by field (or
+ * column) name. Records are built through their canonical constructor, other classes through a no-args
+ * constructor and field writes.
+ */
+final class ProjectionMapper<R> {
+
+    private final Class<R> projectionType;
+    private final List<EntityFieldMeta> fields = new ArrayList<>();
+    private final List<Field> targets = new ArrayList<>();
+    private final Constructor<R> constructor;
+
+    ProjectionMapper(EntityMeta meta, Class<R> projectionType) {
+        this.projectionType = projectionType;
+        try {
+            if (projectionType.isRecord()) {
+                RecordComponent[] components = projectionType.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    fields.add(resolve(meta, components[i].getName()));
+                    types[i] = components[i].getType();
+                }
+                this.constructor = projectionType.getDeclaredConstructor(types);
+            } else {
+                for (Field field : projectionType.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    fields.add(resolve(meta, field.getName()));
+                    targets.add(field);
+                }
+                this.constructor = projectionType.getDeclaredConstructor();
+            }
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING,
+                    "Projection must be a record or provide a no-args constructor: " + projectionType.getName(), e);
+        }
+        if (fields.isEmpty()) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING, "Projection declares no fields: " + projectionType.getName());
+        }
+    }
+
+    List<String> columns() {
+        return fields.stream().map(EntityFieldMeta::getColumnName).toList();
+    }
+
+    R map(Map<String, Object> row, DatabaseValueConverter valueConverter) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = EntityMapper.findByColumn(row, fields.get(i).getColumnName());
+            values[i] = value == null ? null : FieldValueCodec.fromDatabaseValue(value, fields.get(i), valueConverter);
+        }
+        try {
+            if (targets.isEmpty()) {
+                return constructor.newInstance(values);
+            }
+            R projection = constructor.newInstance();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    targets.get(i).set(projection, values[i]);
+                }
+            }
+            return projection;
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING,
+                    "Failed to build projection " + projectionType.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static EntityFieldMeta resolve(EntityMeta meta, String name) {
+        EntityFieldMeta field = meta.findByFieldName(name);
+        if (field == null) {
+            field = meta.findByColumnName(name);
+        }
+        if (field == null) {
+            throw new OrmException(OrmException.Code.INVALID_MAPPING,
+                    "Projection property " + name + " does not match a field of " + meta.getEntityClass().getName());
+        }
+        return field;
+    }
+}
@@ -2,12 +2,23 @@ package net.ximatai.muyun.database.core.orm;
 
 import net.ximatai.muyun.database.core.IDatabaseOperations;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
-
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.QueryPlanTarget;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Single-table Map gateway for runtime-defined records.
@@ -41,6 +52,16 @@ public class RuntimeTableGateway {
                                String tableName,
                                CriteriaColumnResolver columnResolver,
                                DatabaseValueConverter valueConverter) {
+        this(operations, schema, tableName, columnResolver, valueConverter, CriteriaCompileOptions.defaults());
+    }
+
+    @SuppressWarnings("unchecked")
+    public RuntimeTableGateway(IDatabaseOperations<?> operations,
+                               String schema,
+                               String tableName,
+                               CriteriaColumnResolver columnResolver,
+                               DatabaseValueConverter valueConverter,
+                               CriteriaCompileOptions compileOptions) {
         this.operations = (IDatabaseOperations<Object>) Objects.requireNonNull(operations, "operations must not be null");
         this.schema = schema == null || schema.isBlank() ? operations.getDefaultSchemaName() : requireIdentifier(schema, "schema");
         this.tableName = requireIdentifier(tableName, "tableName");
@@ -48,7 +69,7 @@ public class RuntimeTableGateway {
         this.columnResolver = Objects.requireNonNull(columnResolver, "columnResolver must not be null");
         this.columnMapper = columnResolver instanceof RuntimeColumnMapper mapper ? mapper : null;
         this.valueConverter = valueConverter == null ? DatabaseValueConverter.DEFAULT : valueConverter;
-        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter);
+        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter, compileOptions);
     }
 
     @SuppressWarnings("unchecked")
@@ -61,6 +82,14 @@ public class RuntimeTableGateway {
     public RuntimeTableGateway(IDatabaseOperations<?> operations,
                                TableMeta tableMeta,
                                DatabaseValueConverter valueConverter) {
+        this(operations, tableMeta, valueConverter, CriteriaCompileOptions.defaults());
+    }
+
+    @SuppressWarnings("unchecked")
+    public RuntimeTableGateway(IDatabaseOperations<?> operations,
+                               TableMeta tableMeta,
+                               DatabaseValueConverter valueConverter,
+                               CriteriaCompileOptions compileOptions) {
         this.operations = (IDatabaseOperations<Object>) Objects.requireNonNull(operations, "operations must not be null");
         this.tableMeta = Objects.requireNonNull(tableMeta, "tableMeta must not be null");
         this.schema = tableMeta.getSchema() == null || tableMeta.getSchema().isBlank()
@@ -70,7 +99,7 @@ public class RuntimeTableGateway {
         this.columnResolver = tableMeta;
         this.columnMapper = tableMeta;
         this.valueConverter = valueConverter == null ? DatabaseValueConverter.DEFAULT : valueConverter;
-        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter);
+        this.criteriaCompiler = new CriteriaSqlCompiler(this.valueConverter, compileOptions);
     }
 
     public static RuntimeTableGateway of(IDatabaseOperations<?> operations,
@@ -89,7 +118,32 @@ public class RuntimeTableGateway {
         if (columns.isEmpty()) {
             throw new OrmException(OrmException.Code.INVALID_ENTITY, "runtime table insert values must not be empty");
         }
-        return operations.insertItem(schema, tableName, columns, primaryKeyColumnName());
+        return observe(DatabaseOperationType.INSERT, () -> operations.insertItem(schema, tableName, columns, primaryKeyColumnName()));
+    }
+
+    /**
+     * Streams rows into the table through the database bulk-load path ({@code COPY ... FROM STDIN} on
+     * PostgreSQL, chunked batch inserts elsewhere). The column list is taken from the first row; fields missing
+     * from later rows are written as NULL.
+     */
+    public BulkInsertResult<Object> copyIn(Iterator<? extends Map<String, Object>> values, BulkInsertOptions options) {
+        Objects.requireNonNull(values, "values must not be null");
+        Iterator<Map<String, Object>> rows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                Map<String, Object> columns = toColumnMap(values.next(), OrmException.Code.INVALID_ENTITY);
+                if (columns.isEmpty()) {
+                    throw new OrmException(OrmException.Code.INVALID_ENTITY, "runtime table insert values must not be empty");
+                }
+                return columns;
+            }
+        };
+        return observe(DatabaseOperationType.BATCH, () -> operations.copyIn(schema, tableName, rows, options));
     }
 
     public List<Map<String, Object>> query(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
@@ -99,9 +153,17 @@ public class RuntimeTableGateway {
     public List<Map<String, Object>> queryColumns(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
         Objects.requireNonNull(criteria, "criteria must not be null");
         Objects.requireNonNull(pageRequest, "pageRequest must not be null");
-        CompiledCriteria compiled = compile(criteria);
+        return queryPage(selectList(criteria), compile(criteria), pageRequest, false, sorts);
+    }
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(qualifiedTable());
+    private List<Map<String, Object>> queryPage(String selectList,
+                                                CompiledCriteria compiled,
+                                                PageRequest pageRequest,
+                                                boolean windowCount,
+                                                Sort... sorts) {
+        StringBuilder sql = new StringBuilder(windowCount
+                ? WindowCount.selectFrom(selectList, qualifiedTable())
+                : "SELECT " + selectList + " FROM " + qualifiedTable());
         if (!compiled.getSql().isBlank()) {
             sql.append(" WHERE ").append(compiled.getSql());
         }
@@ -111,7 +173,8 @@ public class RuntimeTableGateway {
         Map<String, Object> params = new HashMap<>(compiled.getParams());
         params.put("limit", pageRequest.getLimit());
         params.put("offset", pageRequest.getOffset());
-        return operations.query(sql.toString(), params);
+        String pageSql = sql.toString();
+        return criteriaQuery(pageSql, params, () -> operations.query(pageSql, params));
     }
 
     public List<Map<String, Object>> list(Criteria criteria, Sort... sorts) {
@@ -121,50 +184,124 @@ public class RuntimeTableGateway {
     public List<Map<String, Object>> listColumns(Criteria criteria, Sort... sorts) {
         Objects.requireNonNull(criteria, "criteria must not be null");
         CompiledCriteria compiled = compile(criteria);
+        String sql = listSql(selectList(criteria), compiled, sorts);
+        return criteriaQuery(sql, compiled.getParams(), () -> operations.query(sql, compiled.getParams()));
+    }
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(qualifiedTable());
+    /**
+     * Streams the rows of {@link #list(Criteria, Sort...)} through a database cursor; close the stream when done.
+     */
+    public Stream<Map<String, Object>> stream(Criteria criteria, Sort... sorts) {
+        return streamColumns(criteria, sorts).map(this::toFieldMap);
+    }
+
+    public Stream<Map<String, Object>> streamColumns(Criteria criteria, Sort... sorts) {
+        Objects.requireNonNull(criteria, "criteria must not be null");
+        CompiledCriteria compiled = compile(criteria);
+        return operations.stream(listSql(selectList(criteria), compiled, sorts), compiled.getParams());
+    }
+
+    public void forEach(Criteria criteria, Consumer<? super Map<String, Object>> action, Sort... sorts) {
+        Objects.requireNonNull(action, "action must not be null");
+        try (Stream<Map<String, Object>> rows = stream(criteria, sorts)) {
+            rows.forEach(action);
+        }
+    }
+
+    private String listSql(String selectList, CompiledCriteria compiled, Sort... sorts) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(selectList).append(" FROM ").append(qualifiedTable());
         if (!compiled.getSql().isBlank()) {
             sql.append(" WHERE ").append(compiled.getSql());
         }
         appendOrderBy(sql, sorts);
-
-        return operations.query(sql.toString(), compiled.getParams());
+        return sql.toString();
     }
 
+    /**
+     * Page plus total; {@link CountStrategy#WINDOW} on the request reads both in a single query.
+     */
     public PageResult<Map<String, Object>> pageQuery(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
-        long total = count(criteria);
-        return PageResult.of(query(criteria, pageRequest, sorts), total, pageRequest);
+        PageResult<Map<String, Object>> page = pageQueryColumns(criteria, pageRequest, sorts);
+        return page.withRecords(toFieldRows(page.getRecords()));
     }
 
     public PageResult<Map<String, Object>> pageQueryColumns(Criteria criteria, PageRequest pageRequest, Sort... sorts) {
-        long total = count(criteria);
-        return PageResult.of(queryColumns(criteria, pageRequest, sorts), total, pageRequest);
+        Objects.requireNonNull(criteria, "criteria must not be null");
+        Objects.requireNonNull(pageRequest, "pageRequest must not be null");
+        CompiledCriteria compiled = compile(criteria);
+        CountStrategy strategy = pageRequest.getCountStrategy() == null ? CountStrategy.EXACT : pageRequest.getCountStrategy();
+        return switch (strategy) {
+            case WINDOW -> {
+                List<Map<String, Object>> rows = queryPage(selectList(criteria), compiled, pageRequest, true, sorts);
+                long total = WindowCount.total(rows, pageRequest, () -> count(compiled));
+                yield PageResult.of(WindowCount.strip(rows), total, pageRequest);
+            }
+            case NONE -> PageResult.unknownTotal(queryPage(selectList(criteria), compiled, pageRequest, false, sorts), pageRequest);
+            case EXACT, CAPPED, ESTIMATED -> {
+                PageCounts.Total total = observe(DatabaseOperationType.COUNT, () -> PageCounts.count(
+                        operations, schema, tableName, compiled.getSql(), compiled.getParams(), pageRequest));
+                yield total.toResult(queryPage(selectList(criteria), compiled, pageRequest, false, sorts), pageRequest);
+            }
+        };
     }
 
-    public long count(Criteria criteria) {
+    /**
+     * Keyset (seek) page ordered by {@code sorts} with the primary key as tie-breaker; see
+     * {@link SimpleEntityManager#keysetQuery(Class, Criteria, KeysetRequest, Sort...)}.
+     */
+    public KeysetPage<Map<String, Object>> keysetQuery(Criteria criteria, KeysetRequest request, Sort... sorts) {
+        KeysetPage<Map<String, Object>> page = keysetQueryColumns(criteria, request, sorts);
+        return new KeysetPage<>(toFieldRows(page.getRecords()), page.getNextCursor(), page.getPageSize());
+    }
+
+    public KeysetPage<Map<String, Object>> keysetQueryColumns(Criteria criteria, KeysetRequest request, Sort... sorts) {
         Objects.requireNonNull(criteria, "criteria must not be null");
+        Objects.requireNonNull(request, "request must not be null");
         CompiledCriteria compiled = compile(criteria);
 
-        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_count FROM ").append(qualifiedTable());
-        if (!compiled.getSql().isBlank()) {
-            sql.append(" WHERE ").append(compiled.getSql());
-        }
-        Long count = CountValueResolver.resolve(operations.row(sql.toString(), compiled.getParams()));
-        return count == null ? 0L : count;
+        List<Map.Entry<String, SortDirection>> sortColumns = java.util.Arrays.stream(sorts == null ? new Sort[0] : sorts)
+                .filter(Objects::nonNull)
+                .map(sort -> Map.entry(resolveColumn(sort.getField()), sort.getDirection()))
+                .toList();
+        KeysetQuery keyset = new KeysetQuery(tableName, sortColumns, primaryKeyColumnName(),
+                KeysetQuery.nullableColumns(operations.getDBInfo(), schema, tableName, sortColumns), databaseType());
+
+        Map<String, Object> params = new HashMap<>(compiled.getParams());
+        String sql = keyset.render(
+                "SELECT " + selectList(criteria, keyset.columns()) + " FROM " + qualifiedTable(), compiled.getSql(), request, params);
+        return keyset.toPage(criteriaQuery(sql, params, () -> operations.query(sql, params)), request, row -> row);
+    }
+
+    public long count(Criteria criteria) {
+        Objects.requireNonNull(criteria, "criteria must not be null");
+        return count(compile(criteria));
+    }
+
+    private long count(CompiledCriteria compiled) {
+        return observe(DatabaseOperationType.COUNT,
+                () -> PageCounts.exact(operations, schema, tableName, compiled.getSql(), compiled.getParams()));
     }
 
     public int patchWhere(Map<String, Object> patchValues, Map<String, Object> whereValues) {
-        return operations.patchUpdateItemWhere(
-                schema,
-                tableName,
-                toColumnMap(patchValues, OrmException.Code.INVALID_ENTITY),
-                toColumnMap(whereValues, OrmException.Code.INVALID_CRITERIA),
-                primaryKeyColumnName()
-        );
+        Map<String, Object> patch = toColumnMap(patchValues, OrmException.Code.INVALID_ENTITY);
+        Map<String, Object> where = toColumnMap(whereValues, OrmException.Code.INVALID_CRITERIA);
+        return observe(DatabaseOperationType.UPDATE,
+                () -> operations.patchUpdateItemWhere(schema, tableName, patch, where, primaryKeyColumnName()));
     }
 
     public int deleteWhere(Map<String, Object> whereValues) {
-        return operations.deleteItemWhere(schema, tableName, toColumnMap(whereValues, OrmException.Code.INVALID_CRITERIA));
+        Map<String, Object> where = toColumnMap(whereValues, OrmException.Code.INVALID_CRITERIA);
+        return observe(DatabaseOperationType.DELETE, () -> operations.deleteItemWhere(schema, tableName, where));
+    }
+
+    /**
+     * Labels the statements issued by {@code action} with this table when metrics or the slow query log need them.
+     */
+    private <R> R observe(DatabaseOperationType operation, Supplier<R> action) {
+        if (!operations.isStatementLabelingEnabled()) {
+            return action.get();
+        }
+        return DatabaseMetricsContext.call(operation, schema, tableName, action);
     }
 
     private Map<String, Object> toColumnMap(Map<String, Object> values, OrmException.Code conversionErrorCode) {
@@ -213,6 +350,30 @@ public class RuntimeTableGateway {
         return fields;
     }
 
+    /**
+     * Quoted select list: the fields chosen by {@link Criteria#select(String...)} plus {@code requiredColumns};
+     * otherwise the declared columns when the {@link TableMeta} opts in with
+     * {@link TableMeta.Builder#declaredColumnsOnly()}, else {@code *} so undeclared columns are still returned.
+     */
+    private String selectList(Criteria criteria, List<String> requiredColumns) {
+        List<String> columns = new ArrayList<>();
+        if (!criteria.getSelectedFields().isEmpty()) {
+            criteria.getSelectedFields().forEach(field -> columns.add(resolveColumn(field)));
+            requiredColumns.stream()
+                    .filter(required -> columns.stream().noneMatch(required::equalsIgnoreCase))
+                    .forEach(columns::add);
+        } else if (tableMeta != null && tableMeta.isDeclaredColumnsOnly()) {
+            tableMeta.getFields().forEach(field -> columns.add(field.getColumnName()));
+        } else {
+            return "*";
+        }
+        return String.join(", ", columns.stream().map(column -> SqlIdentifiers.quote(column, databaseType())).toList());
+    }
+
+    private String selectList(Criteria criteria) {
+        return selectList(criteria, List.of());
+    }
+
     private void appendOrderBy(StringBuilder sql, Sort... sorts) {
         if (sorts == null || sorts.length == 0) {
             return;
@@ -256,6 +417,28 @@ public class RuntimeTableGateway {
         return tableMeta.findByColumnName(columnName);
     }
 
+    /**
+     * Runs a Criteria query under {@link #observe}; its duration is reported to the operations' query plan sampler.
+     */
+    private <R> R criteriaQuery(String sql, Map<String, Object> params, Supplier<R> action) {
+        QueryPlanSampler sampler = operations.getQueryPlanSampler();
+        if (!sampler.isEnabled()) {
+            return observe(DatabaseOperationType.QUERY, action);
+        }
+        long start = System.nanoTime();
+        R result = observe(DatabaseOperationType.QUERY, action);
+        sampler.afterQuery(sql, params, System.nanoTime() - start, this::planTarget);
+        return result;
+    }
+
+    private QueryPlanTarget planTarget() {
+        Map<String, String> fieldsByColumn = new HashMap<>();
+        if (tableMeta != null) {
+            tableMeta.getFields().forEach(field -> fieldsByColumn.put(field.getColumnName(), field.getFieldName()));
+        }
+        return new QueryPlanTarget(schema, tableName, null, fieldsByColumn);
+    }
+
     private CompiledCriteria compile(Criteria criteria) {
         if (tableMeta != null) {
             return criteriaCompiler.compile(criteria, tableMeta, databaseType());
@@ -1,7 +1,16 @@
 package net.ximatai.muyun.database.core.orm;
 
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface SimpleEntityManager {
 
@@ -12,8 +21,52 @@ public interface SimpleEntityManager {
         return new MigrationResult(changed, options != null && options.isDryRun(), false, List.of());
     }
 
+    /**
+     * Bulk-loads table metadata of the schemas used by the given entities before
+     * many {@link #ensureTable(Class, MigrationOptions)} calls. Does nothing by default.
+     */
+    default void prefetchMetadata(Collection<Class<?>> entityClasses) {
+    }
+
     <T, ID> ID insert(T entity);
 
+    /**
+     * Inserts all entities and writes generated ids back like {@link #insert(Object)}. Implementations may merge
+     * the rows into multi-row insert statements; this default inserts them one by one.
+     *
+     * @return ids in the iteration order of {@code entities}
+     */
+    default <T, ID> List<ID> insertAll(Collection<T> entities) {
+        List<ID> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            ids.add(this.<T, ID>insert(entity));
+        }
+        return ids;
+    }
+
+    /**
+     * Streams entities into their table through the database bulk-load path ({@code COPY ... FROM STDIN} on
+     * PostgreSQL, chunked batch inserts elsewhere). Either every entity sets its id or none does; generated ids
+     * are not written back.
+     */
+    default <T> BulkInsertResult<Object> copyIn(Class<T> entityClass,
+                                                Iterator<? extends T> entities,
+                                                BulkInsertOptions options) {
+        throw new UnsupportedOperationException("copyIn is not supported by this SimpleEntityManager implementation");
+    }
+
+    /**
+     * Same as {@link #copyIn(Class, Iterator, BulkInsertOptions)}; the stream is closed afterwards.
+     */
+    default <T> BulkInsertResult<Object> copyIn(Class<T> entityClass,
+                                                Stream<? extends T> entities,
+                                                BulkInsertOptions options) {
+        Objects.requireNonNull(entities, "entities must not be null");
+        try (Stream<? extends T> source = entities) {
+            return copyIn(entityClass, source.iterator(), options);
+        }
+    }
+
     <T> int update(T entity);
 
     default <T> int update(T entity, NullUpdateStrategy strategy) {
@@ -24,6 +77,24 @@ public interface SimpleEntityManager {
 
     <T> int upsert(T entity);
 
+    /**
+     * Upserts all entities like {@link #upsert(Object)}. Implementations may merge the rows into multi-row
+     * upsert statements executed chunk by chunk; this default upserts them one by one.
+     *
+     * @return rows processed (inserted or updated) by every executed statement, in execution order; this is the
+     * number of input rows of each statement, not the driver's update count, which MySQL reports as 1 per insert,
+     * 2 per changed update and 0 per unchanged update
+     */
+    default <T> int[] upsertAll(Collection<T> entities) {
+        int[] processed = new int[entities.size()];
+        int index = 0;
+        for (T entity : entities) {
+            upsert(entity);
+            processed[index++] = 1;
+        }
+        return processed;
+    }
+
     <T, ID> T findById(Class<T> entityClass, ID id);
 
     <T, ID> int deleteById(Class<T> entityClass, ID id);
@@ -56,6 +127,43 @@ public interface SimpleEntityManager {
         throw new UnsupportedOperationException("unpaged list is not supported by this SimpleEntityManager implementation");
     }
 
+    /**
+     * Same rows as {@link #list(Class, Criteria, Sort...)}, read lazily through a database cursor. The stream holds
+     * a connection until it is closed, so use it in try-with-resources. This default materializes the list.
+     */
+    default <T> Stream<T> stream(Class<T> entityClass, Criteria criteria, Sort... sorts) {
+        return list(entityClass, criteria, sorts).stream();
+    }
+
+    /**
+     * Applies {@code action} to every row of {@link #stream(Class, Criteria, Sort...)} and closes the cursor.
+     */
+    default <T> void forEach(Class<T> entityClass, Criteria criteria, Consumer<? super T> action, Sort... sorts) {
+        Objects.requireNonNull(action, "action must not be null");
+        try (Stream<T> records = stream(entityClass, criteria, sorts)) {
+            records.forEach(action);
+        }
+    }
+
+    /**
+     * Reads only the columns behind the properties of {@code projectionType} (a record or a class with a no-args
+     * constructor) whose names match entity fields, and maps each row into it.
+     */
+    default <T, R> List<R> listAs(Class<T> entityClass, Class<R> projectionType, Criteria criteria, Sort... sorts) {
+        throw new UnsupportedOperationException("listAs is not supported by this SimpleEntityManager implementation");
+    }
+
+    /**
+     * Paged form of {@link #listAs(Class, Class, Criteria, Sort...)}.
+     */
+    default <T, R> List<R> queryAs(Class<T> entityClass,
+                                   Class<R> projectionType,
+                                   Criteria criteria,
+                                   PageRequest pageRequest,
+                                   Sort... sorts) {
+        throw new UnsupportedOperationException("queryAs is not supported by this SimpleEntityManager implementation");
+    }
+
     default <T> PageResult<T> pageQuery(Class<T> entityClass, Criteria criteria, PageRequest pageRequest) {
         List<T> records = query(entityClass, criteria, pageRequest);
         return PageResult.unknownTotal(records, pageRequest);
@@ -66,6 +174,15 @@ public interface SimpleEntityManager {
         return PageResult.unknownTotal(records, pageRequest);
     }
 
+    /**
+     * Keyset (seek) page ordered by {@code sorts} with the primary key as tie-breaker. NULL sort values follow the
+     * database's default NULL ordering; pass {@link KeysetPage#getNextCursor()} to
+     * {@link KeysetRequest#after(String, int)} for the following page.
+     */
+    default <T> KeysetPage<T> keysetQuery(Class<T> entityClass, Criteria criteria, KeysetRequest request, Sort... sorts) {
+        throw new UnsupportedOperationException("keysetQuery is not supported by this SimpleEntityManager implementation");
+    }
+
     <T> long count(Class<T> entityClass, Criteria criteria);
 
     <T, ID> boolean exists(Class<T> entityClass, ID id);
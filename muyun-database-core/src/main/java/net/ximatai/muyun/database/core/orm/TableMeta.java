@@ -20,10 +20,19 @@ public final class TableMeta implements RuntimeColumnMapper {
     private final String schema;
     private final List<FieldMeta> fields;
     private final FieldMeta idField;
+    private final boolean declaredColumnsOnly;
     private final Map<String, FieldMeta> fieldNameMap = new HashMap<>();
     private final Map<String, FieldMeta> columnNameMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
     TableMeta(String tableName, String schema, List<? extends FieldMeta> fields, FieldMeta idField) {
+        this(tableName, schema, fields, idField, false);
+    }
+
+    TableMeta(String tableName,
+              String schema,
+              List<? extends FieldMeta> fields,
+              FieldMeta idField,
+              boolean declaredColumnsOnly) {
         this.tableName = requireIdentifier(tableName, "tableName");
         this.schema = schema == null || schema.isBlank() ? null : requireIdentifier(schema, "schema");
         Objects.requireNonNull(fields, "fields must not be null");
@@ -70,6 +79,7 @@ public final class TableMeta implements RuntimeColumnMapper {
             resolvedId = explicitId;
         }
         this.idField = resolvedId;
+        this.declaredColumnsOnly = declaredColumnsOnly;
     }
 
     public static TableMeta of(String schema,
@@ -103,6 +113,14 @@ public final class TableMeta implements RuntimeColumnMapper {
         return idField;
     }
 
+    /**
+     * Whether queries without an explicit {@link Criteria#select(String...)} read only the declared columns
+     * instead of {@code *}; undeclared columns are then absent from the returned rows.
+     */
+    public boolean isDeclaredColumnsOnly() {
+        return declaredColumnsOnly;
+    }
+
     public FieldMeta findByFieldName(String fieldName) {
         return fieldNameMap.get(fieldName);
     }
@@ -167,6 +185,7 @@ public final class TableMeta implements RuntimeColumnMapper {
         private final String schema;
         private final String tableName;
         private final List<RuntimeFieldMeta> fields = new ArrayList<>();
+        private boolean declaredColumnsOnly;
 
         private Builder(String schema, String tableName) {
             this.schema = schema;
@@ -223,6 +242,15 @@ public final class TableMeta implements RuntimeColumnMapper {
             return this;
         }
 
+        /**
+         * Reads only the declared columns by default, e.g. to skip wide TEXT/bytea columns the runtime model does
+         * not map. Without it queries select {@code *} and undeclared columns are returned under their column names.
+         */
+        public Builder declaredColumnsOnly() {
+            this.declaredColumnsOnly = true;
+            return this;
+        }
+
         public TableMeta build() {
             RuntimeFieldMeta idField = null;
             for (RuntimeFieldMeta field : fields) {
@@ -231,7 +259,7 @@ public final class TableMeta implements RuntimeColumnMapper {
                     break;
                 }
             }
-            return new TableMeta(tableName, schema, fields, idField);
+            return new TableMeta(tableName, schema, fields, idField, declaredColumnsOnly);
         }
     }
 }
@@ -0,0 +1,53 @@
+package net.ximatai.muyun.database.core.orm;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Support for {@link CountStrategy#WINDOW}: the page query carries {@code COUNT(*) OVER()} in an extra column, so
+ * records and total come back in one round trip.
+ */
+final class WindowCount {
+
+    static final String COLUMN = "muyun_window_total";
+
+    private WindowCount() {
+    }
+
+    /**
+     * Appends the window column to {@code selectList}; a bare star is table-qualified, which keeps MySQL from
+     * rejecting {@code *, expr}.
+     */
+    static String selectFrom(String selectList, String qualifiedTable) {
+        String columns = "*".equals(selectList) ? qualifiedTable + ".*" : selectList;
+        return "SELECT " + columns + ", COUNT(*) OVER() AS " + COLUMN + " FROM " + qualifiedTable;
+    }
+
+    /**
+     * Reads the total from the first row. A page past the end returns no rows and so carries no total; only then
+     * is {@code exactCount} consulted.
+     */
+    static long total(List<Map<String, Object>> rows, PageRequest pageRequest, LongSupplier exactCount) {
+        if (rows.isEmpty()) {
+            return pageRequest.getOffset() == 0 ? 0L : exactCount.getAsLong();
+        }
+        for (Map.Entry<String, Object> entry : rows.getFirst().entrySet()) {
+            if (COLUMN.equalsIgnoreCase(entry.getKey()) && entry.getValue() instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return exactCount.getAsLong();
+    }
+
+    static Map<String, Object> strip(Map<String, Object> row) {
+        Map<String, Object> copy = new LinkedHashMap<>(row);
+        copy.keySet().removeIf(COLUMN::equalsIgnoreCase);
+        return copy;
+    }
+
+    static List<Map<String, Object>> strip(List<Map<String, Object>> rows) {
+        return rows.stream().map(WindowCount::strip).toList();
+    }
+}
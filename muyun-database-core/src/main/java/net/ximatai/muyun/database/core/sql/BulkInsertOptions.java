@@ -0,0 +1,70 @@
+package net.ximatai.muyun.database.core.sql;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Options for {@code IDatabaseOperations#bulkInsert}: chunk size, generated-key retrieval and a
+ * per-chunk progress callback. Instances are immutable; every {@code with*} call returns a copy.
+ */
+public final class BulkInsertOptions {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final BulkInsertOptions DEFAULTS = new BulkInsertOptions(DEFAULT_BATCH_SIZE, true, progress -> {
+    });
+
+    private final int batchSize;
+    private final boolean returnGeneratedKeys;
+    private final Consumer<BulkInsertProgress> progressListener;
+
+    private BulkInsertOptions(int batchSize, boolean returnGeneratedKeys, Consumer<BulkInsertProgress> progressListener) {
+        this.batchSize = batchSize;
+        this.returnGeneratedKeys = returnGeneratedKeys;
+        this.progressListener = progressListener;
+    }
+
+    public static BulkInsertOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Rows sent per JDBC batch; each chunk is one round trip.
+     */
+    public BulkInsertOptions withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        return new BulkInsertOptions(batchSize, returnGeneratedKeys, progressListener);
+    }
+
+    /**
+     * Disables generated-key retrieval; the result then carries affected counts only.
+     */
+    public BulkInsertOptions withoutGeneratedKeys() {
+        return new BulkInsertOptions(batchSize, false, progressListener);
+    }
+
+    public BulkInsertOptions withGeneratedKeys(boolean returnGeneratedKeys) {
+        return new BulkInsertOptions(batchSize, returnGeneratedKeys, progressListener);
+    }
+
+    /**
+     * Called after every executed chunk, on the inserting thread.
+     */
+    public BulkInsertOptions onProgress(Consumer<BulkInsertProgress> progressListener) {
+        return new BulkInsertOptions(batchSize, returnGeneratedKeys, Objects.requireNonNull(progressListener));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isReturnGeneratedKeys() {
+        return returnGeneratedKeys;
+    }
+
+    public Consumer<BulkInsertProgress> getProgressListener() {
+        return progressListener;
+    }
+}
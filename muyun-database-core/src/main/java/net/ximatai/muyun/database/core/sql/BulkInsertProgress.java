@@ -0,0 +1,13 @@
+package net.ximatai.muyun.database.core.sql;
+
+/**
+ * Progress of a running bulk insert, reported once per executed chunk.
+ *
+ * @param chunkIndex    zero-based index of the chunk just executed
+ * @param chunkRows     rows sent in this chunk
+ * @param chunkAffected rows reported as inserted by this chunk
+ * @param totalRows     rows sent so far, including this chunk
+ * @param totalAffected rows reported as inserted so far, including this chunk
+ */
+public record BulkInsertProgress(int chunkIndex, int chunkRows, int chunkAffected, long totalRows, long totalAffected) {
+}
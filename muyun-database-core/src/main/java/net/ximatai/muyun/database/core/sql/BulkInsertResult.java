@@ -0,0 +1,22 @@
+package net.ximatai.muyun.database.core.sql;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert.
+ *
+ * @param rows          rows read from the source and sent to the database
+ * @param affected      rows reported as inserted
+ * @param chunks        number of executed chunks
+ * @param generatedKeys generated keys in insertion order; empty when key retrieval was disabled
+ */
+public record BulkInsertResult<K>(long rows, long affected, int chunks, List<K> generatedKeys) {
+
+    public BulkInsertResult {
+        generatedKeys = List.copyOf(generatedKeys);
+    }
+
+    public static <K> BulkInsertResult<K> empty() {
+        return new BulkInsertResult<>(0, 0, 0, List.of());
+    }
+}
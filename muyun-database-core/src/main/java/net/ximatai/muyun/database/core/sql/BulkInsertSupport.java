@@ -0,0 +1,77 @@
+package net.ximatai.muyun.database.core.sql;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shared chunking loop for bulk inserts. Pulls rows from the source lazily, so at most one chunk of bind maps is
+ * held in memory, and hands every full (or final partial) chunk to a {@link ChunkWriter}.
+ */
+public final class BulkInsertSupport {
+
+    private BulkInsertSupport() {
+    }
+
+    /**
+     * Writes one chunk of bind maps.
+     */
+    @FunctionalInterface
+    public interface ChunkWriter<K> {
+
+        /**
+         * @param chunk         bind maps of this chunk; only valid for the duration of the call
+         * @param generatedKeys sink for generated keys, or {@code null} when key retrieval is disabled
+         * @return rows reported as inserted
+         */
+        int write(List<Map<String, Object>> chunk, List<K> generatedKeys);
+    }
+
+    public static <K> BulkInsertResult<K> execute(Iterator<Map<String, Object>> rows,
+                                                  BulkInsertOptions options,
+                                                  ChunkWriter<K> writer) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        Objects.requireNonNull(options, "options must not be null");
+        Objects.requireNonNull(writer, "writer must not be null");
+
+        int batchSize = options.getBatchSize();
+        List<K> keys = options.isReturnGeneratedKeys() ? new ArrayList<>() : null;
+        List<Map<String, Object>> chunk = new ArrayList<>(batchSize);
+        long totalRows = 0;
+        long totalAffected = 0;
+        int chunks = 0;
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() < batchSize && rows.hasNext()) {
+                continue;
+            }
+            int affected = writer.write(chunk, keys);
+            totalRows += chunk.size();
+            totalAffected += affected;
+            options.getProgressListener().accept(
+                    new BulkInsertProgress(chunks, chunk.size(), affected, totalRows, totalAffected));
+            chunks++;
+            chunk.clear();
+        }
+        return new BulkInsertResult<>(totalRows, totalAffected, chunks, keys == null ? List.of() : keys);
+    }
+
+    /**
+     * Sums JDBC batch update counts, counting {@link java.sql.Statement#SUCCESS_NO_INFO} (reported by rewritten
+     * MySQL batches) as one inserted row.
+     */
+    public static int affectedRows(int[] updateCounts) {
+        int affected = 0;
+        for (int count : updateCounts) {
+            if (count > 0) {
+                affected += count;
+            } else if (count == java.sql.Statement.SUCCESS_NO_INFO) {
+                affected++;
+            }
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,22 @@
+package net.ximatai.muyun.database.core.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} straight to an object, without building an intermediate row map.
+ * Implementations resolve column positions once per result set in {@link #specialize(ResultSet)}; callers invoke it
+ * before the first row and use the returned mapper for every row of that result set.
+ */
+@FunctionalInterface
+public interface ResultSetRowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Returns a mapper bound to this result set's columns; the default maps every row through {@link #map(ResultSet)}.
+     */
+    default ResultSetRowMapper<T> specialize(ResultSet rs) throws SQLException {
+        return this;
+    }
+}
@@ -16,6 +16,24 @@ import java.util.stream.Stream;
 
 public final class SqlPlanBuilder {
 
+    /**
+     * Largest number of bind parameters one statement may carry. PostgreSQL sends the parameter count as an
+     * unsigned 16-bit integer and MySQL server-side prepared statements share the same limit.
+     */
+    public static final int MAX_BIND_PARAMETERS = 65535;
+
+    /**
+     * Default cap on rows per multi-row insert statement, keeping the statement text well below common
+     * MySQL {@code max_allowed_packet} settings.
+     */
+    public static final int DEFAULT_MULTI_ROW_INSERT_ROWS = 500;
+
+    /**
+     * Alias of the proposed row in MySQL upserts ({@code insert ... as new_row on duplicate key update
+     * col=new_row.col}), replacing the {@code VALUES(col)} function deprecated since MySQL 8.0.20.
+     */
+    private static final String MYSQL_UPSERT_ROW_ALIAS = "new_row";
+
     private SqlPlanBuilder() {
     }
 
@@ -79,56 +97,227 @@ public final class SqlPlanBuilder {
                                                Map<String, ?> params,
                                                Map<String, DBColumn> columnMap,
                                                DBInfo.Type dbType) {
-        StringJoiner columns = new StringJoiner(", ", "(", ")");
-        StringJoiner values = new StringJoiner(", ", "(", ")");
-        List<String> includedColumns = new ArrayList<>();
-        List<String> bindNames = new ArrayList<>();
+        return renderInsertPlan(schema, tableName, writableColumns(params, columnMap), dbType);
+    }
 
-        int index = 0;
+    /**
+     * Same as {@link #prepareInsertPlan(String, String, Map, Map, DBInfo.Type)}, but reuses the plan
+     * rendered for the same table and ordered column set from {@link SqlPlanCache#shared()}.
+     */
+    public static InsertPlan cachedInsertPlan(String schema,
+                                              String tableName,
+                                              Map<String, ?> params,
+                                              Map<String, DBColumn> columnMap,
+                                              DBInfo.Type dbType) {
+        return cachedInsertPlan(SqlPlanCache.shared(), schema, tableName, params, columnMap, dbType);
+    }
+
+    public static InsertPlan cachedInsertPlan(SqlPlanCache cache,
+                                              String schema,
+                                              String tableName,
+                                              Map<String, ?> params,
+                                              Map<String, DBColumn> columnMap,
+                                              DBInfo.Type dbType) {
+        List<String> columns = writableColumns(params, columnMap);
+        SqlPlanCache.PlanKey key = new SqlPlanCache.PlanKey(
+                SqlPlanCache.Kind.INSERT, dbType, schema, tableName, columns, null, 1);
+        return cache.get(key, () -> renderInsertPlan(schema, tableName, columns, dbType));
+    }
+
+    public static PreparedSql prepareUpdateSql(String schema,
+                                               String tableName,
+                                               Map<String, Object> params,
+                                               Map<String, DBColumn> columnMap,
+                                               String pkName,
+                                               DBInfo.Type dbType) {
+        return prepareUpdatePlan(schema, tableName, params, columnMap, pkName, dbType).bind(params);
+    }
+
+    public static UpdatePlan prepareUpdatePlan(String schema,
+                                               String tableName,
+                                               Map<String, ?> params,
+                                               Map<String, DBColumn> columnMap,
+                                               String pkName,
+                                               DBInfo.Type dbType) {
+        return renderUpdatePlan(schema, tableName, writableColumns(params, columnMap), pkName, dbType);
+    }
+
+    /**
+     * Same as {@link #prepareUpdatePlan(String, String, Map, Map, String, DBInfo.Type)}, but reuses the plan
+     * rendered for the same table, ordered column set and primary key from {@link SqlPlanCache#shared()}.
+     */
+    public static UpdatePlan cachedUpdatePlan(String schema,
+                                              String tableName,
+                                              Map<String, ?> params,
+                                              Map<String, DBColumn> columnMap,
+                                              String pkName,
+                                              DBInfo.Type dbType) {
+        return cachedUpdatePlan(SqlPlanCache.shared(), schema, tableName, params, columnMap, pkName, dbType);
+    }
+
+    public static UpdatePlan cachedUpdatePlan(SqlPlanCache cache,
+                                              String schema,
+                                              String tableName,
+                                              Map<String, ?> params,
+                                              Map<String, DBColumn> columnMap,
+                                              String pkName,
+                                              DBInfo.Type dbType) {
+        List<String> columns = writableColumns(params, columnMap);
+        SqlPlanCache.PlanKey key = new SqlPlanCache.PlanKey(
+                SqlPlanCache.Kind.UPDATE, dbType, schema, tableName, columns, pkName, 1);
+        return cache.get(key, () -> renderUpdatePlan(schema, tableName, columns, pkName, dbType));
+    }
+
+    /**
+     * Rows that fit into one multi-row insert of {@code columnCount} columns without exceeding
+     * {@link #MAX_BIND_PARAMETERS} or {@code maxRows}.
+     */
+    public static int multiRowInsertRows(int columnCount, int maxRows) {
+        if (columnCount <= 0) {
+            throw new IllegalArgumentException("columnCount must be > 0");
+        }
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("maxRows must be > 0");
+        }
+        return Math.max(1, Math.min(maxRows, MAX_BIND_PARAMETERS / columnCount));
+    }
+
+    public static MultiRowInsertPlan prepareMultiRowInsertPlan(String schema,
+                                                               String tableName,
+                                                               List<String> columns,
+                                                               int rows,
+                                                               DBInfo.Type dbType) {
+        return renderMultiRowInsertPlan(schema, tableName, List.copyOf(columns), rows, dbType);
+    }
+
+    /**
+     * Same as {@link #prepareMultiRowInsertPlan(String, String, List, int, DBInfo.Type)}, but reuses the plan
+     * rendered for the same table, ordered column set and row count from {@link SqlPlanCache#shared()}.
+     */
+    public static MultiRowInsertPlan cachedMultiRowInsertPlan(String schema,
+                                                              String tableName,
+                                                              List<String> columns,
+                                                              int rows,
+                                                              DBInfo.Type dbType) {
+        return cachedMultiRowInsertPlan(SqlPlanCache.shared(), schema, tableName, columns, rows, dbType);
+    }
+
+    public static MultiRowInsertPlan cachedMultiRowInsertPlan(SqlPlanCache cache,
+                                                              String schema,
+                                                              String tableName,
+                                                              List<String> columns,
+                                                              int rows,
+                                                              DBInfo.Type dbType) {
+        List<String> includedColumns = List.copyOf(columns);
+        SqlPlanCache.PlanKey key = new SqlPlanCache.PlanKey(
+                SqlPlanCache.Kind.MULTI_ROW_INSERT, dbType, schema, tableName, includedColumns, null, rows);
+        return cache.get(key, () -> renderMultiRowInsertPlan(schema, tableName, includedColumns, rows, dbType));
+    }
+
+    /**
+     * Renders {@code copy schema.table (columns) from stdin} in the default text format of PostgreSQL.
+     */
+    public static String buildCopyInSql(String schema,
+                                        String tableName,
+                                        List<String> columns,
+                                        DBInfo.Type dbType) {
+        if (dbType != DBInfo.Type.POSTGRESQL) {
+            throw new UnsupportedOperationException("COPY is not supported for database type: " + dbType);
+        }
+        if (columns.isEmpty()) {
+            throw new MuYunDatabaseException("No insertable columns were provided for copy into " + tableName);
+        }
+        StringJoiner columnSql = new StringJoiner(", ", "(", ")");
+        columns.forEach(column -> columnSql.add(quoteIdentifier(column, dbType)));
+        return "copy " + quoteSchemaTable(schema, tableName, dbType) + " " + columnSql + " from stdin";
+    }
+
+    /**
+     * Columns of {@code params} that exist in the table, in the iteration order of {@code params}.
+     */
+    public static List<String> writableColumns(Map<String, ?> params, Map<String, DBColumn> columnMap) {
+        List<String> columns = new ArrayList<>(params.size());
         for (String key : params.keySet()) {
             if (columnMap.containsKey(key)) {
-                String bindName = "p_" + index++;
-                includedColumns.add(key);
-                bindNames.add(bindName);
-                columns.add(quoteIdentifier(key, dbType));
-                values.add(":" + bindName);
+                columns.add(key);
             }
         }
+        return columns;
+    }
+
+    private static InsertPlan renderInsertPlan(String schema,
+                                               String tableName,
+                                               List<String> includedColumns,
+                                               DBInfo.Type dbType) {
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        StringJoiner values = new StringJoiner(", ", "(", ")");
+        List<String> bindNames = new ArrayList<>(includedColumns.size());
+
+        for (int index = 0; index < includedColumns.size(); index++) {
+            String bindName = "p_" + index;
+            bindNames.add(bindName);
+            columns.add(quoteIdentifier(includedColumns.get(index), dbType));
+            values.add(":" + bindName);
+        }
 
         String sql = "insert into " + quoteSchemaTable(schema, tableName, dbType) + " " + columns + " values " + values;
         return new InsertPlan(sql, includedColumns, bindNames);
     }
 
-    public static PreparedSql prepareUpdateSql(String schema,
+    private static MultiRowInsertPlan renderMultiRowInsertPlan(String schema,
+                                                               String tableName,
+                                                               List<String> includedColumns,
+                                                               int rows,
+                                                               DBInfo.Type dbType) {
+        if (includedColumns.isEmpty()) {
+            throw new MuYunDatabaseException("No insertable columns were provided for multi-row insert into " + tableName);
+        }
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be > 0");
+        }
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        includedColumns.forEach(column -> columns.add(quoteIdentifier(column, dbType)));
+
+        StringBuilder sql = new StringBuilder("insert into ")
+                .append(quoteSchemaTable(schema, tableName, dbType))
+                .append(' ')
+                .append(columns)
+                .append(" values ");
+        List<String> bindNames = new ArrayList<>(rows * includedColumns.size());
+        for (int row = 0; row < rows; row++) {
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (int index = 0; index < includedColumns.size(); index++) {
+                String bindName = "p_" + row + "_" + index;
+                bindNames.add(bindName);
+                values.add(":" + bindName);
+            }
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(values);
+        }
+        return new MultiRowInsertPlan(sql.toString(), includedColumns, rows, bindNames);
+    }
+
+    private static UpdatePlan renderUpdatePlan(String schema,
                                                String tableName,
-                                               Map<String, Object> params,
-                                               Map<String, DBColumn> columnMap,
+                                               List<String> includedColumns,
                                                String pkName,
                                                DBInfo.Type dbType) {
         StringJoiner setClause = new StringJoiner(", ");
-        Map<String, Object> bindParams = new HashMap<>();
+        List<String> bindNames = new ArrayList<>(includedColumns.size());
 
-        int index = 0;
-        for (String key : params.keySet()) {
-            if (columnMap.containsKey(key)) {
-                String bindName = "p_" + index++;
-                setClause.add(quoteIdentifier(key, dbType) + "=:" + bindName);
-                bindParams.put(bindName, params.get(key));
-            }
+        for (int index = 0; index < includedColumns.size(); index++) {
+            String bindName = "p_" + index;
+            bindNames.add(bindName);
+            setClause.add(quoteIdentifier(includedColumns.get(index), dbType) + "=:" + bindName);
         }
 
         String pkBindName = "pk_0";
-        Object pkValue = Stream.of(pkName, pkName.toUpperCase(), pkName.toLowerCase())
-                .map(params::get)
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(params.get(pkName));
-        bindParams.put(pkBindName, pkValue);
-
         String sql = "update " + quoteSchemaTable(schema, tableName, dbType)
                 + " set " + setClause
                 + " where " + quoteIdentifier(pkName, dbType) + " = :" + pkBindName;
-        return new PreparedSql(sql, bindParams);
+        return new UpdatePlan(sql, includedColumns, bindNames, pkName, pkBindName);
     }
 
     public static PreparedSql preparePatchUpdateSql(String schema,
@@ -225,7 +414,7 @@ public final class SqlPlanBuilder {
     }
 
     public static Map<String, Object> toBindMap(Map<String, Object> source, List<String> columns, List<String> bindNames) {
-        Map<String, Object> bindParams = new HashMap<>();
+        Map<String, Object> bindParams = HashMap.newHashMap(columns.size() + 1);
         for (int i = 0; i < columns.size(); i++) {
             bindParams.put(bindNames.get(i), source.get(columns.get(i)));
         }
@@ -238,19 +427,6 @@ public final class SqlPlanBuilder {
                                                      String pkName,
                                                      Map<String, Object> transformed,
                                                      DBInfo.Type dbType) {
-        return switch (dbType) {
-            case MYSQL -> prepareMySqlAtomicUpsertSql(schema, tableName, columns, pkName, transformed, dbType);
-            case POSTGRESQL -> preparePostgresAtomicUpsertSql(schema, tableName, columns, pkName, transformed, dbType);
-            default -> throw new UnsupportedOperationException("Atomic upsert is not supported for database type: " + dbType);
-        };
-    }
-
-    private static PreparedSql prepareMySqlAtomicUpsertSql(String schema,
-                                                           String tableName,
-                                                           List<String> columns,
-                                                           String pkName,
-                                                           Map<String, Object> transformed,
-                                                           DBInfo.Type dbType) {
         Map<String, String> bindNames = createBindNameMap(columns);
         String columnSql = columns.stream()
                 .map(col -> quoteIdentifier(col, dbType))
@@ -259,46 +435,85 @@ public final class SqlPlanBuilder {
                 .map(col -> ":" + bindNames.get(col))
                 .collect(java.util.stream.Collectors.joining(", "));
 
-        List<String> updateColumns = columns.stream()
-                .filter(col -> !col.equalsIgnoreCase(pkName))
-                .toList();
-        String updateSql = updateColumns.isEmpty()
-                ? quoteIdentifier(pkName, dbType) + "=" + quoteIdentifier(pkName, dbType)
-                : updateColumns.stream()
-                .map(col -> quoteIdentifier(col, dbType) + "=VALUES(" + quoteIdentifier(col, dbType) + ")")
-                .collect(java.util.stream.Collectors.joining(", "));
-
         String sql = "insert into " + quoteSchemaTable(schema, tableName, dbType)
-                + " (" + columnSql + ") values (" + valueSql + ") on duplicate key update " + updateSql;
+                + " (" + columnSql + ") values (" + valueSql + ")" + renderUpsertClause(columns, pkName, dbType);
         return new PreparedSql(sql, toBindMap(transformed, columns, columns.stream().map(bindNames::get).toList()));
     }
 
-    private static PreparedSql preparePostgresAtomicUpsertSql(String schema,
+    /**
+     * Multi-row counterpart of {@link #prepareAtomicUpsertSql(String, String, List, String, Map, DBInfo.Type)}:
+     * {@code rows} value tuples followed by the dialect's conflict clause. Bind names follow
+     * {@link MultiRowInsertPlan}.
+     */
+    public static MultiRowInsertPlan prepareMultiRowUpsertPlan(String schema,
+                                                               String tableName,
+                                                               List<String> columns,
+                                                               String pkName,
+                                                               int rows,
+                                                               DBInfo.Type dbType) {
+        return renderMultiRowUpsertPlan(schema, tableName, List.copyOf(columns), pkName, rows, dbType);
+    }
+
+    /**
+     * Same as {@link #prepareMultiRowUpsertPlan(String, String, List, String, int, DBInfo.Type)}, but reuses the plan
+     * rendered for the same table, ordered column set, primary key and row count from {@link SqlPlanCache#shared()}.
+     */
+    public static MultiRowInsertPlan cachedMultiRowUpsertPlan(String schema,
                                                               String tableName,
                                                               List<String> columns,
                                                               String pkName,
-                                                              Map<String, Object> transformed,
+                                                              int rows,
                                                               DBInfo.Type dbType) {
-        Map<String, String> bindNames = createBindNameMap(columns);
-        String columnSql = columns.stream()
-                .map(col -> quoteIdentifier(col, dbType))
-                .collect(java.util.stream.Collectors.joining(", "));
-        String valueSql = columns.stream()
-                .map(col -> ":" + bindNames.get(col))
-                .collect(java.util.stream.Collectors.joining(", "));
+        return cachedMultiRowUpsertPlan(SqlPlanCache.shared(), schema, tableName, columns, pkName, rows, dbType);
+    }
+
+    public static MultiRowInsertPlan cachedMultiRowUpsertPlan(SqlPlanCache cache,
+                                                              String schema,
+                                                              String tableName,
+                                                              List<String> columns,
+                                                              String pkName,
+                                                              int rows,
+                                                              DBInfo.Type dbType) {
+        List<String> includedColumns = List.copyOf(columns);
+        SqlPlanCache.PlanKey key = new SqlPlanCache.PlanKey(
+                SqlPlanCache.Kind.MULTI_ROW_UPSERT, dbType, schema, tableName, includedColumns, pkName, rows);
+        return cache.get(key, () -> renderMultiRowUpsertPlan(schema, tableName, includedColumns, pkName, rows, dbType));
+    }
 
+    private static MultiRowInsertPlan renderMultiRowUpsertPlan(String schema,
+                                                               String tableName,
+                                                               List<String> includedColumns,
+                                                               String pkName,
+                                                               int rows,
+                                                               DBInfo.Type dbType) {
+        String upsertClause = renderUpsertClause(includedColumns, pkName, dbType);
+        MultiRowInsertPlan insert = renderMultiRowInsertPlan(schema, tableName, includedColumns, rows, dbType);
+        return new MultiRowInsertPlan(insert.sql() + upsertClause, insert.columns(), rows, insert.bindNames());
+    }
+
+    private static String renderUpsertClause(List<String> columns, String pkName, DBInfo.Type dbType) {
         List<String> updateColumns = columns.stream()
                 .filter(col -> !col.equalsIgnoreCase(pkName))
                 .toList();
-        String updateSql = updateColumns.isEmpty()
-                ? quoteIdentifier(pkName, dbType) + "=EXCLUDED." + quoteIdentifier(pkName, dbType)
-                : updateColumns.stream()
-                .map(col -> quoteIdentifier(col, dbType) + "=EXCLUDED." + quoteIdentifier(col, dbType))
-                .collect(java.util.stream.Collectors.joining(", "));
-
-        String sql = "insert into " + quoteSchemaTable(schema, tableName, dbType)
-                + " (" + columnSql + ") values (" + valueSql + ") on conflict (" + quoteIdentifier(pkName, dbType) + ") do update set " + updateSql;
-        return new PreparedSql(sql, toBindMap(transformed, columns, columns.stream().map(bindNames::get).toList()));
+        return switch (dbType) {
+            case MYSQL -> {
+                String updateSql = updateColumns.isEmpty()
+                        ? quoteIdentifier(pkName, dbType) + "=" + quoteIdentifier(pkName, dbType)
+                        : updateColumns.stream()
+                        .map(col -> quoteIdentifier(col, dbType) + "=" + MYSQL_UPSERT_ROW_ALIAS + "." + quoteIdentifier(col, dbType))
+                        .collect(java.util.stream.Collectors.joining(", "));
+                yield " as " + MYSQL_UPSERT_ROW_ALIAS + " on duplicate key update " + updateSql;
+            }
+            case POSTGRESQL -> {
+                String updateSql = updateColumns.isEmpty()
+                        ? quoteIdentifier(pkName, dbType) + "=EXCLUDED." + quoteIdentifier(pkName, dbType)
+                        : updateColumns.stream()
+                        .map(col -> quoteIdentifier(col, dbType) + "=EXCLUDED." + quoteIdentifier(col, dbType))
+                        .collect(java.util.stream.Collectors.joining(", "));
+                yield " on conflict (" + quoteIdentifier(pkName, dbType) + ") do update set " + updateSql;
+            }
+            default -> throw new UnsupportedOperationException("Atomic upsert is not supported for database type: " + dbType);
+        };
     }
 
     private static Map<String, String> createBindNameMap(List<String> columns) {
@@ -318,6 +533,59 @@ public final class SqlPlanBuilder {
     }
 
     public record InsertPlan(String sql, List<String> columns, List<String> bindNames) {
+        public InsertPlan {
+            columns = List.copyOf(columns);
+            bindNames = List.copyOf(bindNames);
+        }
+    }
+
+    public record MultiRowInsertPlan(String sql, List<String> columns, int rows, List<String> bindNames) {
+        public MultiRowInsertPlan {
+            columns = List.copyOf(columns);
+            bindNames = List.copyOf(bindNames);
+        }
+
+        /**
+         * Binds the column values of exactly {@link #rows()} rows, in statement order.
+         */
+        public Map<String, Object> bind(List<? extends Map<String, ?>> values) {
+            if (values.size() != rows) {
+                throw new IllegalArgumentException("Expected " + rows + " rows but got " + values.size());
+            }
+            int columnCount = columns.size();
+            Map<String, Object> bindParams = HashMap.newHashMap(bindNames.size());
+            for (int row = 0; row < rows; row++) {
+                Map<String, ?> source = values.get(row);
+                for (int index = 0; index < columnCount; index++) {
+                    bindParams.put(bindNames.get(row * columnCount + index), source.get(columns.get(index)));
+                }
+            }
+            return bindParams;
+        }
+    }
+
+    public record UpdatePlan(String sql, List<String> columns, List<String> bindNames, String pkName, String pkBindName) {
+        public UpdatePlan {
+            columns = List.copyOf(columns);
+            bindNames = List.copyOf(bindNames);
+        }
+
+        /**
+         * Binds column values and the primary key value of one row to this plan.
+         */
+        public PreparedSql bind(Map<String, ?> params) {
+            Map<String, Object> bindParams = HashMap.newHashMap(columns.size() + 1);
+            for (int i = 0; i < columns.size(); i++) {
+                bindParams.put(bindNames.get(i), params.get(columns.get(i)));
+            }
+            Object pkValue = Stream.of(pkName, pkName.toUpperCase(), pkName.toLowerCase())
+                    .<Object>map(params::get)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(params.get(pkName));
+            bindParams.put(pkBindName, pkValue);
+            return new PreparedSql(sql, bindParams);
+        }
     }
 
     public record PreparedSql(String sql, Map<String, Object> params) {
@@ -0,0 +1,109 @@
+package net.ximatai.muyun.database.core.sql;
+
+import net.ximatai.muyun.database.core.internal.ApproximateLruCache;
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of rendered write SQL plans.
+ * <p>
+ * Entries are keyed by database type, schema, table, the ordered set of written
+ * columns, the primary key column and the number of rows per statement, so the
+ * same entity shape reuses the same SQL text and bind names. Table entries are dropped whenever the column
+ * metadata of that table is reset. Lookups do not lock; when the cache is full the plan with the
+ * oldest access time is evicted (approximate LRU, see {@link ApproximateLruCache}).
+ */
+public final class SqlPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 2048;
+
+    private static final SqlPlanCache SHARED = new SqlPlanCache(DEFAULT_MAX_SIZE);
+
+    private final ApproximateLruCache<PlanKey, Object> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SqlPlanCache(int maxSize) {
+        this.plans = new ApproximateLruCache<>(maxSize);
+    }
+
+    /**
+     * Process-wide cache used by {@link SqlPlanBuilder} write plans.
+     */
+    public static SqlPlanCache shared() {
+        return SHARED;
+    }
+
+    <P> P get(PlanKey key, Supplier<P> loader) {
+        @SuppressWarnings("unchecked")
+        P cached = (P) plans.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        @SuppressWarnings("unchecked")
+        P plan = (P) plans.putIfAbsent(key, loader.get());
+        return plan;
+    }
+
+    /**
+     * Drops every plan of one table, for all database types and plan kinds.
+     */
+    public void invalidate(String schema, String tableName) {
+        plans.removeIf(key -> Objects.equals(key.schema(), schema)
+                && Objects.equals(key.tableName(), tableName));
+    }
+
+    /**
+     * Drops every plan of one schema.
+     */
+    public void invalidateSchema(String schema) {
+        plans.removeIf(key -> Objects.equals(key.schema(), schema));
+    }
+
+    public void clear() {
+        plans.clear();
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public int getMaxSize() {
+        return plans.getMaxSize();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+    }
+
+    enum Kind {
+        INSERT,
+        UPDATE,
+        MULTI_ROW_INSERT,
+        MULTI_ROW_UPSERT
+    }
+
+    record PlanKey(Kind kind,
+                   DBInfo.Type dbType,
+                   String schema,
+                   String tableName,
+                   List<String> columns,
+                   String pkName,
+                   int rows) {
+    }
+}
@@ -0,0 +1,93 @@
+package net.ximatai.muyun.database.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApproximateLruCacheTest {
+
+    @Test
+    void fullCacheShouldEvictEntryWithOldestAccess() {
+        ApproximateLruCache<String, String> cache = new ApproximateLruCache<>(2);
+        cache.putIfAbsent("a", "v1");
+        cache.putIfAbsent("b", "v2");
+        assertEquals("v1", cache.get("a"));
+
+        cache.putIfAbsent("c", "v3");
+
+        assertEquals(2, cache.size());
+        assertEquals("v1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("v3", cache.get("c"));
+    }
+
+    @Test
+    void putIfAbsentShouldKeepFirstValue() {
+        ApproximateLruCache<String, String> cache = new ApproximateLruCache<>(4);
+
+        assertEquals("v1", cache.putIfAbsent("a", "v1"));
+        assertEquals("v1", cache.putIfAbsent("a", "v2"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void zeroSizeShouldNotCache() {
+        ApproximateLruCache<String, String> cache = new ApproximateLruCache<>(0);
+
+        assertEquals("v1", cache.putIfAbsent("a", "v1"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateLruCache<>(-1));
+    }
+
+    @Test
+    void removeIfShouldDropMatchingKeys() {
+        ApproximateLruCache<String, String> cache = new ApproximateLruCache<>(4);
+        cache.putIfAbsent("t1.a", "v1");
+        cache.putIfAbsent("t1.b", "v2");
+        cache.putIfAbsent("t2.a", "v3");
+
+        cache.removeIf(key -> key.startsWith("t1."));
+
+        assertEquals(1, cache.size());
+        assertEquals("v3", cache.get("t2.a"));
+    }
+
+    @Test
+    void concurrentWritersShouldSettleWithinCapacity() throws Exception {
+        ApproximateLruCache<Integer, Integer> cache = new ApproximateLruCache<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int worker = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int key = (worker * 31 + i) % 512;
+                        Integer cached = cache.get(key);
+                        assertTrue(cached == null || cached == key);
+                        cache.putIfAbsent(key, key);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cache.putIfAbsent(-1, -1);
+        assertTrue(cache.size() <= 64, "size " + cache.size());
+    }
+}
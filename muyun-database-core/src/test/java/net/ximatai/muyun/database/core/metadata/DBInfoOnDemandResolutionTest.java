@@ -0,0 +1,60 @@
+package net.ximatai.muyun.database.core.metadata;
+
+import net.ximatai.muyun.database.core.exception.TableNotFound;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DBInfoOnDemandResolutionTest {
+
+    @Test
+    void shouldResolveUnknownSchemaOnceAndCacheIt() {
+        List<String> lookups = new ArrayList<>();
+        DBInfo info = new DBInfo("POSTGRESQL")
+                .addSchema(new DBSchema("public"))
+                .setSchemaResolver(name -> {
+                    lookups.add(name);
+                    return "audit".equals(name) ? new DBSchema(name) : null;
+                });
+
+        DBSchema audit = info.getSchema("audit");
+
+        assertSame(audit, info.getSchema("audit"));
+        assertNull(info.getSchema("missing"));
+        assertEquals("public", info.getDefaultSchema().getName());
+        assertEquals(List.of("audit", "missing"), lookups);
+    }
+
+    @Test
+    void shouldResolveUnknownTableOnDemand() {
+        List<String> lookups = new ArrayList<>();
+        DBSchema schema = new DBSchema("audit");
+        schema.setTableResolver(name -> {
+            lookups.add(name);
+            return "event_log".equals(name) ? new DBTable(null).setSchema("audit").setName(name) : null;
+        });
+
+        assertTrue(schema.containsTable("event_log"));
+        assertEquals("event_log", schema.getTable("event_log").getName());
+        assertFalse(schema.containsTable("missing"));
+        assertThrows(TableNotFound.class, () -> schema.getTable("missing"));
+        assertEquals(List.of("event_log", "missing", "missing"), lookups);
+        assertEquals(1, schema.getTables().size());
+    }
+
+    @Test
+    void shouldKeepEagerSchemasUnchangedWithoutResolver() {
+        DBInfo info = new DBInfo("MYSQL").setName("app").addSchema(new DBSchema("app"));
+
+        assertNull(info.getSchema("other"));
+        assertFalse(info.getSchema("app").containsTable("missing"));
+    }
+}
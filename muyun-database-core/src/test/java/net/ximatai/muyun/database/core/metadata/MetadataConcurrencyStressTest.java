@@ -0,0 +1,265 @@
+package net.ximatai.muyun.database.core.metadata;
+
+import net.ximatai.muyun.database.core.IMetaDataLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataConcurrencyStressTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void shouldLoadColumnsOfOneTableOnlyOnceUnderContention() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        DBTable table = new DBTable(loader).setSchema("app").setName("demo");
+
+        List<Map<String, DBColumn>> results = runConcurrently(table::getColumnMap);
+
+        assertEquals(1, loader.columnLoads.get());
+        results.forEach(result -> assertSame(results.getFirst(), result));
+        assertEquals(1, loader.indexLoadsAfter(table));
+    }
+
+    @Test
+    void shouldResolveEachSchemaAndTableOnlyOnceUnderContention() throws Exception {
+        Map<String, AtomicInteger> schemaLookups = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> tableLookups = new ConcurrentHashMap<>();
+        CountingLoader loader = new CountingLoader();
+        DBInfo info = new DBInfo("POSTGRESQL").setSchemaResolver(name -> {
+            schemaLookups.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            pause();
+            return new DBSchema(name).setTableResolver(table -> {
+                tableLookups.computeIfAbsent(name + "." + table, key -> new AtomicInteger()).incrementAndGet();
+                pause();
+                return new DBTable(loader).setSchema(name).setName(table);
+            });
+        });
+
+        AtomicInteger counter = new AtomicInteger();
+        List<DBTable> tables = runConcurrently(() -> {
+            int n = counter.getAndIncrement();
+            return info.getSchema("s" + n % 4).getTable("t" + n % 3);
+        });
+
+        tables.forEach(Assertions::assertNotNull);
+        schemaLookups.values().forEach(count -> assertEquals(1, count.get()));
+        tableLookups.values().forEach(count -> assertEquals(1, count.get()));
+        assertEquals(4, info.getSchemas().size());
+    }
+
+    @Test
+    void shouldReloadAfterResetRacingWithReaders() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        DBTable table = new DBTable(loader).setSchema("app").setName("demo");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        if (worker == 0 && round % 5 == 0) {
+                            table.resetColumns();
+                        }
+                        assertTrue(table.contains("id"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        table.resetColumns();
+        int before = loader.columnLoads.get();
+        table.getColumnMap();
+        assertEquals(before + 1, loader.columnLoads.get());
+        assertTrue(before <= ROUNDS / 5 + 1, "loads should follow resets, not readers: " + before);
+    }
+
+    @Test
+    void shouldInvalidateOnlyTheTargetedTableAndSchema() {
+        CountingLoader loader = new CountingLoader();
+        DBInfo info = new DBInfo("POSTGRESQL");
+        DBSchema app = new DBSchema("app");
+        app.addTable(new DBTable(loader).setSchema("app").setName("a"));
+        app.addTable(new DBTable(loader).setSchema("app").setName("b"));
+        info.addSchema(app).addSchema(new DBSchema("audit"));
+
+        app.removeTable("a");
+        info.removeSchema("audit");
+
+        assertFalse(app.containsTable("a"));
+        assertTrue(app.containsTable("b"));
+        assertSame(app, info.getLoadedSchema("app"));
+        assertNull(info.getLoadedSchema("audit"));
+    }
+
+    @Test
+    void shouldNotBlockOtherSchemasWhileOneIsLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DBInfo info = new DBInfo("POSTGRESQL").setSchemaResolver(name -> {
+            if ("slow".equals(name)) {
+                loading.countDown();
+                await(release);
+            }
+            return new DBSchema(name);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DBSchema> slow = executor.submit(() -> info.getSchema("slow"));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            Future<DBSchema> fast = executor.submit(() -> info.getSchema("fast"));
+            assertEquals("fast", fast.get(10, TimeUnit.SECONDS).getName());
+
+            release.countDown();
+            assertEquals("slow", slow.get(10, TimeUnit.SECONDS).getName());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldAllowResolverToReadOtherSchemasAndTables() {
+        DBInfo info = new DBInfo("POSTGRESQL");
+        info.setSchemaResolver(name -> {
+            if ("audit".equals(name)) {
+                // 解析器内再次访问缓存（另一个 schema 及其表）
+                assertTrue(info.getSchema("base").containsTable("event"));
+            }
+            DBSchema schema = new DBSchema(name);
+            return schema.setTableResolver(table -> {
+                assertSame(schema, info.getSchema(name));
+                return new DBTable(null).setSchema(name).setName(table);
+            });
+        });
+
+        assertTrue(info.getSchema("audit").containsTable("log"));
+        assertEquals(2, info.getSchemas().size());
+    }
+
+    @Test
+    void shouldDiscardTableRemovedWhileLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DBSchema schema = new DBSchema("app");
+        schema.setTableResolver(name -> {
+            loading.countDown();
+            await(release);
+            return new DBTable(null).setSchema("app").setName(name);
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> load = executor.submit(() -> schema.containsTable("demo"));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            schema.removeTable("demo");
+            release.countDown();
+
+            assertTrue(load.get(10, TimeUnit.SECONDS));
+            assertFalse(schema.getTables().containsKey("demo"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> List<T> runConcurrently(java.util.concurrent.Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS * 4; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingLoader implements IMetaDataLoader {
+        private final AtomicInteger columnLoads = new AtomicInteger();
+        private final AtomicInteger indexLoads = new AtomicInteger();
+
+        private int indexLoadsAfter(DBTable table) throws Exception {
+            runConcurrently(table::getIndexList);
+            return indexLoads.get();
+        }
+
+        @Override
+        public DBInfo getDBInfo() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resetInfo() {
+        }
+
+        @Override
+        public List<DBIndex> getIndexList(String schema, String table) {
+            indexLoads.incrementAndGet();
+            pause();
+            return List.of();
+        }
+
+        @Override
+        public Map<String, DBColumn> getColumnMap(String schema, String table) {
+            columnLoads.incrementAndGet();
+            pause();
+            Map<String, DBColumn> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            DBColumn id = new DBColumn();
+            id.setName("id");
+            columns.put("id", id);
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatabaseMetricsContextTest {
+
+    @Test
+    void shouldFallBackToStatementTypeOutsideAnyCall() {
+        assertEquals(DatabaseMetricsTags.of(DatabaseOperationType.EXECUTE), DatabaseMetricsContext.tags(DatabaseOperationType.EXECUTE));
+    }
+
+    @Test
+    void innermostOperationShouldWinAndKeepRepository() {
+        DatabaseMetricsTags tags = DatabaseMetricsContext.callInRepository("OrderRepository",
+                () -> DatabaseMetricsContext.call(DatabaseOperationType.QUERY, "public", "orders",
+                        () -> DatabaseMetricsContext.call(DatabaseOperationType.COUNT, "public", "orders",
+                                () -> DatabaseMetricsContext.tags(DatabaseOperationType.ROW))));
+
+        assertEquals(new DatabaseMetricsTags(DatabaseOperationType.COUNT, "public", "orders", "OrderRepository"), tags);
+    }
+
+    @Test
+    void repositoryOnlyCallShouldUseStatementType() {
+        DatabaseMetricsTags tags = DatabaseMetricsContext.callInRepository("OrderRepository",
+                () -> DatabaseMetricsContext.tags(DatabaseOperationType.UPDATE));
+
+        assertEquals(new DatabaseMetricsTags(DatabaseOperationType.UPDATE, null, null, "OrderRepository"), tags);
+    }
+
+    @Test
+    void shouldRestoreOuterLabelsAfterFailure() {
+        DatabaseMetricsTags tags = DatabaseMetricsContext.call(DatabaseOperationType.INSERT, "public", "orders", () -> {
+            assertThrows(IllegalStateException.class, () -> DatabaseMetricsContext.call(DatabaseOperationType.DELETE, "public", "items", () -> {
+                throw new IllegalStateException("boom");
+            }));
+            return DatabaseMetricsContext.tags(DatabaseOperationType.ROW);
+        });
+
+        assertEquals(new DatabaseMetricsTags(DatabaseOperationType.INSERT, "public", "orders", null), tags);
+        assertEquals(DatabaseMetricsTags.of(DatabaseOperationType.ROW), DatabaseMetricsContext.tags(DatabaseOperationType.ROW));
+    }
+
+    @Test
+    void closingRepositoryScopeShouldRestoreOuterLabels() {
+        DatabaseMetricsTags tags = DatabaseMetricsContext.call(DatabaseOperationType.QUERY, "public", "orders", () -> {
+            try (DatabaseMetricsContext.Scope ignored = DatabaseMetricsContext.openRepository("OrderRepository")) {
+                assertEquals(new DatabaseMetricsTags(DatabaseOperationType.QUERY, "public", "orders", "OrderRepository"),
+                        DatabaseMetricsContext.tags(DatabaseOperationType.ROW));
+            }
+            return DatabaseMetricsContext.tags(DatabaseOperationType.ROW);
+        });
+
+        assertEquals(new DatabaseMetricsTags(DatabaseOperationType.QUERY, "public", "orders", null), tags);
+    }
+
+    @Test
+    void noopShouldBeDisabled() {
+        assertFalse(DatabaseMetrics.noop().isEnabled());
+    }
+}
@@ -0,0 +1,120 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import net.ximatai.muyun.database.core.metadata.DBInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryPlansTest {
+
+    private static final String POSTGRES_PLAN = """
+            [
+              {
+                "Plan": {
+                  "Node Type": "Limit",
+                  "Plan Rows": 10,
+                  "Plans": [
+                    {
+                      "Node Type": "Seq Scan",
+                      "Parent Relationship": "Outer",
+                      "Relation Name": "bench_order",
+                      "Alias": "bench_order",
+                      "Plan Rows": 1250.0,
+                      "Filter": "(((v_tenant_id)::text = 'tenant-1'::text) AND ((v_status)::text = 'OPEN'::text))"
+                    }
+                  ]
+                }
+              }
+            ]""";
+
+    private static final String MYSQL_PLAN = """
+            {
+              "query_block": {
+                "select_id": 1,
+                "cost_info": {"query_cost": "1024.50"},
+                "table": {
+                  "table_name": "bench_order",
+                  "access_type": "ALL",
+                  "rows_examined_per_scan": 50000,
+                  "attached_condition": "(`bench`.`bench_order`.`v_status` = 'OPEN')"
+                }
+              }
+            }""";
+
+    private static final QueryPlanTarget ENTITY_TARGET = new QueryPlanTarget("bench", "bench_order", Order.class,
+            Map.of("v_status", "status", "v_tenant_id", "tenantId"));
+
+    @Test
+    void shouldFindPostgresSequentialScans() {
+        List<QueryPlans.Scan> scans = QueryPlans.scans(DBInfo.Type.POSTGRESQL, QueryPlans.parseJson(POSTGRES_PLAN));
+
+        assertEquals(1, scans.size());
+        assertEquals("bench_order", scans.getFirst().table());
+        assertEquals(1250, scans.getFirst().estimatedRows());
+        assertEquals(List.of("v_tenant_id", "v_status"),
+                QueryPlans.filterColumns(scans.getFirst().filter(), List.of("id", "v_status", "v_tenant_id", "text")));
+    }
+
+    @Test
+    void shouldFindMysqlFullTableScans() {
+        List<QueryPlans.Scan> scans = QueryPlans.scans(DBInfo.Type.MYSQL, QueryPlans.parseJson(MYSQL_PLAN));
+
+        assertEquals(List.of(new QueryPlans.Scan(null, "bench_order", 50000,
+                "(`bench`.`bench_order`.`v_status` = 'OPEN')")), scans);
+        assertEquals(List.of("v_status"), QueryPlans.filterColumns(scans.getFirst().filter(), List.of("V_STATUS", "id")).stream()
+                .map(String::toLowerCase).toList());
+    }
+
+    @Test
+    void shouldSuggestIndexedForSingleEntityColumn() {
+        QueryPlanReport.SequentialScan scan = new QueryPlanReport.SequentialScan("bench_order", 50000, "", List.of("v_status"));
+
+        assertEquals("Add @Indexed to Order.status (column v_status)", QueryPlans.suggestion(ENTITY_TARGET, scan, List.of()));
+    }
+
+    @Test
+    void shouldSuggestCompositeIndexForSeveralEntityColumns() {
+        QueryPlanReport.SequentialScan scan = new QueryPlanReport.SequentialScan("bench_order", 50000, "",
+                List.of("v_tenant_id", "v_status"));
+
+        assertEquals("Add @CompositeIndex(columns = {\"v_tenant_id\", \"v_status\"}) to Order",
+                QueryPlans.suggestion(ENTITY_TARGET, scan, List.of()));
+    }
+
+    @Test
+    void shouldSuggestPlainIndexForRuntimeTables() {
+        QueryPlanTarget runtime = new QueryPlanTarget("bench", "bench_order", null, Map.of());
+        QueryPlanReport.SequentialScan scan = new QueryPlanReport.SequentialScan("bench_order", 50000, "", List.of("v_status"));
+
+        assertEquals("Add an index on bench_order (v_status)", QueryPlans.suggestion(runtime, scan, List.of()));
+    }
+
+    @Test
+    void shouldReportExistingIndexInsteadOfSuggestingAnother() {
+        QueryPlanReport.SequentialScan scan = new QueryPlanReport.SequentialScan("bench_order", 50000, "", List.of("v_status"));
+
+        assertEquals("Index on bench_order (v_status, t_create) exists but the planner chose a full scan; "
+                        + "check the filter selectivity or refresh table statistics",
+                QueryPlans.suggestion(ENTITY_TARGET, scan, List.of(List.of("v_status", "t_create"))));
+    }
+
+    @Test
+    void shouldParseJsonEscapesAndRejectGarbage() {
+        assertEquals(Map.of("a", List.of("x\"yé", true, 1.5)), QueryPlans.parseJson("{\"a\": [\"x\\\"y\\u00e9\", true, 1.5]}"));
+        assertThrows(IllegalArgumentException.class, () -> QueryPlans.parseJson("{\"a\": }"));
+        assertThrows(IllegalArgumentException.class, () -> QueryPlans.parseJson("[1] x"));
+    }
+
+    @Test
+    void explainSqlShouldUseDialectJsonFormat() {
+        assertEquals("EXPLAIN (FORMAT JSON) SELECT 1", QueryPlans.explainSql(DBInfo.Type.POSTGRESQL, "SELECT 1"));
+        assertEquals("EXPLAIN FORMAT=JSON SELECT 1", QueryPlans.explainSql(DBInfo.Type.MYSQL, "SELECT 1"));
+    }
+
+    private static final class Order {
+    }
+}
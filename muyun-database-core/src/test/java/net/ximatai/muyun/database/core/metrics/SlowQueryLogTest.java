@@ -0,0 +1,103 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MS * 60);
+    private final List<SlowQuery> reported = new ArrayList<>();
+    private final SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(100), 2, Duration.ofMinutes(1), clock::get)
+            .onSlowQuery(reported::add);
+
+    @Test
+    void shouldRankFingerprintsByTotalTime() {
+        DatabaseMetricsTags tags = new DatabaseMetricsTags(DatabaseOperationType.QUERY, "public", "orders", "OrderRepository");
+        for (int i = 0; i < 50; i++) {
+            log.record("select * from orders where id = " + i, tags, 20 * MS, 1, 1, false);
+        }
+        log.record("select * from items", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 300 * MS, 0, 10, false);
+        log.record("delete from audit", DatabaseMetricsTags.of(DatabaseOperationType.DELETE), 5 * MS, 0, 0, true);
+
+        List<FingerprintStats> top = log.topFingerprints();
+
+        assertEquals(2, top.size());
+        FingerprintStats first = top.getFirst();
+        assertEquals("select * from orders where id = ?", first.fingerprint());
+        assertEquals(50, first.count());
+        assertEquals(0, first.slowCount());
+        assertEquals(1000 * MS, first.totalNanos());
+        assertEquals(20 * MS, first.maxNanos());
+        assertEquals(tags, first.tags());
+        assertEquals("select * from items", top.get(1).fingerprint());
+        assertEquals(1, top.get(1).slowCount());
+    }
+
+    @Test
+    void shouldReportOnlyStatementsAtOrAboveThreshold() {
+        log.record("select 1", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 99 * MS, 0, 1, false);
+        log.record("select 2", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 100 * MS, 0, 1, false);
+        log.record("select 3", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 250 * MS, 2, -1, true);
+
+        assertEquals(2, reported.size());
+        List<SlowQuery> recent = log.recentSlowQueries();
+        assertEquals(List.of("select 3", "select 2"), recent.stream().map(SlowQuery::sql).toList());
+        assertEquals("select ?", recent.getFirst().fingerprint());
+        assertEquals(2, recent.getFirst().bindCount());
+        assertTrue(recent.getFirst().failed());
+    }
+
+    @Test
+    void recentSlowQueriesShouldKeepNewestWithinCapacity() {
+        for (int i = 0; i < SlowQueryLog.RECENT_CAPACITY + 5; i++) {
+            log.record("select " + i, DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 200 * MS, 0, 1, false);
+        }
+
+        List<SlowQuery> recent = log.recentSlowQueries();
+        assertEquals(SlowQueryLog.RECENT_CAPACITY, recent.size());
+        assertEquals("select " + (SlowQueryLog.RECENT_CAPACITY + 4), recent.getFirst().sql());
+        assertEquals("select 5", recent.getLast().sql());
+    }
+
+    @Test
+    void executionsShouldAgeOutOfWindow() {
+        log.record("select old", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 50 * MS, 0, 1, false);
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        log.record("select old", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 50 * MS, 0, 1, false);
+
+        assertEquals(2, log.topFingerprints().getFirst().count());
+
+        clock.addAndGet(Duration.ofSeconds(40).toNanos());
+        assertEquals(1, log.topFingerprints().getFirst().count());
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertTrue(log.topFingerprints().isEmpty());
+    }
+
+    @Test
+    void resetShouldDropEverything() {
+        log.record("select 1", DatabaseMetricsTags.of(DatabaseOperationType.QUERY), 200 * MS, 0, 1, false);
+
+        log.reset();
+
+        assertTrue(log.topFingerprints().isEmpty());
+        assertTrue(log.recentSlowQueries().isEmpty());
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(Duration.ofMillis(-1), 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(Duration.ofMillis(1), 0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(Duration.ofMillis(1), 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,44 @@
+package net.ximatai.muyun.database.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlFingerprintTest {
+
+    @Test
+    void shouldReplaceLiteralsAndParameters() {
+        assertEquals("select * from t where a = ? and b = ? and c = ? and d = ?",
+                SqlFingerprint.of("SELECT * FROM t WHERE a = 'x''y' AND b = 42 AND c = :name AND d = ?").toLowerCase());
+    }
+
+    @Test
+    void shouldDropCommentsAndCollapseWhitespace() {
+        assertEquals("select id from t where a = ?",
+                SqlFingerprint.of("select  id -- trailing\n from /* hint */ t\n\twhere a =  1"));
+    }
+
+    @Test
+    void shouldKeepIdentifiersCastsAndDigitsInNames() {
+        assertEquals("select \"col 1\", v_2 from t_1 where x = ?::jsonb",
+                SqlFingerprint.of("select \"col 1\", v_2 from t_1 where x = :x::jsonb"));
+    }
+
+    @Test
+    void inListsOfAnyArityShouldShareFingerprint() {
+        assertEquals(SqlFingerprint.of("select * from t where id in (:a, :b)"),
+                SqlFingerprint.of("select * from t where id in (?, ?, ?, ?)"));
+        assertEquals("select * from t where id in (?+)", SqlFingerprint.of("select * from t where id in (1)"));
+    }
+
+    @Test
+    void multiRowValuesShouldShareFingerprint() {
+        String one = SqlFingerprint.of("insert into t (a, b) values (:a0, :b0)");
+        String three = SqlFingerprint.of("insert into t (a, b) values (:a0, :b0), (:a1, :b1), (:a2, :b2)");
+        String two = SqlFingerprint.of("insert into t (a, b) values (1, 'x'), (2, 'y')");
+
+        assertEquals("insert into t (a, b) values (?+), ...", three);
+        assertEquals(three, two);
+        assertEquals("insert into t (a, b) values (?+)", one);
+    }
+}
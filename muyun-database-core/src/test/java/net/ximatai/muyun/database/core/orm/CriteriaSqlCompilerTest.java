@@ -5,11 +5,14 @@ import net.ximatai.muyun.database.core.metadata.DBInfo;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -358,6 +361,196 @@ class CriteriaSqlCompilerTest {
         assertEquals(OrmException.Code.INVALID_CRITERIA, exception.getCode());
     }
 
+    @Test
+    void shouldReuseTemplateAndRebindValuesForSameShape() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler cachingCompiler = new CriteriaSqlCompiler();
+
+        CompiledCriteria first = cachingCompiler.compile(
+                Criteria.of().eq("code", "A001").orGroup(group -> group.in("code", List.of("B1", "B2")))
+                        .raw(SqlRawCondition.of("v_code <> :code", Map.of("code", "X"))),
+                meta,
+                DBInfo.Type.POSTGRESQL
+        );
+        CompiledCriteria second = cachingCompiler.compile(
+                Criteria.of().eq("code", "A002").orGroup(group -> group.in("code", List.of("C1", "C2")))
+                        .raw(SqlRawCondition.of("v_code <> :code", Map.of("code", "Y"))),
+                meta,
+                DBInfo.Type.POSTGRESQL
+        );
+
+        assertEquals(first.getSql(), second.getSql());
+        assertEquals("\"v_code\" = :p0 OR (\"v_code\" IN (:p1_0, :p1_1)) AND v_code <> :sq2", second.getSql());
+        assertEquals(Map.of("p0", "A002", "p1_0", "C1", "p1_1", "C2", "sq2", "Y"), second.getParams());
+        assertEquals(1, cachingCompiler.templateMissCount());
+        assertEquals(1, cachingCompiler.templateHitCount());
+    }
+
+    @Test
+    void shouldCompileNewTemplateWhenShapeChanges() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler cachingCompiler = new CriteriaSqlCompiler();
+
+        cachingCompiler.compile(Criteria.of().in("code", List.of("A", "B")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria wider = cachingCompiler.compile(Criteria.of().in("code", List.of("A", "B", "C")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria mysql = cachingCompiler.compile(Criteria.of().in("code", List.of("A", "B")), meta, DBInfo.Type.MYSQL);
+        CompiledCriteria otherRaw = cachingCompiler.compile(
+                Criteria.of().raw(SqlRawCondition.of("v_code = :code", Map.of("code", "A"))), meta, DBInfo.Type.POSTGRESQL);
+
+        assertEquals("\"v_code\" IN (:p0_0, :p0_1, :p0_2)", wider.getSql());
+        assertEquals("`v_code` IN (:p0_0, :p0_1)", mysql.getSql());
+        assertEquals("v_code = :sq0", otherRaw.getSql());
+        assertEquals(4, cachingCompiler.templateMissCount());
+        assertEquals(0, cachingCompiler.templateHitCount());
+        assertEquals(4, cachingCompiler.templateCacheSize());
+    }
+
+    @Test
+    void cachedTemplateShouldStillValidateValues() throws NoSuchFieldException {
+        EntityMeta meta = collectionMeta("statuses", ColumnType.SET);
+        CriteriaSqlCompiler cachingCompiler = new CriteriaSqlCompiler();
+        cachingCompiler.compile(Criteria.of().contains("statuses", TestStatus.ENABLED), meta, DBInfo.Type.POSTGRESQL);
+        cachingCompiler.compile(Criteria.of().raw(SqlRawCondition.of("id = :id", Map.of("id", "1"))), meta, DBInfo.Type.POSTGRESQL);
+
+        OrmException blank = assertThrows(
+                OrmException.class,
+                () -> cachingCompiler.compile(Criteria.of().contains("statuses", " "), meta, DBInfo.Type.POSTGRESQL)
+        );
+        OrmException missing = assertThrows(
+                OrmException.class,
+                () -> cachingCompiler.compile(Criteria.of().raw(SqlRawCondition.of("id = :id", Map.of("other", "1"))),
+                        meta, DBInfo.Type.POSTGRESQL)
+        );
+
+        assertEquals(OrmException.Code.INVALID_CRITERIA, blank.getCode());
+        assertEquals("Missing sql parameter: id", missing.getMessage());
+        assertEquals(2, cachingCompiler.templateHitCount());
+    }
+
+    @Test
+    void fullTemplateCacheShouldEvictLeastRecentlyUsedTemplate() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler cachingCompiler = new CriteriaSqlCompiler(DatabaseValueConverter.DEFAULT, 2);
+
+        cachingCompiler.compile(Criteria.of().eq("code", "A"), meta, DBInfo.Type.POSTGRESQL);
+        cachingCompiler.compile(Criteria.of().ne("code", "A"), meta, DBInfo.Type.POSTGRESQL);
+        cachingCompiler.compile(Criteria.of().eq("code", "B"), meta, DBInfo.Type.POSTGRESQL);
+        cachingCompiler.compile(Criteria.of().like("code", "A%"), meta, DBInfo.Type.POSTGRESQL);
+
+        assertEquals(2, cachingCompiler.templateCacheSize());
+        assertEquals(1, cachingCompiler.templateHitCount());
+        cachingCompiler.compile(Criteria.of().eq("code", "C"), meta, DBInfo.Type.POSTGRESQL);
+        assertEquals(2, cachingCompiler.templateHitCount());
+        cachingCompiler.compile(Criteria.of().ne("code", "C"), meta, DBInfo.Type.POSTGRESQL);
+        assertEquals(2, cachingCompiler.templateHitCount());
+        assertEquals(4, cachingCompiler.templateMissCount());
+    }
+
+    @Test
+    void zeroTemplateCacheSizeShouldDisableCaching() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler uncached = new CriteriaSqlCompiler(DatabaseValueConverter.DEFAULT, 0);
+
+        uncached.compile(Criteria.of().eq("code", "A"), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria compiled = uncached.compile(Criteria.of().eq("code", "B"), meta, DBInfo.Type.POSTGRESQL);
+
+        assertEquals(Map.of("p0", "B"), compiled.getParams());
+        assertEquals(0, uncached.templateCacheSize());
+        assertEquals(0, uncached.templateHitCount());
+    }
+
+    @Test
+    void paddedInListsShouldShareOneTemplatePerBucket() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler padded = new CriteriaSqlCompiler(
+                DatabaseValueConverter.DEFAULT,
+                CriteriaCompileOptions.defaults().withInListStrategy(InListStrategy.PADDED)
+        );
+
+        CompiledCriteria three = padded.compile(Criteria.of().in("code", List.of("A", "B", "C")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria four = padded.compile(Criteria.of().notIn("code", List.of("A", "B", "C", "D")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria alsoThree = padded.compile(Criteria.of().in("code", List.of("X", "Y", "Z")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria single = padded.compile(Criteria.of().in("code", List.of("S")), meta, DBInfo.Type.POSTGRESQL);
+
+        assertEquals("\"v_code\" IN (:p0_0, :p0_1, :p0_2, :p0_3)", three.getSql());
+        assertEquals(Map.of("p0_0", "A", "p0_1", "B", "p0_2", "C", "p0_3", "C"), three.getParams());
+        assertEquals("\"v_code\" NOT IN (:p0_0, :p0_1, :p0_2, :p0_3)", four.getSql());
+        assertEquals(three.getSql(), alsoThree.getSql());
+        assertEquals(Map.of("p0_0", "X", "p0_1", "Y", "p0_2", "Z", "p0_3", "Z"), alsoThree.getParams());
+        assertEquals("\"v_code\" IN (:p0_0)", single.getSql());
+        assertEquals(1, padded.templateHitCount());
+    }
+
+    @Test
+    void longInListsShouldBeSplitIntoChunks() {
+        CriteriaSqlCompiler chunked = new CriteriaSqlCompiler(
+                DatabaseValueConverter.DEFAULT,
+                CriteriaCompileOptions.defaults().withInListStrategy(InListStrategy.PADDED).withInListChunkSize(2)
+        );
+
+        CompiledCriteria in = chunked.compile(
+                Criteria.of().in("code", List.of("A", "B", "C")), this::resolveColumn, DBInfo.Type.MYSQL);
+        CompiledCriteria notIn = chunked.compile(
+                Criteria.of().notIn("code", List.of("A", "B", "C", "D", "E")), this::resolveColumn, DBInfo.Type.MYSQL);
+
+        assertEquals("(`v_code` IN (:p0_0, :p0_1) OR `v_code` IN (:p0_2))", in.getSql());
+        assertEquals("(`v_code` NOT IN (:p0_0, :p0_1) AND `v_code` NOT IN (:p0_2, :p0_3) AND `v_code` NOT IN (:p0_4))",
+                notIn.getSql());
+        assertEquals("E", notIn.getParams().get("p0_4"));
+    }
+
+    @Test
+    void anyArrayStrategyShouldBindOneTypedArrayOnPostgres() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler array = new CriteriaSqlCompiler(
+                DatabaseValueConverter.DEFAULT,
+                CriteriaCompileOptions.defaults().withInListStrategy(InListStrategy.ANY_ARRAY)
+        );
+
+        CompiledCriteria in = array.compile(Criteria.of().in("code", List.of("A", "B", "C")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria notIn = array.compile(Criteria.of().notIn("code", List.of(1L, 2L)), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria longer = array.compile(Criteria.of().in("code", List.of("D", "E", "F", "G", "H")), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria mysql = array.compile(Criteria.of().in("code", List.of("A", "B", "C")), meta, DBInfo.Type.MYSQL);
+
+        assertEquals("\"v_code\" = ANY(:p0)", in.getSql());
+        assertArrayEquals(new String[]{"A", "B", "C"}, (String[]) in.getParams().get("p0"));
+        assertEquals("\"v_code\" <> ALL(:p0)", notIn.getSql());
+        assertArrayEquals(new Long[]{1L, 2L}, (Long[]) notIn.getParams().get("p0"));
+        assertArrayEquals(new String[]{"D", "E", "F", "G", "H"}, (String[]) longer.getParams().get("p0"));
+        assertEquals("`v_code` IN (:p0_0, :p0_1, :p0_2, :p0_3)", mysql.getSql());
+        assertEquals(1, array.templateHitCount());
+    }
+
+    @Test
+    void anyArrayStrategyShouldPadListsWithoutDriverArrayType() throws NoSuchFieldException {
+        EntityMeta meta = codeMeta();
+        CriteriaSqlCompiler array = new CriteriaSqlCompiler(
+                DatabaseValueConverter.DEFAULT,
+                CriteriaCompileOptions.defaults().withInListStrategy(InListStrategy.ANY_ARRAY)
+        );
+        Timestamp first = Timestamp.valueOf("2024-01-01 00:00:00");
+        Timestamp second = Timestamp.valueOf("2024-01-02 00:00:00");
+
+        CompiledCriteria timestamps = array.compile(Criteria.of().in("code", List.of(first, second)), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria decimals = array.compile(
+                Criteria.of().notIn("code", List.of(new BigDecimal("1.5"), new BigDecimal("2.5"), BigDecimal.TEN)),
+                meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria mixed = array.compile(Criteria.of().in("code", List.of("A", 1)), meta, DBInfo.Type.POSTGRESQL);
+        CompiledCriteria strings = array.compile(Criteria.of().in("code", List.of("A", "B")), meta, DBInfo.Type.POSTGRESQL);
+
+        assertEquals("\"v_code\" IN (:p0_0, :p0_1)", timestamps.getSql());
+        assertEquals(second, timestamps.getParams().get("p0_1"));
+        assertEquals("\"v_code\" NOT IN (:p0_0, :p0_1, :p0_2, :p0_3)", decimals.getSql());
+        assertEquals(BigDecimal.TEN, decimals.getParams().get("p0_3"));
+        assertEquals("\"v_code\" IN (:p0_0, :p0_1)", mixed.getSql());
+        assertEquals("\"v_code\" = ANY(:p0)", strings.getSql());
+        assertArrayEquals(new String[]{"A", "B"}, (String[]) strings.getParams().get("p0"));
+
+        CompiledCriteria oneTimestamp = array.compile(Criteria.of().in("code", List.of(first)), meta, DBInfo.Type.POSTGRESQL);
+        assertEquals("\"v_code\" IN (:p0_0)", oneTimestamp.getSql());
+        assertEquals(first, oneTimestamp.getParams().get("p0_0"));
+    }
+
     @Test
     void copyOfShouldSnapshotCriteria() {
         Criteria source = Criteria.of().eq("code", "A001");
@@ -452,6 +645,12 @@ class CriteriaSqlCompilerTest {
         );
     }
 
+    private EntityMeta codeMeta() throws NoSuchFieldException {
+        EntityFieldMeta id = fieldMeta("id", "id", true);
+        EntityFieldMeta code = fieldMeta("code", "v_code", false);
+        return new EntityMeta(StaticEntity.class, "test_entity", null, null, List.of(id, code), id);
+    }
+
     private String resolveColumnName(String fieldName) {
         return switch (fieldName) {
             case "jsonStatuses" -> "json_statuses";
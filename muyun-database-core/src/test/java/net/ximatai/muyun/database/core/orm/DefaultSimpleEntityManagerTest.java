@@ -8,17 +8,36 @@ import net.ximatai.muyun.database.core.annotation.Table;
 import net.ximatai.muyun.database.core.builder.ColumnType;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
 import net.ximatai.muyun.database.core.metadata.DBSchema;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsTags;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.QueryPlanTarget;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Array;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -158,13 +177,185 @@ class DefaultSimpleEntityManagerTest {
         assertEquals(1, records.size());
         assertEquals("r-1", records.get(0).getId());
         assertNotNull(operations.capturedSql);
-        assertTrue(operations.capturedSql.contains("SELECT *"), "SQL should select records: " + operations.capturedSql);
+        assertTrue(operations.capturedSql.startsWith("SELECT `id`, `tenant_id`, `role_name` FROM "),
+                "SQL should select the mapped columns: " + operations.capturedSql);
         assertTrue(operations.capturedSql.contains("WHERE"), "SQL should contain WHERE clause: " + operations.capturedSql);
         assertTrue(operations.capturedSql.contains("ORDER BY"), "SQL should contain ORDER BY clause: " + operations.capturedSql);
         assertFalse(operations.capturedSql.contains("LIMIT"), "Unpaged SQL should not contain LIMIT: " + operations.capturedSql);
         assertFalse(operations.capturedSql.contains("OFFSET"), "Unpaged SQL should not contain OFFSET: " + operations.capturedSql);
     }
 
+    @Test
+    void streamShouldMapUnpagedRowsLazily() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        try (Stream<SampleRole> records = manager.stream(SampleRole.class, Criteria.of().eq("roleName", "admin"), Sort.asc("roleName"))) {
+            assertEquals(List.of("r-1"), records.map(SampleRole::getId).toList());
+        }
+        assertTrue(operations.capturedSql.contains("WHERE"), "SQL should contain WHERE clause: " + operations.capturedSql);
+        assertTrue(operations.capturedSql.contains("ORDER BY"), "SQL should contain ORDER BY clause: " + operations.capturedSql);
+        assertFalse(operations.capturedSql.contains("LIMIT"), "Streamed SQL should not contain LIMIT: " + operations.capturedSql);
+    }
+
+    @Test
+    void pageQueryWithWindowCountShouldUseSingleRoundTrip() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.queryResult = List.of(Map.of("id", "r-1", "tenant_id", "t-1", "role_name", "admin", "muyun_window_total", 12L));
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        PageResult<SampleRole> page = manager.pageQuery(
+                SampleRole.class,
+                Criteria.of().eq("tenantId", "t-1"),
+                PageRequest.of(1, 10).withCountStrategy(CountStrategy.WINDOW),
+                Sort.asc("roleName"));
+
+        assertEquals(12L, page.getTotal());
+        assertEquals(List.of("r-1"), page.getRecords().stream().map(SampleRole::getId).toList());
+        assertTrue(operations.capturedSql.startsWith(
+                "SELECT `id`, `tenant_id`, `role_name`, COUNT(*) OVER() AS muyun_window_total FROM `sample_schema`.`sample_role` WHERE "),
+                operations.capturedSql);
+        assertFalse(operations.countQueried, "WINDOW strategy should not issue a separate COUNT query");
+    }
+
+    @Test
+    void pageQueryWithEstimatedCountShouldFallBackToExactForFilteredMysqlQuery() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        PageResult<SampleRole> page = manager.pageQuery(
+                SampleRole.class,
+                Criteria.of().eq("tenantId", "t-1"),
+                PageRequest.of(1, 10).withCountStrategy(CountStrategy.ESTIMATED));
+
+        assertTrue(operations.countQueried);
+        assertFalse(page.isTotalEstimated());
+        assertEquals(5L, page.getTotal());
+    }
+
+    @Test
+    void pageQueryShouldLabelStatementsWithEntityOperationWhenMetricsEnabled() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.metrics = (tags, durationNanos, rows, error) -> {
+        };
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        DatabaseMetricsContext.callInRepository("RoleRepository", () -> manager.pageQuery(
+                SampleRole.class,
+                Criteria.of().eq("tenantId", "t-1"),
+                PageRequest.of(1, 10)));
+
+        assertEquals(List.of(
+                new DatabaseMetricsTags(DatabaseOperationType.COUNT, "sample_schema", "sample_role", "RoleRepository"),
+                new DatabaseMetricsTags(DatabaseOperationType.QUERY, "sample_schema", "sample_role", "RoleRepository")
+        ), operations.statementTags);
+        assertEquals(DatabaseMetricsTags.of(DatabaseOperationType.QUERY), DatabaseMetricsContext.tags(DatabaseOperationType.QUERY));
+    }
+
+    @Test
+    void statementsShouldNotBeLabelledWhenMetricsDisabled() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        manager.list(SampleRole.class, Criteria.of().eq("tenantId", "t-1"));
+
+        assertEquals(List.of(DatabaseMetricsTags.of(DatabaseOperationType.QUERY)), operations.statementTags);
+    }
+
+    @Test
+    void statementsShouldBeLabelledForSlowQueryLogWhenMetricsDisabled() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.slowQueryLogInstalled = true;
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        DatabaseMetricsContext.callInRepository("RoleRepository.findByTenant",
+                () -> manager.list(SampleRole.class, Criteria.of().eq("tenantId", "t-1")));
+
+        assertEquals(List.of(new DatabaseMetricsTags(
+                DatabaseOperationType.QUERY, "sample_schema", "sample_role", "RoleRepository.findByTenant")
+        ), operations.statementTags);
+    }
+
+    @Test
+    void criteriaQueriesShouldBeReportedToQueryPlanSamplerWithEntityTarget() {
+        CapturingOperations operations = new CapturingOperations();
+        List<String> sampledSql = new ArrayList<>();
+        List<QueryPlanTarget> targets = new ArrayList<>();
+        operations.queryPlanSampler = new QueryPlanSampler(operations, Duration.ZERO, Runnable::run) {
+            @Override
+            public void afterQuery(String sql, Map<String, Object> params, long durationNanos, Supplier<QueryPlanTarget> target) {
+                sampledSql.add(sql);
+                targets.add(target.get());
+            }
+        };
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        manager.pageQuery(SampleRole.class, Criteria.of().eq("tenantId", "t-1"), PageRequest.of(1, 10));
+
+        assertTrue(operations.countQueried);
+        assertEquals(List.of(operations.capturedSql), sampledSql);
+        QueryPlanTarget target = targets.getFirst();
+        assertEquals("sample_schema", target.schema());
+        assertEquals("sample_role", target.table());
+        assertEquals(SampleRole.class, target.entityClass());
+        assertEquals("tenantId", target.fieldsByColumn().get("tenant_id"));
+    }
+
+    @Test
+    void listAsShouldSelectAndMapOnlyProjectionColumns() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        List<RoleName> names = manager.listAs(SampleRole.class, RoleName.class, Criteria.of().eq("tenantId", "t-1"), Sort.asc("roleName"));
+
+        assertEquals(List.of(new RoleName("r-1", "admin")), names);
+        assertTrue(operations.capturedSql.startsWith("SELECT `id`, `role_name` FROM `sample_schema`.`sample_role` WHERE "),
+                operations.capturedSql);
+
+        manager.list(SampleRole.class, Criteria.of().select("roleName"));
+        assertTrue(operations.capturedSql.startsWith("SELECT `role_name` FROM "), operations.capturedSql);
+
+        OrmException unknown = assertThrows(OrmException.class, () -> manager.listAs(SampleRole.class, UnknownProjection.class, Criteria.of()));
+        assertEquals(OrmException.Code.INVALID_MAPPING, unknown.getCode());
+    }
+
+    record RoleName(String id, String roleName) {
+    }
+
+    record UnknownProjection(String nickname) {
+    }
+
+    @Test
+    void keysetQueryShouldSeekPastCursorWithPrimaryKeyTieBreaker() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.queryResult = List.of(
+                Map.of("id", "r-1", "tenant_id", "t-1", "role_name", "admin"),
+                Map.of("id", "r-2", "tenant_id", "t-1", "role_name", "admin"));
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+        Criteria criteria = Criteria.of().eq("tenantId", "t-1");
+
+        KeysetPage<SampleRole> first = manager.keysetQuery(SampleRole.class, criteria, KeysetRequest.first(1), Sort.asc("roleName"));
+
+        assertEquals(List.of("r-1"), first.getRecords().stream().map(SampleRole::getId).toList());
+        assertTrue(first.hasNext());
+        assertTrue(operations.capturedSql.endsWith("ORDER BY `role_name` ASC, `id` ASC LIMIT :limit"), operations.capturedSql);
+        assertEquals(2, operations.capturedParams.get("limit"));
+
+        KeysetPage<SampleRole> second = manager.keysetQuery(
+                SampleRole.class, criteria, KeysetRequest.after(first.getNextCursor(), 5), Sort.asc("roleName"));
+
+        assertFalse(second.hasNext());
+        assertNull(second.getNextCursor());
+        assertTrue(operations.capturedSql.contains("AND (`role_name`, `id`) > (:k_0, :k_1)"), operations.capturedSql);
+        assertFalse(operations.capturedSql.contains("OFFSET"), operations.capturedSql);
+        assertEquals("admin", operations.capturedParams.get("k_0"));
+        assertEquals("r-1", operations.capturedParams.get("k_1"));
+
+        OrmException mismatch = assertThrows(OrmException.class, () -> manager.keysetQuery(
+                SampleRole.class, criteria, KeysetRequest.after(first.getNextCursor(), 1), Sort.desc("roleName")));
+        assertEquals(OrmException.Code.INVALID_CRITERIA, mismatch.getCode());
+    }
+
     @Test
     void existsShouldGenerateSelectOneSql() {
         CapturingOperations operations = new CapturingOperations();
@@ -268,6 +459,93 @@ class DefaultSimpleEntityManagerTest {
         assertEquals("biz_id", operations.pkName);
     }
 
+    @Test
+    void insertAllShouldWriteGeneratedIdsBackInInputOrder() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        CustomIdEntity explicit = new CustomIdEntity();
+        explicit.bizId = "biz-1";
+        explicit.name = "explicit";
+        CustomIdEntity generated = new CustomIdEntity();
+        generated.name = "generated";
+
+        List<Object> ids = manager.insertAll(List.of(explicit, generated));
+
+        assertEquals(Arrays.asList("biz-1", "gen-1"), ids);
+        assertEquals("gen-1", generated.bizId);
+        assertEquals("biz_id", operations.pkName);
+        assertEquals(List.of(Map.of("biz_id", "biz-1", "v_name", "explicit"), Map.of("v_name", "generated")),
+                operations.insertedRows);
+        assertFalse(operations.insertItemCalled);
+    }
+
+    @Test
+    void upsertAllShouldUseBatchAtomicUpsertWhenSupported() {
+        CapturingOperations operations = new CapturingOperations(true);
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        CustomIdEntity first = new CustomIdEntity();
+        first.bizId = "biz-1";
+        first.name = "first";
+        CustomIdEntity second = new CustomIdEntity();
+        second.bizId = "biz-2";
+
+        assertArrayEquals(new int[]{2}, manager.upsertAll(List.of(first, second)));
+        assertEquals("biz_id", operations.pkName);
+        assertEquals(List.of(Map.of("biz_id", "biz-1", "v_name", "first"), linkedMapWithNullName("biz-2")),
+                operations.insertedRows);
+        assertFalse(operations.atomicUpsertCalled);
+
+        CustomIdEntity missingId = new CustomIdEntity();
+        OrmException ex = assertThrows(OrmException.class, () -> manager.upsertAll(List.of(first, missingId)));
+        assertEquals(OrmException.Code.INVALID_ENTITY, ex.getCode());
+    }
+
+    @Test
+    void upsertAllShouldUpsertRowByRowWithLegacyStrategy() {
+        CapturingOperations operations = new CapturingOperations(true);
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations, UpsertStrategy.LEGACY_ONLY);
+
+        CustomIdEntity first = new CustomIdEntity();
+        first.bizId = "biz-1";
+        CustomIdEntity second = new CustomIdEntity();
+        second.bizId = "biz-2";
+
+        assertArrayEquals(new int[]{1, 1}, manager.upsertAll(List.of(first, second)));
+        assertTrue(operations.legacyUpsertCalled);
+        assertNull(operations.insertedRows);
+    }
+
+    @Test
+    void copyInShouldMapEntitiesWithFixedColumnsAndRejectMixedIds() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        CustomIdEntity first = new CustomIdEntity();
+        first.name = "first";
+        CustomIdEntity second = new CustomIdEntity();
+
+        BulkInsertResult<Object> result = manager.copyIn(CustomIdEntity.class, Stream.of(first, second), null);
+
+        assertEquals(2, result.rows());
+        assertEquals("custom_id_entity", operations.table);
+        assertEquals(List.of(Map.of("v_name", "first"), Collections.singletonMap("v_name", null)), operations.insertedRows);
+
+        CustomIdEntity withId = new CustomIdEntity();
+        withId.bizId = "biz-3";
+        OrmException ex = assertThrows(OrmException.class,
+                () -> manager.copyIn(CustomIdEntity.class, List.of(first, withId).iterator(), null));
+        assertEquals(OrmException.Code.INVALID_ENTITY, ex.getCode());
+    }
+
+    private static Map<String, Object> linkedMapWithNullName(String bizId) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("biz_id", bizId);
+        row.put("v_name", null);
+        return row;
+    }
+
     @Table(name = "sample_role", schema = "sample_schema")
     static class SampleRole {
         @Id
@@ -346,6 +624,16 @@ class DefaultSimpleEntityManagerTest {
         String name;
     }
 
+    @Test
+    void prefetchMetadataShouldPassDistinctEntitySchemas() {
+        CapturingOperations operations = new CapturingOperations();
+        DefaultSimpleEntityManager manager = new DefaultSimpleEntityManager(operations);
+
+        manager.prefetchMetadata(List.of(SampleRole.class, RoleWithFlags.class, CustomIdEntity.class));
+
+        assertEquals(List.of("sample_schema"), operations.prefetchedSchemas);
+    }
+
     static class CapturingOperations implements IDatabaseOperations<Object> {
         private String schema;
         private String table;
@@ -355,15 +643,23 @@ class DefaultSimpleEntityManagerTest {
         private Map<String, Object> capturedParams;
         private final boolean supportsAtomic;
         private final DBInfo dbInfo;
+        private List<String> prefetchedSchemas;
+        private List<Map<String, Object>> insertedRows;
+        private List<Map<String, Object>> queryResult = List.of(Map.of("id", "r-1", "tenant_id", "t-1", "role_name", "admin"));
 
         boolean atomicUpsertCalled;
         boolean nonAtomicUpsertCalled;
         boolean legacyUpsertCalled;
+        boolean countQueried;
         boolean insertItemCalled;
         boolean throwOnAtomicUpsert;
         boolean returnNullOnGet;
         int updateResult = 1;
         int deleteResult = 1;
+        DatabaseMetrics metrics = DatabaseMetrics.noop();
+        QueryPlanSampler queryPlanSampler = QueryPlanSampler.disabled();
+        boolean slowQueryLogInstalled;
+        final List<DatabaseMetricsTags> statementTags = new ArrayList<>();
 
         CapturingOperations() {
             this(false);
@@ -384,6 +680,26 @@ class DefaultSimpleEntityManagerTest {
             return dbInfo;
         }
 
+        @Override
+        public DatabaseMetrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public boolean isStatementLabelingEnabled() {
+            return metrics.isEnabled() || slowQueryLogInstalled;
+        }
+
+        @Override
+        public QueryPlanSampler getQueryPlanSampler() {
+            return queryPlanSampler;
+        }
+
+        @Override
+        public void prefetchMetadata(Collection<String> schemas) {
+            this.prefetchedSchemas = List.copyOf(schemas);
+        }
+
         @Override
         public String getPKName() {
             return "id";
@@ -428,6 +744,42 @@ class DefaultSimpleEntityManagerTest {
             return params.get(pkName);
         }
 
+        @Override
+        public List<Object> insertRows(String schema, String tableName, List<Map<String, Object>> rows, String pkName) {
+            this.schema = schema;
+            this.table = tableName;
+            this.pkName = pkName;
+            this.insertedRows = List.copyOf(rows);
+            List<Object> keys = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Object key = rows.get(i).get(pkName);
+                keys.add(key == null ? "gen-" + i : key);
+            }
+            return keys;
+        }
+
+        @Override
+        public int[] atomicUpsertList(String schema, String tableName, List<Map<String, Object>> rows, String pkName) {
+            this.schema = schema;
+            this.table = tableName;
+            this.pkName = pkName;
+            this.insertedRows = List.copyOf(rows);
+            return new int[]{rows.size()};
+        }
+
+        @Override
+        public BulkInsertResult<Object> copyIn(String schema,
+                                               String tableName,
+                                               Iterator<? extends Map<String, Object>> rows,
+                                               BulkInsertOptions options) {
+            this.schema = schema;
+            this.table = tableName;
+            List<Map<String, Object>> copied = new ArrayList<>();
+            rows.forEachRemaining(copied::add);
+            this.insertedRows = copied;
+            return new BulkInsertResult<>(copied.size(), copied.size(), 1, List.of());
+        }
+
         @Override
         public int updateItem(String schema, String tableName, Map<String, Object> params, String pkName) {
             this.schema = schema;
@@ -447,6 +799,11 @@ class DefaultSimpleEntityManagerTest {
             return Map.of(pkName, id, "v_name", "custom-id");
         }
 
+        @Override
+        public Map<String, Object> getItem(String schema, String tableName, Object id, String pkName, Collection<String> columns) {
+            return getItem(schema, tableName, id, pkName);
+        }
+
         @Override
         public int deleteItem(String schema, String tableName, Object id, String pkName) {
             this.schema = schema;
@@ -484,6 +841,8 @@ class DefaultSimpleEntityManagerTest {
                 return null;
             }
             if (sql != null && sql.contains("COUNT(*)")) {
+                countQueried = true;
+                statementTags.add(DatabaseMetricsContext.tags(DatabaseOperationType.ROW));
                 return Map.of("total_count", 5L);
             }
             return Map.of("1", 1);
@@ -492,8 +851,9 @@ class DefaultSimpleEntityManagerTest {
         @Override
         public List<Map<String, Object>> query(String sql, Map<String, Object> params) {
             this.capturedSql = sql;
+            statementTags.add(DatabaseMetricsContext.tags(DatabaseOperationType.QUERY));
             this.capturedParams = params == null ? Map.of() : Map.copyOf(params);
-            return List.of(Map.of("id", "r-1", "tenant_id", "t-1", "role_name", "admin"));
+            return queryResult;
         }
 
         @Override
@@ -37,6 +37,79 @@ class EntityMapperTest {
         assertEquals(instant, entity.getCreatedAt());
     }
 
+    @Test
+    void fromMapShouldMatchColumnsCaseInsensitivelyAcrossRowShapes() {
+        EntityMeta meta = new EntityMetaResolver().resolve(AuditEntity.class);
+        Instant instant = Instant.parse("2026-05-28T03:00:00Z");
+
+        AuditEntity upper = EntityMapper.fromMap(meta, Map.of(
+                "ID", "audit-1",
+                "CREATED_AT", Timestamp.from(instant)
+        ), AuditEntity.class);
+        AuditEntity mixed = EntityMapper.fromMap(meta, Map.of(
+                "Id", "audit-2",
+                "Created_At", Timestamp.from(instant)
+        ), AuditEntity.class);
+        Map<String, Object> nullDate = new java.util.HashMap<>();
+        nullDate.put("ID", "audit-3");
+        nullDate.put("CREATED_AT", null);
+        AuditEntity withNull = EntityMapper.fromMap(meta, nullDate, AuditEntity.class);
+
+        assertEquals("audit-1", upper.getId());
+        assertEquals(instant, upper.getCreatedAt());
+        assertEquals("audit-2", mixed.getId());
+        assertEquals(instant, mixed.getCreatedAt());
+        assertEquals("audit-3", withNull.getId());
+        assertEquals(null, withNull.getCreatedAt());
+    }
+
+    @Test
+    void fromMapShouldReportMissingConstructorAndIncompatibleValues() {
+        EntityMeta noArgs = new EntityMetaResolver().resolve(NoArgsMissingEntity.class);
+        EntityMeta primitive = new EntityMetaResolver().resolve(PrimitiveEntity.class);
+
+        OrmException constructor = assertThrows(OrmException.class,
+                () -> EntityMapper.fromMap(noArgs, Map.of("id", "n-1"), NoArgsMissingEntity.class));
+        OrmException write = assertThrows(OrmException.class,
+                () -> primitive.findByFieldName("count").write(new PrimitiveEntity(), null));
+
+        assertEquals(OrmException.Code.INVALID_ENTITY, constructor.getCode());
+        assertEquals(OrmException.Code.INVALID_MAPPING, write.getCode());
+    }
+
+    @Test
+    void rowMapperShouldReadColumnsByPositionResolvedFromLabels() throws Exception {
+        Instant instant = Instant.parse("2026-05-28T03:00:00Z");
+        EntityMeta meta = new EntityMetaResolver().resolve(AuditEntity.class);
+        java.sql.ResultSet rs = resultSet(List.of("CREATED_AT", "extra", "Id"), List.of(Timestamp.from(instant), "x", "audit-9"));
+
+        net.ximatai.muyun.database.core.sql.ResultSetRowMapper<AuditEntity> mapper =
+                new EntityRowMapper<>(meta, AuditEntity.class, DatabaseValueConverter.DEFAULT).specialize(rs);
+        AuditEntity entity = mapper.map(rs);
+
+        assertEquals("audit-9", entity.getId());
+        assertEquals(instant, entity.getCreatedAt());
+    }
+
+    private static java.sql.ResultSet resultSet(List<String> labels, List<Object> values) {
+        java.sql.ResultSetMetaData metaData = (java.sql.ResultSetMetaData) java.lang.reflect.Proxy.newProxyInstance(
+                EntityMapperTest.class.getClassLoader(),
+                new Class<?>[]{java.sql.ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.size();
+                    case "getColumnLabel" -> labels.get((Integer) args[0] - 1);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (java.sql.ResultSet) java.lang.reflect.Proxy.newProxyInstance(
+                EntityMapperTest.class.getClassLoader(),
+                new Class<?>[]{java.sql.ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMetaData" -> metaData;
+                    case "getObject" -> values.get((Integer) args[0] - 1);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
     @Test
     void jsonSetShouldSerializeCollectionWithCommasAndQuotes() {
         EntityMeta meta = new EntityMetaResolver().resolve(JsonSetEntity.class);
@@ -392,6 +465,27 @@ class EntityMapperTest {
         }
     }
 
+    @Table(name = "no_args_missing_entity")
+    public static class NoArgsMissingEntity {
+        @Id
+        @Column(length = 32)
+        private String id;
+
+        public NoArgsMissingEntity(String id) {
+            this.id = id;
+        }
+    }
+
+    @Table(name = "primitive_entity")
+    public static class PrimitiveEntity {
+        @Id
+        @Column(length = 32)
+        private String id;
+
+        @Column(name = "count")
+        private int count;
+    }
+
     @Table(name = "json_set_entity")
     public static class JsonSetEntity {
         @Id
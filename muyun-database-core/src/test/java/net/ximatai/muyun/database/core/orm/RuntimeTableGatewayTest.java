@@ -3,17 +3,25 @@ package net.ximatai.muyun.database.core.orm;
 import net.ximatai.muyun.database.core.IDatabaseOperations;
 import net.ximatai.muyun.database.core.IMetaDataLoader;
 import net.ximatai.muyun.database.core.builder.ColumnType;
+import net.ximatai.muyun.database.core.metadata.DBColumn;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
+import net.ximatai.muyun.database.core.metadata.DBSchema;
+import net.ximatai.muyun.database.core.metadata.DBTable;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Array;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -78,6 +86,208 @@ class RuntimeTableGatewayTest {
         assertTrue(!operations.querySql.contains("OFFSET"), "Unpaged SQL should not contain OFFSET: " + operations.querySql);
     }
 
+    @Test
+    void shouldStreamUnpagedRowsAsFieldsAndCloseCursor() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.queryResult = List.of(
+                Map.of("id", "r-1", "record_title", "First"),
+                Map.of("id", "r-2", "record_title", "Second"));
+        RuntimeColumnMapper mapper = RuntimeColumnMapper.of(Map.of("id", "id", "title", "record_title"));
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record", mapper);
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        gateway.forEach(Criteria.of().like("title", "%t"), records::add, Sort.asc("title"));
+
+        assertEquals(List.of(Map.of("id", "r-1", "title", "First"), Map.of("id", "r-2", "title", "Second")), records);
+        assertTrue(operations.streamClosed);
+        assertTrue(operations.querySql.contains("ORDER BY \"record_title\" ASC"));
+        assertTrue(!operations.querySql.contains("LIMIT"), "Streamed SQL should not contain LIMIT: " + operations.querySql);
+    }
+
+    @Test
+    void shouldReadWindowCountTotalInSingleQuery() {
+        CapturingOperations operations = new CapturingOperations();
+        operations.queryResult = List.of(
+                Map.of("id", "r-1", "record_title", "First", "muyun_window_total", 23L),
+                Map.of("id", "r-2", "record_title", "Second", "muyun_window_total", 23L));
+        RuntimeColumnMapper mapper = RuntimeColumnMapper.of(Map.of("id", "id", "title", "record_title"));
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record", mapper);
+
+        PageResult<Map<String, Object>> page = gateway.pageQuery(
+                Criteria.of().like("title", "%t"), PageRequest.of(1, 2).withCountStrategy(CountStrategy.WINDOW));
+
+        assertEquals(23L, page.getTotal());
+        assertEquals(12L, page.getPages());
+        assertEquals(List.of(Map.of("id", "r-1", "title", "First"), Map.of("id", "r-2", "title", "Second")), page.getRecords());
+        assertTrue(operations.querySql.startsWith(
+                "SELECT \"public\".\"runtime_record\".*, COUNT(*) OVER() AS muyun_window_total FROM \"public\".\"runtime_record\" WHERE "),
+                operations.querySql);
+        assertNull(operations.countSql);
+
+        operations.queryResult = List.of();
+        PageResult<Map<String, Object>> pastEnd = gateway.pageQuery(
+                Criteria.of(), PageRequest.of(30, 2).withCountStrategy(CountStrategy.WINDOW));
+
+        assertEquals(7L, pastEnd.getTotal());
+        assertTrue(operations.countSql.startsWith("SELECT COUNT(*)"), operations.countSql);
+    }
+
+    @Test
+    void shouldBoundPageCountWithCappedEstimatedAndNoneStrategies() {
+        CapturingOperations operations = new CapturingOperations();
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record",
+                RuntimeColumnMapper.of(Map.of("id", "id", "title", "record_title")));
+        Criteria criteria = Criteria.of().eq("title", "First");
+
+        PageResult<Map<String, Object>> capped = gateway.pageQuery(criteria, PageRequest.of(1, 2).withCappedCount(5));
+        assertEquals("SELECT COUNT(*) AS total_count FROM (SELECT 1 FROM \"public\".\"runtime_record\""
+                + " WHERE \"record_title\" = :p0 LIMIT :count_cap) capped_rows", operations.countSql);
+        assertEquals(6, operations.countParams.get("count_cap"));
+        assertTrue(capped.isTotalCapped());
+        assertEquals(5L, capped.getTotal());
+        assertEquals(3L, capped.getPages());
+
+        PageResult<Map<String, Object>> underCap = gateway.pageQuery(criteria, PageRequest.of(1, 2).withCappedCount(10));
+        assertFalse(underCap.isTotalCapped());
+        assertEquals(7L, underCap.getTotal());
+
+        PageResult<Map<String, Object>> estimated = gateway.pageQuery(
+                Criteria.of(), PageRequest.of(1, 2).withCountStrategy(CountStrategy.ESTIMATED));
+        assertTrue(operations.countSql.contains("pg_catalog.pg_class"), operations.countSql);
+        assertEquals(Map.of("schema_name", "public", "table_name", "runtime_record"), operations.countParams);
+        assertTrue(estimated.isTotalEstimated());
+        assertEquals(7L, estimated.getTotal());
+
+        operations.countSql = null;
+        PageResult<Map<String, Object>> uncounted = gateway.pageQuery(
+                criteria, PageRequest.of(1, 2).withCountStrategy(CountStrategy.NONE));
+        assertNull(operations.countSql);
+        assertFalse(uncounted.isTotalKnown());
+    }
+
+    @Test
+    void shouldSelectAllColumnsUnlessDeclaredColumnsOnly() {
+        CapturingOperations operations = new CapturingOperations();
+        TableMeta tableMeta = TableMeta.builder("public", "runtime_record")
+                .id("bizId", "biz_id", ColumnType.VARCHAR, String.class)
+                .field("title", "record_title", ColumnType.VARCHAR, String.class)
+                .build();
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, tableMeta);
+        operations.queryResult = List.of(Map.of("biz_id", "b-1", "record_title", "First", "extra_note", "kept"));
+
+        List<Map<String, Object>> rows = gateway.list(Criteria.of());
+
+        assertEquals("SELECT * FROM \"public\".\"runtime_record\"", operations.querySql);
+        assertEquals(Map.of("bizId", "b-1", "title", "First", "extra_note", "kept"), rows.getFirst());
+        assertFalse(tableMeta.isDeclaredColumnsOnly());
+    }
+
+    @Test
+    void shouldSelectDeclaredColumnsOrRequestedFields() {
+        CapturingOperations operations = new CapturingOperations();
+        TableMeta tableMeta = TableMeta.builder("public", "runtime_record")
+                .id("bizId", "biz_id", ColumnType.VARCHAR, String.class)
+                .field("title", "record_title", ColumnType.VARCHAR, String.class)
+                .field("body", "record_body", ColumnType.TEXT, String.class)
+                .declaredColumnsOnly()
+                .build();
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, tableMeta);
+
+        gateway.list(Criteria.of());
+        assertEquals("SELECT \"biz_id\", \"record_title\", \"record_body\" FROM \"public\".\"runtime_record\"", operations.querySql);
+
+        gateway.query(Criteria.of().select("title"), PageRequest.of(1, 5));
+        assertEquals("SELECT \"record_title\" FROM \"public\".\"runtime_record\" LIMIT :limit OFFSET :offset", operations.querySql);
+
+        operations.queryResult = List.of(Map.of("record_title", "First", "biz_id", "b-1"));
+        gateway.keysetQuery(Criteria.of().select("title"), KeysetRequest.first(5), Sort.asc("title"));
+        assertTrue(operations.querySql.startsWith("SELECT \"record_title\", \"biz_id\" FROM "), operations.querySql);
+    }
+
+    @Test
+    void shouldSeekPastNullSortValuesOfNullableColumns() {
+        CapturingOperations operations = new CapturingOperations();
+        DBColumn id = new DBColumn();
+        id.setName("id");
+        id.setNullable(false);
+        DBColumn title = new DBColumn();
+        title.setName("record_title");
+        title.setNullable(true);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", id);
+        columns.put("record_title", title);
+        DBSchema schema = new DBSchema("public");
+        schema.addTable(new DBTable(null).setSchema("public").setName("runtime_record").setColumnMap(columns));
+        operations.getDBInfo().addSchema(schema);
+        RuntimeColumnMapper mapper = RuntimeColumnMapper.of(Map.of("id", "id", "title", "record_title"));
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record", mapper);
+        Map<String, Object> untitled = new LinkedHashMap<>();
+        untitled.put("id", 2L);
+        untitled.put("record_title", null);
+
+        operations.queryResult = List.of(Map.of("id", 1L, "record_title", "First"), untitled);
+        KeysetPage<Map<String, Object>> first = gateway.keysetQuery(Criteria.of(), KeysetRequest.first(1), Sort.asc("title"));
+        operations.queryResult = List.of(untitled, Map.of("id", 3L));
+        KeysetPage<Map<String, Object>> second = gateway.keysetQuery(
+                Criteria.of(), KeysetRequest.after(first.getNextCursor(), 1), Sort.asc("title"));
+
+        // PostgreSQL 升序时 NULL 排在最后，非 NULL 游标之后仍要包含 NULL 行
+        assertTrue(operations.querySql.contains("WHERE (((\"record_title\" > :k_0 OR \"record_title\" IS NULL))"
+                + " OR (\"record_title\" = :k_0 AND \"id\" > :k_1))"), operations.querySql);
+
+        gateway.keysetQuery(Criteria.of(), KeysetRequest.after(second.getNextCursor(), 1), Sort.asc("title"));
+
+        assertTrue(operations.querySql.contains("WHERE ((\"record_title\" IS NULL AND \"id\" > :k_1))"), operations.querySql);
+        assertFalse(operations.queryParams.containsKey("k_0"));
+        assertEquals(2L, operations.queryParams.get("k_1"));
+    }
+
+    @Test
+    void shouldEncodeKeysetCursorForTextLongerThan64Kb() {
+        CapturingOperations operations = new CapturingOperations();
+        RuntimeColumnMapper mapper = RuntimeColumnMapper.of(Map.of("id", "id", "title", "record_title"));
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record", mapper);
+        String title = "標".repeat(70_000);
+
+        operations.queryResult = List.of(Map.of("id", 1L, "record_title", title), Map.of("id", 2L, "record_title", title));
+        KeysetPage<Map<String, Object>> first = gateway.keysetQuery(Criteria.of(), KeysetRequest.first(1), Sort.asc("title"));
+        gateway.keysetQuery(Criteria.of(), KeysetRequest.after(first.getNextCursor(), 1), Sort.asc("title"));
+
+        assertEquals(title, operations.queryParams.get("k_0"));
+        assertEquals(1L, operations.queryParams.get("k_1"));
+    }
+
+    @Test
+    void shouldExpandKeysetPredicateForMixedSortDirections() {
+        CapturingOperations operations = new CapturingOperations();
+        Timestamp createdAt = Timestamp.valueOf("2024-05-01 10:15:30.123456");
+        operations.queryResult = List.of(
+                Map.of("id", 7L, "created_at", createdAt, "record_title", "First"),
+                Map.of("id", 8L, "created_at", createdAt, "record_title", "Second"));
+        RuntimeColumnMapper mapper = RuntimeColumnMapper.of(Map.of("id", "id", "createdAt", "created_at", "title", "record_title"));
+        RuntimeTableGateway gateway = new RuntimeTableGateway(operations, "public", "runtime_record", mapper);
+
+        KeysetPage<Map<String, Object>> first = gateway.keysetQuery(
+                Criteria.of(), KeysetRequest.first(1), Sort.desc("createdAt"), Sort.asc("title"));
+        KeysetPage<Map<String, Object>> second = gateway.keysetQuery(
+                Criteria.of(), KeysetRequest.after(first.getNextCursor(), 1), Sort.desc("createdAt"), Sort.asc("title"));
+
+        assertEquals(List.of(Map.of("id", 7L, "createdAt", createdAt, "title", "First")), first.getRecords());
+        assertEquals("SELECT * FROM \"public\".\"runtime_record\" WHERE ((\"created_at\" < :k_0)"
+                        + " OR (\"created_at\" = :k_0 AND \"record_title\" > :k_1)"
+                        + " OR (\"created_at\" = :k_0 AND \"record_title\" = :k_1 AND \"id\" > :k_2))"
+                        + " ORDER BY \"created_at\" DESC, \"record_title\" ASC, \"id\" ASC LIMIT :limit",
+                operations.querySql);
+        assertEquals(createdAt, operations.queryParams.get("k_0"));
+        assertEquals("First", operations.queryParams.get("k_1"));
+        assertEquals(7L, operations.queryParams.get("k_2"));
+        assertTrue(second.hasNext());
+
+        OrmException invalid = assertThrows(OrmException.class,
+                () -> gateway.keysetQuery(Criteria.of(), KeysetRequest.after("not-a-cursor", 1), Sort.desc("createdAt")));
+        assertEquals(OrmException.Code.INVALID_CRITERIA, invalid.getCode());
+    }
+
     @Test
     void shouldMapQueryRowsToFieldsWhenRuntimeColumnMapperIsProvided() {
         CapturingOperations operations = new CapturingOperations();
@@ -379,6 +589,7 @@ class RuntimeTableGatewayTest {
         private Map<String, Object> countParams;
         private int patchCalls;
         private List<Map<String, Object>> queryResult = List.of(Map.of("id", "r-1"));
+        private boolean streamClosed;
 
         @Override
         public IMetaDataLoader getMetaDataLoader() {
@@ -471,6 +682,11 @@ class RuntimeTableGatewayTest {
             return queryResult;
         }
 
+        @Override
+        public Stream<Map<String, Object>> stream(String sql, Map<String, Object> params) {
+            return query(sql, params).stream().onClose(() -> streamClosed = true);
+        }
+
         @Override
         public List<Map<String, Object>> query(String sql, List<Object> params) {
             throw new UnsupportedOperationException();
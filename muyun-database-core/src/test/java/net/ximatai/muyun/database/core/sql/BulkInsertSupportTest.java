@@ -0,0 +1,96 @@
+package net.ximatai.muyun.database.core.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkInsertSupportTest {
+
+    @Test
+    void shouldSplitSourceIntoChunksAndReportProgress() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<BulkInsertProgress> progress = new ArrayList<>();
+        BulkInsertOptions options = BulkInsertOptions.defaults()
+                .withBatchSize(4)
+                .onProgress(progress::add);
+
+        BulkInsertResult<Integer> result = BulkInsertSupport.execute(rows(10), options, (chunk, keys) -> {
+            chunkSizes.add(chunk.size());
+            chunk.forEach(row -> keys.add((Integer) row.get("n")));
+            return chunk.size();
+        });
+
+        assertEquals(List.of(4, 4, 2), chunkSizes);
+        assertEquals(10, result.rows());
+        assertEquals(10, result.affected());
+        assertEquals(3, result.chunks());
+        assertEquals(IntStream.range(0, 10).boxed().toList(), result.generatedKeys());
+        assertEquals(new BulkInsertProgress(2, 2, 2, 10, 10), progress.getLast());
+        assertEquals(List.of(0, 1, 2), progress.stream().map(BulkInsertProgress::chunkIndex).toList());
+    }
+
+    @Test
+    void shouldPullRowsLazilyOneChunkAtATime() {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<Map<String, Object>> source = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < 9;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                return Map.of("n", pulled.getAndIncrement());
+            }
+        };
+        List<Integer> pulledAtWrite = new ArrayList<>();
+
+        BulkInsertSupport.execute(source, BulkInsertOptions.defaults().withBatchSize(3), (chunk, keys) -> {
+            pulledAtWrite.add(pulled.get());
+            return chunk.size();
+        });
+
+        assertEquals(List.of(3, 6, 9), pulledAtWrite);
+    }
+
+    @Test
+    void shouldSkipKeySinkWhenGeneratedKeysAreDisabled() {
+        BulkInsertResult<Object> result = BulkInsertSupport.execute(
+                rows(3),
+                BulkInsertOptions.defaults().withoutGeneratedKeys(),
+                (chunk, keys) -> {
+                    assertNull(keys);
+                    return chunk.size();
+                });
+
+        assertTrue(result.generatedKeys().isEmpty());
+        assertEquals(3, result.affected());
+    }
+
+    @Test
+    void shouldCountSuccessNoInfoAsOneRow() {
+        assertEquals(4, BulkInsertSupport.affectedRows(new int[]{1, Statement.SUCCESS_NO_INFO, 2, Statement.EXECUTE_FAILED}));
+    }
+
+    @Test
+    void shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> BulkInsertOptions.defaults().withBatchSize(0));
+    }
+
+    private static Iterator<Map<String, Object>> rows(int count) {
+        return IntStream.range(0, count)
+                .<Map<String, Object>>mapToObj(i -> Map.of("n", i))
+                .iterator();
+    }
+}
@@ -6,10 +6,13 @@ import net.ximatai.muyun.database.core.metadata.DBInfo;
 import org.junit.jupiter.api.Test;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -112,6 +115,177 @@ class SqlPlanBuilderTest {
         assertEquals("No where fields were provided for conditional delete", ex.getMessage());
     }
 
+    @Test
+    void shouldReuseCachedInsertPlanForSameColumnSet() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+        columns.put("name", column("name"));
+
+        SqlPlanBuilder.InsertPlan first = SqlPlanBuilder.cachedInsertPlan(
+                cache, "public", "sample", linkedMap("id", "r-1", "name", "a", "unknown", 1), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.InsertPlan second = SqlPlanBuilder.cachedInsertPlan(
+                cache, "public", "sample", linkedMap("id", "r-2", "name", "b"), columns, DBInfo.Type.POSTGRESQL);
+
+        assertSame(first, second);
+        assertEquals("insert into \"public\".\"sample\" (\"id\", \"name\") values (:p_0, :p_1)", first.sql());
+        assertEquals(List.of("p_0", "p_1"), first.bindNames());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void shouldSeparateCachedPlansByColumnOrderAndDatabaseType() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+        columns.put("name", column("name"));
+
+        SqlPlanBuilder.InsertPlan pg = SqlPlanBuilder.cachedInsertPlan(
+                cache, "public", "sample", linkedMap("id", "r-1", "name", "a"), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.InsertPlan reordered = SqlPlanBuilder.cachedInsertPlan(
+                cache, "public", "sample", linkedMap("name", "a", "id", "r-1"), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.InsertPlan mysql = SqlPlanBuilder.cachedInsertPlan(
+                cache, "public", "sample", linkedMap("id", "r-1", "name", "a"), columns, DBInfo.Type.MYSQL);
+
+        assertNotSame(pg, reordered);
+        assertNotSame(pg, mysql);
+        assertEquals(List.of("name", "id"), reordered.columns());
+        assertTrue(mysql.sql().contains("`name`"));
+        assertEquals(0, cache.hitCount());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void shouldBindCachedUpdatePlanPerRow() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+        columns.put("name", column("name"));
+
+        SqlPlanBuilder.UpdatePlan first = SqlPlanBuilder.cachedUpdatePlan(
+                cache, "public", "sample", linkedMap("id", "r-1", "name", "a"), columns, "id", DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.UpdatePlan second = SqlPlanBuilder.cachedUpdatePlan(
+                cache, "public", "sample", linkedMap("id", "r-2", "name", "b"), columns, "id", DBInfo.Type.POSTGRESQL);
+
+        assertSame(first, second);
+        SqlPlanBuilder.PreparedSql bound = second.bind(linkedMap("id", "r-2", "name", "b"));
+        assertEquals("update \"public\".\"sample\" set \"id\"=:p_0, \"name\"=:p_1 where \"id\" = :pk_0", bound.sql());
+        assertEquals(Map.of("p_0", "r-2", "p_1", "b", "pk_0", "r-2"), bound.params());
+    }
+
+    @Test
+    void shouldInvalidateCachedPlansOfOneTable() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "sample", linkedMap("id", "r-1"), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "other", linkedMap("id", "r-1"), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.cachedUpdatePlan(cache, "public", "sample", linkedMap("id", "r-1"), columns, "id", DBInfo.Type.POSTGRESQL);
+        cache.invalidate("public", "sample");
+
+        assertEquals(1, cache.size());
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "other", linkedMap("id", "r-2"), columns, DBInfo.Type.POSTGRESQL);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void shouldStayBoundedAndBypassWhenDisabled() {
+        SqlPlanCache bounded = new SqlPlanCache(2);
+        SqlPlanCache disabled = new SqlPlanCache(0);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+
+        for (String table : List.of("t1", "t2", "t3")) {
+            SqlPlanBuilder.cachedInsertPlan(bounded, "public", table, linkedMap("id", 1), columns, DBInfo.Type.POSTGRESQL);
+            SqlPlanBuilder.cachedInsertPlan(disabled, "public", table, linkedMap("id", 1), columns, DBInfo.Type.POSTGRESQL);
+        }
+
+        assertEquals(2, bounded.size());
+        assertEquals(0, disabled.size());
+        assertEquals(3, disabled.missCount());
+    }
+
+    @Test
+    void fullCacheShouldEvictLeastRecentlyUsedPlan() {
+        SqlPlanCache cache = new SqlPlanCache(2);
+        Map<String, DBColumn> columns = new LinkedHashMap<>();
+        columns.put("id", column("id"));
+
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t1", linkedMap("id", 1), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t2", linkedMap("id", 1), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t1", linkedMap("id", 2), columns, DBInfo.Type.POSTGRESQL);
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t3", linkedMap("id", 1), columns, DBInfo.Type.POSTGRESQL);
+
+        assertEquals(1, cache.hitCount());
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t1", linkedMap("id", 3), columns, DBInfo.Type.POSTGRESQL);
+        assertEquals(2, cache.hitCount());
+        SqlPlanBuilder.cachedInsertPlan(cache, "public", "t2", linkedMap("id", 2), columns, DBInfo.Type.POSTGRESQL);
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldRenderAndBindMultiRowInsertPlan() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+
+        SqlPlanBuilder.MultiRowInsertPlan plan = SqlPlanBuilder.cachedMultiRowInsertPlan(
+                cache, "public", "sample", List.of("id", "name"), 2, DBInfo.Type.POSTGRESQL);
+
+        assertEquals("insert into \"public\".\"sample\" (\"id\", \"name\") values (:p_0_0, :p_0_1), (:p_1_0, :p_1_1)", plan.sql());
+        assertEquals(
+                Map.of("p_0_0", "r-1", "p_0_1", "a", "p_1_0", "r-2", "p_1_1", "b"),
+                plan.bind(List.of(linkedMap("id", "r-1", "name", "a"), linkedMap("id", "r-2", "name", "b"))));
+        assertThrows(IllegalArgumentException.class, () -> plan.bind(List.of(linkedMap("id", "r-1"))));
+    }
+
+    @Test
+    void shouldCacheMultiRowInsertPlansPerRowCount() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+
+        SqlPlanBuilder.MultiRowInsertPlan first = SqlPlanBuilder.cachedMultiRowInsertPlan(
+                cache, "public", "sample", List.of("id"), 3, DBInfo.Type.MYSQL);
+        SqlPlanBuilder.MultiRowInsertPlan second = SqlPlanBuilder.cachedMultiRowInsertPlan(
+                cache, "public", "sample", List.of("id"), 3, DBInfo.Type.MYSQL);
+        SqlPlanBuilder.MultiRowInsertPlan tail = SqlPlanBuilder.cachedMultiRowInsertPlan(
+                cache, "public", "sample", List.of("id"), 1, DBInfo.Type.MYSQL);
+
+        assertSame(first, second);
+        assertNotSame(first, tail);
+        assertEquals("insert into `public`.`sample` (`id`) values (:p_0_0)", tail.sql());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldRenderMultiRowUpsertPerDialect() {
+        SqlPlanCache cache = new SqlPlanCache(16);
+
+        SqlPlanBuilder.MultiRowInsertPlan mysql = SqlPlanBuilder.cachedMultiRowUpsertPlan(
+                cache, "testdb", "sample", List.of("id", "name"), "id", 2, DBInfo.Type.MYSQL);
+        SqlPlanBuilder.MultiRowInsertPlan postgres = SqlPlanBuilder.cachedMultiRowUpsertPlan(
+                cache, "public", "sample", List.of("id", "name"), "id", 2, DBInfo.Type.POSTGRESQL);
+
+        assertEquals("insert into `testdb`.`sample` (`id`, `name`) values (:p_0_0, :p_0_1), (:p_1_0, :p_1_1)"
+                + " as new_row on duplicate key update `name`=new_row.`name`", mysql.sql());
+        assertEquals("insert into \"public\".\"sample\" (\"id\", \"name\") values (:p_0_0, :p_0_1), (:p_1_0, :p_1_1)"
+                + " on conflict (\"id\") do update set \"name\"=EXCLUDED.\"name\"", postgres.sql());
+        assertSame(mysql, SqlPlanBuilder.cachedMultiRowUpsertPlan(
+                cache, "testdb", "sample", List.of("id", "name"), "id", 2, DBInfo.Type.MYSQL));
+        assertNotSame(mysql, SqlPlanBuilder.cachedMultiRowInsertPlan(
+                cache, "testdb", "sample", List.of("id", "name"), 2, DBInfo.Type.MYSQL));
+    }
+
+    @Test
+    void shouldLimitMultiRowInsertRowsByBindParameterCount() {
+        assertEquals(500, SqlPlanBuilder.multiRowInsertRows(10, 500));
+        assertEquals(2978, SqlPlanBuilder.multiRowInsertRows(22, 10_000));
+        assertEquals(1, SqlPlanBuilder.multiRowInsertRows(70_000, 500));
+        assertThrows(IllegalArgumentException.class, () -> SqlPlanBuilder.multiRowInsertRows(0, 500));
+        assertThrows(MuYunDatabaseException.class, () -> SqlPlanBuilder.prepareMultiRowInsertPlan(
+                "public", "sample", List.of(), 2, DBInfo.Type.POSTGRESQL));
+    }
+
     private static DBColumn column(String name) {
         DBColumn column = new DBColumn();
         column.setName(name);
@@ -18,10 +18,13 @@ dependencies {
     api(libs.jdbi3.jackson2)
     api(libs.jdbi3.postgres)
     api(libs.jackson.databind)
+    compileOnly(libs.postgresql)
+    compileOnly(libs.micrometer.core)
 
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
     testImplementation(libs.postgresql)
+    testImplementation(libs.micrometer.core)
     testRuntimeOnly(libs.junit.platform.launcher)
 }
 
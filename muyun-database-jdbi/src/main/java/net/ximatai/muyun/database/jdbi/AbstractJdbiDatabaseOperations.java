@@ -5,13 +5,26 @@ import net.ximatai.muyun.database.core.IMetaDataLoader;
 import net.ximatai.muyun.database.core.metadata.DBColumn;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
 import net.ximatai.muyun.database.core.metadata.DBTable;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.sql.BulkInsertSupport;
+import net.ximatai.muyun.database.core.sql.ResultSetRowMapper;
 import net.ximatai.muyun.database.core.sql.SqlPlanBuilder;
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.mapper.MapMapper;
 import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.jdbi.v3.core.statement.Query;
+import org.jdbi.v3.core.statement.StatementBuilder;
+import org.jdbi.v3.core.statement.StatementContext;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.lang.reflect.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -20,6 +33,8 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 abstract class AbstractJdbiDatabaseOperations<K> implements IDatabaseOperations<K> {
@@ -29,10 +44,19 @@ abstract class AbstractJdbiDatabaseOperations<K> implements IDatabaseOperations<
 
     private static final MapMapper MAP_MAPPER = new MapMapper();
 
+    /**
+     * 流式查询默认每次从服务端游标读取的行数
+     */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
     protected final IMetaDataLoader metaDataLoader;
     protected final Class<K> pkType;
     protected final String pkName;
     protected RowMapper<Map<String, Object>> rowMapper;
+    private int multiRowInsertMaxRows = SqlPlanBuilder.DEFAULT_MULTI_ROW_INSERT_ROWS;
+    private int streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+    private volatile DatabaseMetrics metrics = DatabaseMetrics.noop();
+    private volatile QueryPlanSampler queryPlanSampler = QueryPlanSampler.disabled();
 
     protected AbstractJdbiDatabaseOperations(IMetaDataLoader metaDataLoader, Class<K> pkType, String pkName) {
         this.metaDataLoader = metaDataLoader;
@@ -54,6 +78,46 @@ abstract class AbstractJdbiDatabaseOperations<K> implements IDatabaseOperations<
         return pkType;
     }
 
+    @Override
+    public boolean supportsMultiRowInsert() {
+        DBInfo.Type dbType = getDBInfo().getDatabaseType();
+        return dbType == DBInfo.Type.MYSQL || dbType == DBInfo.Type.POSTGRESQL;
+    }
+
+    @Override
+    public boolean supportsCopyIn() {
+        return getDBInfo().getDatabaseType() == DBInfo.Type.POSTGRESQL;
+    }
+
+    @Override
+    public int getMultiRowInsertMaxRows() {
+        return multiRowInsertMaxRows;
+    }
+
+    /**
+     * 设置单条多行插入语句的最大行数，MySQL 下可按 max_allowed_packet 调小
+     */
+    public void setMultiRowInsertMaxRows(int multiRowInsertMaxRows) {
+        if (multiRowInsertMaxRows <= 0) {
+            throw new IllegalArgumentException("multiRowInsertMaxRows must be > 0");
+        }
+        this.multiRowInsertMaxRows = multiRowInsertMaxRows;
+    }
+
+    public int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    /**
+     * 设置 PostgreSQL 流式查询每次从游标读取的行数；MySQL 始终使用逐行流式读取
+     */
+    public void setStreamFetchSize(int streamFetchSize) {
+        if (streamFetchSize <= 0) {
+            throw new IllegalArgumentException("streamFetchSize must be > 0");
+        }
+        this.streamFetchSize = streamFetchSize;
+    }
+
     protected RowMapper<Map<String, Object>> getRowMapper() {
         return rowMapper == null ? MAP_MAPPER : rowMapper;
     }
@@ -62,6 +126,183 @@ abstract class AbstractJdbiDatabaseOperations<K> implements IDatabaseOperations<
         this.rowMapper = Objects.requireNonNull(rowMapper);
     }
 
+    @Override
+    public DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected void setMetricsInternal(DatabaseMetrics metrics) {
+        this.metrics = metrics == null ? DatabaseMetrics.noop() : metrics;
+    }
+
+    /**
+     * 安装了 {@link JdbiSlowQueryLogger} 时即使未启用指标也绑定标签，慢 SQL 才能带上表与仓库方法
+     */
+    @Override
+    public boolean isStatementLabelingEnabled() {
+        return metrics.isEnabled() || JdbiSlowQueryLogger.isInstalled();
+    }
+
+    @Override
+    public QueryPlanSampler getQueryPlanSampler() {
+        return queryPlanSampler;
+    }
+
+    protected void setQueryPlanSamplerInternal(QueryPlanSampler queryPlanSampler) {
+        this.queryPlanSampler = queryPlanSampler == null ? QueryPlanSampler.disabled() : queryPlanSampler;
+    }
+
+    /**
+     * 执行一条语句并记录耗时、行数或异常；流式查询的行在返回后才读取，不经过这里。
+     * 安装了 {@link JdbiSlowQueryLogger} 时，期间执行的语句在返回后带上行数交给慢 SQL 记录
+     *
+     * @param statementType 未处于实体/表网关操作中时使用的操作类型
+     * @param rows          由结果得到的写入、影响或返回行数
+     */
+    protected <T> T observe(DatabaseOperationType statementType, Supplier<T> action, ToLongFunction<? super T> rows) {
+        DatabaseMetrics current = metrics;
+        boolean enabled = current.isEnabled();
+        JdbiSlowQueryLogger.Scope slowQueries = JdbiSlowQueryLogger.openScope(statementType);
+        if (!enabled && slowQueries == null) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        T result;
+        long elapsed;
+        long count = -1;
+        try {
+            result = action.get();
+            elapsed = System.nanoTime() - start;
+            count = result == null ? 0 : rows.applyAsLong(result);
+        } catch (RuntimeException | Error ex) {
+            if (enabled) {
+                current.recordOperation(DatabaseMetricsContext.tags(statementType), System.nanoTime() - start, 0, ex);
+            }
+            throw ex;
+        } finally {
+            // 暂存残留在线程上会吞掉该线程之后的全部语句，行数计算失败也要结束
+            if (slowQueries != null) {
+                slowQueries.close(count);
+            }
+        }
+        if (enabled) {
+            current.recordOperation(DatabaseMetricsContext.tags(statementType), elapsed, count, null);
+        }
+        return result;
+    }
+
+    /**
+     * 设置了自定义行映射器时仍走行映射表，避免绕过其中的取值处理
+     */
+    @Override
+    public boolean supportsResultSetMapping() {
+        return rowMapper == null;
+    }
+
+    /**
+     * 把结果集映射器适配为 Jdbi 的 RowMapper，每个结果集先按列解析一次
+     */
+    protected static <T> RowMapper<T> toRowMapper(ResultSetRowMapper<T> mapper) {
+        Objects.requireNonNull(mapper, "mapper must not be null");
+        return new RowMapper<>() {
+            @Override
+            public T map(ResultSet rs, StatementContext ctx) throws SQLException {
+                return mapper.map(rs);
+            }
+
+            @Override
+            public RowMapper<T> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+                ResultSetRowMapper<T> specialized = mapper.specialize(rs);
+                return (row, context) -> specialized.map(row);
+            }
+        };
+    }
+
+    /**
+     * 在同一连接上执行整个分片批量插入，期间相同SQL复用同一个预编译语句
+     */
+    protected <T> T withReusableStatements(Handle handle, Supplier<T> action) {
+        StatementBuilder previous = handle.getStatementBuilder();
+        ReusableStatementBuilder reusable = new ReusableStatementBuilder(previous);
+        handle.setStatementBuilder(reusable);
+        try {
+            return action.get();
+        } finally {
+            handle.setStatementBuilder(previous);
+            try {
+                reusable.closeAll(handle.getConnection());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * 以游标方式流式读取查询结果，流关闭时释放语句并执行 {@code onClose}
+     * PostgreSQL 驱动只在关闭自动提交时使用服务端游标，句柄未处于事务中时在此开启只读用途的事务并在流关闭时结束；
+     * MySQL 驱动以 fetchSize=Integer.MIN_VALUE 逐行流式读取，流关闭前同一连接不能执行其它语句
+     */
+    protected Stream<Map<String, Object>> streamQuery(Handle handle, Query query, Runnable onClose) {
+        return streamQuery(handle, query, getRowMapper(), onClose);
+    }
+
+    protected <T> Stream<T> streamQuery(Handle handle, Query query, RowMapper<T> mapper, Runnable onClose) {
+        boolean ownTransaction = false;
+        try {
+            DBInfo.Type dbType = getDBInfo().getDatabaseType();
+            if (dbType == DBInfo.Type.MYSQL) {
+                query.setFetchSize(Integer.MIN_VALUE);
+            } else {
+                query.setFetchSize(getStreamFetchSize());
+                if (dbType == DBInfo.Type.POSTGRESQL && !handle.isInTransaction()) {
+                    handle.begin();
+                    ownTransaction = true;
+                }
+            }
+            boolean endTransaction = ownTransaction;
+            return query.map(mapper)
+                    .stream()
+                    .onClose(() -> {
+                        try {
+                            if (endTransaction) {
+                                handle.commit();
+                            }
+                        } finally {
+                            onClose.run();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            try {
+                if (ownTransaction) {
+                    handle.rollback();
+                }
+            } finally {
+                onClose.run();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 执行一个分片
+     *
+     * @param generatedKeys 为null时不回取主键，只统计影响行数
+     */
+    protected int writeBulkChunk(Handle handle, String sql, List<Map<String, Object>> chunk, List<K> generatedKeys) {
+        PreparedBatch batch = handle.prepareBatch(sql);
+        for (Map<String, Object> params : chunk) {
+            batch.bindMap(params).add();
+        }
+        if (generatedKeys == null) {
+            return BulkInsertSupport.affectedRows(batch.execute());
+        }
+        List<K> keys = batch.executePreparedBatch(getPKName())
+                .mapTo(pkType)
+                .list();
+        generatedKeys.addAll(keys);
+        return chunk.size();
+    }
+
     @Override
     public Map<String, Object> transformDataForDB(DBTable dbTable, Map<String, Object> data) {
         Map<String, Object> transformedData = new HashMap<>(data);
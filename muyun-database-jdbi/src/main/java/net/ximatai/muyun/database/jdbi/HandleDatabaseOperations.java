@@ -1,6 +1,13 @@
 package net.ximatai.muyun.database.jdbi;
 
 import net.ximatai.muyun.database.core.IMetaDataLoader;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+import net.ximatai.muyun.database.core.sql.BulkInsertSupport;
+import net.ximatai.muyun.database.core.sql.ResultSetRowMapper;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.PreparedBatch;
@@ -10,8 +17,10 @@ import org.jdbi.v3.core.statement.Update;
 import java.sql.Array;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
 
@@ -27,6 +36,16 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
         return this;
     }
 
+    HandleDatabaseOperations<K> setMetrics(DatabaseMetrics metrics) {
+        setMetricsInternal(metrics);
+        return this;
+    }
+
+    HandleDatabaseOperations<K> setQueryPlanSampler(QueryPlanSampler queryPlanSampler) {
+        setQueryPlanSamplerInternal(queryPlanSampler);
+        return this;
+    }
+
     @Override
     public K insert(String sql, Map<String, Object> params) {
         return insert(sql, params, getPKName());
@@ -34,21 +53,30 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
 
     @Override
     public K insert(String sql, Map<String, Object> params, String pkName) {
-        return handle.createUpdate(sql)
+        return observe(DatabaseOperationType.INSERT, () -> handle.createUpdate(sql)
                 .bindMap(params)
                 .executeAndReturnGeneratedKeys(pkName)
                 .mapTo(pkType)
-                .one();
+                .one(), key -> 1);
     }
 
     @Override
     public K insertWithPK(String sql, Map<String, Object> params, K pk) {
-        handle.createUpdate(sql)
+        observe(DatabaseOperationType.INSERT, () -> handle.createUpdate(sql)
                 .bindMap(params)
-                .execute();
+                .execute(), affected -> affected);
         return pk;
     }
 
+    @Override
+    public List<K> multiRowInsert(String sql, Map<String, Object> params, String pkName) {
+        return observe(DatabaseOperationType.BATCH, () -> handle.createUpdate(sql)
+                .bindMap(params)
+                .executeAndReturnGeneratedKeys(pkName)
+                .mapTo(pkType)
+                .list(), List::size);
+    }
+
     @Override
     public List<K> batchInsert(String sql, List<Map<String, Object>> paramsList) {
         List<K> generatedKeys = new ArrayList<>();
@@ -58,11 +86,30 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
             batch.bindMap(params).add();
         }
 
-        batch.executePreparedBatch(getPKName())
-                .mapTo(pkType)
-                .forEach(generatedKeys::add);
+        return observe(DatabaseOperationType.BATCH, () -> {
+            batch.executePreparedBatch(getPKName())
+                    .mapTo(pkType)
+                    .forEach(generatedKeys::add);
+            return generatedKeys;
+        }, List::size);
+    }
 
-        return generatedKeys;
+    @Override
+    public BulkInsertResult<K> executeBulkInsert(String sql,
+                                                 Iterator<Map<String, Object>> paramsIterator,
+                                                 BulkInsertOptions options) {
+        return observe(DatabaseOperationType.BATCH, () -> withReusableStatements(handle, () ->
+                BulkInsertSupport.<K>execute(paramsIterator, options, (chunk, generatedKeys) ->
+                        writeBulkChunk(handle, sql, chunk, generatedKeys))), BulkInsertResult::rows);
+    }
+
+    @Override
+    public BulkInsertResult<K> executeCopyIn(String sql,
+                                             List<String> columns,
+                                             Iterator<Map<String, Object>> rows,
+                                             BulkInsertOptions options) {
+        return observe(DatabaseOperationType.BATCH,
+                () -> PostgresCopyIn.<K>copy(handle, sql, columns, rows, options), BulkInsertResult::rows);
     }
 
     @Override
@@ -73,24 +120,24 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
                 query.bind(i, params.get(i));
             }
         }
-        return query.map(getRowMapper()).findOne().orElse(null);
+        return observe(DatabaseOperationType.ROW, () -> query.map(getRowMapper()).findOne().orElse(null), row -> 1);
     }
 
     @Override
     public Map<String, Object> row(String sql, Map<String, Object> params) {
-        return handle.createQuery(sql)
+        return observe(DatabaseOperationType.ROW, () -> handle.createQuery(sql)
                 .bindMap(params)
                 .map(getRowMapper())
                 .findOne()
-                .orElse(null);
+                .orElse(null), row -> 1);
     }
 
     @Override
     public List<Map<String, Object>> query(String sql, Map<String, Object> params) {
-        return handle.createQuery(sql)
+        return observe(DatabaseOperationType.QUERY, () -> handle.createQuery(sql)
                 .bindMap(params)
                 .map(getRowMapper())
-                .list();
+                .list(), List::size);
     }
 
     @Override
@@ -101,14 +148,47 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
                 query.bind(i, params.get(i));
             }
         }
-        return query.map(getRowMapper()).list();
+        return observe(DatabaseOperationType.QUERY, () -> query.map(getRowMapper()).list(), List::size);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        RowMapper<T> rowMapper = toRowMapper(mapper);
+        return observe(DatabaseOperationType.QUERY, () -> handle.createQuery(sql)
+                .bindMap(params)
+                .map(rowMapper)
+                .list(), List::size);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> stream(String sql, Map<String, Object> params) {
+        return streamQuery(handle, handle.createQuery(sql).bindMap(params), () -> {
+        });
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        return streamQuery(handle, handle.createQuery(sql).bindMap(params), toRowMapper(mapper), () -> {
+        });
+    }
+
+    @Override
+    public Stream<Map<String, Object>> stream(String sql, List<Object> params) {
+        Query query = handle.createQuery(sql);
+        if (params != null && !params.isEmpty()) {
+            for (int i = 0; i < params.size(); i++) {
+                query.bind(i, params.get(i));
+            }
+        }
+        return streamQuery(handle, query, () -> {
+        });
     }
 
     @Override
     public int update(String sql, Map<String, Object> params) {
-        return handle.createUpdate(sql)
+        return observe(DatabaseOperationType.UPDATE, () -> handle.createUpdate(sql)
                 .bindMap(params)
-                .execute();
+                .execute(), affected -> affected);
     }
 
     @Override
@@ -119,22 +199,22 @@ class HandleDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K> {
                 update.bind(i, params.get(i));
             }
         }
-        return update.execute();
+        return observe(DatabaseOperationType.UPDATE, update::execute, affected -> affected);
     }
 
     @Override
     public int execute(String sql) {
-        return handle.execute(sql);
+        return observe(DatabaseOperationType.EXECUTE, () -> handle.execute(sql), affected -> affected);
     }
 
     @Override
     public int execute(String sql, Object... params) {
-        return handle.execute(sql, params);
+        return observe(DatabaseOperationType.EXECUTE, () -> handle.execute(sql, params), affected -> affected);
     }
 
     @Override
     public int execute(String sql, List<Object> params) {
-        return handle.execute(sql, params.toArray());
+        return observe(DatabaseOperationType.EXECUTE, () -> handle.execute(sql, params.toArray()), affected -> affected);
     }
 
     @Override
@@ -1,5 +1,15 @@
 package net.ximatai.muyun.database.jdbi;
 
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+import net.ximatai.muyun.database.core.sql.BulkInsertSupport;
+import net.ximatai.muyun.database.core.sql.ResultSetRowMapper;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.HandleCallback;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.PreparedBatch;
@@ -10,9 +20,12 @@ import java.sql.Array;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * JDBI数据库操作实现类
@@ -22,6 +35,7 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
 
     private static final int WRITE_RETRY_TIMES = 3;
     private final Jdbi jdbi;
+    private volatile JdbiStatementCache statementCache;
 
     public JdbiDatabaseOperations(Jdbi jdbi, JdbiMetaDataLoader metaDataLoader, Class<K> pkType, String pkName) {
         super(metaDataLoader, pkType, pkName);
@@ -44,14 +58,44 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
         return this;
     }
 
+    /**
+     * 启用按句柄的预编译语句缓存（默认关闭），传入 null 关闭；命中率见 {@link JdbiStatementCache#hitRate()}。
+     * 语句只在同一句柄内复用（如分片批量写入），事务内跨调用复用见 {@link JdbiTransactionRunner#setStatementCache}；
+     * 只作用于本对象发出的增删改查与批量语句，{@code execute} 执行的临时 SQL 不进入缓存
+     */
+    public JdbiDatabaseOperations<K> setStatementCache(JdbiStatementCache statementCache) {
+        this.statementCache = statementCache;
+        return this;
+    }
+
+    public JdbiStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * 设置语句级指标（耗时、行数、异常、写重试）的接收方，传入 null 恢复为不记录
+     */
+    public JdbiDatabaseOperations<K> setMetrics(DatabaseMetrics metrics) {
+        setMetricsInternal(metrics);
+        return this;
+    }
+
+    /**
+     * 设置慢 Criteria 查询的执行计划采样，传入 null 关闭；采样器应使用本对象执行 EXPLAIN，不占用调用方事务
+     */
+    public JdbiDatabaseOperations<K> setQueryPlanSampler(QueryPlanSampler queryPlanSampler) {
+        setQueryPlanSamplerInternal(queryPlanSampler);
+        return this;
+    }
+
     @Override
     public K insertWithPK(String sql, Map<String, Object> params, K pk) {
-        withWriteRetry(() -> getJdbi().withHandle(handle ->
+        observeWrite(DatabaseOperationType.INSERT, () -> withHandle(handle ->
                 handle.createUpdate(sql)
                         .attachToHandleForCleanup()
                         .bindMap(params)
                         .execute()
-        ));
+        ), affected -> affected);
         return pk;
     }
 
@@ -62,16 +106,25 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
 
     @Override
     public K insert(String sql, Map<String, Object> params, String pkName) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle ->
+        return observeWrite(DatabaseOperationType.INSERT, () -> withHandle(handle ->
+                handle.createUpdate(sql)
+                        .attachToHandleForCleanup()
+                        .bindMap(params)
+                        .executeAndReturnGeneratedKeys(pkName).mapTo(pkType).one()), key -> 1);
+    }
+
+    @Override
+    public List<K> multiRowInsert(String sql, Map<String, Object> params, String pkName) {
+        return observeWrite(DatabaseOperationType.BATCH, () -> withHandle(handle ->
                 handle.createUpdate(sql)
                         .attachToHandleForCleanup()
                         .bindMap(params)
-                        .executeAndReturnGeneratedKeys(pkName).mapTo(pkType).one()));
+                        .executeAndReturnGeneratedKeys(pkName).mapTo(pkType).list()), List::size);
     }
 
     @Override
     public List<K> batchInsert(String sql, List<Map<String, Object>> paramsList) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle -> {
+        return observeWrite(DatabaseOperationType.BATCH, () -> withHandle(handle -> {
             List<K> generatedKeys = new ArrayList<>();
             PreparedBatch batch = handle.prepareBatch(sql);
 
@@ -85,22 +138,42 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
                     .forEach(generatedKeys::add);
 
             return generatedKeys;
-        }));
+        }), List::size);
+    }
+
+    @Override
+    public BulkInsertResult<K> executeBulkInsert(String sql,
+                                                 Iterator<Map<String, Object>> paramsIterator,
+                                                 BulkInsertOptions options) {
+        return observe(DatabaseOperationType.BATCH, () -> withHandle(handle -> withReusableStatements(handle, () ->
+                BulkInsertSupport.<K>execute(paramsIterator, options, (chunk, generatedKeys) ->
+                        withWriteRetry(DatabaseOperationType.BATCH, () -> writeBulkChunk(handle, sql, chunk, generatedKeys))))),
+                BulkInsertResult::rows);
+    }
+
+    @Override
+    public BulkInsertResult<K> executeCopyIn(String sql,
+                                             List<String> columns,
+                                             Iterator<Map<String, Object>> rows,
+                                             BulkInsertOptions options) {
+        return observe(DatabaseOperationType.BATCH,
+                () -> getJdbi().withHandle(handle -> PostgresCopyIn.<K>copy(handle, sql, columns, rows, options)),
+                BulkInsertResult::rows);
     }
 
     @Override
     public Map<String, Object> row(String sql, Map<String, Object> params) {
-        return getJdbi().withHandle(handle -> (Map<String, Object>) handle.createQuery(sql)
+        return observe(DatabaseOperationType.ROW, () -> withHandle(handle -> (Map<String, Object>) handle.createQuery(sql)
                 .attachToHandleForCleanup()
                 .bindMap(params)
                 .map(getRowMapper())
                 .findOne()
-                .orElse(null));
+                .orElse(null)), row -> 1);
     }
 
     @Override
     public Map<String, Object> row(String sql, List<Object> params) {
-        return getJdbi().withHandle(handle -> {
+        return observe(DatabaseOperationType.ROW, () -> withHandle(handle -> {
             Query query = handle.createQuery(sql).attachToHandleForCleanup();
             if (params != null && !params.isEmpty()) {
                 for (int i = 0; i < params.size(); i++) {
@@ -108,22 +181,22 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
                 }
             }
             return query.map(getRowMapper()).findOne().orElse(null);
-        });
+        }), row -> 1);
     }
 
     @Override
     public List<Map<String, Object>> query(String sql, Map<String, Object> params) {
-        return getJdbi().withHandle(handle ->
+        return observe(DatabaseOperationType.QUERY, () -> withHandle(handle ->
                 handle.createQuery(sql)
                         .attachToHandleForCleanup()
                         .bindMap(params)
                         .map(getRowMapper())
-                        .list());
+                        .list()), List::size);
     }
 
     @Override
     public List<Map<String, Object>> query(String sql, List<Object> params) {
-        return getJdbi().withHandle(handle -> {
+        return observe(DatabaseOperationType.QUERY, () -> withHandle(handle -> {
             Query query = handle.createQuery(sql).attachToHandleForCleanup();
             if (params != null && !params.isEmpty()) {
                 for (int i = 0; i < params.size(); i++) {
@@ -131,21 +204,57 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
                 }
             }
             return query.map(getRowMapper()).list();
-        });
+        }), List::size);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        RowMapper<T> rowMapper = toRowMapper(mapper);
+        return observe(DatabaseOperationType.QUERY, () -> withHandle(handle ->
+                handle.createQuery(sql)
+                        .attachToHandleForCleanup()
+                        .bindMap(params)
+                        .map(rowMapper)
+                        .list()), List::size);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> stream(String sql, Map<String, Object> params) {
+        Handle handle = open();
+        return streamQuery(handle, handle.createQuery(sql).bindMap(params), handle::close);
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, Map<String, Object> params, ResultSetRowMapper<T> mapper) {
+        RowMapper<T> rowMapper = toRowMapper(mapper);
+        Handle handle = open();
+        return streamQuery(handle, handle.createQuery(sql).bindMap(params), rowMapper, handle::close);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> stream(String sql, List<Object> params) {
+        Handle handle = open();
+        Query query = handle.createQuery(sql);
+        if (params != null && !params.isEmpty()) {
+            for (int i = 0; i < params.size(); i++) {
+                query.bind(i, params.get(i));
+            }
+        }
+        return streamQuery(handle, query, handle::close);
     }
 
     @Override
     public int update(String sql, Map<String, Object> params) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle ->
+        return observeWrite(DatabaseOperationType.UPDATE, () -> withHandle(handle ->
                 handle.createUpdate(sql)
                         .attachToHandleForCleanup()
                         .bindMap(params)
-                        .execute()));
+                        .execute()), affected -> affected);
     }
 
     @Override
     public int update(String sql, List<Object> params) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle -> {
+        return observeWrite(DatabaseOperationType.UPDATE, () -> withHandle(handle -> {
             Update query = handle.createUpdate(sql).attachToHandleForCleanup();
             if (params != null && !params.isEmpty()) {
                 for (int i = 0; i < params.size(); i++) {
@@ -153,22 +262,28 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
                 }
             }
             return query.execute();
-        }));
+        }), affected -> affected);
     }
 
     @Override
     public int execute(String sql) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle -> handle.execute(sql)));
+        return observeWrite(DatabaseOperationType.EXECUTE,
+                () -> getJdbi().withHandle(handle -> handle.execute(sql)),
+                affected -> affected);
     }
 
     @Override
     public int execute(String sql, Object... params) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle -> handle.execute(sql, params)));
+        return observeWrite(DatabaseOperationType.EXECUTE,
+                () -> getJdbi().withHandle(handle -> handle.execute(sql, params)),
+                affected -> affected);
     }
 
     @Override
     public int execute(String sql, List<Object> params) {
-        return withWriteRetry(() -> getJdbi().withHandle(handle -> handle.execute(sql, params.toArray())));
+        return observeWrite(DatabaseOperationType.EXECUTE,
+                () -> getJdbi().withHandle(handle -> handle.execute(sql, params.toArray())),
+                affected -> affected);
     }
 
     @Override
@@ -183,7 +298,27 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
         }
     }
 
-    private <T> T withWriteRetry(Supplier<T> action) {
+    private <T, X extends Exception> T withHandle(HandleCallback<T, X> callback) throws X {
+        return getJdbi().withHandle(handle -> callback.withHandle(useStatementCache(handle)));
+    }
+
+    private Handle open() {
+        return useStatementCache(getJdbi().open());
+    }
+
+    private Handle useStatementCache(Handle handle) {
+        JdbiStatementCache cache = statementCache;
+        return cache == null ? handle : cache.attach(handle);
+    }
+
+    /**
+     * 带写重试的语句，记录的耗时包含重试等待
+     */
+    private <T> T observeWrite(DatabaseOperationType statementType, Supplier<T> action, ToLongFunction<? super T> rows) {
+        return observe(statementType, () -> withWriteRetry(statementType, action), rows);
+    }
+
+    private <T> T withWriteRetry(DatabaseOperationType statementType, Supplier<T> action) {
         RuntimeException last = null;
         for (int i = 0; i < WRITE_RETRY_TIMES; i++) {
             try {
@@ -193,6 +328,10 @@ public class JdbiDatabaseOperations<K> extends AbstractJdbiDatabaseOperations<K>
                     throw ex;
                 }
                 last = ex;
+                DatabaseMetrics metrics = getMetrics();
+                if (metrics.isEnabled()) {
+                    metrics.recordRetry(DatabaseMetricsContext.tags(statementType), i + 1, ex);
+                }
                 try {
                     Thread.sleep(20L * (i + 1));
                 } catch (InterruptedException interrupted) {
@@ -5,12 +5,21 @@ import net.ximatai.muyun.database.core.exception.MuYunDatabaseException;
 import net.ximatai.muyun.database.core.metadata.*;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 
 import static net.ximatai.muyun.database.core.exception.MuYunDatabaseException.Type.READ_METADATA_ERROR;
 
@@ -20,8 +29,21 @@ import static net.ximatai.muyun.database.core.exception.MuYunDatabaseException.T
  */
 public class JdbiMetaDataLoader implements IMetaDataLoader {
 
-    private DBInfo info;
+    private volatile DBInfo info;
+    private volatile DBInfo.Type databaseType;
+    private final Object infoLock = new Object();
     private final Jdbi jdbi;
+    private volatile boolean lazyLoading;
+    private final Set<String> eagerSchemas = new CopyOnWriteArraySet<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbiMetaDataLoader.class);
+    private static final Executor SNAPSHOT_EXECUTOR = task -> Thread.ofVirtual().name("muyun-metadata-snapshot").start(task);
+
+    private volatile Path snapshotFile;
+    private volatile String snapshotFingerprintQuery;
+    private volatile boolean snapshotConsumed;
+    private volatile CompletableFuture<Void> snapshotTask = CompletableFuture.completedFuture(null);
+    private final Set<String> prefetchedSchemas = new CopyOnWriteArraySet<>();
 
     public Jdbi getJdbi() {
         return jdbi;
@@ -35,12 +57,80 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
         this.jdbi = jdbi;
     }
 
+    /**
+     * 设置元数据懒加载模式
+     * 开启后初始化只加载默认模式和 {@link #addEagerSchemas(Collection)} 指定的模式，
+     * 其它模式与表在首次访问时逐个查询加载
+     */
+    public JdbiMetaDataLoader setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+        return this;
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    /**
+     * 懒加载模式下在初始化时一并加载表清单的模式
+     */
+    public JdbiMetaDataLoader addEagerSchemas(Collection<String> schemas) {
+        if (schemas != null) {
+            schemas.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(schema -> !schema.isEmpty())
+                    .forEach(eagerSchemas::add);
+        }
+        return this;
+    }
+
+    public Set<String> getEagerSchemas() {
+        return Collections.unmodifiableSet(eagerSchemas);
+    }
+
+    /**
+     * 设置元数据快照文件，开启后首次加载直接从快照还原，并在后台比对目录指纹，
+     * 指纹不一致时重新加载并改写快照；快照不存在时正常加载，完成后在后台生成快照。
+     * 快照只包含默认模式、预加载模式和预取过的模式，其它模式仍按需查询
+     */
+    public JdbiMetaDataLoader setSnapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        return this;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * 自定义快照指纹查询，例如读取迁移工具的版本表；查询结果的所有行共同组成指纹。
+     * 未设置时对 information_schema / pg_catalog 中的表、列和索引定义做摘要
+     */
+    public JdbiMetaDataLoader setSnapshotFingerprintQuery(String snapshotFingerprintQuery) {
+        this.snapshotFingerprintQuery = snapshotFingerprintQuery == null || snapshotFingerprintQuery.isBlank()
+                ? null
+                : snapshotFingerprintQuery;
+        return this;
+    }
+
+    public String getSnapshotFingerprintQuery() {
+        return snapshotFingerprintQuery;
+    }
+
+    /**
+     * 当前后台快照任务（校验或写入），完成时快照已与数据库对齐
+     */
+    public CompletableFuture<Void> snapshotRefresh() {
+        return snapshotTask;
+    }
+
     /**
      * 初始化数据库信息
      * 加载数据库类型、模式、表结构等元数据
      */
-    private void initInfo() {
-        info = getJdbi().withHandle(handle -> {
+    private DBInfo initInfo() {
+        return getJdbi().withHandle(handle -> {
             Connection connection = handle.getConnection();
             try {
                 DatabaseMetaData metaData = connection.getMetaData();
@@ -50,57 +140,43 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
                 String databaseName = connection.getCatalog();
                 info.setName(databaseName);
 
+                DBInfo.Type type = info.getDatabaseType();
+                databaseType = type;
+
+                if (lazyLoading) {
+                    initLazySchemas(handle, metaData, info);
+                    return info;
+                }
+
                 // 加载模式信息（MySQL和PostgreSQL处理方式不同）
-                if (info.getDatabaseType().equals(DBInfo.Type.MYSQL)) {
+                if (type.equals(DBInfo.Type.MYSQL)) {
                     // MySQL：通过show databases获取数据库列表
                     handle.createQuery("show databases;")
                             .mapTo(String.class)  // 直接将第一列映射为 String，忽略列名
                             .list()               // 立即执行查询并关闭资源，返回 List<String>
-                            .forEach(dbName -> info.addSchema(new DBSchema(dbName)));
+                            .forEach(dbName -> info.addSchema(resolvableSchema(type, dbName)));
                 } else {
                     // PostgreSQL：通过JDBC元数据获取模式列表
                     try (ResultSet schemasRs = metaData.getSchemas()) {
                         boolean flag = false;
                         while (schemasRs.next()) {
                             flag = true;
-                            info.addSchema(new DBSchema(schemasRs.getString("TABLE_SCHEM")));
+                            info.addSchema(resolvableSchema(type, schemasRs.getString("TABLE_SCHEM")));
                         }
 
                         // 如果没有模式，使用数据库名作为默认模式
                         if (!flag) {
-                            info.addSchema(new DBSchema(databaseName));
+                            info.addSchema(resolvableSchema(type, databaseName));
                         }
                     }
                 }
 
                 // 加载每个模式下的表信息
                 for (DBSchema schema : info.getSchemas()) {
-                    String catalog = null;
-                    String schemaPattern = null;
-                    Map<String, String> tableComments = Map.of();
-
-                    // 根据不同数据库类型设置参数
-                    if (info.getDatabaseType().equals(DBInfo.Type.MYSQL)) {
-                        catalog = schema.getName();
-                        tableComments = loadMySqlTableComments(handle, schema.getName());
-                    } else {
-                        schemaPattern = schema.getName();
-                    }
-
-                    // 获取表列表
-                    try (ResultSet tablesRs = metaData.getTables(catalog, schemaPattern, "%", new String[]{"TABLE"})) {
-                        while (tablesRs.next()) {
-                            String tableName = tablesRs.getString("TABLE_NAME");
-                            String schemaName = schema.getName();
-                            DBTable table = new DBTable(this)
-                                    .setName(tableName)
-                                    .setSchema(schemaName)
-                                    .setDescription(tableComments.getOrDefault(tableName, tablesRs.getString("REMARKS")));
-                            info.getSchema(schemaName).addTable(table);
-                        }
-                    }
+                    loadTables(handle, metaData, type, schema, null);
                 }
 
+                installSchemaResolver(info, type);
                 return info;
             } catch (Exception e) {
                 e.printStackTrace();
@@ -109,24 +185,305 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
         });
     }
 
+    /**
+     * 懒加载模式：只加载默认模式与预加载模式的表清单，其余模式和表通过解析器按需逐个查询
+     */
+    private void initLazySchemas(Handle handle, DatabaseMetaData metaData, DBInfo info) throws SQLException {
+        DBInfo.Type type = info.getDatabaseType();
+        Set<String> schemas = new LinkedHashSet<>();
+        schemas.add(info.getDefaultSchemaName());
+        schemas.addAll(eagerSchemas);
+
+        for (String schemaName : schemas) {
+            if (schemaName == null || !schemaExists(handle, metaData, type, schemaName)) {
+                continue;
+            }
+            DBSchema schema = resolvableSchema(type, schemaName);
+            loadTables(handle, metaData, type, schema, null);
+            info.addSchema(schema);
+        }
+
+        installSchemaResolver(info, type);
+    }
+
+    /**
+     * 未缓存的模式按需确认是否存在，存在时以可按需解析表的空模式加入缓存
+     */
+    private void installSchemaResolver(DBInfo info, DBInfo.Type type) {
+        info.setSchemaResolver(schemaName -> getJdbi().withHandle(lookup -> {
+            try {
+                DatabaseMetaData lookupMetaData = lookup.getConnection().getMetaData();
+                return schemaExists(lookup, lookupMetaData, type, schemaName) ? resolvableSchema(type, schemaName) : null;
+            } catch (SQLException e) {
+                throw new MuYunDatabaseException(e.getMessage(), READ_METADATA_ERROR);
+            }
+        }));
+    }
+
+    private DBSchema resolvableSchema(DBInfo.Type type, String schemaName) {
+        return installTableResolver(new DBSchema(schemaName), type);
+    }
+
+    /**
+     * 为模式安装按需表解析器：缓存中不存在的表只查询该表本身
+     */
+    private DBSchema installTableResolver(DBSchema schema, DBInfo.Type type) {
+        String schemaName = schema.getName();
+        return schema.setTableResolver(tableName -> getJdbi().withHandle(lookup -> {
+            try {
+                DBSchema found = new DBSchema(schemaName);
+                loadTables(lookup, lookup.getConnection().getMetaData(), type, found, tableName);
+                return found.getTables().get(tableName);
+            } catch (SQLException e) {
+                throw new MuYunDatabaseException(e.getMessage(), READ_METADATA_ERROR);
+            }
+        }));
+    }
+
+    private boolean schemaExists(Handle handle, DatabaseMetaData metaData, DBInfo.Type type, String schemaName) throws SQLException {
+        if (type.equals(DBInfo.Type.MYSQL)) {
+            return handle.createQuery("""
+                            select SCHEMA_NAME
+                            from information_schema.SCHEMATA
+                            where SCHEMA_NAME = :schema
+                            """)
+                    .bind("schema", schemaName)
+                    .mapTo(String.class)
+                    .findFirst()
+                    .isPresent();
+        }
+        try (ResultSet schemasRs = metaData.getSchemas(null, escapePattern(metaData, schemaName))) {
+            while (schemasRs.next()) {
+                if (schemaName.equals(schemasRs.getString("TABLE_SCHEM"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取模式下的表清单
+     *
+     * @param tableName 为null时加载全部表，否则只查询指定表
+     */
+    private void loadTables(Handle handle,
+                            DatabaseMetaData metaData,
+                            DBInfo.Type type,
+                            DBSchema schema,
+                            String tableName) throws SQLException {
+        String catalog = null;
+        String schemaPattern = null;
+        Map<String, String> tableComments = Map.of();
+
+        // 根据不同数据库类型设置参数
+        if (type.equals(DBInfo.Type.MYSQL)) {
+            catalog = schema.getName();
+            tableComments = loadMySqlTableComments(handle, schema.getName(), tableName);
+        } else {
+            schemaPattern = schema.getName();
+        }
+
+        String tablePattern = tableName == null ? "%" : escapePattern(metaData, tableName);
+        // 获取表列表
+        try (ResultSet tablesRs = metaData.getTables(catalog, schemaPattern, tablePattern, new String[]{"TABLE"})) {
+            while (tablesRs.next()) {
+                String name = tablesRs.getString("TABLE_NAME");
+                if (tableName != null && !tableName.equals(name)) {
+                    continue;
+                }
+                DBTable table = new DBTable(this)
+                        .setName(name)
+                        .setSchema(schema.getName())
+                        .setDescription(tableComments.getOrDefault(name, tablesRs.getString("REMARKS")));
+                schema.addTable(table);
+            }
+        }
+    }
+
+    private static String escapePattern(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape)
+                .replace("_", escape + "_")
+                .replace("%", escape + "%");
+    }
+
+    /**
+     * 获取数据库元信息
+     * 并发首次访问时只有一个线程执行加载，其余线程等待并复用同一份结果
+     */
     @Override
     public DBInfo getDBInfo() {
-        if (info == null) {
-            initInfo();
+        DBInfo loaded = info;
+        if (loaded == null) {
+            synchronized (infoLock) {
+                loaded = info;
+                if (loaded == null) {
+                    loaded = loadInfo();
+                    info = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 配置了快照时，进程内首次加载优先使用快照；之后的重置（如 DDL 后）一律走数据库
+     */
+    private DBInfo loadInfo() {
+        Path file = snapshotFile;
+        if (file == null) {
+            return initInfo();
+        }
+        if (!snapshotConsumed) {
+            snapshotConsumed = true;
+            JdbiMetadataSnapshot.Snapshot snapshot = readSnapshot(file);
+            if (snapshot != null) {
+                DBInfo restored = restoreSnapshot(snapshot);
+                snapshotTask = CompletableFuture.runAsync(() -> revalidateSnapshot(restored, snapshot), SNAPSHOT_EXECUTOR);
+                return restored;
+            }
+            snapshotTask = CompletableFuture.runAsync(this::writeSnapshotQuietly, SNAPSHOT_EXECUTOR);
+        }
+        return initInfo();
+    }
+
+    private JdbiMetadataSnapshot.Snapshot readSnapshot(Path file) {
+        try {
+            return JdbiMetadataSnapshot.read(file);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable metadata snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    private DBInfo restoreSnapshot(JdbiMetadataSnapshot.Snapshot snapshot) {
+        DBInfo.Type type = new DBInfo(snapshot.typeName()).getDatabaseType();
+        DBInfo restored = JdbiMetadataSnapshot.restore(snapshot, this, schemaName -> resolvableSchema(type, schemaName));
+        databaseType = type;
+        installSchemaResolver(restored, type);
+        prefetchedSchemas.addAll(snapshot.schemaNames());
+        return restored;
+    }
+
+    /**
+     * 后台比对指纹，不一致时重新加载元数据替换还原结果，并改写快照
+     */
+    private void revalidateSnapshot(DBInfo restored, JdbiMetadataSnapshot.Snapshot snapshot) {
+        try {
+            String current = getJdbi().withHandle(handle -> JdbiMetadataSnapshot.fingerprint(
+                    handle, databaseType(), snapshot.schemaNames(), snapshotFingerprintQuery));
+            if (current.equals(snapshot.fingerprint())) {
+                return;
+            }
+            DBInfo fresh = initInfo();
+            synchronized (infoLock) {
+                // 期间已被重置或替换时保留新的结果
+                if (info == restored) {
+                    info = fresh;
+                }
+            }
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to revalidate metadata snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void writeSnapshotQuietly() {
+        try {
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write metadata snapshot {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * 立即把当前元数据写入快照文件，未配置快照文件时不做任何事
+     * 先计算指纹再读取元数据，期间发生的结构变更会在下次启动时被指纹识别
+     */
+    public void saveSnapshot() {
+        Path file = snapshotFile;
+        if (file == null) {
+            return;
+        }
+        DBInfo current = getDBInfo();
+        Set<String> schemas = new LinkedHashSet<>();
+        schemas.add(current.getDefaultSchemaName());
+        schemas.addAll(eagerSchemas);
+        schemas.addAll(prefetchedSchemas);
+        schemas.removeIf(schema -> schema == null || current.getSchema(schema) == null);
+
+        String fingerprint = getJdbi().withHandle(handle -> JdbiMetadataSnapshot.fingerprint(
+                handle, current.getDatabaseType(), schemas, snapshotFingerprintQuery));
+        schemas.forEach(this::prefetchSchema);
+        try {
+            JdbiMetadataSnapshot.write(file, JdbiMetadataSnapshot.capture(current, schemas, fingerprint));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return info;
     }
 
     public void resetInfo(){
-        info = null;
+        synchronized (infoLock) {
+            info = null;
+        }
     }
 
-    private Map<String, String> loadMySqlTableComments(Handle handle, String schema) {
-        return handle.createQuery("""
-                        select TABLE_NAME, TABLE_COMMENT
-                        from information_schema.TABLES
-                        where TABLE_SCHEMA = :schema
-                        """)
+    /**
+     * 只失效单表缓存，不影响其它模式和表
+     */
+    @Override
+    public void invalidateTable(String schema, String table) {
+        DBInfo loaded = info;
+        if (loaded == null) {
+            return;
+        }
+        DBSchema dbSchema = loaded.getLoadedSchema(schema);
+        if (dbSchema == null) {
+            return;
+        }
+        DBTable cached = dbSchema.getTables().get(table);
+        dbSchema.removeTable(table);
+        if (cached != null) {
+            cached.resetColumns();
+            cached.resetIndexes();
+        }
+        // 运行期通过 TableBuilder 创建的模式没有解析器，失效后需要能重新查询到表
+        installTableResolver(dbSchema, databaseType());
+    }
+
+    /**
+     * 只失效单个模式，下次访问时重新确认模式是否存在
+     */
+    @Override
+    public void invalidateSchema(String schema) {
+        DBInfo loaded = info;
+        if (loaded != null) {
+            loaded.removeSchema(schema);
+        }
+    }
+
+    private DBInfo.Type databaseType() {
+        DBInfo.Type type = databaseType;
+        return type != null ? type : getDBInfo().getDatabaseType();
+    }
+
+    private Map<String, String> loadMySqlTableComments(Handle handle, String schema, String table) {
+        String sql = """
+                select TABLE_NAME, TABLE_COMMENT
+                from information_schema.TABLES
+                where TABLE_SCHEMA = :schema
+                """;
+        Query query;
+        if (table == null) {
+            query = handle.createQuery(sql);
+        } else {
+            query = handle.createQuery(sql + " and TABLE_NAME = :table").bind("table", table);
+        }
+        return query
                 .bind("schema", schema)
                 .reduceRows(new HashMap<>(), (map, rowView) -> {
                     map.put(rowView.getColumn("TABLE_NAME", String.class), rowView.getColumn("TABLE_COMMENT", String.class));
@@ -145,7 +502,7 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
                 String schemaPattern = null;
 
                 // 设置数据库特定的参数
-                if (info.getDatabaseType().equals(DBInfo.Type.MYSQL)) {
+                if (databaseType().equals(DBInfo.Type.MYSQL)) {
                     catalog = schema;
                 } else {
                     schemaPattern = schema;
@@ -199,40 +556,19 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
                 String catalog = null;
                 String schemaPattern = null;
 
-                if (info.getDatabaseType().equals(DBInfo.Type.MYSQL)) {
+                if (databaseType().equals(DBInfo.Type.MYSQL)) {
                     catalog = schema;
                 } else {
                     schemaPattern = schema;
                 }
-                Map<String, String> columnComments = info.getDatabaseType().equals(DBInfo.Type.MYSQL)
+                Map<String, String> columnComments = databaseType().equals(DBInfo.Type.MYSQL)
                         ? loadMySqlColumnComments(handle, schema, table)
                         : Map.of();
 
                 // 获取列基本信息
                 try (ResultSet rs = metaData.getColumns(catalog, schemaPattern, table, null)) {
                     while (rs.next()) {
-                        DBColumn column = new DBColumn();
-                        column.setName(rs.getString("COLUMN_NAME"));
-                        column.setType(rs.getString("TYPE_NAME"));
-                        column.setLength(rs.getInt("COLUMN_SIZE"));
-                        column.setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
-
-                        String defaultValue = rs.getString("COLUMN_DEF");
-                        column.setDefaultValue(defaultValue);
-
-                        // 判断是否为自增序列
-                        if ("YES".equals(rs.getString("IS_AUTOINCREMENT"))) {
-                            column.setSequence();
-                        }
-                        if (defaultValue != null && defaultValue.startsWith("nextval(")) {
-                            column.setSequence();
-                        }
-                        // MySQL自增字段特殊处理
-                        if (column.isSequence() && info.getDatabaseType().equals(DBInfo.Type.MYSQL) && defaultValue == null) {
-                            column.setDefaultValue("AUTO_INCREMENT");
-                        }
-
-                        column.setDescription(columnComments.getOrDefault(column.getName(), rs.getString("REMARKS")));
+                        DBColumn column = readColumn(rs, columnComments);
                         columnMap.put(column.getName(), column);
                     }
                 }
@@ -256,6 +592,173 @@ public class JdbiMetaDataLoader implements IMetaDataLoader {
         return columnMap;
     }
 
+    private DBColumn readColumn(ResultSet rs, Map<String, String> columnComments) throws SQLException {
+        DBColumn column = new DBColumn();
+        column.setName(rs.getString("COLUMN_NAME"));
+        column.setType(rs.getString("TYPE_NAME"));
+        column.setLength(rs.getInt("COLUMN_SIZE"));
+        column.setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
+
+        String defaultValue = rs.getString("COLUMN_DEF");
+        column.setDefaultValue(defaultValue);
+
+        // 判断是否为自增序列
+        if ("YES".equals(rs.getString("IS_AUTOINCREMENT"))) {
+            column.setSequence();
+        }
+        if (defaultValue != null && defaultValue.startsWith("nextval(")) {
+            column.setSequence();
+        }
+        // MySQL自增字段特殊处理
+        if (column.isSequence() && databaseType().equals(DBInfo.Type.MYSQL) && defaultValue == null) {
+            column.setDefaultValue("AUTO_INCREMENT");
+        }
+
+        column.setDescription(columnComments.getOrDefault(column.getName(), rs.getString("REMARKS")));
+        return column;
+    }
+
+    /**
+     * 批量预取模式元数据
+     * 一次 getColumns 读取整个模式的列，再各用一条 information_schema/pg_catalog 查询读取主键、注释和索引，
+     * 结果直接写入各 DBTable 缓存，避免逐表往返
+     */
+    @Override
+    public void prefetchSchema(String schema) {
+        DBSchema dbSchema = getDBInfo().getSchema(schema);
+        if (dbSchema == null) {
+            return;
+        }
+        prefetchedSchemas.add(schema);
+        DBInfo.Type type = databaseType();
+        boolean mysql = type.equals(DBInfo.Type.MYSQL);
+
+        getJdbi().useHandle(handle -> {
+            try {
+                DatabaseMetaData metaData = handle.getConnection().getMetaData();
+
+                // 懒加载模式下模式内的表清单可能不完整，先补齐
+                DBSchema listed = new DBSchema(schema);
+                loadTables(handle, metaData, type, listed, null);
+                listed.getTables().forEach((name, table) -> dbSchema.getTables().putIfAbsent(name, table));
+
+                Map<String, Map<String, String>> columnComments = mysql
+                        ? loadMySqlSchemaColumnComments(handle, schema)
+                        : Map.of();
+                Map<String, Map<String, DBColumn>> columns = new HashMap<>();
+                try (ResultSet rs = metaData.getColumns(mysql ? schema : null, mysql ? null : schema, "%", null)) {
+                    while (rs.next()) {
+                        // 模式名作为匹配模式传入，'_' 可能命中其他模式，这里精确过滤
+                        if (!schema.equalsIgnoreCase(rs.getString(mysql ? "TABLE_CAT" : "TABLE_SCHEM"))) {
+                            continue;
+                        }
+                        String tableName = rs.getString("TABLE_NAME");
+                        DBColumn column = readColumn(rs, columnComments.getOrDefault(tableName, Map.of()));
+                        columns.computeIfAbsent(tableName, key -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                                .put(column.getName(), column);
+                    }
+                }
+
+                loadSchemaPrimaryKeys(handle, schema, mysql).forEach(row -> {
+                    DBColumn column = columns.getOrDefault(row.getKey(), Map.of()).get(row.getValue());
+                    if (column != null) {
+                        column.setPrimaryKey(true);
+                    }
+                });
+
+                Map<String, List<DBIndex>> indexes = loadSchemaIndexes(handle, schema, mysql);
+
+                for (DBTable table : dbSchema.getTables().values()) {
+                    table.setColumnMap(columns.getOrDefault(table.getName(), new TreeMap<>(String.CASE_INSENSITIVE_ORDER)));
+                    table.setIndexList(indexes.getOrDefault(table.getName(), new ArrayList<>()));
+                }
+            } catch (SQLException e) {
+                throw new MuYunDatabaseException(e.getMessage(), READ_METADATA_ERROR);
+            }
+        });
+    }
+
+    private Map<String, Map<String, String>> loadMySqlSchemaColumnComments(Handle handle, String schema) {
+        return handle.createQuery("""
+                        select TABLE_NAME, COLUMN_NAME, COLUMN_COMMENT
+                        from information_schema.COLUMNS
+                        where TABLE_SCHEMA = :schema
+                        """)
+                .bind("schema", schema)
+                .reduceRows(new HashMap<>(), (map, rowView) -> {
+                    map.computeIfAbsent(rowView.getColumn("TABLE_NAME", String.class), key -> new HashMap<>())
+                            .put(rowView.getColumn("COLUMN_NAME", String.class), rowView.getColumn("COLUMN_COMMENT", String.class));
+                    return map;
+                });
+    }
+
+    private List<Map.Entry<String, String>> loadSchemaPrimaryKeys(Handle handle, String schema, boolean mysql) {
+        String sql = mysql
+                ? """
+                select TABLE_NAME as table_name, COLUMN_NAME as column_name
+                from information_schema.KEY_COLUMN_USAGE
+                where TABLE_SCHEMA = :schema and CONSTRAINT_NAME = 'PRIMARY'
+                """
+                : """
+                select t.relname as table_name, a.attname as column_name
+                from pg_catalog.pg_index i
+                join pg_catalog.pg_class t on t.oid = i.indrelid
+                join pg_catalog.pg_namespace n on n.oid = t.relnamespace
+                join pg_catalog.pg_attribute a on a.attrelid = i.indrelid and a.attnum = any(i.indkey)
+                where i.indisprimary and n.nspname = :schema
+                """;
+        return handle.createQuery(sql)
+                .bind("schema", schema)
+                .map((rs, ctx) -> Map.entry(rs.getString("table_name"), rs.getString("column_name")))
+                .list();
+    }
+
+    private Map<String, List<DBIndex>> loadSchemaIndexes(Handle handle, String schema, boolean mysql) {
+        String sql = mysql
+                ? """
+                select TABLE_NAME as table_name, INDEX_NAME as index_name, NON_UNIQUE <> 0 as non_unique,
+                       COLUMN_NAME as column_name
+                from information_schema.STATISTICS
+                where TABLE_SCHEMA = :schema
+                order by TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX
+                """
+                : """
+                select t.relname as table_name, ci.relname as index_name, not i.indisunique as non_unique,
+                       pg_catalog.pg_get_indexdef(i.indexrelid, k.n, false) as column_name
+                from pg_catalog.pg_index i
+                join pg_catalog.pg_class ci on ci.oid = i.indexrelid
+                join pg_catalog.pg_class t on t.oid = i.indrelid
+                join pg_catalog.pg_namespace n on n.oid = t.relnamespace
+                cross join lateral generate_series(1, i.indnkeyatts) as k(n)
+                where n.nspname = :schema
+                order by t.relname, not i.indisunique, ci.relname, k.n
+                """;
+        Map<String, Map<String, DBIndex>> byTable = handle.createQuery(sql)
+                .bind("schema", schema)
+                .reduceRows(new HashMap<>(), (map, rowView) -> {
+                    String indexName = rowView.getColumn("index_name", String.class);
+                    // 与逐表读取一致，跳过主键索引
+                    if (indexName.endsWith("_pkey") || indexName.equalsIgnoreCase("PRIMARY")) {
+                        return map;
+                    }
+                    DBIndex index = map.computeIfAbsent(rowView.getColumn("table_name", String.class), key -> new LinkedHashMap<>())
+                            .computeIfAbsent(indexName, key -> {
+                                DBIndex created = new DBIndex();
+                                created.setName(key);
+                                return created;
+                            });
+                    index.addColumn(rowView.getColumn("column_name", String.class));
+                    if (!rowView.getColumn("non_unique", Boolean.class)) {
+                        index.setUnique(true);
+                    }
+                    return map;
+                });
+
+        Map<String, List<DBIndex>> indexes = new HashMap<>();
+        byTable.forEach((table, tableIndexes) -> indexes.put(table, new ArrayList<>(tableIndexes.values())));
+        return indexes;
+    }
+
     private Map<String, String> loadMySqlColumnComments(Handle handle, String schema, String table) {
         return handle.createQuery("""
                         select COLUMN_NAME, COLUMN_COMMENT
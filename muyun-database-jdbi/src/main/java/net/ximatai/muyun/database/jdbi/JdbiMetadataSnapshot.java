@@ -0,0 +1,270 @@
+package net.ximatai.muyun.database.jdbi;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ximatai.muyun.database.core.IMetaDataLoader;
+import net.ximatai.muyun.database.core.metadata.*;
+import org.jdbi.v3.core.Handle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 元数据快照
+ * 把已加载模式的表、列和索引序列化为本地 JSON 文件，冷启动时直接还原，
+ * 并通过数据库目录指纹判断快照是否仍与数据库一致
+ */
+final class JdbiMetadataSnapshot {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    record Snapshot(int version, String typeName, String name, String fingerprint, List<SchemaEntry> schemas) {
+
+        Set<String> schemaNames() {
+            Set<String> names = new LinkedHashSet<>();
+            schemas.forEach(schema -> names.add(schema.name()));
+            return names;
+        }
+    }
+
+    record SchemaEntry(String name, List<TableEntry> tables) {
+    }
+
+    record TableEntry(String name, String description, List<ColumnEntry> columns, List<IndexEntry> indexes) {
+    }
+
+    record ColumnEntry(String name,
+                       String description,
+                       String type,
+                       String defaultValue,
+                       boolean nullable,
+                       boolean primaryKey,
+                       boolean sequence,
+                       Integer length) {
+    }
+
+    record IndexEntry(String name, boolean unique, List<String> columns) {
+    }
+
+    private JdbiMetadataSnapshot() {
+    }
+
+    /**
+     * 读取快照文件，文件不存在或格式版本不一致时返回null
+     */
+    static Snapshot read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Snapshot snapshot = MAPPER.readValue(file.toFile(), Snapshot.class);
+        if (snapshot.version() != FORMAT_VERSION || snapshot.typeName() == null || snapshot.schemas() == null) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 先写临时文件再替换，避免并发启动的实例读到写了一半的快照
+     */
+    static void write(Path file, Snapshot snapshot) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            MAPPER.writeValue(temp.toFile(), snapshot);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 采集指定模式的元数据，调用前应已完成这些模式的预取
+     */
+    static Snapshot capture(DBInfo info, Collection<String> schemas, String fingerprint) {
+        List<SchemaEntry> schemaEntries = new ArrayList<>();
+        for (String schemaName : schemas) {
+            DBSchema schema = info.getLoadedSchema(schemaName);
+            if (schema == null) {
+                continue;
+            }
+            List<TableEntry> tables = new ArrayList<>();
+            for (DBTable table : schema.getTables().values()) {
+                List<ColumnEntry> columns = new ArrayList<>();
+                for (DBColumn column : table.getColumnMap().values()) {
+                    columns.add(new ColumnEntry(
+                            column.getName(),
+                            column.getDescription(),
+                            column.getType(),
+                            column.getDefaultValueRaw(),
+                            column.isNullable(),
+                            column.isPrimaryKey(),
+                            column.isSequence(),
+                            column.getLength()
+                    ));
+                }
+                List<IndexEntry> indexes = new ArrayList<>();
+                for (DBIndex index : table.getIndexList()) {
+                    indexes.add(new IndexEntry(index.getName(), index.isUnique(), List.copyOf(index.getColumns())));
+                }
+                tables.add(new TableEntry(table.getName(), table.getDescription(), columns, indexes));
+            }
+            schemaEntries.add(new SchemaEntry(schema.getName(), tables));
+        }
+        return new Snapshot(FORMAT_VERSION, info.getTypeName(), info.getName(), fingerprint, schemaEntries);
+    }
+
+    /**
+     * 由快照还原元数据，表的列和索引缓存直接填充，不再访问数据库
+     *
+     * @param schemaFactory 创建带按需表解析器的模式
+     */
+    static DBInfo restore(Snapshot snapshot, IMetaDataLoader loader, Function<String, DBSchema> schemaFactory) {
+        DBInfo info = new DBInfo(snapshot.typeName()).setName(snapshot.name());
+        for (SchemaEntry schemaEntry : snapshot.schemas()) {
+            DBSchema schema = schemaFactory.apply(schemaEntry.name());
+            for (TableEntry tableEntry : schemaEntry.tables()) {
+                DBTable table = new DBTable(loader)
+                        .setName(tableEntry.name())
+                        .setSchema(schemaEntry.name())
+                        .setDescription(tableEntry.description());
+                if (tableEntry.columns() != null) {
+                    Map<String, DBColumn> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                    for (ColumnEntry entry : tableEntry.columns()) {
+                        DBColumn column = toColumn(entry);
+                        columns.put(column.getName(), column);
+                    }
+                    table.setColumnMap(columns);
+                }
+                if (tableEntry.indexes() != null) {
+                    List<DBIndex> indexes = new ArrayList<>();
+                    for (IndexEntry entry : tableEntry.indexes()) {
+                        DBIndex index = new DBIndex().setName(entry.name()).setUnique(entry.unique());
+                        entry.columns().forEach(index::addColumn);
+                        indexes.add(index);
+                    }
+                    table.setIndexList(indexes);
+                }
+                schema.addTable(table);
+            }
+            info.addSchema(schema);
+        }
+        return info;
+    }
+
+    private static DBColumn toColumn(ColumnEntry entry) {
+        DBColumn column = new DBColumn();
+        column.setName(entry.name());
+        column.setDescription(entry.description());
+        column.setType(entry.type());
+        column.setDefaultValue(entry.defaultValue());
+        column.setNullable(entry.nullable());
+        column.setPrimaryKey(entry.primaryKey());
+        if (entry.sequence()) {
+            column.setSequence();
+        }
+        if (entry.length() != null) {
+            column.setLength(entry.length());
+        }
+        return column;
+    }
+
+    /**
+     * 计算目录指纹
+     * 默认对模式内的表、列定义、注释和索引定义做摘要；指定了自定义查询（如读取 schema 版本表）时对其结果做摘要
+     */
+    static String fingerprint(Handle handle, DBInfo.Type type, Collection<String> schemas, String customQuery) {
+        List<String> lines = new ArrayList<>();
+        if (customQuery != null) {
+            lines.addAll(handle.createQuery(customQuery).mapTo(String.class).list());
+        } else if (!schemas.isEmpty()) {
+            List<String> queries = type.equals(DBInfo.Type.MYSQL) ? mysqlFingerprintQueries() : postgresFingerprintQueries();
+            for (String sql : queries) {
+                lines.addAll(handle.createQuery(sql)
+                        .bindList("schemas", List.copyOf(schemas))
+                        .mapTo(String.class)
+                        .list());
+            }
+            Collections.sort(lines);
+        }
+        return digest(lines);
+    }
+
+    private static List<String> mysqlFingerprintQueries() {
+        return List.of(
+                """
+                select concat_ws('|', TABLE_SCHEMA, TABLE_NAME, TABLE_COMMENT)
+                from information_schema.TABLES
+                where TABLE_SCHEMA in (<schemas>) and TABLE_TYPE = 'BASE TABLE'
+                """,
+                """
+                select concat_ws('|', TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE,
+                                 ifnull(COLUMN_DEFAULT, ''), COLUMN_KEY, EXTRA, COLUMN_COMMENT)
+                from information_schema.COLUMNS
+                where TABLE_SCHEMA in (<schemas>)
+                """,
+                """
+                select concat_ws('|', TABLE_SCHEMA, TABLE_NAME, INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, COLUMN_NAME)
+                from information_schema.STATISTICS
+                where TABLE_SCHEMA in (<schemas>)
+                """
+        );
+    }
+
+    private static List<String> postgresFingerprintQueries() {
+        return List.of(
+                """
+                select concat_ws('|', n.nspname, c.relname, obj_description(c.oid, 'pg_class'))
+                from pg_catalog.pg_class c
+                join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                where n.nspname in (<schemas>) and c.relkind in ('r', 'p')
+                """,
+                """
+                select concat_ws('|', n.nspname, c.relname, a.attname, format_type(a.atttypid, a.atttypmod),
+                                 a.attnotnull, pg_get_expr(d.adbin, d.adrelid), col_description(c.oid, a.attnum))
+                from pg_catalog.pg_attribute a
+                join pg_catalog.pg_class c on c.oid = a.attrelid
+                join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                left join pg_catalog.pg_attrdef d on d.adrelid = a.attrelid and d.adnum = a.attnum
+                where n.nspname in (<schemas>) and c.relkind in ('r', 'p') and a.attnum > 0 and not a.attisdropped
+                """,
+                """
+                select concat_ws('|', n.nspname, c.relname, pg_get_indexdef(i.indexrelid))
+                from pg_catalog.pg_index i
+                join pg_catalog.pg_class c on c.oid = i.indrelid
+                join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                where n.nspname in (<schemas>)
+                """
+        );
+    }
+
+    static String digest(List<String> lines) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                digest.update(String.valueOf(line).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
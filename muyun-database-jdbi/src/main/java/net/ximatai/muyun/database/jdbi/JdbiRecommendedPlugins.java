@@ -1,7 +1,9 @@
 package net.ximatai.muyun.database.jdbi;
 
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.core.spi.JdbiPlugin;
+import org.jdbi.v3.core.statement.SqlStatements;
 import org.jdbi.v3.jackson2.Jackson2Plugin;
 import org.jdbi.v3.sqlobject.SqlObjectPlugin;
 
@@ -32,6 +34,15 @@ public final class JdbiRecommendedPlugins {
         return jdbi;
     }
 
+    /**
+     * Record every statement into {@code log} for slow-SQL reporting; an already configured SqlLogger keeps working.
+     */
+    public static Jdbi installSlowQueryLog(Jdbi jdbi, SlowQueryLog log) {
+        SqlStatements statements = jdbi.getConfig(SqlStatements.class);
+        statements.setSqlLogger(new JdbiSlowQueryLogger(log, statements.getSqlLogger()));
+        return jdbi;
+    }
+
     private static JdbiPlugin newPlugin(String pluginClassName) {
         try {
             Class<?> pluginClass = Class.forName(pluginClassName, true, Thread.currentThread().getContextClassLoader());
@@ -0,0 +1,158 @@
+package net.ximatai.muyun.database.jdbi;
+
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsTags;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.SQLException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 把 Jdbi 执行的每条语句（渲染后的 SQL、耗时、绑定参数个数）交给 {@link SlowQueryLog} 聚合，保留并转调原有的 SqlLogger，
+ * 通常经 {@link JdbiRecommendedPlugins#installSlowQueryLog(Jdbi, SlowQueryLog)} 安装
+ * <p>
+ * SqlLogger 拿不到结果行数：经 {@link AbstractJdbiDatabaseOperations} 执行的语句先暂存，操作返回后带上写入、影响或返回行数一并记录
+ * （一次操作执行了多条成功语句时行数记为 -1）；直接使用 Jdbi/SqlObject 执行的语句立即记录，行数为 -1
+ */
+public final class JdbiSlowQueryLogger implements SqlLogger {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    private static volatile boolean installed;
+
+    private final SlowQueryLog log;
+    private final SqlLogger delegate;
+
+    public JdbiSlowQueryLogger(SlowQueryLog log) {
+        this(log, SqlLogger.NOP_SQL_LOGGER);
+    }
+
+    public JdbiSlowQueryLogger(SlowQueryLog log, SqlLogger delegate) {
+        this.log = Objects.requireNonNull(log, "log must not be null");
+        this.delegate = delegate == null ? SqlLogger.NOP_SQL_LOGGER : delegate;
+        installed = true;
+    }
+
+    /**
+     * jdbi 当前 SqlLogger 为本类时返回其慢 SQL 记录
+     */
+    public static Optional<SlowQueryLog> find(Jdbi jdbi) {
+        return jdbi.getConfig(SqlStatements.class).getSqlLogger() instanceof JdbiSlowQueryLogger logger
+                ? Optional.of(logger.log)
+                : Optional.empty();
+    }
+
+    public SlowQueryLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void logBeforeExecution(StatementContext context) {
+        delegate.logBeforeExecution(context);
+    }
+
+    @Override
+    public void logAfterExecution(StatementContext context) {
+        record(context, false);
+        delegate.logAfterExecution(context);
+    }
+
+    @Override
+    public void logException(StatementContext context, SQLException ex) {
+        record(context, true);
+        delegate.logException(context, ex);
+    }
+
+    private void record(StatementContext context, boolean failed) {
+        String sql = context.getRenderedSql();
+        if (sql == null) {
+            return;
+        }
+        long elapsedNanos = Math.max(0, context.getElapsedTime(ChronoUnit.NANOS));
+        int bindCount = context.getParsedSql() == null ? 0 : context.getParsedSql().getParameters().getParameterCount();
+        record(sql, elapsedNanos, bindCount, failed);
+    }
+
+    /**
+     * 处于 {@link AbstractJdbiDatabaseOperations} 的操作中时暂存，否则立即记录
+     */
+    void record(String sql, long elapsedNanos, int bindCount, boolean failed) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.pending.add(new Pending(log, sql, DatabaseMetricsContext.tags(scope.statementType), elapsedNanos, bindCount, failed));
+        } else {
+            log.record(sql, DatabaseMetricsContext.tags(statementType(sql)), elapsedNanos, bindCount, -1, failed);
+        }
+    }
+
+    /**
+     * 是否创建过慢 SQL 记录器；为真时语句需要操作与仓库标签
+     */
+    static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * 开始暂存当前线程的语句；未安装任何慢 SQL 记录或已处于外层操作中时返回 null
+     */
+    static Scope openScope(DatabaseOperationType statementType) {
+        if (!installed || SCOPE.get() != null) {
+            return null;
+        }
+        Scope scope = new Scope(statementType);
+        SCOPE.set(scope);
+        return scope;
+    }
+
+    private static DatabaseOperationType statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> DatabaseOperationType.QUERY;
+            case "insert" -> DatabaseOperationType.INSERT;
+            case "update" -> DatabaseOperationType.UPDATE;
+            case "delete" -> DatabaseOperationType.DELETE;
+            case "merge" -> DatabaseOperationType.UPSERT;
+            default -> DatabaseOperationType.EXECUTE;
+        };
+    }
+
+    static final class Scope {
+        private final DatabaseOperationType statementType;
+        private final List<Pending> pending = new ArrayList<>(2);
+
+        private Scope(DatabaseOperationType statementType) {
+            this.statementType = statementType;
+        }
+
+        /**
+         * 结束暂存并记录；仅有一条成功语句时行数归于该语句
+         *
+         * @param rows 操作的行数，失败时为 -1
+         */
+        void close(long rows) {
+            SCOPE.remove();
+            long succeeded = pending.stream().filter(entry -> !entry.failed()).count();
+            for (Pending entry : pending) {
+                long entryRows = !entry.failed() && succeeded == 1 ? rows : -1;
+                entry.log().record(entry.sql(), entry.tags(), entry.elapsedNanos(), entry.bindCount(), entryRows, entry.failed());
+            }
+        }
+    }
+
+    private record Pending(SlowQueryLog log, String sql, DatabaseMetricsTags tags, long elapsedNanos, int bindCount,
+                           boolean failed) {
+    }
+}
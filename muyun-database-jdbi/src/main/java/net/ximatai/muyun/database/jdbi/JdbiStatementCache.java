@@ -0,0 +1,261 @@
+package net.ximatai.muyun.database.jdbi;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.StatementBuilder;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按句柄缓存 PreparedStatement，键为 SQL 文本（及主键回取方式），每个句柄最多保留 maxStatementsPerHandle 条，按最近使用淘汰
+ * <p>
+ * 语句经句柄自身的连接（即连接池代理）预编译，连接池照常跟踪这些语句，归还连接时的事务回滚与 JTA 登记不受影响；
+ * 缓存只在句柄存活期间有效（一次事务、一次批量写入或一个流），句柄关闭时逐条关闭。
+ * 每次调用各自打开句柄的操作不会跨调用命中，跨调用复用请使用驱动自带的语句缓存
+ * （PostgreSQL JDBC 的 prepareThreshold/preparedStatementCacheQueries，MySQL Connector/J 的 cachePrepStmts/useServerPrepStmts）。
+ * Jdbi 执行后发出的关闭请求只清空参数，并把 fetchSize/maxRows/queryTimeout 恢复为预编译时的值：这些 SqlStatements 设置由 Jdbi
+ * 在每次执行前重新应用，一次性的设置（如流式查询的 fetchSize）不会带给后续调用。同一 SQL 的语句仍在使用中（如未关闭的流）时
+ * 另行创建一条不缓存的语句
+ */
+public final class JdbiStatementCache {
+
+    public static final int DEFAULT_MAX_STATEMENTS_PER_HANDLE = 64;
+
+    private final int maxStatementsPerHandle;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JdbiStatementCache() {
+        this(DEFAULT_MAX_STATEMENTS_PER_HANDLE);
+    }
+
+    public JdbiStatementCache(int maxStatementsPerHandle) {
+        if (maxStatementsPerHandle <= 0) {
+            throw new IllegalArgumentException("maxStatementsPerHandle must be positive");
+        }
+        this.maxStatementsPerHandle = maxStatementsPerHandle;
+    }
+
+    /**
+     * 为句柄装上缓存，已装上时原样返回；缓存的语句在句柄关闭时关闭
+     */
+    public Handle attach(Handle handle) {
+        handle.setStatementBuilder(wrap(handle.getStatementBuilder()));
+        return handle;
+    }
+
+    /**
+     * 包装句柄当前的 StatementBuilder；已是本缓存的包装时原样返回
+     */
+    public StatementBuilder wrap(StatementBuilder delegate) {
+        if (delegate instanceof CachingStatementBuilder caching && caching.cache == this) {
+            return delegate;
+        }
+        return new CachingStatementBuilder(this, delegate);
+    }
+
+    public int getMaxStatementsPerHandle() {
+        return maxStatementsPerHandle;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 命中率，尚无请求时为 0
+     */
+    public double hitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 当前缓存的语句数（所有未关闭句柄合计）
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private static String keyOf(String sql, StatementContext ctx) {
+        if (!ctx.isReturningGeneratedKeys()) {
+            return "plain:" + sql;
+        }
+        String[] columns = ctx.getGeneratedKeysColumnNames();
+        return "keys" + (columns == null ? "" : Arrays.toString(columns)) + ":" + sql;
+    }
+
+    private static final class CachedStatement {
+        private final String key;
+        private final String sql;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse = true;
+
+        private CachedStatement(String key, String sql, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.sql = sql;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        private void reset() throws SQLException {
+            statement.clearParameters();
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+    }
+
+    /**
+     * 句柄级包装：预编译语句从本句柄的缓存取出，Jdbi 的关闭请求交还给缓存，句柄关闭时关闭全部缓存语句。
+     * 句柄本身不是线程安全的，这里同样不加锁
+     */
+    static final class CachingStatementBuilder implements StatementBuilder {
+
+        private final JdbiStatementCache cache;
+        private final StatementBuilder delegate;
+        private final LinkedHashMap<String, CachedStatement> byKey = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<PreparedStatement, CachedStatement> byStatement = new IdentityHashMap<>();
+
+        private CachingStatementBuilder(JdbiStatementCache cache, StatementBuilder delegate) {
+            this.cache = cache;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Statement create(Connection conn, StatementContext ctx) throws SQLException {
+            return delegate.create(conn, ctx);
+        }
+
+        @Override
+        public PreparedStatement create(Connection conn, String sql, StatementContext ctx) throws SQLException {
+            String key = keyOf(sql, ctx);
+            CachedStatement cached = byKey.get(key);
+            if (cached != null && !cached.inUse) {
+                if (!cached.statement.isClosed()) {
+                    cached.inUse = true;
+                    cache.hits.increment();
+                    return cached.statement;
+                }
+                remove(cached);
+                cached = null;
+            }
+            cache.misses.increment();
+            PreparedStatement statement = delegate.create(conn, sql, ctx);
+            if (cached == null) {
+                put(conn, new CachedStatement(key, sql, statement));
+            }
+            return statement;
+        }
+
+        @Override
+        public CallableStatement createCall(Connection conn, String sql, StatementContext ctx) throws SQLException {
+            return delegate.createCall(conn, sql, ctx);
+        }
+
+        @Override
+        public void close(Connection conn, String sql, Statement stmt) throws SQLException {
+            CachedStatement cached = stmt instanceof PreparedStatement prepared ? byStatement.get(prepared) : null;
+            if (cached == null) {
+                delegate.close(conn, sql, stmt);
+                return;
+            }
+            cached.inUse = false;
+            try {
+                if (!stmt.isClosed()) {
+                    cached.reset();
+                    return;
+                }
+            } catch (SQLException e) {
+                // 无法复位的语句不再复用
+            }
+            remove(cached);
+            delegate.close(conn, sql, stmt);
+        }
+
+        /**
+         * 句柄关闭时调用，关闭本句柄缓存的全部语句
+         */
+        @Override
+        public void close(Connection conn) {
+            for (CachedStatement cached : byKey.values()) {
+                closeQuietly(conn, cached);
+            }
+            cache.size.addAndGet(-byKey.size());
+            byKey.clear();
+            byStatement.clear();
+            delegate.close(conn);
+        }
+
+        private void put(Connection conn, CachedStatement cached) {
+            byKey.put(cached.key, cached);
+            byStatement.put(cached.statement, cached);
+            cache.size.incrementAndGet();
+            Iterator<Map.Entry<String, CachedStatement>> iterator = byKey.entrySet().iterator();
+            while (byKey.size() > cache.maxStatementsPerHandle && iterator.hasNext()) {
+                CachedStatement eldest = iterator.next().getValue();
+                if (!eldest.inUse) {
+                    iterator.remove();
+                    byStatement.remove(eldest.statement);
+                    cache.size.decrementAndGet();
+                    closeQuietly(conn, eldest);
+                    cache.evictions.increment();
+                }
+            }
+        }
+
+        private void remove(CachedStatement cached) {
+            if (byKey.remove(cached.key, cached)) {
+                cache.size.decrementAndGet();
+            }
+            byStatement.remove(cached.statement);
+        }
+
+        private void closeQuietly(Connection conn, CachedStatement cached) {
+            try {
+                delegate.close(conn, cached.sql, cached.statement);
+            } catch (SQLException ignored) {
+                // 缓存语句关闭失败不影响当前调用
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package net.ximatai.muyun.database.jdbi;
 
 import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
 import net.ximatai.muyun.database.core.orm.DefaultSimpleEntityManager;
 import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
 import org.jdbi.v3.core.Handle;
@@ -16,6 +18,9 @@ public class JdbiTransactionRunner<K> {
     private final JdbiMetaDataLoader metaDataLoader;
     private final Class<K> pkType;
     private final String pkName;
+    private volatile DatabaseMetrics metrics = DatabaseMetrics.noop();
+    private volatile QueryPlanSampler queryPlanSampler = QueryPlanSampler.disabled();
+    private volatile JdbiStatementCache statementCache;
 
     public JdbiTransactionRunner(Jdbi jdbi, JdbiMetaDataLoader metaDataLoader, Class<K> pkType, String pkName) {
         this.jdbi = Objects.requireNonNull(jdbi);
@@ -24,11 +29,45 @@ public class JdbiTransactionRunner<K> {
         this.pkName = Objects.requireNonNull(pkName);
     }
 
+    /**
+     * 事务内语句的指标接收方，传入 null 恢复为不记录
+     */
+    public JdbiTransactionRunner<K> setMetrics(DatabaseMetrics metrics) {
+        this.metrics = metrics == null ? DatabaseMetrics.noop() : metrics;
+        return this;
+    }
+
+    /**
+     * 事务内慢 Criteria 查询的执行计划采样；EXPLAIN 由采样器自身的数据库操作对象在事务外执行，传入 null 关闭
+     */
+    public JdbiTransactionRunner<K> setQueryPlanSampler(QueryPlanSampler queryPlanSampler) {
+        this.queryPlanSampler = queryPlanSampler == null ? QueryPlanSampler.disabled() : queryPlanSampler;
+        return this;
+    }
+
+    /**
+     * 事务内按句柄缓存预编译语句，同一事务中重复执行的 SQL 复用同一语句，事务结束时关闭；传入 null 关闭
+     */
+    public JdbiTransactionRunner<K> setStatementCache(JdbiStatementCache statementCache) {
+        this.statementCache = statementCache;
+        return this;
+    }
+
+    public JdbiStatementCache getStatementCache() {
+        return statementCache;
+    }
+
     public <R> R inTransaction(Function<TxContext<K>, R> callback) {
         Objects.requireNonNull(callback);
 
         return jdbi.inTransaction(handle -> {
-            HandleDatabaseOperations<K> ops = new HandleDatabaseOperations<>(handle, metaDataLoader, pkType, pkName);
+            JdbiStatementCache cache = statementCache;
+            if (cache != null) {
+                cache.attach(handle);
+            }
+            HandleDatabaseOperations<K> ops = new HandleDatabaseOperations<>(handle, metaDataLoader, pkType, pkName)
+                    .setMetrics(metrics)
+                    .setQueryPlanSampler(queryPlanSampler);
             SimpleEntityManager orm = new DefaultSimpleEntityManager(ops);
             TxContext<K> context = new TxContext<>(handle, ops, orm);
             return callback.apply(context);
@@ -0,0 +1,80 @@
+package net.ximatai.muyun.database.jdbi;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsTags;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的语句指标，Micrometer 为可选依赖，需由应用自行引入
+ * <ul>
+ *     <li>{@code muyun.database.operation}：语句耗时（Timer，发布直方图以便计算 P95/P99）</li>
+ *     <li>{@code muyun.database.rows}：每条语句写入、影响或返回的行数</li>
+ *     <li>{@code muyun.database.retries}：死锁、锁等待超时等瞬时错误引起的写重试次数</li>
+ * </ul>
+ * 标签为 operation、schema、table、repository，耗时另带 outcome 与 exception；未知的标签值记为 {@code none}
+ */
+public class MicrometerDatabaseMetrics implements DatabaseMetrics {
+
+    public static final String OPERATION_METRIC = "muyun.database.operation";
+    public static final String ROWS_METRIC = "muyun.database.rows";
+    public static final String RETRIES_METRIC = "muyun.database.retries";
+
+    private static final String NONE = "none";
+
+    private final Meter.MeterProvider<Timer> timers;
+    private final Meter.MeterProvider<DistributionSummary> rows;
+    private final Meter.MeterProvider<Counter> retries;
+
+    public MicrometerDatabaseMetrics(MeterRegistry registry) {
+        Objects.requireNonNull(registry, "registry must not be null");
+        this.timers = Timer.builder(OPERATION_METRIC)
+                .description("Execution time of MuYun database statements")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        this.rows = DistributionSummary.builder(ROWS_METRIC)
+                .description("Rows written, affected or returned by MuYun database statements")
+                .baseUnit("rows")
+                .withRegistry(registry);
+        this.retries = Counter.builder(RETRIES_METRIC)
+                .description("MuYun database write statements retried after a transient failure")
+                .withRegistry(registry);
+    }
+
+    @Override
+    public void recordOperation(DatabaseMetricsTags tags, long durationNanos, long rowCount, Throwable error) {
+        Tags base = baseTags(tags);
+        timers.withTags(base.and(
+                "outcome", error == null ? "success" : "error",
+                "exception", error == null ? NONE : error.getClass().getSimpleName()
+        )).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (error == null) {
+            rows.withTags(base).record(rowCount);
+        }
+    }
+
+    @Override
+    public void recordRetry(DatabaseMetricsTags tags, int attempt, Throwable cause) {
+        retries.withTags(baseTags(tags)).increment();
+    }
+
+    private static Tags baseTags(DatabaseMetricsTags tags) {
+        return Tags.of(
+                "operation", tags.operation().tagValue(),
+                "schema", valueOrNone(tags.schema()),
+                "table", valueOrNone(tags.table()),
+                "repository", valueOrNone(tags.repository())
+        );
+    }
+
+    private static String valueOrNone(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+}
@@ -0,0 +1,208 @@
+package net.ximatai.muyun.database.jdbi;
+
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertProgress;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
+import org.jdbi.v3.core.Handle;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL COPY ... FROM STDIN（文本格式）装载
+ * 行在读取时逐个编码进固定大小的缓冲区，缓冲区满即写入 COPY 管道，不缓存整个数据集。
+ * 每满 batchSize 行先把缓冲区写入管道再回调进度，回调中的行数是已发送给服务端的行数；
+ * COPY 在 endCopy 成功后才整体生效，若随后失败，已回调的行同样不会写入
+ */
+final class PostgresCopyIn {
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    /**
+     * Date/Timestamp 与 JDBC 插入路径一致：按 JVM 时区写出本地时间并附带偏移量。
+     * timestamptz 列据此得到同一时刻，不受会话 TimeZone 影响；timestamp 列忽略偏移量，保留本地时间
+     */
+    private static final DateTimeFormatter TIMESTAMP_WITH_OFFSET = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSSSSxxx");
+
+    private PostgresCopyIn() {
+    }
+
+    static <K> BulkInsertResult<K> copy(Handle handle,
+                                        String sql,
+                                        List<String> columns,
+                                        Iterator<Map<String, Object>> rows,
+                                        BulkInsertOptions options) {
+        CopyIn copyIn = null;
+        try {
+            copyIn = handle.getConnection().unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+            int batchSize = options.getBatchSize();
+            long totalRows = 0;
+            int chunkRows = 0;
+            int chunks = 0;
+
+            while (rows.hasNext()) {
+                appendRow(buffer, columns, rows.next());
+                totalRows++;
+                chunkRows++;
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    write(copyIn, buffer);
+                }
+                if (chunkRows == batchSize) {
+                    write(copyIn, buffer);
+                    options.getProgressListener().accept(
+                            new BulkInsertProgress(chunks++, chunkRows, chunkRows, totalRows, totalRows));
+                    chunkRows = 0;
+                }
+            }
+            write(copyIn, buffer);
+            long affected = copyIn.endCopy();
+            if (chunkRows > 0) {
+                options.getProgressListener().accept(
+                        new BulkInsertProgress(chunks++, chunkRows, chunkRows, totalRows, affected));
+            }
+            return new BulkInsertResult<>(totalRows, affected, chunks, List.of());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            cancelQuietly(copyIn);
+        }
+    }
+
+    static void appendRow(StringBuilder buffer, List<String> columns, Map<String, Object> row) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            appendValue(buffer, row.get(columns.get(i)));
+        }
+        buffer.append('\n');
+    }
+
+    static void appendValue(StringBuilder buffer, Object value) {
+        if (value == null) {
+            buffer.append("\\N");
+            return;
+        }
+        appendEscaped(buffer, toText(value));
+    }
+
+    /**
+     * 转为 PostgreSQL 类型输入函数可接受的文本；SET/JSON_SET 已由实体映射转为文本，ARRAY 转为数组字面量
+     */
+    static String toText(Object value) {
+        if (value instanceof String text) {
+            return text;
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? "t" : "f";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof byte[] bytes) {
+            return "\\x" + HexFormat.of().formatHex(bytes);
+        }
+        if (value instanceof java.sql.Array array) {
+            try {
+                return toArrayLiteral(array.getArray());
+            } catch (SQLException e) {
+                throw new IllegalArgumentException("Failed to read SQL ARRAY value", e);
+            }
+        }
+        if (value instanceof Collection<?> || value.getClass().isArray()) {
+            return toArrayLiteral(value);
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        if (value instanceof java.util.Date date && !(value instanceof java.sql.Date) && !(value instanceof Time)) {
+            return TIMESTAMP_WITH_OFFSET.format(date.toInstant().atZone(ZoneId.systemDefault()));
+        }
+        if (value instanceof ZonedDateTime dateTime) {
+            return TIMESTAMP_WITH_OFFSET.format(dateTime);
+        }
+        return value.toString();
+    }
+
+    private static String toArrayLiteral(Object value) {
+        StringBuilder literal = new StringBuilder("{");
+        if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                appendArrayElement(literal, element);
+            }
+        } else {
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                appendArrayElement(literal, Array.get(value, i));
+            }
+        }
+        if (literal.length() > 1) {
+            literal.setLength(literal.length() - 1);
+        }
+        return literal.append('}').toString();
+    }
+
+    private static void appendArrayElement(StringBuilder literal, Object element) {
+        if (element == null) {
+            literal.append("NULL,");
+            return;
+        }
+        literal.append('"');
+        String text = toText(element);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\');
+            }
+            literal.append(c);
+        }
+        literal.append("\",");
+    }
+
+    private static void appendEscaped(StringBuilder buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void cancelQuietly(CopyIn copyIn) {
+        if (copyIn == null || !copyIn.isActive()) {
+            return;
+        }
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException ignored) {
+            // 原始异常已向上抛出
+        }
+    }
+}
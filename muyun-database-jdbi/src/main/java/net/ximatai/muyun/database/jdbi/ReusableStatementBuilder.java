@@ -0,0 +1,79 @@
+package net.ximatai.muyun.database.jdbi;
+
+import org.jdbi.v3.core.statement.StatementBuilder;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分片批量插入期间复用预编译语句的 StatementBuilder
+ * 同一 SQL（及主键回取方式）只创建一次 PreparedStatement；Jdbi 在每个分片执行后发出的关闭请求只清空参数，
+ * 语句在整个批量插入结束时由 {@link #closeAll(Connection)} 统一关闭
+ */
+final class ReusableStatementBuilder implements StatementBuilder {
+
+    private final StatementBuilder delegate;
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+    ReusableStatementBuilder(StatementBuilder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Statement create(Connection conn, StatementContext ctx) throws SQLException {
+        return delegate.create(conn, ctx);
+    }
+
+    @Override
+    public PreparedStatement create(Connection conn, String sql, StatementContext ctx) throws SQLException {
+        String key = (ctx.isReturningGeneratedKeys() ? "keys:" : "plain:") + sql;
+        PreparedStatement statement = statements.get(key);
+        if (statement == null || statement.isClosed()) {
+            statement = delegate.create(conn, sql, ctx);
+            statements.put(key, statement);
+        }
+        return statement;
+    }
+
+    @Override
+    public CallableStatement createCall(Connection conn, String sql, StatementContext ctx) throws SQLException {
+        return delegate.createCall(conn, sql, ctx);
+    }
+
+    @Override
+    public void close(Connection conn, String sql, Statement stmt) throws SQLException {
+        if (stmt instanceof PreparedStatement prepared && statements.containsValue(prepared)) {
+            if (!prepared.isClosed()) {
+                prepared.clearParameters();
+            }
+            return;
+        }
+        delegate.close(conn, sql, stmt);
+    }
+
+    void closeAll(Connection conn) throws SQLException {
+        SQLException failure = null;
+        for (Map.Entry<String, PreparedStatement> entry : statements.entrySet()) {
+            try {
+                String key = entry.getKey();
+                delegate.close(conn, key.substring(key.indexOf(':') + 1), entry.getValue());
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        statements.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
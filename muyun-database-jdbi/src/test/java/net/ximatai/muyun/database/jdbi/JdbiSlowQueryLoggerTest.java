@@ -0,0 +1,97 @@
+package net.ximatai.muyun.database.jdbi;
+
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.SlowQuery;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbiSlowQueryLoggerTest {
+
+    private final List<SlowQuery> recorded = new ArrayList<>();
+    private final JdbiSlowQueryLogger logger = new JdbiSlowQueryLogger(
+            new SlowQueryLog(Duration.ZERO, 10, Duration.ofMinutes(1)).onSlowQuery(recorded::add));
+    private final JdbiDatabaseOperations<String> operations = new JdbiDatabaseOperations<>(null, null, String.class, "id");
+
+    @Test
+    void singleStatementShouldCarryRowsOfTheOperation() {
+        List<String> rows = operations.observe(DatabaseOperationType.QUERY, () -> {
+            logger.record("select * from orders where id = ?", 5, 1, false);
+            assertTrue(recorded.isEmpty());
+            return List.of("a", "b", "c");
+        }, List::size);
+
+        assertEquals(3, rows.size());
+        assertEquals(1, recorded.size());
+        assertEquals(3, recorded.getFirst().rows());
+        assertEquals(DatabaseOperationType.QUERY, recorded.getFirst().tags().operation());
+    }
+
+    @Test
+    void nestedOperationsShouldShareTheOuterScopeWithUnknownRows() {
+        operations.observe(DatabaseOperationType.UPSERT, () -> {
+            logger.record("select id from orders where id = ?", 5, 1, false);
+            return operations.observe(DatabaseOperationType.INSERT, () -> {
+                logger.record("insert into orders (id) values (?)", 5, 1, false);
+                return 1;
+            }, Integer::longValue);
+        }, Integer::longValue);
+
+        assertEquals(2, recorded.size());
+        assertTrue(recorded.stream().allMatch(query -> query.rows() == -1));
+        assertTrue(recorded.stream().allMatch(query -> query.tags().operation() == DatabaseOperationType.UPSERT));
+    }
+
+    @Test
+    void failedOperationShouldRecordFailureAndReleaseTheScope() {
+        assertThrows(IllegalStateException.class, () -> operations.observe(DatabaseOperationType.UPDATE, () -> {
+            logger.record("update orders set v_name = ?", 5, 1, true);
+            throw new IllegalStateException("boom");
+        }, Integer::longValue));
+
+        assertEquals(1, recorded.size());
+        assertTrue(recorded.getFirst().failed());
+        assertEquals(-1, recorded.getFirst().rows());
+
+        logger.record("delete from orders", 5, 0, false);
+        assertEquals(2, recorded.size());
+        assertEquals(DatabaseOperationType.DELETE, recorded.getLast().tags().operation());
+    }
+
+    @Test
+    void throwingRowCountShouldStillReleaseTheScope() {
+        assertThrows(ArithmeticException.class, () -> operations.observe(DatabaseOperationType.QUERY, () -> {
+            logger.record("select * from orders", 5, 0, false);
+            return List.of();
+        }, result -> {
+            throw new ArithmeticException("rows");
+        }));
+
+        assertEquals(1, recorded.size());
+        assertEquals(-1, recorded.getFirst().rows());
+
+        logger.record("select * from customers", 5, 0, false);
+        assertEquals(2, recorded.size());
+    }
+
+    @Test
+    void statementsOutsideOperationsShouldUseBoundLabels() {
+        DatabaseMetricsContext.callInRepository("OrderRepository.findRecent", () -> {
+            logger.record("select * from orders", 5, 0, false);
+            return null;
+        });
+
+        assertEquals(1, recorded.size());
+        assertEquals("OrderRepository.findRecent", recorded.getFirst().tags().repository());
+        assertEquals(-1, recorded.getFirst().rows());
+        assertTrue(operations.isStatementLabelingEnabled());
+    }
+}
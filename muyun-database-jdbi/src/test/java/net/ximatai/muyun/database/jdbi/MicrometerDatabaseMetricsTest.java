@@ -0,0 +1,82 @@
+package net.ximatai.muyun.database.jdbi;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsTags;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLTransientException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicrometerDatabaseMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerDatabaseMetrics metrics = new MicrometerDatabaseMetrics(registry);
+    private final DatabaseMetricsTags tags =
+            new DatabaseMetricsTags(DatabaseOperationType.QUERY, "public", "orders", "OrderRepository.findByStatus");
+
+    @Test
+    void successShouldRecordDurationAndRowsWithStatementTags() {
+        metrics.recordOperation(tags, 5_000_000L, 3, null);
+        metrics.recordOperation(tags, 1_000_000L, 2, null);
+
+        Timer timer = registry.get(MicrometerDatabaseMetrics.OPERATION_METRIC)
+                .tags("operation", "query", "schema", "public", "table", "orders",
+                        "repository", "OrderRepository.findByStatus", "outcome", "success", "exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(6_000_000L, (long) timer.totalTime(TimeUnit.NANOSECONDS));
+
+        DistributionSummary rows = registry.get(MicrometerDatabaseMetrics.ROWS_METRIC)
+                .tags("operation", "query", "schema", "public", "table", "orders", "repository", "OrderRepository.findByStatus")
+                .summary();
+        assertEquals(2, rows.count());
+        assertEquals(5.0, rows.totalAmount());
+        assertEquals("rows", rows.getId().getBaseUnit());
+    }
+
+    @Test
+    void errorShouldTagOutcomeAndExceptionAndSkipRows() {
+        metrics.recordOperation(tags, 2_000_000L, 0, new SQLTransientException("deadlock"));
+
+        Timer timer = registry.get(MicrometerDatabaseMetrics.OPERATION_METRIC)
+                .tags("operation", "query", "outcome", "error", "exception", "SQLTransientException")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(registry.find(MicrometerDatabaseMetrics.OPERATION_METRIC).tag("outcome", "success").timers().isEmpty());
+        assertTrue(registry.find(MicrometerDatabaseMetrics.ROWS_METRIC).summaries().isEmpty());
+    }
+
+    @Test
+    void missingLabelsShouldBeTaggedAsNone() {
+        metrics.recordOperation(DatabaseMetricsTags.of(DatabaseOperationType.EXECUTE), 1_000L, 0, null);
+
+        Timer timer = registry.get(MicrometerDatabaseMetrics.OPERATION_METRIC)
+                .tags("operation", "execute", "schema", "none", "table", "none", "repository", "none")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void retriesShouldCountPerStatementTags() {
+        DatabaseMetricsTags upsert = new DatabaseMetricsTags(DatabaseOperationType.UPSERT, "public", "orders", null);
+
+        metrics.recordRetry(upsert, 1, new SQLTransientException("deadlock"));
+        metrics.recordRetry(upsert, 2, new SQLTransientException("deadlock"));
+        metrics.recordRetry(tags, 1, new SQLTransientException("lock wait timeout"));
+
+        assertEquals(2.0, registry.get(MicrometerDatabaseMetrics.RETRIES_METRIC)
+                .tags("operation", "upsert", "schema", "public", "table", "orders", "repository", "none")
+                .counter()
+                .count());
+        assertEquals(1.0, registry.get(MicrometerDatabaseMetrics.RETRIES_METRIC)
+                .tags("operation", "query")
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,65 @@
+package net.ximatai.muyun.database.jdbi;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostgresCopyInTest {
+
+    @Test
+    void shouldEncodeRowInCopyTextFormat() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("v_name", "a\tb\\c\nd");
+        row.put("b_flag", true);
+        row.put("n_price", new BigDecimal("1E+2"));
+        row.put("v_memo", null);
+        StringBuilder buffer = new StringBuilder();
+
+        PostgresCopyIn.appendRow(buffer, List.of("v_name", "b_flag", "n_price", "v_memo", "missing"), row);
+
+        assertEquals("a\\tb\\\\c\\nd\tt\t100\t\\N\t\\N\n", buffer.toString());
+    }
+
+    @Test
+    void shouldEncodeArraysAsQuotedLiterals() {
+        assertEquals("{\"a,b\",\"say \\\"hi\\\"\",NULL}", PostgresCopyIn.toText(Arrays.asList("a,b", "say \"hi\"", null)));
+        assertEquals("{\"1\",\"2\"}", PostgresCopyIn.toText(new Integer[]{1, 2}));
+        assertEquals("{}", PostgresCopyIn.toText(List.of()));
+
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyIn.appendValue(buffer, new String[]{"x\\y"});
+        assertEquals("{\"x\\\\\\\\y\"}", buffer.toString());
+    }
+
+    @Test
+    void shouldKeepSetAndJsonSetTextAndEncodeBytea() {
+        assertEquals("A,B", PostgresCopyIn.toText("A,B"));
+        assertEquals("[\"a,b\",\"c\"]", PostgresCopyIn.toText("[\"a,b\",\"c\"]"));
+        assertEquals("\\x0aff", PostgresCopyIn.toText(new byte[]{0x0a, (byte) 0xff}));
+    }
+
+    @Test
+    void shouldWriteTimestampsWithExplicitOffset() {
+        DateTimeFormatter withOffset = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSSSSxxx");
+        Timestamp stamp = Timestamp.valueOf("2024-03-05 06:07:08.123456");
+        java.util.Date date = new java.util.Date(stamp.getTime());
+
+        assertEquals(stamp.toInstant(), OffsetDateTime.parse(PostgresCopyIn.toText(stamp), withOffset).toInstant());
+        assertEquals(date.toInstant(), OffsetDateTime.parse(PostgresCopyIn.toText(date), withOffset).toInstant());
+        assertEquals("2024-03-05 06:07:08.000000000+05:30",
+                PostgresCopyIn.toText(ZonedDateTime.of(2024, 3, 5, 6, 7, 8, 0, ZoneId.of("Asia/Kolkata"))));
+        assertEquals("2024-03-05T06:07:08", PostgresCopyIn.toText(LocalDateTime.of(2024, 3, 5, 6, 7, 8)));
+    }
+}
@@ -0,0 +1,259 @@
+package net.ximatai.muyun.database.processor;
+
+import net.ximatai.muyun.database.core.annotation.Column;
+import net.ximatai.muyun.database.core.annotation.CompositeIndex;
+import net.ximatai.muyun.database.core.annotation.Default;
+import net.ximatai.muyun.database.core.annotation.Table;
+import net.ximatai.muyun.database.core.annotation.TrueOrFalse;
+import net.ximatai.muyun.database.core.builder.ColumnType;
+import net.ximatai.muyun.database.core.builder.PredefinedColumn;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the Java source of one entity descriptor. The table definition is built with the same calls, in the same
+ * order, as {@code AnnotationProcessor.fromEntityClass}; only type inference is left to {@code TypeMapper} at runtime.
+ */
+final class DescriptorWriter {
+
+    private static final String CORE = "net.ximatai.muyun.database.core.";
+    private static final String COLUMN_TYPE = CORE + "builder.ColumnType";
+    private static final String TYPE_MAPPER = CORE + "annotation.TypeMapper";
+    private static final String UNKNOWN = COLUMN_TYPE + ".UNKNOWN";
+
+    private final EntityModel model;
+    private final StringBuilder out = new StringBuilder();
+
+    DescriptorWriter(EntityModel model) {
+        this.model = model;
+    }
+
+    String source() {
+        String entity = model.entityName();
+        if (!model.packageName().isEmpty()) {
+            line(0, "package " + model.packageName() + ";");
+            line(0, "");
+        }
+        line(0, "@javax.annotation.processing.Generated(\"" + EntityDescriptorProcessor.class.getName() + "\")");
+        line(0, "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line(0, "public final class " + model.descriptorSimpleName()
+                + " implements " + CORE + "orm.EntityDescriptor<" + entity + "> {");
+        line(0, "");
+        line(1, "private static final java.util.List<" + CORE + "orm.EntityFieldDescriptor> FIELDS = java.util.List.of(");
+        List<EntityModel.FieldModel> fields = model.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            fieldDescriptor(fields.get(i), i == fields.size() - 1);
+        }
+        line(1, ");");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public Class<" + entity + "> entityType() {");
+        line(2, "return " + entity + ".class;");
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + CORE + "builder.TableWrapper tableWrapper() {");
+        tableWrapper();
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public java.util.List<" + CORE + "orm.EntityFieldDescriptor> fields() {");
+        line(2, "return FIELDS;");
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + entity + " newInstance() {");
+        line(2, "return new " + entity + "();");
+        line(1, "}");
+        line(0, "}");
+        return out.toString();
+    }
+
+    private void fieldDescriptor(EntityModel.FieldModel field, boolean last) {
+        String columnType = columnTypeExpression(field);
+        String elementColumnType = elementColumnTypeExpression(field);
+        if (!elementColumnType.equals(UNKNOWN)) {
+            ColumnType declared = declaredColumnType(field);
+            if (declared == null) {
+                elementColumnType = columnType + " == " + COLUMN_TYPE + ".ARRAY ? " + elementColumnType + " : " + UNKNOWN;
+            } else if (declared != ColumnType.ARRAY) {
+                elementColumnType = UNKNOWN;
+            }
+        }
+        line(2, "new " + CORE + "orm.EntityFieldDescriptor(");
+        line(4, literal(field.name) + ",");
+        line(4, field.declaringType + ".class,");
+        line(4, field.fieldType + ".class,");
+        line(4, (field.elementType == null ? "null" : field.elementType + ".class") + ",");
+        line(4, literal(columnName(field)) + ",");
+        line(4, columnType + ",");
+        line(4, elementColumnType + ",");
+        line(4, (field.id != null) + ",");
+        line(4, (field.readExpression == null ? "null" : "entity -> " + field.readExpression) + ",");
+        line(4, field.writeExpression == null ? "null" : "(entity, value) -> " + field.writeExpression);
+        line(2, ")" + (last ? "" : ","));
+    }
+
+    private void tableWrapper() {
+        Table table = model.table();
+        line(2, CORE + "builder.TableWrapper table = " + CORE + "builder.TableWrapper.withName(" + literal(table.name()) + ");");
+        if (!table.comment().isEmpty()) {
+            line(2, "table.setComment(" + literal(table.comment()) + ");");
+        }
+        if (!table.schema().isEmpty()) {
+            line(2, "table.setSchema(" + literal(table.schema()) + ");");
+        }
+        int index = 0;
+        for (EntityModel.FieldModel field : model.fields()) {
+            if (field.id != null && field.id.value() != PredefinedColumn.Id.CUSTOM) {
+                line(2, "table.addColumn(" + CORE + "builder.PredefinedColumn.Id." + field.id.value().name() + ".toColumn());");
+                continue;
+            }
+            column(field, "column" + index++);
+        }
+        for (CompositeIndex compositeIndex : model.compositeIndexes()) {
+            String columns = java.util.Arrays.stream(compositeIndex.columns())
+                    .map(DescriptorWriter::literal)
+                    .collect(Collectors.joining(", "));
+            String variable = "index" + index++;
+            line(2, CORE + "builder.Index " + variable + " = new " + CORE + "builder.Index(java.util.Arrays.asList("
+                    + columns + "), " + compositeIndex.unique() + ");");
+            line(2, variable + ".setName(" + literal(compositeIndex.name()) + ");");
+            line(2, "table.addIndex(" + variable + ");");
+        }
+        line(2, "return table;");
+    }
+
+    private void column(EntityModel.FieldModel field, String variable) {
+        Column column = field.column;
+        line(2, CORE + "builder.Column " + variable + " = " + CORE + "builder.Column.of(" + literal(columnName(field)) + ");");
+        if (column != null) {
+            line(2, variable + ".setType(" + columnTypeExpression(field) + ");");
+            String elementColumnType = elementColumnTypeExpression(field);
+            ColumnType declared = declaredColumnType(field);
+            if (declared == null && !elementColumnType.equals(UNKNOWN)) {
+                line(2, "if (" + variable + ".getType() == " + COLUMN_TYPE + ".ARRAY) {");
+                line(3, variable + ".setElementType(" + elementColumnType + ");");
+                line(2, "}");
+            } else if (declared == ColumnType.ARRAY) {
+                line(2, variable + ".setElementType(" + elementColumnType + ");");
+            }
+            line(2, variable + ".setNullable(" + column.nullable() + ");");
+            if (column.length() > 0) {
+                line(2, variable + ".setLength(" + column.length() + ");");
+            }
+            if (column.precision() > 0) {
+                line(2, variable + ".setPrecision(" + column.precision() + ");");
+            }
+            if (column.scale() > 0) {
+                line(2, variable + ".setScale(" + column.scale() + ");");
+            }
+            if (!column.comment().isEmpty()) {
+                line(2, variable + ".setComment(" + literal(column.comment()) + ");");
+            }
+        }
+        if (field.indexed != null) {
+            line(2, variable + (field.indexed.unique() ? ".setUnique();" : ".setIndexed();"));
+        }
+        if (field.sequence) {
+            line(2, variable + ".setSequence();");
+        }
+        String defaultValue = column == null ? null : defaultValue(column.defaultVal());
+        if (defaultValue != null) {
+            line(2, variable + ".setDefaultValueAny(" + literal(defaultValue) + ");");
+        }
+        line(2, field.id != null ? "table.setPrimaryKey(" + variable + ");" : "table.addColumn(" + variable + ");");
+    }
+
+    private static String columnName(EntityModel.FieldModel field) {
+        if (field.id != null && !field.id.name().isEmpty()) {
+            return field.id.name();
+        }
+        if (field.column != null && !field.column.name().isEmpty()) {
+            return field.column.name();
+        }
+        return field.name;
+    }
+
+    private static String defaultValue(Default defaultVal) {
+        if (defaultVal == null || defaultVal.unset()) {
+            return null;
+        }
+        if (!defaultVal.function().isEmpty()) {
+            return defaultVal.function();
+        } else if (!defaultVal.express().isEmpty()) {
+            return defaultVal.express();
+        } else if (!defaultVal.varchar().isEmpty()) {
+            return "'" + defaultVal.varchar() + "'";
+        } else if (defaultVal.number() > Long.MIN_VALUE) {
+            return String.valueOf(defaultVal.number());
+        } else if (defaultVal.decimal() > Double.MIN_VALUE) {
+            return String.valueOf(defaultVal.decimal());
+        } else if (defaultVal.bool().equals(TrueOrFalse.TRUE)) {
+            return "TRUE";
+        } else if (defaultVal.bool().equals(TrueOrFalse.FALSE)) {
+            return "FALSE";
+        } else if (defaultVal.nullVal()) {
+            return "NULL";
+        }
+        return null;
+    }
+
+    /**
+     * Column type declared on {@code @Column}, or {@code null} when it is inferred from the field type at runtime.
+     */
+    private static ColumnType declaredColumnType(EntityModel.FieldModel field) {
+        if (field.column != null && field.column.type() != ColumnType.UNKNOWN) {
+            return field.column.type();
+        }
+        return null;
+    }
+
+    private static String columnTypeExpression(EntityModel.FieldModel field) {
+        ColumnType declared = declaredColumnType(field);
+        if (declared != null) {
+            return COLUMN_TYPE + "." + declared.name();
+        }
+        return TYPE_MAPPER + ".inferSqlType(" + field.fieldType + ".class)";
+    }
+
+    private static String elementColumnTypeExpression(EntityModel.FieldModel field) {
+        if (field.column != null && field.column.elementType() != ColumnType.UNKNOWN) {
+            return COLUMN_TYPE + "." + field.column.elementType().name();
+        }
+        if (field.elementType == null) {
+            return UNKNOWN;
+        }
+        return TYPE_MAPPER + ".inferSqlType(" + field.elementType + ".class)";
+    }
+
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) {
+            out.append("    ".repeat(indent)).append(text);
+        }
+        out.append('\n');
+    }
+}
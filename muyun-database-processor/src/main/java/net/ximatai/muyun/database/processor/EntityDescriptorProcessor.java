@@ -0,0 +1,106 @@
+package net.ximatai.muyun.database.processor;
+
+import net.ximatai.muyun.database.core.annotation.Table;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates an {@code EntityDescriptor} for every {@link Table @Table} class and registers them all in
+ * {@code META-INF/services}, so the runtime builds entity metadata and reads/writes fields without reflection.
+ * Classes the generated code cannot instantiate (abstract, private nesting, no reachable no-args constructor) are
+ * skipped with a note and keep using reflection.
+ */
+@SupportedAnnotationTypes(EntityDescriptorProcessor.TABLE_ANNOTATION)
+public class EntityDescriptorProcessor extends AbstractProcessor {
+
+    static final String TABLE_ANNOTATION = "net.ximatai.muyun.database.core.annotation.Table";
+    static final String SERVICE_FILE = "META-INF/services/net.ximatai.muyun.database.core.orm.EntityDescriptor";
+
+    private final Set<String> generated = new LinkedHashSet<>();
+    private final List<Element> originating = new ArrayList<>();
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement entity = (TypeElement) element;
+            EntityModel model = new EntityModel(processingEnv, entity);
+            String skipReason = model.skipReason();
+            if (skipReason != null) {
+                messager.printMessage(Diagnostic.Kind.NOTE,
+                        "No entity descriptor generated for " + entity.getQualifiedName() + ": " + skipReason, entity);
+                continue;
+            }
+            write(model, entity);
+        }
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    private void write(EntityModel model, TypeElement entity) {
+        String descriptorName = model.descriptorQualifiedName();
+        try {
+            JavaFileObject file = filer.createSourceFile(descriptorName, entity);
+            try (Writer writer = file.openWriter()) {
+                writer.write(new DescriptorWriter(model).source());
+            }
+            generated.add(descriptorName);
+            originating.add(entity);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write entity descriptor " + descriptorName + ": " + e.getMessage(), entity);
+        }
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE,
+                    originating.toArray(Element[]::new));
+            try (Writer writer = file.openWriter()) {
+                for (String name : generated) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+}
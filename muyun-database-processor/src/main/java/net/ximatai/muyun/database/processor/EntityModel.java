@@ -0,0 +1,322 @@
+package net.ximatai.muyun.database.processor;
+
+import net.ximatai.muyun.database.core.annotation.Column;
+import net.ximatai.muyun.database.core.annotation.CompositeIndex;
+import net.ximatai.muyun.database.core.annotation.CompositeIndexes;
+import net.ximatai.muyun.database.core.annotation.Id;
+import net.ximatai.muyun.database.core.annotation.Indexed;
+import net.ximatai.muyun.database.core.annotation.Sequence;
+import net.ximatai.muyun.database.core.annotation.Table;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compile-time view of a {@code @Table} class: its mapped fields in the order the runtime annotation scan reports
+ * them (declared fields first, then superclass fields not hidden by name) and how generated code can reach each one.
+ */
+final class EntityModel {
+
+    static final String DESCRIPTOR_SUFFIX = "_MuYunEntity";
+
+    private final Types types;
+    private final Elements elements;
+    private final TypeElement entity;
+    private final String packageName;
+    private final List<FieldModel> fields = new ArrayList<>();
+    private final List<CompositeIndex> compositeIndexes = new ArrayList<>();
+
+    EntityModel(ProcessingEnvironment env, TypeElement entity) {
+        this.types = env.getTypeUtils();
+        this.elements = env.getElementUtils();
+        this.entity = entity;
+        this.packageName = elements.getPackageOf(entity).getQualifiedName().toString();
+        for (VariableElement field : allFields(entity).values()) {
+            if (field.getAnnotation(Column.class) != null || field.getAnnotation(Id.class) != null) {
+                fields.add(new FieldModel(field));
+            }
+        }
+        for (TypeElement type = entity; type != null; type = superclass(type)) {
+            CompositeIndex single = type.getAnnotation(CompositeIndex.class);
+            if (single != null) {
+                compositeIndexes.add(single);
+            }
+            CompositeIndexes container = type.getAnnotation(CompositeIndexes.class);
+            if (container != null) {
+                compositeIndexes.addAll(Arrays.asList(container.value()));
+            }
+        }
+    }
+
+    /**
+     * Why no descriptor can be generated, or {@code null} when one can.
+     */
+    String skipReason() {
+        if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "abstract class";
+        }
+        for (Element type = entity; type instanceof TypeElement nested; type = type.getEnclosingElement()) {
+            if (nested.getModifiers().contains(Modifier.PRIVATE)) {
+                return "private class";
+            }
+            if (nested.getNestingKind() == NestingKind.LOCAL || nested.getNestingKind() == NestingKind.ANONYMOUS) {
+                return "local class";
+            }
+            if (nested.getNestingKind() == NestingKind.MEMBER && !nested.getModifiers().contains(Modifier.STATIC)) {
+                return "inner (non-static) class";
+            }
+        }
+        boolean constructor = ElementFilter.constructorsIn(entity.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor) {
+            return "no accessible no-args constructor";
+        }
+        if (fields.stream().anyMatch(field -> field.element.getModifiers().contains(Modifier.STATIC))) {
+            return "static mapped field";
+        }
+        if (fields.stream().noneMatch(field -> field.id != null)) {
+            return "no @Id field";
+        }
+        for (FieldModel field : fields) {
+            if (!field.referencedTypes.stream().allMatch(this::accessibleType)) {
+                return "field " + field.name + " refers to a type not accessible from package " + packageName;
+            }
+        }
+        return null;
+    }
+
+    Table table() {
+        return entity.getAnnotation(Table.class);
+    }
+
+    List<FieldModel> fields() {
+        return fields;
+    }
+
+    List<CompositeIndex> compositeIndexes() {
+        return compositeIndexes;
+    }
+
+    String packageName() {
+        return packageName;
+    }
+
+    /**
+     * Canonical name of the entity, usable in generated source.
+     */
+    String entityName() {
+        return entity.getQualifiedName().toString();
+    }
+
+    String descriptorSimpleName() {
+        String binary = elements.getBinaryName(entity).toString();
+        String simple = packageName.isEmpty() ? binary : binary.substring(packageName.length() + 1);
+        return simple.replace('$', '_') + DESCRIPTOR_SUFFIX;
+    }
+
+    String descriptorQualifiedName() {
+        return packageName.isEmpty() ? descriptorSimpleName() : packageName + "." + descriptorSimpleName();
+    }
+
+    private Map<String, VariableElement> allFields(TypeElement type) {
+        Map<String, VariableElement> result = new LinkedHashMap<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            result.put(field.getSimpleName().toString(), field);
+        }
+        TypeElement superclass = superclass(type);
+        if (superclass != null) {
+            allFields(superclass).forEach(result::putIfAbsent);
+        }
+        return result;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) types.asElement(superclass);
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    /**
+     * Source literal of a type's erasure, e.g. {@code java.util.List} or {@code int[]}.
+     */
+    private String literal(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        return switch (erased.getKind()) {
+            case ARRAY -> literal(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) types.asElement(erased)).getQualifiedName().toString();
+            default -> erased.toString();
+        };
+    }
+
+    /**
+     * Whether generated code in the entity's package can name the type's erasure.
+     */
+    private boolean accessibleType(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return accessibleType(((ArrayType) erased).getComponentType());
+        }
+        if (erased.getKind() != TypeKind.DECLARED) {
+            return true;
+        }
+        for (Element element = types.asElement(erased); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!accessible(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean accessible(Element member) {
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (member.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        PackageElement declaringPackage = elements.getPackageOf(member);
+        return declaringPackage.getQualifiedName().contentEquals(packageName);
+    }
+
+    final class FieldModel {
+        final VariableElement element;
+        final String name;
+        final Column column;
+        final Id id;
+        final Indexed indexed;
+        final boolean sequence;
+        /**
+         * Erasure of the declared type, which is what reflection reports as the field type.
+         */
+        final String fieldType;
+        /**
+         * Element type as {@code TypeMapper.inferElementJavaType} infers it, or {@code null}.
+         */
+        final String elementType;
+        final String declaringType;
+        final String readExpression;
+        final String writeExpression;
+        final List<TypeMirror> referencedTypes = new ArrayList<>();
+
+        private FieldModel(VariableElement element) {
+            this.element = element;
+            this.name = element.getSimpleName().toString();
+            this.column = element.getAnnotation(Column.class);
+            this.id = element.getAnnotation(Id.class);
+            this.indexed = element.getAnnotation(Indexed.class);
+            this.sequence = element.getAnnotation(Sequence.class) != null;
+            this.fieldType = literal(element.asType());
+            this.elementType = elementType(element.asType());
+            this.declaringType = literal(element.getEnclosingElement().asType());
+            referencedTypes.add(element.asType());
+            referencedTypes.add(element.getEnclosingElement().asType());
+
+            TypeMirror memberType = types.asMemberOf((DeclaredType) entity.asType(), element);
+            String castType = memberType.getKind().isPrimitive()
+                    ? types.boxedClass((javax.lang.model.type.PrimitiveType) memberType).getQualifiedName().toString()
+                    : literal(memberType);
+            referencedTypes.add(memberType);
+            String target = "((" + entityName() + ") entity)";
+            boolean direct = accessible(element);
+            ExecutableElement getter = direct ? null : accessor(memberType, true);
+            ExecutableElement setter = direct && !element.getModifiers().contains(Modifier.FINAL)
+                    ? null
+                    : accessor(memberType, false);
+
+            if (direct) {
+                this.readExpression = target + "." + name;
+            } else {
+                this.readExpression = getter == null ? null : target + "." + getter.getSimpleName() + "()";
+            }
+            if (direct && !element.getModifiers().contains(Modifier.FINAL)) {
+                this.writeExpression = target + "." + name + " = (" + castType + ") value";
+            } else {
+                this.writeExpression = setter == null
+                        ? null
+                        : target + "." + setter.getSimpleName() + "((" + castType + ") value)";
+            }
+        }
+
+        private String elementType(TypeMirror type) {
+            TypeMirror erased = types.erasure(type);
+            if (erased.getKind() == TypeKind.ARRAY) {
+                return literal(((ArrayType) erased).getComponentType());
+            }
+            TypeElement collection = elements.getTypeElement("java.util.Collection");
+            if (erased.getKind() != TypeKind.DECLARED || !types.isAssignable(erased, types.erasure(collection.asType()))) {
+                return null;
+            }
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (arguments.size() != 1 || !reified(arguments.getFirst())) {
+                return null;
+            }
+            referencedTypes.add(arguments.getFirst());
+            return literal(arguments.getFirst());
+        }
+
+        /**
+         * Whether reflection reports the type argument as a plain {@code Class}, as {@code TypeMapper} requires.
+         */
+        private boolean reified(TypeMirror type) {
+            return switch (type.getKind()) {
+                case ARRAY -> {
+                    TypeMirror component = ((ArrayType) type).getComponentType();
+                    yield component.getKind().isPrimitive() || reified(component);
+                }
+                case DECLARED -> ((DeclaredType) type).getTypeArguments().isEmpty();
+                default -> false;
+            };
+        }
+
+        /**
+         * Reachable JavaBean getter or setter for this field whose type matches the field's type in the entity.
+         */
+        private ExecutableElement accessor(TypeMirror memberType, boolean getter) {
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            List<String> names = getter
+                    ? memberType.getKind() == TypeKind.BOOLEAN ? List.of("is" + suffix, "get" + suffix) : List.of("get" + suffix)
+                    : List.of("set" + suffix);
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(entity))) {
+                if (!names.contains(method.getSimpleName().toString())
+                        || method.getKind() != ElementKind.METHOD
+                        || method.getModifiers().contains(Modifier.STATIC)
+                        || !accessible(method)) {
+                    continue;
+                }
+                ExecutableType signature = (ExecutableType) types.asMemberOf((DeclaredType) entity.asType(), method);
+                if (getter && signature.getParameterTypes().isEmpty()
+                        && types.isSameType(types.erasure(signature.getReturnType()), types.erasure(memberType))) {
+                    return method;
+                }
+                if (!getter && signature.getParameterTypes().size() == 1
+                        && types.isSameType(types.erasure(signature.getParameterTypes().getFirst()), types.erasure(memberType))) {
+                    return method;
+                }
+            }
+            return null;
+        }
+    }
+}
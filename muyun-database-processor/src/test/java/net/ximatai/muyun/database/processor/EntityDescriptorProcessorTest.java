@@ -0,0 +1,249 @@
+package net.ximatai.muyun.database.processor;
+
+import net.ximatai.muyun.database.core.annotation.AnnotationProcessor;
+import net.ximatai.muyun.database.core.builder.Column;
+import net.ximatai.muyun.database.core.builder.Index;
+import net.ximatai.muyun.database.core.builder.TableWrapper;
+import net.ximatai.muyun.database.core.orm.EntityDescriptor;
+import net.ximatai.muyun.database.core.orm.EntityDescriptors;
+import net.ximatai.muyun.database.core.orm.EntityFieldDescriptor;
+import net.ximatai.muyun.database.core.orm.EntityFieldMeta;
+import net.ximatai.muyun.database.core.orm.EntityMeta;
+import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityDescriptorProcessorTest {
+
+    private static final Map<String, String> SOURCES = Map.of(
+            "demo/BaseEntity.java", """
+                    package demo;
+
+                    import net.ximatai.muyun.database.core.annotation.*;
+
+                    public abstract class BaseEntity<K> {
+                        @Id(name = "id")
+                        @Column(length = 32, comment = "主键")
+                        protected K id;
+
+                        @Column(name = "v_code", defaultVal = @Default(varchar = "it's"))
+                        private String code;
+
+                        public K getId() {
+                            return id;
+                        }
+
+                        public void setId(K id) {
+                            this.id = id;
+                        }
+
+                        public String getCode() {
+                            return code;
+                        }
+
+                        public void setCode(String code) {
+                            this.code = code;
+                        }
+                    }
+                    """,
+            "demo/Order.java", """
+                    package demo;
+
+                    import net.ximatai.muyun.database.core.annotation.*;
+                    import net.ximatai.muyun.database.core.builder.ColumnType;
+
+                    import java.util.List;
+
+                    @Table(name = "demo_order", schema = "biz", comment = "订单\\t\\"表\\"")
+                    @CompositeIndex(columns = {"v_code", "n_amount"}, unique = true, name = "uk_order_code_amount")
+                    public class Order extends BaseEntity<String> {
+                        @Column(name = "n_amount", precision = 10, scale = 2, defaultVal = @Default(decimal = 1.5))
+                        public java.math.BigDecimal amount;
+
+                        @Column(nullable = false, defaultVal = @Default(number = 3))
+                        @Indexed
+                        int quantity;
+
+                        @Column(type = ColumnType.ARRAY)
+                        private List<String> tags;
+
+                        @Column(type = ColumnType.ARRAY, elementType = ColumnType.INT)
+                        private int[] scores;
+
+                        @Column
+                        private String[] aliases;
+
+                        @Column(defaultVal = @Default(bool = TrueOrFalse.TRUE))
+                        @Sequence
+                        private boolean active;
+
+                        private final String ignored = "x";
+
+                        public boolean isActive() {
+                            return active;
+                        }
+                    }
+                    """,
+            "demo/Skipped.java", """
+                    package demo;
+
+                    import net.ximatai.muyun.database.core.annotation.*;
+
+                    @Table(name = "skipped")
+                    public class Skipped {
+                        @Id
+                        @Column
+                        private String id;
+
+                        public Skipped(String id) {
+                            this.id = id;
+                        }
+                    }
+                    """
+    );
+
+    @Test
+    void shouldGenerateDescriptorMatchingReflectiveMetadata() throws Exception {
+        try (URLClassLoader loader = compile()) {
+            Class<?> order = loader.loadClass("demo.Order");
+
+            Optional<? extends EntityDescriptor<?>> descriptor = EntityDescriptors.find(order);
+            assertTrue(descriptor.isPresent());
+            assertEquals(order, descriptor.get().entityType());
+            assertEquals(order, descriptor.get().newInstance().getClass());
+
+            assertEquals(describe(AnnotationProcessor.fromEntityClass(order)), describe(descriptor.get().tableWrapper()));
+
+            EntityMeta generated = new EntityMetaResolver().resolve(order);
+            EntityMeta reflective = new EntityMetaResolver(AnnotationProcessor::fromEntityClass).resolve(order);
+            assertEquals(describe(reflective), describe(generated));
+            assertEquals(describe(reflective.getTableWrapper()), describe(generated.getTableWrapper()));
+        }
+    }
+
+    @Test
+    void shouldAccessFieldsDirectlyOrThroughAccessorsAndFallBackToReflection() throws Exception {
+        try (URLClassLoader loader = compile()) {
+            Class<?> order = loader.loadClass("demo.Order");
+            EntityDescriptor<?> descriptor = EntityDescriptors.find(order).orElseThrow();
+
+            assertNotNull(field(descriptor, "amount").getter());
+            assertNotNull(field(descriptor, "quantity").setter());
+            assertNotNull(field(descriptor, "id").getter());
+            assertNotNull(field(descriptor, "code").setter());
+            assertNotNull(field(descriptor, "active").getter());
+            assertNull(field(descriptor, "active").setter());
+            assertNull(field(descriptor, "tags").getter());
+            assertEquals(String.class, field(descriptor, "tags").elementType());
+            assertEquals(int.class, field(descriptor, "scores").elementType());
+
+            EntityMeta meta = new EntityMetaResolver().resolve(order);
+            Object entity = descriptor.newInstance();
+            Map<String, Object> values = Map.of(
+                    "id", "o-1",
+                    "code", "C-1",
+                    "amount", new java.math.BigDecimal("12.50"),
+                    "quantity", 7,
+                    "tags", List.of("a", "b"),
+                    "active", true
+            );
+            values.forEach((name, value) -> meta.findByFieldName(name).write(entity, value));
+            values.forEach((name, value) -> assertEquals(value, meta.findByFieldName(name).read(entity)));
+        }
+    }
+
+    @Test
+    void shouldSkipEntitiesWithoutNoArgsConstructor() throws Exception {
+        try (URLClassLoader loader = compile()) {
+            assertFalse(EntityDescriptors.find(loader.loadClass("demo.Skipped")).isPresent());
+            assertFalse(EntityDescriptors.find(loader.loadClass("demo.BaseEntity")).isPresent());
+        }
+    }
+
+    @Test
+    void shouldEscapeStringLiterals() {
+        assertEquals("\"a\\\"b\\\\c\\n\\u8ba2\"", DescriptorWriter.literal("a\"b\\c\n订"));
+    }
+
+    private static URLClassLoader compile() throws IOException {
+        Path root = Files.createTempDirectory("muyun-processor");
+        Path sources = Files.createDirectories(root.resolve("src"));
+        Path classes = Files.createDirectories(root.resolve("classes"));
+        List<String> arguments = new ArrayList<>(List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", EntityDescriptorProcessor.class.getName(),
+                "-d", classes.toString(),
+                "-s", classes.toString(),
+                "-encoding", "UTF-8"
+        ));
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            Path file = sources.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue(), StandardCharsets.UTF_8);
+            arguments.add(file.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, errors, arguments.toArray(String[]::new));
+        assertEquals(0, status, errors.toString(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{classes.toUri().toURL()}, EntityDescriptorProcessorTest.class.getClassLoader());
+    }
+
+    private static EntityFieldDescriptor field(EntityDescriptor<?> descriptor, String name) {
+        return descriptor.fields().stream()
+                .filter(field -> field.fieldName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<String> describe(TableWrapper table) {
+        List<String> lines = new ArrayList<>();
+        lines.add(table.getName() + "|" + table.getSchema() + "|" + table.getComment());
+        Column primaryKey = table.getPrimaryKey();
+        lines.add("pk " + (primaryKey == null ? null : describe(primaryKey)));
+        for (Column column : table.getColumns()) {
+            lines.add(describe(column));
+        }
+        for (Index index : table.getIndexes()) {
+            lines.add("index " + index.getName() + "|" + index.getColumns() + "|" + index.isUnique());
+        }
+        return lines;
+    }
+
+    private static String describe(Column column) {
+        return column.getName() + "|" + column.getType() + "|" + column.getElementType() + "|" + column.isNullable()
+                + "|" + column.isUnique() + "|" + column.isIndexed() + "|" + column.isSequence() + "|"
+                + column.isPrimaryKey() + "|" + column.getLength() + "|" + column.getPrecision() + "|"
+                + column.getScale() + "|" + column.getComment() + "|" + column.getDefaultValue();
+    }
+
+    private static List<String> describe(EntityMeta meta) {
+        List<String> lines = new ArrayList<>();
+        lines.add(meta.getTableName() + "|" + meta.getSchema() + "|" + meta.getIdColumnName());
+        for (EntityFieldMeta field : meta.getFields()) {
+            lines.add(field.getFieldName() + "|" + field.getColumnName() + "|" + field.getColumnType() + "|"
+                    + field.getElementColumnType() + "|" + field.isId() + "|" + field.getFieldType() + "|"
+                    + field.getCollectionElementType());
+        }
+        return lines;
+    }
+}
@@ -17,8 +17,10 @@ dependencies {
     implementation(libs.quarkus.arc.deployment)
     implementation(libs.quarkus.core.deployment)
     implementation(libs.quarkus.narayana.jta.deployment)
+    implementation(libs.quarkus.vertx.http.dev.ui.spi)
     annotationProcessor(libs.quarkus.extension.processor)
 
+    testAnnotationProcessor(project(":muyun-database-processor"))
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
     testRuntimeOnly(libs.junit.platform.launcher)
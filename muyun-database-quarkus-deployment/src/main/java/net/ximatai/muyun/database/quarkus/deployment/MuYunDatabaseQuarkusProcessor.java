@@ -1,22 +1,33 @@
 package net.ximatai.muyun.database.quarkus.deployment;
 
+import io.quarkus.deployment.Capabilities;
+import io.quarkus.deployment.Capability;
+import io.quarkus.deployment.IsDevelopment;
+import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.annotations.ExecutionTime;
 import io.quarkus.deployment.annotations.Record;
 import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.deployment.builditem.GeneratedResourceBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ServiceProviderBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.NativeImageProxyDefinitionBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.NativeImageResourceBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
 import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.devui.spi.JsonRPCProvidersBuildItem;
+import io.quarkus.devui.spi.page.CardPageBuildItem;
+import io.quarkus.devui.spi.page.Page;
 import net.ximatai.muyun.database.core.orm.EntityDao;
+import net.ximatai.muyun.database.core.orm.EntityDescriptor;
 import net.ximatai.muyun.database.quarkus.MuYunDatabaseRecorder;
 import net.ximatai.muyun.database.quarkus.MuYunDatabaseQuarkus;
 import net.ximatai.muyun.database.quarkus.MuYunDatabaseProducer;
+import net.ximatai.muyun.database.quarkus.MuYunMicrometerMetricsProducer;
 import net.ximatai.muyun.database.quarkus.MuYunRepository;
 import net.ximatai.muyun.database.quarkus.MuYunRepositorySchemaInitializer;
+import net.ximatai.muyun.database.quarkus.devui.MuYunSlowQueriesJsonRpcService;
 import org.jboss.jandex.AnnotationInstance;
 import org.jboss.jandex.AnnotationValue;
 import org.jboss.jandex.ClassInfo;
@@ -37,6 +48,7 @@ public class MuYunDatabaseQuarkusProcessor {
 
     private static final DotName MUYUN_REPOSITORY = DotName.createSimple(MuYunRepository.class);
     private static final DotName ENTITY_DAO = DotName.createSimple(EntityDao.class);
+    private static final String DESCRIPTOR_SUFFIX = "_MuYunEntity";
 
     @BuildStep
     FeatureBuildItem feature() {
@@ -52,6 +64,31 @@ public class MuYunDatabaseQuarkusProcessor {
                 .build();
     }
 
+    @BuildStep
+    void micrometerMetrics(Capabilities capabilities, BuildProducer<AdditionalBeanBuildItem> beans) {
+        if (capabilities.isPresent(Capability.MICROMETER)) {
+            beans.produce(AdditionalBeanBuildItem.unremovableOf(MuYunMicrometerMetricsProducer.class));
+        }
+    }
+
+    /**
+     * 开发模式下在 Dev UI 中提供慢 SQL 页面，数据来自 Jdbi 上安装的慢 SQL 记录
+     */
+    @BuildStep(onlyIf = IsDevelopment.class)
+    CardPageBuildItem slowQueriesDevUi() {
+        CardPageBuildItem card = new CardPageBuildItem();
+        card.addPage(Page.webComponentPageBuilder()
+                .title("Slow SQL")
+                .icon("font-awesome-solid:gauge-high")
+                .componentLink("qwc-muyun-slow-queries.js"));
+        return card;
+    }
+
+    @BuildStep(onlyIf = IsDevelopment.class)
+    JsonRPCProvidersBuildItem slowQueriesJsonRpc() {
+        return new JsonRPCProvidersBuildItem(MuYunSlowQueriesJsonRpcService.class);
+    }
+
     @BuildStep
     @Record(ExecutionTime.RUNTIME_INIT)
     List<SyntheticBeanBuildItem> repositories(CombinedIndexBuildItem index, MuYunDatabaseRecorder recorder) {
@@ -73,18 +110,17 @@ public class MuYunDatabaseQuarkusProcessor {
         List<ReflectiveClassBuildItem> reflectiveEntities = new ArrayList<>();
         for (DotName repository : repositoryInterfaces(index.getIndex())) {
             repositoryEntityType(index.getIndex(), repository)
-                    .map(DotName::toString)
-                    .map(entity -> ReflectiveClassBuildItem.builder(entity)
-                            .constructors()
-                            .methods()
-                            .fields()
-                            .reason("@MuYunRepository EntityDao entity")
-                            .build())
+                    .map(entity -> entityReflection(index.getIndex(), entity))
                     .ifPresent(reflectiveEntities::add);
         }
         return reflectiveEntities;
     }
 
+    @BuildStep
+    ServiceProviderBuildItem entityDescriptors() {
+        return ServiceProviderBuildItem.allProvidersFromClassPath(EntityDescriptor.class.getName());
+    }
+
     @BuildStep
     List<NativeImageProxyDefinitionBuildItem> repositoryProxiesForNative(CombinedIndexBuildItem index) {
         List<NativeImageProxyDefinitionBuildItem> proxies = new ArrayList<>();
@@ -166,6 +202,22 @@ public class MuYunDatabaseQuarkusProcessor {
                 .build();
     }
 
+    @BuildStep
+    ReflectiveClassBuildItem metadataSnapshotReflection() {
+        return ReflectiveClassBuildItem.builder(
+                        "net.ximatai.muyun.database.jdbi.JdbiMetadataSnapshot$Snapshot",
+                        "net.ximatai.muyun.database.jdbi.JdbiMetadataSnapshot$SchemaEntry",
+                        "net.ximatai.muyun.database.jdbi.JdbiMetadataSnapshot$TableEntry",
+                        "net.ximatai.muyun.database.jdbi.JdbiMetadataSnapshot$ColumnEntry",
+                        "net.ximatai.muyun.database.jdbi.JdbiMetadataSnapshot$IndexEntry"
+                )
+                .constructors()
+                .methods()
+                .fields()
+                .reason("Metadata snapshot records are (de)serialized by Jackson")
+                .build();
+    }
+
     @BuildStep
     GeneratedResourceBuildItem repositorySchemaResource(CombinedIndexBuildItem index) {
         String content = repositoryEntityBindings(index.getIndex()).stream()
@@ -219,6 +271,32 @@ public class MuYunDatabaseQuarkusProcessor {
         return resolveEntityDaoType(index, repository, Map.of());
     }
 
+    /**
+     * 有编译期生成的 EntityDescriptor 时由其负责实例化与字段读写，只保留字段反射供无法直接访问的字段回退使用
+     */
+    private ReflectiveClassBuildItem entityReflection(IndexView index, DotName entity) {
+        if (hasEntityDescriptor(index, entity)) {
+            return ReflectiveClassBuildItem.builder(entity.toString())
+                    .fields()
+                    .reason("@MuYunRepository EntityDao entity with generated EntityDescriptor")
+                    .build();
+        }
+        return ReflectiveClassBuildItem.builder(entity.toString())
+                .constructors()
+                .methods()
+                .fields()
+                .reason("@MuYunRepository EntityDao entity")
+                .build();
+    }
+
+    /**
+     * muyun-database-processor 生成的描述符与实体同包，类名为实体二进制名中的 $ 替换为 _ 后加 _MuYunEntity
+     */
+    boolean hasEntityDescriptor(IndexView index, DotName entity) {
+        String descriptor = entity.toString().replace('$', '_') + DESCRIPTOR_SUFFIX;
+        return index.getClassByName(DotName.createSimple(descriptor)) != null;
+    }
+
     private Optional<DotName> resolveEntityDaoType(IndexView index,
                                                   ClassInfo type,
                                                   Map<String, Type> bindings) {
@@ -0,0 +1,104 @@
+import { LitElement, html, css } from 'lit';
+import { JsonRpc } from 'jsonrpc';
+import '@vaadin/grid';
+import '@vaadin/button';
+import { columnBodyRenderer } from '@vaadin/grid/lit.js';
+
+/**
+ * 慢 SQL：时间窗口内按总耗时排序的语句指纹，以及最近的慢语句
+ */
+export class QwcMuyunSlowQueries extends LitElement {
+
+    jsonRpc = new JsonRpc(this);
+
+    static styles = css`
+        :host {
+            display: flex;
+            flex-direction: column;
+            gap: 10px;
+            padding: 10px;
+        }
+        .toolbar {
+            display: flex;
+            align-items: center;
+            gap: 10px;
+        }
+        .sql {
+            font-family: var(--lumo-font-family-monospace, monospace);
+            white-space: pre-wrap;
+        }
+    `;
+
+    static properties = {
+        _report: { state: true }
+    };
+
+    connectedCallback() {
+        super.connectedCallback();
+        this._refresh();
+    }
+
+    render() {
+        if (!this._report) {
+            return html`<span>Loading...</span>`;
+        }
+        if (!this._report.enabled) {
+            return html`<span>Slow SQL logging is disabled; set <code>muyun.database.slow-query-threshold</code> to enable it.</span>`;
+        }
+        return html`
+            <div class="toolbar">
+                <span>Threshold ${this._report.thresholdMillis} ms, window ${this._report.windowSeconds} s</span>
+                <vaadin-button @click=${this._refresh}>Refresh</vaadin-button>
+                <vaadin-button @click=${this._reset}>Reset</vaadin-button>
+            </div>
+            <h4>Top statements by total time</h4>
+            <vaadin-grid .items=${this._report.topFingerprints} all-rows-visible theme="row-stripes">
+                <vaadin-grid-column header="Statement" flex-grow="4"
+                    ${columnBodyRenderer(row => html`<span class="sql">${row.fingerprint}</span>`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="Table"
+                    ${columnBodyRenderer(row => html`${this._table(row.tags)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="Count" path="count"></vaadin-grid-column>
+                <vaadin-grid-column header="Slow" path="slowCount"></vaadin-grid-column>
+                <vaadin-grid-column header="Errors" path="errorCount"></vaadin-grid-column>
+                <vaadin-grid-column header="Total ms"
+                    ${columnBodyRenderer(row => html`${this._millis(row.totalNanos)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="Max ms"
+                    ${columnBodyRenderer(row => html`${this._millis(row.maxNanos)}`, [])}></vaadin-grid-column>
+            </vaadin-grid>
+            <h4>Recent slow statements</h4>
+            <vaadin-grid .items=${this._report.recentSlowQueries} all-rows-visible theme="row-stripes">
+                <vaadin-grid-column header="Finished" path="finishedAt"></vaadin-grid-column>
+                <vaadin-grid-column header="Statement" flex-grow="4"
+                    ${columnBodyRenderer(row => html`<span class="sql">${row.sql}</span>`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="Table"
+                    ${columnBodyRenderer(row => html`${this._table(row.tags)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="ms"
+                    ${columnBodyRenderer(row => html`${this._millis(row.durationNanos)}`, [])}></vaadin-grid-column>
+                <vaadin-grid-column header="Binds" path="bindCount"></vaadin-grid-column>
+                <vaadin-grid-column header="Rows"
+                    ${columnBodyRenderer(row => html`${row.rows < 0 ? '-' : row.rows}`, [])}></vaadin-grid-column>
+            </vaadin-grid>
+        `;
+    }
+
+    _refresh() {
+        this.jsonRpc.getReport().then(response => this._report = response.result);
+    }
+
+    _reset() {
+        this.jsonRpc.reset().then(response => this._report = response.result);
+    }
+
+    _table(tags) {
+        if (!tags || !tags.table) {
+            return '-';
+        }
+        return tags.schema ? `${tags.schema}.${tags.table}` : tags.table;
+    }
+
+    _millis(nanos) {
+        return (nanos / 1_000_000).toFixed(1);
+    }
+}
+
+customElements.define('qwc-muyun-slow-queries', QwcMuyunSlowQueries);
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -99,6 +100,15 @@ class MuYunRepositoryQuarkusExtensionTest {
                         && binding.alignTable() == MuYunRepository.AlignTable.DISABLED));
     }
 
+    @Test
+    void processorDetectsGeneratedEntityDescriptor() throws Exception {
+        Class<?> descriptor = Class.forName(MuYunRepositoryQuarkusExtensionTest.class.getName() + "_TestEntity_MuYunEntity");
+        MuYunDatabaseQuarkusProcessor processor = new MuYunDatabaseQuarkusProcessor();
+
+        assertTrue(processor.hasEntityDescriptor(indexOf(TestEntity.class, descriptor), DotName.createSimple(TestEntity.class)));
+        assertFalse(processor.hasEntityDescriptor(indexOf(TestEntity.class), DotName.createSimple(TestEntity.class)));
+    }
+
     @Test
     void repositoryFactoryCreatesProxyAndInvokesDefaultMethods() {
         MuYunRepositoryFactory factory = new MuYunRepositoryFactory(fakeOperations(), null, fakeEntityManager());
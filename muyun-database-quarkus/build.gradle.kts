@@ -18,6 +18,7 @@ dependencies {
     api(libs.quarkus.narayana.jta)
     implementation(libs.quarkus.arc.api)
     implementation(libs.quarkus.core)
+    compileOnly(libs.micrometer.core)
 
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
@@ -1,7 +1,12 @@
 package net.ximatai.muyun.database.quarkus;
 
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
 import org.eclipse.microprofile.config.Config;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -16,6 +21,18 @@ public final class MuYunDatabaseConfig {
     private final RepositorySchemaMode repositorySchemaMode;
     private final boolean installCommonPlugins;
     private final boolean installPostgresPlugins;
+    private final boolean metadataLazyLoading;
+    private final List<String> metadataEagerSchemas;
+    private final Optional<String> metadataSnapshotFile;
+    private final Optional<String> metadataSnapshotFingerprintQuery;
+    private final int statementCacheSize;
+    private final boolean metricsEnabled;
+    private final Optional<Duration> slowQueryThreshold;
+    private final int slowQueryTopN;
+    private final Duration slowQueryWindow;
+    private final Optional<Duration> explainThreshold;
+    private final double explainSamplingRate;
+    private final long explainLargeTableRows;
 
     private MuYunDatabaseConfig(String primaryKeyName,
                                 PrimaryKeyType primaryKeyType,
@@ -23,7 +40,19 @@ public final class MuYunDatabaseConfig {
                                 MigrationMode migrationMode,
                                 RepositorySchemaMode repositorySchemaMode,
                                 boolean installCommonPlugins,
-                                boolean installPostgresPlugins) {
+                                boolean installPostgresPlugins,
+                                boolean metadataLazyLoading,
+                                List<String> metadataEagerSchemas,
+                                Optional<String> metadataSnapshotFile,
+                                Optional<String> metadataSnapshotFingerprintQuery,
+                                int statementCacheSize,
+                                boolean metricsEnabled,
+                                Optional<Duration> slowQueryThreshold,
+                                int slowQueryTopN,
+                                Duration slowQueryWindow,
+                                Optional<Duration> explainThreshold,
+                                double explainSamplingRate,
+                                long explainLargeTableRows) {
         this.primaryKeyName = primaryKeyName;
         this.primaryKeyType = primaryKeyType;
         this.defaultSchema = defaultSchema;
@@ -31,6 +60,18 @@ public final class MuYunDatabaseConfig {
         this.repositorySchemaMode = repositorySchemaMode;
         this.installCommonPlugins = installCommonPlugins;
         this.installPostgresPlugins = installPostgresPlugins;
+        this.metadataLazyLoading = metadataLazyLoading;
+        this.metadataEagerSchemas = metadataEagerSchemas;
+        this.metadataSnapshotFile = metadataSnapshotFile;
+        this.metadataSnapshotFingerprintQuery = metadataSnapshotFingerprintQuery;
+        this.statementCacheSize = statementCacheSize;
+        this.metricsEnabled = metricsEnabled;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQueryTopN = slowQueryTopN;
+        this.slowQueryWindow = slowQueryWindow;
+        this.explainThreshold = explainThreshold;
+        this.explainSamplingRate = explainSamplingRate;
+        this.explainLargeTableRows = explainLargeTableRows;
     }
 
     public static MuYunDatabaseConfig from(Config config) {
@@ -41,7 +82,21 @@ public final class MuYunDatabaseConfig {
                 readEnum(config, "migration-mode", MigrationMode.APPLY),
                 readEnum(config, "repository-schema-mode", RepositorySchemaMode.ENSURE),
                 readBoolean(config, "install-common-plugins", true),
-                readBoolean(config, "install-postgres-plugins", true)
+                readBoolean(config, "install-postgres-plugins", true),
+                readBoolean(config, "metadata-lazy-loading", false),
+                readList(config, "metadata-eager-schemas"),
+                readOptional(config, "metadata-snapshot-file").filter(value -> !value.isBlank()),
+                readOptional(config, "metadata-snapshot-fingerprint-query").filter(value -> !value.isBlank()),
+                config.getOptionalValue(PREFIX + "statement-cache-size", Integer.class).orElse(0),
+                readBoolean(config, "metrics-enabled", true),
+                config.getOptionalValue(PREFIX + "slow-query-threshold", Duration.class),
+                config.getOptionalValue(PREFIX + "slow-query-top-n", Integer.class).orElse(SlowQueryLog.DEFAULT_TOP_N),
+                config.getOptionalValue(PREFIX + "slow-query-window", Duration.class).orElse(SlowQueryLog.DEFAULT_WINDOW),
+                config.getOptionalValue(PREFIX + "explain-threshold", Duration.class),
+                config.getOptionalValue(PREFIX + "explain-sampling-rate", Double.class)
+                        .orElse(QueryPlanSampler.DEFAULT_SAMPLING_RATE),
+                config.getOptionalValue(PREFIX + "explain-large-table-rows", Long.class)
+                        .orElse(QueryPlanSampler.DEFAULT_LARGE_TABLE_ROWS)
         );
     }
 
@@ -73,6 +128,54 @@ public final class MuYunDatabaseConfig {
         return installPostgresPlugins;
     }
 
+    public boolean isMetadataLazyLoading() {
+        return metadataLazyLoading;
+    }
+
+    public List<String> getMetadataEagerSchemas() {
+        return metadataEagerSchemas;
+    }
+
+    public Optional<String> getMetadataSnapshotFile() {
+        return metadataSnapshotFile;
+    }
+
+    public Optional<String> getMetadataSnapshotFingerprintQuery() {
+        return metadataSnapshotFingerprintQuery;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public Optional<Duration> getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public int getSlowQueryTopN() {
+        return slowQueryTopN;
+    }
+
+    public Duration getSlowQueryWindow() {
+        return slowQueryWindow;
+    }
+
+    public Optional<Duration> getExplainThreshold() {
+        return explainThreshold;
+    }
+
+    public double getExplainSamplingRate() {
+        return explainSamplingRate;
+    }
+
+    public long getExplainLargeTableRows() {
+        return explainLargeTableRows;
+    }
+
     private static String read(Config config, String name, String defaultValue) {
         return readOptional(config, name).orElse(defaultValue);
     }
@@ -85,6 +188,15 @@ public final class MuYunDatabaseConfig {
         return config.getOptionalValue(PREFIX + name, String.class);
     }
 
+    private static List<String> readList(Config config, String name) {
+        return readOptional(config, name)
+                .map(value -> Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .filter(item -> !item.isEmpty())
+                        .toList())
+                .orElse(List.of());
+    }
+
     private static <E extends Enum<E>> E readEnum(Config config, String name, E defaultValue) {
         return readOptional(config, name)
                 .map(value -> Enum.valueOf(defaultValue.getDeclaringClass(), normalizeEnumValue(value)))
@@ -7,17 +7,28 @@ import jakarta.enterprise.inject.Any;
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.Produces;
 import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import net.ximatai.muyun.database.core.orm.CriteriaCompileOptions;
 import net.ximatai.muyun.database.core.orm.DatabaseValueConverter;
 import net.ximatai.muyun.database.core.orm.DefaultSimpleEntityManager;
 import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
 import net.ximatai.muyun.database.core.orm.MigrationOptions;
 import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
+import net.ximatai.muyun.database.core.orm.UpsertStrategy;
+import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
 import net.ximatai.muyun.database.jdbi.JdbiMetaDataLoader;
 import net.ximatai.muyun.database.jdbi.JdbiRecommendedPlugins;
+import net.ximatai.muyun.database.jdbi.JdbiStatementCache;
 import org.eclipse.microprofile.config.Config;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.postgres.PostgresPlugin;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
 @ApplicationScoped
 public class MuYunDatabaseProducer {
 
@@ -33,7 +44,8 @@ public class MuYunDatabaseProducer {
     @DefaultBean
     Jdbi jdbi(AgroalDataSource dataSource,
               MuYunDatabaseConfig config,
-              @Any Instance<MuYunJdbiConfigurer> configurers) {
+              @Any Instance<MuYunJdbiConfigurer> configurers,
+              Instance<SlowQueryLog> slowQueryLogs) {
         Jdbi jdbi = Jdbi.create(dataSource);
         if (config.isInstallCommonPlugins()) {
             JdbiRecommendedPlugins.installCommon(jdbi);
@@ -42,14 +54,22 @@ public class MuYunDatabaseProducer {
             jdbi.installPlugin(new PostgresPlugin());
         }
         configurers.forEach(configurer -> configurer.configure(jdbi));
+        slowQueryLog(config, slowQueryLogs).ifPresent(log -> JdbiRecommendedPlugins.installSlowQueryLog(jdbi, log));
         return jdbi;
     }
 
     @Produces
     @ApplicationScoped
     @DefaultBean
-    JdbiMetaDataLoader jdbiMetaDataLoader(Jdbi jdbi) {
-        return new JdbiMetaDataLoader(jdbi);
+    JdbiMetaDataLoader jdbiMetaDataLoader(Jdbi jdbi, MuYunDatabaseConfig config) {
+        JdbiMetaDataLoader loader = new JdbiMetaDataLoader(jdbi)
+                .setLazyLoading(config.isMetadataLazyLoading())
+                .addEagerSchemas(config.getMetadataEagerSchemas());
+        config.getDefaultSchema().ifPresent(schema -> loader.addEagerSchemas(List.of(schema)));
+        config.getMetadataSnapshotFile().ifPresent(file -> loader
+                .setSnapshotFile(Path.of(file))
+                .setSnapshotFingerprintQuery(config.getMetadataSnapshotFingerprintQuery().orElse(null)));
+        return loader;
     }
 
     @Produces
@@ -58,15 +78,27 @@ public class MuYunDatabaseProducer {
     @SuppressWarnings("rawtypes")
     IDatabaseOperations databaseOperations(Jdbi jdbi,
                                            JdbiMetaDataLoader metaDataLoader,
-                                           MuYunDatabaseConfig config) {
+                                           MuYunDatabaseConfig config,
+                                           Instance<DatabaseMetrics> metrics) {
         String pkName = config.getPrimaryKeyName();
         String defaultSchema = config.getDefaultSchema().orElse(null);
-        return switch (config.getPrimaryKeyType()) {
+        JdbiDatabaseOperations<?> operations = switch (config.getPrimaryKeyType()) {
             case STRING -> new QuarkusJdbiDatabaseOperations<>(jdbi, metaDataLoader, String.class, pkName, defaultSchema);
             case LONG -> new QuarkusJdbiDatabaseOperations<>(jdbi, metaDataLoader, Long.class, pkName, defaultSchema);
             case INTEGER -> new QuarkusJdbiDatabaseOperations<>(jdbi, metaDataLoader, Integer.class, pkName, defaultSchema);
             case UUID -> new QuarkusJdbiDatabaseOperations<>(jdbi, metaDataLoader, java.util.UUID.class, pkName, defaultSchema);
         };
+        if (config.getStatementCacheSize() > 0) {
+            operations.setStatementCache(new JdbiStatementCache(config.getStatementCacheSize()));
+        }
+        if (config.isMetricsEnabled() && metrics.isResolvable()) {
+            operations.setMetrics(metrics.get());
+        }
+        config.getExplainThreshold().ifPresent(threshold -> operations.setQueryPlanSampler(
+                new QueryPlanSampler(operations, threshold)
+                        .setSamplingRate(config.getExplainSamplingRate())
+                        .setLargeTableRows(config.getExplainLargeTableRows())));
+        return operations;
     }
 
     @Produces
@@ -82,11 +114,18 @@ public class MuYunDatabaseProducer {
     @SuppressWarnings("rawtypes")
     SimpleEntityManager simpleEntityManager(IDatabaseOperations operations,
                                             EntityMetaResolver entityMetaResolver,
-                                            Instance<DatabaseValueConverter> valueConverters) {
+                                            Instance<DatabaseValueConverter> valueConverters,
+                                            Instance<CriteriaCompileOptions> compileOptions) {
         DatabaseValueConverter valueConverter = valueConverters.isUnsatisfied()
                 ? DatabaseValueConverter.DEFAULT
                 : valueConverters.get();
-        return new DefaultSimpleEntityManager(operations, entityMetaResolver, valueConverter);
+        return new DefaultSimpleEntityManager(
+                operations,
+                UpsertStrategy.ATOMIC_PREFERRED,
+                entityMetaResolver,
+                valueConverter,
+                compileOptions.isUnsatisfied() ? CriteriaCompileOptions.defaults() : compileOptions.get()
+        );
     }
 
     @Produces
@@ -117,6 +156,17 @@ public class MuYunDatabaseProducer {
         return new MuYunRepositoryFactory(operations, jdbi, entityManager);
     }
 
+    /**
+     * 应用声明的 {@link SlowQueryLog} Bean 优先，否则在设置了 {@code muyun.database.slow-query-threshold} 时按配置创建
+     */
+    private static Optional<SlowQueryLog> slowQueryLog(MuYunDatabaseConfig config, Instance<SlowQueryLog> slowQueryLogs) {
+        if (slowQueryLogs.isResolvable()) {
+            return Optional.of(slowQueryLogs.get());
+        }
+        return config.getSlowQueryThreshold()
+                .map(threshold -> new SlowQueryLog(threshold, config.getSlowQueryTopN(), config.getSlowQueryWindow()));
+    }
+
     private static boolean isClassPresent(String className) {
         try {
             Class.forName(className, false, Thread.currentThread().getContextClassLoader());
@@ -0,0 +1,23 @@
+package net.ximatai.muyun.database.quarkus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.DefaultBean;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.jdbi.MicrometerDatabaseMetrics;
+
+/**
+ * 应用启用 quarkus-micrometer 时由扩展登记，以 {@link MicrometerDatabaseMetrics} 记录语句指标；
+ * 应用自行声明 {@link DatabaseMetrics} Bean 时以其为准
+ */
+@ApplicationScoped
+public class MuYunMicrometerMetricsProducer {
+
+    @Produces
+    @ApplicationScoped
+    @DefaultBean
+    DatabaseMetrics databaseMetrics(MeterRegistry registry) {
+        return new MicrometerDatabaseMetrics(registry);
+    }
+}
@@ -1,5 +1,8 @@
 package net.ximatai.muyun.database.quarkus;
 
+import net.ximatai.muyun.database.core.orm.CountStrategy;
+import net.ximatai.muyun.database.core.orm.PageRequest;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -11,6 +14,16 @@ public @interface MuYunRepository {
 
     AlignTable alignTable() default AlignTable.DEFAULT;
 
+    /**
+     * pageQuery/page 的默认计数策略，单次调用可通过 PageRequest#withCountStrategy 覆盖
+     */
+    CountStrategy countStrategy() default CountStrategy.EXACT;
+
+    /**
+     * countStrategy 为 CAPPED 时的计数上限
+     */
+    int countCap() default PageRequest.DEFAULT_COUNT_CAP;
+
     enum AlignTable {
         DEFAULT,
         ENABLED,
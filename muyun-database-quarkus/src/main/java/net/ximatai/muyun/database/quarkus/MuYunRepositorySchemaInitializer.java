@@ -12,7 +12,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -31,11 +33,19 @@ public class MuYunRepositorySchemaInitializer {
 
     void onStart(@Observes StartupEvent event) {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> entityClasses = new ArrayList<>();
         for (RepositoryEntityBinding binding : loadBindings(classLoader)) {
-            if (!shouldAlign(binding.alignTable())) {
-                continue;
+            if (shouldAlign(binding.alignTable())) {
+                entityClasses.add(loadEntityClass(classLoader, binding.entityClassName()));
             }
-            Class<?> entityClass = loadEntityClass(classLoader, binding.entityClassName());
+        }
+        if (entityClasses.isEmpty()) {
+            return;
+        }
+
+        // 批量预取涉及模式的元数据，避免逐表读取列和索引
+        schemaManager.prefetchMetadata(entityClasses);
+        for (Class<?> entityClass : entityClasses) {
             MigrationResult result = schemaManager.ensureTable(entityClass);
             log.infof(
                     "MuYun repository schema ensured for entity %s, changed=%s",
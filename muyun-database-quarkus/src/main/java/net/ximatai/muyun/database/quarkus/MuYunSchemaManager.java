@@ -4,6 +4,7 @@ import net.ximatai.muyun.database.core.orm.MigrationOptions;
 import net.ximatai.muyun.database.core.orm.MigrationResult;
 import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
 
+import java.util.Collection;
 import java.util.Objects;
 
 public class MuYunSchemaManager {
@@ -19,4 +20,8 @@ public class MuYunSchemaManager {
     public <T> MigrationResult ensureTable(Class<T> entityClass) {
         return entityManager.ensureTable(entityClass, migrationOptions);
     }
+
+    public void prefetchMetadata(Collection<Class<?>> entityClasses) {
+        entityManager.prefetchMetadata(entityClasses);
+    }
 }
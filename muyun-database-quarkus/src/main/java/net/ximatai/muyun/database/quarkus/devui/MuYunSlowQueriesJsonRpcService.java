@@ -0,0 +1,47 @@
+package net.ximatai.muyun.database.quarkus.devui;
+
+import jakarta.inject.Inject;
+import net.ximatai.muyun.database.core.metrics.FingerprintStats;
+import net.ximatai.muyun.database.core.metrics.SlowQuery;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import net.ximatai.muyun.database.jdbi.JdbiSlowQueryLogger;
+import org.jdbi.v3.core.Jdbi;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dev UI 慢 SQL 页面的数据来源，读取 Jdbi 上安装的 {@link SlowQueryLog}；未设置慢 SQL 阈值时 enabled 为 false
+ */
+public class MuYunSlowQueriesJsonRpcService {
+
+    @Inject
+    Jdbi jdbi;
+
+    public Report getReport() {
+        Optional<SlowQueryLog> log = JdbiSlowQueryLogger.find(jdbi);
+        if (log.isEmpty()) {
+            return new Report(false, 0, 0, List.of(), List.of());
+        }
+        SlowQueryLog slowQueryLog = log.get();
+        return new Report(
+                true,
+                slowQueryLog.getThreshold().toMillis(),
+                slowQueryLog.getWindow().toSeconds(),
+                slowQueryLog.topFingerprints(),
+                slowQueryLog.recentSlowQueries()
+        );
+    }
+
+    public Report reset() {
+        JdbiSlowQueryLogger.find(jdbi).ifPresent(SlowQueryLog::reset);
+        return getReport();
+    }
+
+    public record Report(boolean enabled,
+                         long thresholdMillis,
+                         long windowSeconds,
+                         List<FingerprintStats> topFingerprints,
+                         List<SlowQuery> recentSlowQueries) {
+    }
+}
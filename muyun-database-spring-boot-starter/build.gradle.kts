@@ -20,6 +20,8 @@ dependencies {
     implementation(libs.spring.boot.autoconfigure)
     implementation(libs.spring.jdbc)
     implementation(libs.spring.tx)
+    compileOnly(libs.micrometer.core)
+    compileOnly(libs.spring.boot.actuator)
 
     annotationProcessor(libs.spring.boot.configuration.processor)
 
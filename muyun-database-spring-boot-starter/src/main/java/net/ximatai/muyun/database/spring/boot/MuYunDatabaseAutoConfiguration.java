@@ -1,31 +1,45 @@
 package net.ximatai.muyun.database.spring.boot;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetrics;
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import net.ximatai.muyun.database.core.orm.CriteriaCompileOptions;
 import net.ximatai.muyun.database.core.orm.DatabaseValueConverter;
 import net.ximatai.muyun.database.core.orm.DefaultSimpleEntityManager;
 import net.ximatai.muyun.database.core.orm.EntityMetaResolver;
 import net.ximatai.muyun.database.core.orm.MigrationOptions;
 import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
+import net.ximatai.muyun.database.core.orm.UpsertStrategy;
+import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
 import net.ximatai.muyun.database.jdbi.JdbiMetaDataLoader;
 import net.ximatai.muyun.database.jdbi.JdbiRecommendedPlugins;
+import net.ximatai.muyun.database.jdbi.MicrometerDatabaseMetrics;
+import net.ximatai.muyun.database.jdbi.JdbiStatementCache;
 import net.ximatai.muyun.database.jdbi.JdbiTransactionRunner;
 import net.ximatai.muyun.database.spring.boot.sql.MuYunRepositoryFactory;
 import net.ximatai.muyun.database.spring.boot.sql.repository.MuYunRepositoryCatalog;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.util.List;
 
 @AutoConfiguration
@@ -37,7 +51,8 @@ public class MuYunDatabaseAutoConfiguration {
     @ConditionalOnMissingBean
     public Jdbi jdbi(DataSource dataSource,
                      MuYunDatabaseProperties properties,
-                     ObjectProvider<JdbiConfigurer> configurers) {
+                     ObjectProvider<JdbiConfigurer> configurers,
+                     ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
         DataSource effectiveDataSource = properties.isTransactionAwareDataSource()
                 ? new TransactionAwareDataSourceProxy(dataSource)
                 : dataSource;
@@ -51,23 +66,46 @@ public class MuYunDatabaseAutoConfiguration {
         }
 
         configurers.orderedStream().forEach(configurer -> configurer.configure(jdbi));
+        slowQueryLogProvider.ifAvailable(log -> JdbiRecommendedPlugins.installSlowQueryLog(jdbi, log));
         return jdbi;
     }
 
+    /**
+     * 设置 {@code muyun.database.slow-query-threshold} 后记录 Jdbi 执行的每条语句，超过阈值的写 WARN 日志，
+     * 并在 {@code slow-query-window} 内按语句指纹统计总耗时
+     */
     @Bean
     @ConditionalOnMissingBean
-    public JdbiMetaDataLoader jdbiMetaDataLoader(Jdbi jdbi) {
-        return new JdbiMetaDataLoader(jdbi);
+    @ConditionalOnProperty(prefix = "muyun.database", name = "slow-query-threshold")
+    public SlowQueryLog muYunSlowQueryLog(MuYunDatabaseProperties properties) {
+        return new SlowQueryLog(properties.getSlowQueryThreshold(), properties.getSlowQueryTopN(), properties.getSlowQueryWindow());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JdbiMetaDataLoader jdbiMetaDataLoader(Jdbi jdbi, MuYunDatabaseProperties properties) {
+        JdbiMetaDataLoader loader = new JdbiMetaDataLoader(jdbi)
+                .setLazyLoading(properties.isMetadataLazyLoading())
+                .addEagerSchemas(properties.getMetadataEagerSchemas());
+        if (properties.getDefaultSchema() != null) {
+            loader.addEagerSchemas(List.of(properties.getDefaultSchema()));
+        }
+        if (StringUtils.hasText(properties.getMetadataSnapshotFile())) {
+            loader.setSnapshotFile(Path.of(properties.getMetadataSnapshotFile()))
+                    .setSnapshotFingerprintQuery(properties.getMetadataSnapshotFingerprintQuery());
+        }
+        return loader;
     }
 
     @Bean
     @ConditionalOnMissingBean(IDatabaseOperations.class)
     public IDatabaseOperations<?> databaseOperations(Jdbi jdbi,
                                                      JdbiMetaDataLoader metaDataLoader,
-                                                     MuYunDatabaseProperties properties) {
+                                                     MuYunDatabaseProperties properties,
+                                                     ObjectProvider<DatabaseMetrics> metricsProvider) {
         String pkName = properties.getPrimaryKeyName();
         String defaultSchema = properties.getDefaultSchema();
-        return switch (properties.getPrimaryKeyType()) {
+        JdbiDatabaseOperations<?> operations = switch (properties.getPrimaryKeyType()) {
             case STRING ->
                     new StarterJdbiDatabaseOperations<>(jdbi, metaDataLoader, String.class, pkName, defaultSchema);
             case LONG -> new StarterJdbiDatabaseOperations<>(jdbi, metaDataLoader, Long.class, pkName, defaultSchema);
@@ -76,6 +114,16 @@ public class MuYunDatabaseAutoConfiguration {
             case UUID ->
                     new StarterJdbiDatabaseOperations<>(jdbi, metaDataLoader, java.util.UUID.class, pkName, defaultSchema);
         };
+        if (properties.getStatementCacheSize() > 0) {
+            operations.setStatementCache(new JdbiStatementCache(properties.getStatementCacheSize()));
+        }
+        operations.setMetrics(metricsProvider.getIfAvailable(DatabaseMetrics::noop));
+        if (properties.getExplainThreshold() != null) {
+            operations.setQueryPlanSampler(new QueryPlanSampler(operations, properties.getExplainThreshold())
+                    .setSamplingRate(properties.getExplainSamplingRate())
+                    .setLargeTableRows(properties.getExplainLargeTableRows()));
+        }
+        return operations;
     }
 
     @Bean
@@ -88,11 +136,14 @@ public class MuYunDatabaseAutoConfiguration {
     @ConditionalOnMissingBean
     public SimpleEntityManager simpleEntityManager(IDatabaseOperations<?> operations,
                                                    EntityMetaResolver entityMetaResolver,
-                                                   ObjectProvider<DatabaseValueConverter> valueConverterProvider) {
+                                                   ObjectProvider<DatabaseValueConverter> valueConverterProvider,
+                                                   ObjectProvider<CriteriaCompileOptions> compileOptionsProvider) {
         return new DefaultSimpleEntityManager(
                 operations,
+                UpsertStrategy.ATOMIC_PREFERRED,
                 entityMetaResolver,
-                valueConverterProvider.getIfAvailable(() -> DatabaseValueConverter.DEFAULT)
+                valueConverterProvider.getIfAvailable(() -> DatabaseValueConverter.DEFAULT),
+                compileOptionsProvider.getIfAvailable(CriteriaCompileOptions::defaults)
         );
     }
 
@@ -100,14 +151,22 @@ public class MuYunDatabaseAutoConfiguration {
     @ConditionalOnMissingBean
     public JdbiTransactionRunner<?> jdbiTransactionRunner(Jdbi jdbi,
                                                           JdbiMetaDataLoader metaDataLoader,
-                                                          MuYunDatabaseProperties properties) {
+                                                          MuYunDatabaseProperties properties,
+                                                          ObjectProvider<DatabaseMetrics> metricsProvider,
+                                                          ObjectProvider<IDatabaseOperations<?>> operationsProvider) {
         String pkName = properties.getPrimaryKeyName();
-        return switch (properties.getPrimaryKeyType()) {
+        JdbiTransactionRunner<?> runner = switch (properties.getPrimaryKeyType()) {
             case STRING -> new JdbiTransactionRunner<>(jdbi, metaDataLoader, String.class, pkName);
             case LONG -> new JdbiTransactionRunner<>(jdbi, metaDataLoader, Long.class, pkName);
             case INTEGER -> new JdbiTransactionRunner<>(jdbi, metaDataLoader, Integer.class, pkName);
             case UUID -> new JdbiTransactionRunner<>(jdbi, metaDataLoader, java.util.UUID.class, pkName);
         };
+        IDatabaseOperations<?> operations = operationsProvider.getIfAvailable();
+        return runner.setMetrics(metricsProvider.getIfAvailable(DatabaseMetrics::noop))
+                .setQueryPlanSampler(operations == null ? null : operations.getQueryPlanSampler())
+                .setStatementCache(operations instanceof JdbiDatabaseOperations<?> jdbiOperations
+                        ? jdbiOperations.getStatementCache()
+                        : null);
     }
 
     @Bean
@@ -168,4 +227,36 @@ public class MuYunDatabaseAutoConfiguration {
                 getClass().getClassLoader()
         );
     }
+
+    /**
+     * 存在 Micrometer 时以 {@link MicrometerDatabaseMetrics} 记录语句耗时、行数与写重试，
+     * {@code muyun.database.metrics-enabled=false} 关闭；应用自行声明 {@link DatabaseMetrics} Bean 时以其为准
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "muyun.database", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public DatabaseMetrics muYunDatabaseMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+            MeterRegistry registry = registryProvider.getIfAvailable();
+            return registry == null ? DatabaseMetrics.noop() : new MicrometerDatabaseMetrics(registry);
+        }
+    }
+
+    /**
+     * 存在 Actuator 且启用慢 SQL 记录时提供 {@link MuYunSlowQueriesEndpoint}
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnProperty(prefix = "muyun.database", name = "slow-query-threshold")
+    static class SlowQueriesEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public MuYunSlowQueriesEndpoint muYunSlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+            return new MuYunSlowQueriesEndpoint(slowQueryLog);
+        }
+    }
 }
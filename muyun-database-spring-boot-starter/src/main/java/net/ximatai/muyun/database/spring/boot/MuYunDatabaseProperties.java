@@ -1,7 +1,13 @@
 package net.ximatai.muyun.database.spring.boot;
 
+import net.ximatai.muyun.database.core.metrics.QueryPlanSampler;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "muyun.database")
 public class MuYunDatabaseProperties {
 
@@ -13,6 +19,23 @@ public class MuYunDatabaseProperties {
     private boolean installCommonPlugins = true;
     private boolean installPostgresPlugins = true;
     private boolean transactionAwareDataSource = true;
+    private boolean metadataLazyLoading = false;
+    private List<String> metadataEagerSchemas = new ArrayList<>();
+    private String metadataSnapshotFile;
+    private String metadataSnapshotFingerprintQuery;
+    /**
+     * 每个句柄缓存的预编译语句数，0（默认）关闭。
+     * 语句经连接池代理预编译，只在句柄内复用（一次事务、一次批量写入），句柄关闭时关闭；
+     * 跨调用复用请使用驱动自带的语句缓存（PostgreSQL 的 prepareThreshold，MySQL 的 cachePrepStmts/useServerPrepStmts）
+     */
+    private int statementCacheSize = 0;
+    private boolean metricsEnabled = true;
+    private Duration slowQueryThreshold;
+    private int slowQueryTopN = SlowQueryLog.DEFAULT_TOP_N;
+    private Duration slowQueryWindow = SlowQueryLog.DEFAULT_WINDOW;
+    private Duration explainThreshold;
+    private double explainSamplingRate = QueryPlanSampler.DEFAULT_SAMPLING_RATE;
+    private long explainLargeTableRows = QueryPlanSampler.DEFAULT_LARGE_TABLE_ROWS;
 
     public enum PrimaryKeyType {
         STRING(String.class),
@@ -105,4 +128,100 @@ public class MuYunDatabaseProperties {
     public void setTransactionAwareDataSource(boolean transactionAwareDataSource) {
         this.transactionAwareDataSource = transactionAwareDataSource;
     }
+
+    public boolean isMetadataLazyLoading() {
+        return metadataLazyLoading;
+    }
+
+    public void setMetadataLazyLoading(boolean metadataLazyLoading) {
+        this.metadataLazyLoading = metadataLazyLoading;
+    }
+
+    public List<String> getMetadataEagerSchemas() {
+        return metadataEagerSchemas;
+    }
+
+    public void setMetadataEagerSchemas(List<String> metadataEagerSchemas) {
+        this.metadataEagerSchemas = metadataEagerSchemas == null ? new ArrayList<>() : metadataEagerSchemas;
+    }
+
+    public String getMetadataSnapshotFile() {
+        return metadataSnapshotFile;
+    }
+
+    public void setMetadataSnapshotFile(String metadataSnapshotFile) {
+        this.metadataSnapshotFile = metadataSnapshotFile;
+    }
+
+    public String getMetadataSnapshotFingerprintQuery() {
+        return metadataSnapshotFingerprintQuery;
+    }
+
+    public void setMetadataSnapshotFingerprintQuery(String metadataSnapshotFingerprintQuery) {
+        this.metadataSnapshotFingerprintQuery = metadataSnapshotFingerprintQuery;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public int getSlowQueryTopN() {
+        return slowQueryTopN;
+    }
+
+    public void setSlowQueryTopN(int slowQueryTopN) {
+        this.slowQueryTopN = slowQueryTopN;
+    }
+
+    public Duration getSlowQueryWindow() {
+        return slowQueryWindow;
+    }
+
+    public void setSlowQueryWindow(Duration slowQueryWindow) {
+        this.slowQueryWindow = slowQueryWindow;
+    }
+
+    public Duration getExplainThreshold() {
+        return explainThreshold;
+    }
+
+    public void setExplainThreshold(Duration explainThreshold) {
+        this.explainThreshold = explainThreshold;
+    }
+
+    public double getExplainSamplingRate() {
+        return explainSamplingRate;
+    }
+
+    public void setExplainSamplingRate(double explainSamplingRate) {
+        this.explainSamplingRate = explainSamplingRate;
+    }
+
+    public long getExplainLargeTableRows() {
+        return explainLargeTableRows;
+    }
+
+    public void setExplainLargeTableRows(long explainLargeTableRows) {
+        this.explainLargeTableRows = explainLargeTableRows;
+    }
 }
@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.SmartInitializingSingleton;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,11 +37,19 @@ public class MuYunRepositorySchemaInitializer implements SmartInitializingSingle
             bindings.addAll(catalog.resolveEntityBindings(classLoader));
         }
 
+        List<Class<?>> entityClasses = new ArrayList<>();
         for (RepositoryEntityBinding binding : bindings) {
-            if (!shouldAlign(binding.alignTable())) {
-                continue;
+            if (shouldAlign(binding.alignTable())) {
+                entityClasses.add(binding.entityClass());
             }
-            Class<?> entityClass = binding.entityClass();
+        }
+        if (entityClasses.isEmpty()) {
+            return;
+        }
+
+        // 批量预取涉及模式的元数据，避免逐表读取列和索引
+        schemaManager.prefetchMetadata(entityClasses);
+        for (Class<?> entityClass : entityClasses) {
             schemaManager.ensureTable(entityClass);
             log.info("MuYun repository schema ensured for entity {}", entityClass.getName());
         }
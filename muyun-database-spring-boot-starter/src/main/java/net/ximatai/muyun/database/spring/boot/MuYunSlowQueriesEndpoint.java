@@ -0,0 +1,44 @@
+package net.ximatai.muyun.database.spring.boot;
+
+import net.ximatai.muyun.database.core.metrics.FingerprintStats;
+import net.ximatai.muyun.database.core.metrics.SlowQuery;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 慢 SQL 的 Actuator 端点（{@code /actuator/muyunslowqueries}）：读取时间窗口内按总耗时排序的语句指纹与最近的慢语句，删除时清空统计
+ */
+@Endpoint(id = "muyunslowqueries")
+public class MuYunSlowQueriesEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public MuYunSlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Report slowQueries() {
+        return new Report(
+                slowQueryLog.getThreshold().toMillis(),
+                slowQueryLog.getWindow().toSeconds(),
+                slowQueryLog.topFingerprints(),
+                slowQueryLog.recentSlowQueries()
+        );
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+
+    public record Report(long thresholdMillis,
+                         long windowSeconds,
+                         List<FingerprintStats> topFingerprints,
+                         List<SlowQuery> recentSlowQueries) {
+    }
+}
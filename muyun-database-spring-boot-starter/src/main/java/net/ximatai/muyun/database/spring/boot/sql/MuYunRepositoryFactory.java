@@ -1,8 +1,12 @@
 package net.ximatai.muyun.database.spring.boot.sql;
 
 import net.ximatai.muyun.database.core.IDatabaseOperations;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.orm.CountStrategy;
 import net.ximatai.muyun.database.core.orm.Criteria;
 import net.ximatai.muyun.database.core.orm.EntityDao;
+import net.ximatai.muyun.database.core.orm.KeysetPage;
+import net.ximatai.muyun.database.core.orm.KeysetRequest;
 import net.ximatai.muyun.database.core.orm.PageRequest;
 import net.ximatai.muyun.database.core.orm.PageResult;
 import net.ximatai.muyun.database.core.orm.SimpleEntityManager;
@@ -24,10 +28,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public class MuYunRepositoryFactory {
 
@@ -73,6 +79,7 @@ public class MuYunRepositoryFactory {
 
         private final Class<?> daoType;
         private final Map<Method, EntityDaoMethodType> entityDaoMethodTypes = new ConcurrentHashMap<>();
+        private final Map<Method, String> repositoryLabels = new ConcurrentHashMap<>();
         private final EntityDaoDelegate entityDaoDelegate;
 
         private DaoInvocationHandler(Class<?> daoType) {
@@ -94,6 +101,16 @@ public class MuYunRepositoryFactory {
             if (method.getDeclaringClass() == Object.class) {
                 return method.invoke(this, safeArgs);
             }
+            if (!operations.isStatementLabelingEnabled()) {
+                return dispatch(proxy, method, safeArgs);
+            }
+            String repository = repositoryLabels.computeIfAbsent(method, m -> daoType.getSimpleName() + "." + m.getName());
+            try (DatabaseMetricsContext.Scope ignored = DatabaseMetricsContext.openRepository(repository)) {
+                return dispatch(proxy, method, safeArgs);
+            }
+        }
+
+        private Object dispatch(Object proxy, Method method, Object[] safeArgs) throws Throwable {
             EntityDaoMethodType type = entityDaoMethodTypes.computeIfAbsent(
                     method,
                     m -> entityDaoDelegate == null ? EntityDaoMethodType.NONE : entityDaoDelegate.resolve(m)
@@ -191,7 +208,8 @@ public class MuYunRepositoryFactory {
             if (!type.isAnnotationPresent(MuYunRepository.class)) {
                 throw new IllegalStateException("EntityDao interface must use @MuYunRepository: " + type.getName());
             }
-            return new EntityDaoDelegate(daoTypes.entityType());
+            MuYunRepository repository = type.getAnnotation(MuYunRepository.class);
+            return new EntityDaoDelegate(daoTypes.entityType(), repository.countStrategy(), repository.countCap());
         }
     }
 
@@ -222,6 +240,7 @@ public class MuYunRepositoryFactory {
         NONE,
         ENSURE_TABLE,
         INSERT,
+        INSERT_ALL,
         UPDATE_BY_ID,
         UPDATE_BY_ID_AND_CONDITION,
         DELETE_BY_ID,
@@ -233,7 +252,12 @@ public class MuYunRepositoryFactory {
         PAGE_QUERY,
         PAGE,
         COUNT,
-        UPSERT
+        UPSERT,
+        UPSERT_ALL,
+        STREAM,
+        KEYSET_QUERY,
+        LIST_AS,
+        QUERY_AS
     }
 
     @SuppressWarnings("unchecked")
@@ -241,6 +265,7 @@ public class MuYunRepositoryFactory {
         private static final Set<String> RESERVED_METHOD_NAMES = Set.of(
                 "ensureTable",
                 "insert",
+                "insertAll",
                 "updateById",
                 "updateByIdAndCondition",
                 "deleteById",
@@ -252,13 +277,22 @@ public class MuYunRepositoryFactory {
                 "pageQuery",
                 "page",
                 "count",
-                "upsert"
+                "upsert",
+                "upsertAll",
+                "stream",
+                "keysetQuery",
+                "listAs",
+                "queryAs"
         );
 
         private final Class<?> entityType;
+        private final CountStrategy countStrategy;
+        private final int countCap;
 
-        private EntityDaoDelegate(Class<?> entityType) {
+        private EntityDaoDelegate(Class<?> entityType, CountStrategy countStrategy, int countCap) {
             this.entityType = entityType;
+            this.countStrategy = countStrategy;
+            this.countCap = countCap;
         }
 
         private EntityDaoMethodType resolve(Method method) {
@@ -275,6 +309,12 @@ public class MuYunRepositoryFactory {
                     && returnType != Void.class) {
                 return EntityDaoMethodType.INSERT;
             }
+            if ("insertAll".equals(name)
+                    && paramTypes.length == 1
+                    && Collection.class.isAssignableFrom(paramTypes[0])
+                    && java.util.List.class.isAssignableFrom(returnType)) {
+                return EntityDaoMethodType.INSERT_ALL;
+            }
             if ("updateById".equals(name) && paramTypes.length == 1 && isIntReturn(returnType)) {
                 return EntityDaoMethodType.UPDATE_BY_ID;
             }
@@ -334,6 +374,40 @@ public class MuYunRepositoryFactory {
             if ("upsert".equals(name) && paramTypes.length == 1 && isIntReturn(returnType)) {
                 return EntityDaoMethodType.UPSERT;
             }
+            if ("upsertAll".equals(name)
+                    && paramTypes.length == 1
+                    && Collection.class.isAssignableFrom(paramTypes[0])
+                    && returnType == int[].class) {
+                return EntityDaoMethodType.UPSERT_ALL;
+            }
+            if ("stream".equals(name)
+                    && (paramTypes.length == 1 || (paramTypes.length == 2 && paramTypes[1] == Sort[].class))
+                    && paramTypes[0] == Criteria.class
+                    && Stream.class.isAssignableFrom(returnType)) {
+                return EntityDaoMethodType.STREAM;
+            }
+            if ("keysetQuery".equals(name)
+                    && (paramTypes.length == 2 || (paramTypes.length == 3 && paramTypes[2] == Sort[].class))
+                    && paramTypes[0] == Criteria.class
+                    && paramTypes[1] == KeysetRequest.class
+                    && KeysetPage.class.isAssignableFrom(returnType)) {
+                return EntityDaoMethodType.KEYSET_QUERY;
+            }
+            if ("listAs".equals(name)
+                    && (paramTypes.length == 2 || (paramTypes.length == 3 && paramTypes[2] == Sort[].class))
+                    && paramTypes[0] == Class.class
+                    && paramTypes[1] == Criteria.class
+                    && java.util.List.class.isAssignableFrom(returnType)) {
+                return EntityDaoMethodType.LIST_AS;
+            }
+            if ("queryAs".equals(name)
+                    && (paramTypes.length == 3 || (paramTypes.length == 4 && paramTypes[3] == Sort[].class))
+                    && paramTypes[0] == Class.class
+                    && paramTypes[1] == Criteria.class
+                    && paramTypes[2] == PageRequest.class
+                    && java.util.List.class.isAssignableFrom(returnType)) {
+                return EntityDaoMethodType.QUERY_AS;
+            }
             if ("count".equals(name)
                     && paramTypes.length == 1
                     && paramTypes[0] == Criteria.class
@@ -373,6 +447,7 @@ public class MuYunRepositoryFactory {
             return switch (name) {
                 case "ensureTable" -> "boolean ensureTable()";
                 case "insert" -> "ID insert(T entity)";
+                case "insertAll" -> "List<ID> insertAll(Collection<T> entities)";
                 case "updateById" -> "int updateById(T entity)";
                 case "updateByIdAndCondition" -> "int updateByIdAndCondition(T entity, Map<String, Object> conditions)";
                 case "deleteById" -> "int deleteById(ID id)";
@@ -385,6 +460,11 @@ public class MuYunRepositoryFactory {
                 case "page" -> "PageResult<T> page(Criteria criteria, PageRequest pageRequest, Sort... sorts)";
                 case "count" -> "long count(Criteria criteria)";
                 case "upsert" -> "int upsert(T entity)";
+                case "upsertAll" -> "int[] upsertAll(Collection<T> entities)";
+                case "stream" -> "Stream<T> stream(Criteria criteria, Sort... sorts)";
+                case "keysetQuery" -> "KeysetPage<T> keysetQuery(Criteria criteria, KeysetRequest request, Sort... sorts)";
+                case "listAs" -> "<R> List<R> listAs(Class<R> projectionType, Criteria criteria, Sort... sorts)";
+                case "queryAs" -> "<R> List<R> queryAs(Class<R> projectionType, Criteria criteria, PageRequest pageRequest, Sort... sorts)";
                 default -> "see EntityDao<T, ID>";
             };
         }
@@ -393,10 +473,22 @@ public class MuYunRepositoryFactory {
             return entityType;
         }
 
+        private PageRequest pageRequest(Object arg) {
+            PageRequest pageRequest = (PageRequest) arg;
+            if (pageRequest == null || pageRequest.getCountStrategy() != null || countStrategy == CountStrategy.EXACT) {
+                return pageRequest;
+            }
+            if (countStrategy == CountStrategy.CAPPED) {
+                return pageRequest.withCappedCount(countCap);
+            }
+            return pageRequest.withCountStrategy(countStrategy);
+        }
+
         private Object invoke(EntityDaoMethodType type, Object[] args) {
             return switch (type) {
                 case ENSURE_TABLE -> entityManager.ensureTable((Class<Object>) entityType);
                 case INSERT -> entityManager.insert(args[0]);
+                case INSERT_ALL -> entityManager.insertAll((Collection<Object>) args[0]);
                 case UPDATE_BY_ID -> entityManager.update(args[0]);
                 case UPDATE_BY_ID_AND_CONDITION -> entityManager.update(args[0], castMap(args[1]));
                 case DELETE_BY_ID -> entityManager.deleteById((Class<Object>) entityType, args[0]);
@@ -410,10 +502,15 @@ public class MuYunRepositoryFactory {
                     }
                     yield entityManager.list((Class<Object>) entityType, (Criteria) args[0], extractSorts(args, 1));
                 }
-                case PAGE_QUERY -> entityManager.pageQuery((Class<Object>) entityType, (Criteria) args[0], (PageRequest) args[1], extractSorts(args, 2));
-                case PAGE -> entityManager.pageQuery((Class<Object>) entityType, (Criteria) args[0], (PageRequest) args[1], extractSorts(args, 2));
+                case PAGE_QUERY -> entityManager.pageQuery((Class<Object>) entityType, (Criteria) args[0], pageRequest(args[1]), extractSorts(args, 2));
+                case PAGE -> entityManager.pageQuery((Class<Object>) entityType, (Criteria) args[0], pageRequest(args[1]), extractSorts(args, 2));
                 case COUNT -> entityManager.count((Class<Object>) entityType, (Criteria) args[0]);
                 case UPSERT -> entityManager.upsert(args[0]);
+                case UPSERT_ALL -> entityManager.upsertAll((Collection<Object>) args[0]);
+                case STREAM -> entityManager.stream((Class<Object>) entityType, (Criteria) args[0], extractSorts(args, 1));
+                case KEYSET_QUERY -> entityManager.keysetQuery((Class<Object>) entityType, (Criteria) args[0], (KeysetRequest) args[1], extractSorts(args, 2));
+                case LIST_AS -> entityManager.listAs((Class<Object>) entityType, (Class<?>) args[0], (Criteria) args[1], extractSorts(args, 2));
+                case QUERY_AS -> entityManager.queryAs((Class<Object>) entityType, (Class<?>) args[0], (Criteria) args[1], (PageRequest) args[2], extractSorts(args, 3));
                 case NONE -> throw new IllegalStateException("Unexpected EntityDao method type");
             };
         }
@@ -68,6 +68,51 @@ class MuYunDatabaseAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldBindLazyMetadataProperties() {
+        contextRunner
+                .withPropertyValues(
+                        "muyun.database.default-schema=custom_schema",
+                        "muyun.database.metadata-lazy-loading=true",
+                        "muyun.database.metadata-eager-schemas=audit,report"
+                )
+                .run(context -> {
+                    JdbiMetaDataLoader loader = context.getBean(JdbiMetaDataLoader.class);
+                    assertTrue(loader.isLazyLoading());
+                    assertEquals(java.util.Set.of("audit", "report", "custom_schema"), loader.getEagerSchemas());
+                });
+    }
+
+    @Test
+    void shouldBindMetadataSnapshotProperties() {
+        contextRunner
+                .withPropertyValues(
+                        "muyun.database.metadata-snapshot-file=build/muyun/metadata.json",
+                        "muyun.database.metadata-snapshot-fingerprint-query=select 1"
+                )
+                .run(context -> {
+                    JdbiMetaDataLoader loader = context.getBean(JdbiMetaDataLoader.class);
+                    assertEquals(java.nio.file.Path.of("build/muyun/metadata.json"), loader.getSnapshotFile());
+                    assertEquals("select 1", loader.getSnapshotFingerprintQuery());
+                });
+    }
+
+    @Test
+    void shouldEnableStatementCacheOnlyWhenSizeConfigured() {
+        contextRunner.run(context -> {
+            JdbiDatabaseOperations<?> operations = (JdbiDatabaseOperations<?>) context.getBean(IDatabaseOperations.class);
+            assertNull(operations.getStatementCache());
+        });
+        contextRunner
+                .withPropertyValues("muyun.database.statement-cache-size=32")
+                .run(context -> {
+                    JdbiDatabaseOperations<?> operations = (JdbiDatabaseOperations<?>) context.getBean(IDatabaseOperations.class);
+                    assertEquals(32, operations.getStatementCache().getMaxStatementsPerHandle());
+                    assertSame(operations.getStatementCache(),
+                            context.getBean(JdbiTransactionRunner.class).getStatementCache());
+                });
+    }
+
     @Test
     void shouldApplyExternalJdbiConfigurer() {
         contextRunner
@@ -28,6 +28,7 @@ class MuYunRepositorySchemaInitializerTest {
 
         initializer.afterSingletonsInstantiated();
 
+        verify(schemaManager, times(1)).prefetchMetadata(List.of(DemoEntity.class));
         verify(schemaManager, times(1)).ensureTable(DemoEntity.class);
     }
 
@@ -4,6 +4,7 @@ import net.ximatai.muyun.database.core.IDatabaseOperations;
 import net.ximatai.muyun.database.core.annotation.Column;
 import net.ximatai.muyun.database.core.annotation.Id;
 import net.ximatai.muyun.database.core.annotation.Table;
+import net.ximatai.muyun.database.core.orm.CountStrategy;
 import net.ximatai.muyun.database.core.orm.Criteria;
 import net.ximatai.muyun.database.core.orm.EntityDao;
 import net.ximatai.muyun.database.core.orm.PageRequest;
@@ -25,6 +26,7 @@ import org.springframework.mock.env.MockEnvironment;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -32,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -279,6 +282,79 @@ class MuYunRepositoryFactoryTest {
         verify(entityManager, never()).query(eq(DemoRole.class), eq(criteria), any(PageRequest.class), any());
     }
 
+    @Test
+    void shouldDelegateInsertAllToEntityManager() {
+        @SuppressWarnings("unchecked")
+        IDatabaseOperations<Object> operations = (IDatabaseOperations<Object>) mock(IDatabaseOperations.class);
+        SimpleEntityManager entityManager = mock(SimpleEntityManager.class);
+        DemoRole first = new DemoRole();
+        first.setRoleName("batch-1");
+        DemoRole second = new DemoRole();
+        second.setRoleName("batch-2");
+        List<DemoRole> roles = List.of(first, second);
+        when(entityManager.insertAll(roles)).thenReturn(List.of("r-50", "r-51"));
+
+        MuYunRepositoryFactory factory = new MuYunRepositoryFactory(
+                operations,
+                new MockEnvironment(),
+                mock(Jdbi.class),
+                entityManager
+        );
+        PureEntityDao dao = factory.create(PureEntityDao.class);
+
+        assertEquals(List.of("r-50", "r-51"), dao.insertAll(roles));
+        verify(entityManager).insertAll(roles);
+        verify(entityManager, never()).insert(any());
+    }
+
+    @Test
+    void shouldDelegateUpsertAllToEntityManager() {
+        @SuppressWarnings("unchecked")
+        IDatabaseOperations<Object> operations = (IDatabaseOperations<Object>) mock(IDatabaseOperations.class);
+        SimpleEntityManager entityManager = mock(SimpleEntityManager.class);
+        DemoRole first = new DemoRole();
+        first.setId("r-60");
+        DemoRole second = new DemoRole();
+        second.setId("r-61");
+        List<DemoRole> roles = List.of(first, second);
+        when(entityManager.upsertAll(roles)).thenReturn(new int[]{2});
+
+        MuYunRepositoryFactory factory = new MuYunRepositoryFactory(
+                operations,
+                new MockEnvironment(),
+                mock(Jdbi.class),
+                entityManager
+        );
+        PureEntityDao dao = factory.create(PureEntityDao.class);
+
+        assertArrayEquals(new int[]{2}, dao.upsertAll(roles));
+        verify(entityManager).upsertAll(roles);
+        verify(entityManager, never()).upsert(any());
+    }
+
+    @Test
+    void shouldApplyRepositoryCountStrategyUnlessCallOverridesIt() {
+        @SuppressWarnings("unchecked")
+        IDatabaseOperations<Object> operations = (IDatabaseOperations<Object>) mock(IDatabaseOperations.class);
+        SimpleEntityManager entityManager = mock(SimpleEntityManager.class);
+        MuYunRepositoryFactory factory = new MuYunRepositoryFactory(
+                operations,
+                new MockEnvironment(),
+                mock(Jdbi.class),
+                entityManager
+        );
+        WindowCountEntityDao dao = factory.create(WindowCountEntityDao.class);
+        Criteria criteria = Criteria.of();
+
+        dao.pageQuery(criteria, PageRequest.of(1, 10));
+        dao.page(criteria, PageRequest.of(1, 10).withCountStrategy(CountStrategy.EXACT));
+
+        verify(entityManager).pageQuery(eq(DemoRole.class), eq(criteria),
+                argThat(request -> request.getCountStrategy() == CountStrategy.WINDOW), any(Sort[].class));
+        verify(entityManager).pageQuery(eq(DemoRole.class), eq(criteria),
+                argThat(request -> request.getCountStrategy() == CountStrategy.EXACT), any(Sort[].class));
+    }
+
     @Test
     void shouldDelegateConditionalEntityDaoMethods() {
         @SuppressWarnings("unchecked")
@@ -369,6 +445,10 @@ class MuYunRepositoryFactoryTest {
     interface PureEntityDao extends EntityDao<DemoRole, String> {
     }
 
+    @MuYunRepository(countStrategy = CountStrategy.WINDOW)
+    interface WindowCountEntityDao extends EntityDao<DemoRole, String> {
+    }
+
     @MuYunRepository
     interface DefaultMethodEntityDao extends EntityDao<DemoRole, String> {
         default int updateByVersion(DemoRole entity, Integer expectedVersion) {
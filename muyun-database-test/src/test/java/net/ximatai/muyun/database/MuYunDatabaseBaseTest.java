@@ -15,7 +15,15 @@ import net.ximatai.muyun.database.core.metadata.DBColumn;
 import net.ximatai.muyun.database.core.metadata.DBIndex;
 import net.ximatai.muyun.database.core.metadata.DBInfo;
 import net.ximatai.muyun.database.core.metadata.DBTable;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsContext;
+import net.ximatai.muyun.database.core.metrics.DatabaseMetricsTags;
+import net.ximatai.muyun.database.core.metrics.DatabaseOperationType;
+import net.ximatai.muyun.database.core.metrics.SlowQuery;
+import net.ximatai.muyun.database.core.metrics.SlowQueryLog;
 import net.ximatai.muyun.database.core.orm.*;
+import net.ximatai.muyun.database.core.sql.BulkInsertOptions;
+import net.ximatai.muyun.database.core.sql.BulkInsertProgress;
+import net.ximatai.muyun.database.core.sql.BulkInsertResult;
 import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
 import net.ximatai.muyun.database.jdbi.JdbiMetaDataLoader;
 import net.ximatai.muyun.database.jdbi.JdbiRecommendedPlugins;
@@ -38,26 +46,36 @@ import org.testcontainers.containers.JdbcDatabaseContainer;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public abstract class MuYunDatabaseBaseTest {
@@ -209,6 +227,89 @@ public abstract class MuYunDatabaseBaseTest {
         assertTrue(table.getColumn("id").isPrimaryKey());
     }
 
+    protected void testLazyMetadataResolvesSchemasOnDemand() {
+        String schema = "test_lazy_metadata_schema";
+        TableWrapper wrapper = TableWrapper.withName("lazy_basic")
+                .setSchema(schema)
+                .setPrimaryKey(getPrimaryKey())
+                .addColumn(Column.of("v_name").setLength(20));
+        new TableBuilder(db).build(wrapper);
+
+        JdbiMetaDataLoader lazyLoader = new JdbiMetaDataLoader(jdbi).setLazyLoading(true);
+        DBInfo info = lazyLoader.getDBInfo();
+
+        assertEquals(Set.of(info.getDefaultSchemaName()),
+                info.getSchemas().stream().map(it -> it.getName()).collect(java.util.stream.Collectors.toSet()));
+        assertTrue(info.getDefaultSchema().containsTable("basic"));
+
+        DBTable table = info.getSchema(schema).getTable("lazy_basic");
+        assertTrue(table.contains("v_name"));
+        assertEquals(1, info.getSchema(schema).getTables().size());
+        assertNull(info.getSchema("test_lazy_metadata_missing"));
+
+        JdbiDatabaseOperations<String> lazyDb = new JdbiDatabaseOperations<>(jdbi, lazyLoader, String.class, "id");
+        String id = lazyDb.insertItem(schema, "lazy_basic", Map.of("v_name", "lazy"));
+        assertEquals("lazy", lazyDb.getItem(schema, "lazy_basic", id).get("v_name"));
+    }
+
+    protected void testPrefetchMetadataMatchesPerTableLoading() {
+        String schema = "test_prefetch_metadata_schema";
+        TableWrapper wrapper = TableWrapper.withName("prefetch_basic")
+                .setSchema(schema)
+                .setPrimaryKey(getPrimaryKey())
+                .addColumn(Column.of("v_name").setLength(20).setComment("名称"))
+                .addColumn(Column.of("i_age").setType(ColumnType.INT))
+                .addIndex("v_name", true);
+        new TableBuilder(db).build(wrapper);
+
+        DBTable expected = new JdbiMetaDataLoader(jdbi).getDBInfo().getSchema(schema).getTable("prefetch_basic");
+
+        JdbiMetaDataLoader prefetchLoader = new JdbiMetaDataLoader(jdbi);
+        prefetchLoader.prefetchSchema(schema);
+        DBTable actual = prefetchLoader.getDBInfo().getSchema(schema).getTable("prefetch_basic");
+
+        assertEquals(expected.getColumnMap().keySet(), actual.getColumnMap().keySet());
+        expected.getColumnMap().forEach((name, column) -> {
+            DBColumn prefetched = actual.getColumn(name);
+            assertEquals(column.getType(), prefetched.getType(), name);
+            assertEquals(column.getLength(), prefetched.getLength(), name);
+            assertEquals(column.isNullable(), prefetched.isNullable(), name);
+            assertEquals(column.isPrimaryKey(), prefetched.isPrimaryKey(), name);
+            assertEquals(column.getDescription(), prefetched.getDescription(), name);
+        });
+        assertEquals(
+                expected.getIndexList().stream().map(DBIndex::getColumns).toList(),
+                actual.getIndexList().stream().map(DBIndex::getColumns).toList()
+        );
+        assertTrue(actual.getIndexList().getFirst().isUnique());
+    }
+
+    protected void testMetadataSnapshotRestoresAndRevalidates() throws Exception {
+        Path file = Files.createTempDirectory("muyun-metadata").resolve("snapshot.json");
+
+        JdbiMetaDataLoader coldLoader = new JdbiMetaDataLoader(jdbi).setSnapshotFile(file);
+        String defaultSchema = coldLoader.getDBInfo().getDefaultSchemaName();
+        coldLoader.snapshotRefresh().get(30, TimeUnit.SECONDS);
+        assertTrue(Files.isRegularFile(file));
+
+        JdbiMetaDataLoader warmLoader = new JdbiMetaDataLoader(jdbi).setSnapshotFile(file);
+        DBTable basic = warmLoader.getDBInfo().getSchema(defaultSchema).getTable("basic");
+        assertFalse(basic.getColumnMap().isEmpty());
+        warmLoader.snapshotRefresh().get(30, TimeUnit.SECONDS);
+
+        TableWrapper drift = TableWrapper.withName("test_snapshot_drift")
+                .setPrimaryKey(getPrimaryKey())
+                .addColumn(Column.of("v_name").setLength(20));
+        new TableBuilder(db).build(drift);
+
+        JdbiMetaDataLoader staleLoader = new JdbiMetaDataLoader(jdbi).setSnapshotFile(file);
+        assertFalse(staleLoader.getDBInfo().getSchema(defaultSchema).getTables().containsKey("test_snapshot_drift"));
+        staleLoader.snapshotRefresh().get(30, TimeUnit.SECONDS);
+
+        assertTrue(staleLoader.getDBInfo().getSchema(defaultSchema).getTables().containsKey("test_snapshot_drift"));
+        assertTrue(Files.readString(file).contains("test_snapshot_drift"));
+    }
+
     protected void testTableAndColumnCommentsLoadedFromMetadata() {
         String tableName = "test_comment_metadata";
         TableWrapper table = TableWrapper.withName(tableName)
@@ -426,6 +527,93 @@ public abstract class MuYunDatabaseBaseTest {
         assertEquals(2, ids.size());
     }
 
+    protected void testBulkInsertInChunks() {
+        String tag = "bulk_" + UUID.randomUUID().toString().substring(0, 8);
+        List<BulkInsertProgress> progress = new ArrayList<>();
+
+        BulkInsertResult<String> result = db.bulkInsert(
+                loader.getDBInfo().getDefaultSchemaName(),
+                "basic",
+                IntStream.range(0, 25).mapToObj(i -> Map.<String, Object>of("v_name", tag, "i_age", i)),
+                BulkInsertOptions.defaults().withBatchSize(10).onProgress(progress::add)
+        );
+
+        assertEquals(25, result.rows());
+        assertEquals(25, result.affected());
+        assertEquals(3, result.chunks());
+        assertEquals(25, result.generatedKeys().size());
+        assertEquals(List.of(10, 10, 5), progress.stream().map(BulkInsertProgress::chunkRows).toList());
+
+        BulkInsertResult<String> withoutKeys = db.bulkInsert(
+                "basic",
+                List.of(Map.<String, Object>of("v_name", tag, "i_age", 100)).iterator(),
+                BulkInsertOptions.defaults().withoutGeneratedKeys()
+        );
+        assertEquals(1, withoutKeys.affected());
+        assertTrue(withoutKeys.generatedKeys().isEmpty());
+
+        Map<String, Object> row = db.row("select count(*) as c from basic where v_name = :tag", Map.of("tag", tag));
+        assertEquals(26, ((Number) row.get("c")).intValue());
+    }
+
+    protected void testCopyInRoundTrip() {
+        assumeTrue(getDatabaseType() == DatabaseType.POSTGRESQL, "COPY 仅 PostgreSQL 支持");
+        String tableName = "copy_round_trip";
+        db.execute("drop table if exists " + tableName);
+        db.execute("create table " + tableName + " (id varchar(64) primary key, v_name varchar(64), labels varchar[], "
+                + "j_meta jsonb, b_data bytea, t_stamp timestamp, t_instant timestamptz, t_local timestamp)");
+        db.resetDBInfo();
+
+        Timestamp stamp = Timestamp.valueOf("2024-03-05 06:07:08.123456");
+        LocalDateTime local = LocalDateTime.of(2024, 3, 5, 23, 59, 58);
+        Map<String, Object> full = new HashMap<>();
+        full.put("id", "copy_full");
+        full.put("v_name", "tab\there");
+        full.put("labels", List.of("a,b", "say \"hi\""));
+        full.put("j_meta", "{\"k\": \"v\"}");
+        full.put("b_data", new byte[]{0x00, 0x0a, (byte) 0xff});
+        full.put("t_stamp", stamp);
+        full.put("t_instant", stamp);
+        full.put("t_local", local);
+        Map<String, Object> empty = new HashMap<>();
+        empty.put("id", "copy_null");
+        List<BulkInsertProgress> progress = new ArrayList<>();
+
+        // 会话时区与 JVM 时区不同，timestamptz 仍应得到与 Timestamp 相同的时刻
+        BulkInsertResult<String> result = txRunner.inTransaction(tx -> {
+            tx.getOperations().execute("set local time zone 'Pacific/Chatham'");
+            return tx.getOperations().copyIn(
+                    db.getDefaultSchemaName(),
+                    tableName,
+                    List.of(full, empty).iterator(),
+                    BulkInsertOptions.defaults().withBatchSize(1).onProgress(progress::add)
+            );
+        });
+
+        assertEquals(2, result.rows());
+        assertEquals(2, result.affected());
+        assertEquals(List.of(1, 1), progress.stream().map(BulkInsertProgress::chunkRows).toList());
+
+        Map<String, Object> row = db.row("select v_name, array_to_string(labels, '|') as labels, j_meta ->> 'k' as meta, "
+                + "encode(b_data, 'hex') as data, to_char(t_stamp, 'YYYY-MM-DD HH24:MI:SS.US') as stamp, "
+                + "(extract(epoch from t_instant) * 1000000)::bigint as instant_micros, "
+                + "to_char(t_local, 'YYYY-MM-DD\"T\"HH24:MI:SS') as local from " + tableName + " where id = :id",
+                Map.of("id", "copy_full"));
+        assertEquals("tab\there", row.get("v_name"));
+        assertEquals("a,b|say \"hi\"", row.get("labels"));
+        assertEquals("v", row.get("meta"));
+        assertEquals("000aff", row.get("data"));
+        assertEquals("2024-03-05 06:07:08.123456", row.get("stamp"));
+        assertEquals(stamp.getTime() * 1000 + stamp.getNanos() / 1000 % 1000,
+                ((Number) row.get("instant_micros")).longValue());
+        assertEquals(local.toString(), row.get("local"));
+
+        Map<String, Object> nulls = db.row("select count(*) as c from " + tableName + " where id = :id and v_name is null "
+                + "and labels is null and j_meta is null and b_data is null and t_stamp is null and t_instant is null "
+                + "and t_local is null", Map.of("id", "copy_null"));
+        assertEquals(1, ((Number) nulls.get("c")).intValue());
+    }
+
     protected void testUpdate() {
         Map body = Map.of("v_name", "test_name",
                 "i_age", 5,
@@ -575,6 +763,52 @@ public abstract class MuYunDatabaseBaseTest {
         assertNull(db.getItem("basic", conditionalId));
     }
 
+    protected void testSlowQueryLogWithoutMetrics() {
+        List<SlowQuery> recorded = new CopyOnWriteArrayList<>();
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 20, Duration.ofMinutes(1)).onSlowQuery(recorded::add);
+        Jdbi logged = JdbiRecommendedPlugins.installSlowQueryLog(Jdbi.create(getDataSource()), slowQueryLog);
+        logged.getConfig(MapMappers.class).setCaseChange(CaseStrategy.NOP);
+        JdbiDatabaseOperations<String> operations =
+                new JdbiDatabaseOperations<>(logged, new JdbiMetaDataLoader(logged), String.class, "id");
+        assertFalse(operations.getMetrics().isEnabled());
+
+        RuntimeTableGateway gateway = new RuntimeTableGateway(
+                operations,
+                operations.getDefaultSchemaName(),
+                "basic",
+                RuntimeColumnMapper.of(Map.of("id", "id", "name", "v_name", "age", "i_age"))
+        );
+        String marker = "slow_" + UUID.randomUUID().toString().substring(0, 12);
+        gateway.insert(Map.of("name", marker, "age", 1));
+        gateway.insert(Map.of("name", marker, "age", 2));
+        recorded.clear();
+
+        List<Map<String, Object>> rows = DatabaseMetricsContext.callInRepository("BasicRepository.findByName",
+                () -> gateway.list(Criteria.of().eq("name", marker)));
+
+        assertEquals(2, rows.size());
+        assertEquals(1, recorded.size());
+        SlowQuery listed = recorded.getFirst();
+        assertEquals(new DatabaseMetricsTags(DatabaseOperationType.QUERY, operations.getDefaultSchemaName(), "basic",
+                "BasicRepository.findByName"), listed.tags());
+        assertEquals(2, listed.rows());
+        assertEquals(1, listed.bindCount());
+        assertFalse(listed.failed());
+
+        recorded.clear();
+        assertThrows(RuntimeException.class, () -> operations.query("select * from slow_query_missing_table", Map.of()));
+        assertEquals(1, recorded.size());
+        assertTrue(recorded.getFirst().failed());
+        assertEquals(-1, recorded.getFirst().rows());
+
+        // 失败后线程上不应残留暂存，之后的语句照常记录
+        Map<String, Object> count = operations.row("select count(*) as c from basic where v_name = :name", Map.of("name", marker));
+        assertEquals(2, ((Number) count.get("c")).intValue());
+        assertEquals(2, recorded.size());
+        assertEquals(1, recorded.getLast().rows());
+        assertEquals(DatabaseOperationType.ROW, recorded.getLast().tags().operation());
+    }
+
     protected void testRuntimeTableGateway() {
         RuntimeTableGateway gateway = new RuntimeTableGateway(
                 db,
@@ -626,6 +860,43 @@ public abstract class MuYunDatabaseBaseTest {
         assertNull(db.getItem("basic", (String) id));
     }
 
+    protected void testRuntimeTableGatewayKeysetWithNullSortValues() {
+        RuntimeTableGateway gateway = new RuntimeTableGateway(
+                db,
+                db.getDefaultSchemaName(),
+                "basic",
+                RuntimeColumnMapper.of(Map.of("id", "id", "name", "v_name", "age", "i_age"))
+        );
+        String marker = "gw_keyset_" + UUID.randomUUID().toString().substring(0, 8);
+        for (Integer age : Arrays.asList(null, 3, null, 1, 3)) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("name", marker);
+            values.put("age", age);
+            gateway.insert(values);
+        }
+
+        Criteria criteria = Criteria.of().eq("name", marker);
+        for (Sort sort : List.of(Sort.asc("age"), Sort.desc("age"))) {
+            Sort tieBreaker = sort.getDirection() == SortDirection.ASC ? Sort.asc("id") : Sort.desc("id");
+            List<Object> expected = gateway.list(criteria, sort, tieBreaker).stream().map(row -> row.get("id")).toList();
+            List<Object> walked = new ArrayList<>();
+            KeysetRequest request = KeysetRequest.first(2);
+            while (true) {
+                // 每页 2 行，游标会落在 NULL 与非 NULL 的年龄上
+                KeysetPage<Map<String, Object>> page = gateway.keysetQuery(criteria, request, sort);
+                page.getRecords().forEach(row -> walked.add(row.get("id")));
+                if (!page.hasNext()) {
+                    break;
+                }
+                request = KeysetRequest.after(page.getNextCursor(), 2);
+            }
+            assertEquals(5, expected.size());
+            assertEquals(expected, walked, sort.getDirection().name());
+        }
+
+        gateway.deleteWhere(Map.of("name", marker));
+    }
+
     protected void testRuntimeTableGatewayCollectionCriteriaAgainstDatabase() {
         String tableName = "runtime_collection_record";
         TableWrapper table = TableWrapper.withName(tableName)
@@ -742,6 +1013,41 @@ public abstract class MuYunDatabaseBaseTest {
 
     }
 
+    protected void testStreamQuery() {
+        String tag = "stream_" + UUID.randomUUID().toString().substring(0, 8);
+        db.bulkInsert(
+                "basic",
+                IntStream.range(0, 30).<Map<String, Object>>mapToObj(i -> Map.of("v_name", tag, "i_age", i)).iterator(),
+                BulkInsertOptions.defaults().withoutGeneratedKeys()
+        );
+
+        db.setStreamFetchSize(7);
+        try (Stream<Map<String, Object>> rows = db.stream("select * from basic where v_name = :tag order by i_age", Map.of("tag", tag))) {
+            assertEquals(IntStream.range(0, 30).boxed().toList(),
+                    rows.map(row -> ((Number) row.get("i_age")).intValue()).toList());
+        } finally {
+            db.setStreamFetchSize(JdbiDatabaseOperations.DEFAULT_STREAM_FETCH_SIZE);
+        }
+
+        try (Stream<Map<String, Object>> rows = db.stream("select * from basic where v_name = ?", List.of(tag))) {
+            assertEquals(3, rows.limit(3).count());
+        }
+
+        AtomicInteger visited = new AtomicInteger();
+        db.forEach("select * from basic where v_name = :tag", Map.of("tag", tag), row -> visited.incrementAndGet());
+        assertEquals(30, visited.get());
+
+        List<Map<String, Object>> fields = new ArrayList<>();
+        RuntimeTableGateway gateway = new RuntimeTableGateway(
+                db,
+                db.getDefaultSchemaName(),
+                "basic",
+                RuntimeColumnMapper.of(Map.of("name", "v_name", "age", "i_age"))
+        );
+        gateway.forEach(Criteria.of().eq("name", tag).lt("age", 5), fields::add, Sort.desc("age"));
+        assertEquals(List.of(4, 3, 2, 1, 0), fields.stream().map(row -> ((Number) row.get("age")).intValue()).toList());
+    }
+
     protected void testJdbiConnectionClosedWhenException() throws SQLException {
         AtomicReference<Connection> connection = new AtomicReference<>();
         assertThrowsExactly(SQLException.class, () -> {
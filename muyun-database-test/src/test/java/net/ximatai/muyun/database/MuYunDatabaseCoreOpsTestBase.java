@@ -30,6 +30,18 @@ public abstract class MuYunDatabaseCoreOpsTestBase extends MuYunDatabaseBaseTest
         super.testBatchInsert();
     }
 
+    @Test
+    @Override
+    protected void testBulkInsertInChunks() {
+        super.testBulkInsertInChunks();
+    }
+
+    @Test
+    @Override
+    protected void testCopyInRoundTrip() {
+        super.testCopyInRoundTrip();
+    }
+
     @Test
     @Override
     protected void testUpdate() {
@@ -54,6 +66,18 @@ public abstract class MuYunDatabaseCoreOpsTestBase extends MuYunDatabaseBaseTest
         super.testRuntimeTableGateway();
     }
 
+    @Test
+    @Override
+    protected void testRuntimeTableGatewayKeysetWithNullSortValues() {
+        super.testRuntimeTableGatewayKeysetWithNullSortValues();
+    }
+
+    @Test
+    @Override
+    protected void testSlowQueryLogWithoutMetrics() {
+        super.testSlowQueryLogWithoutMetrics();
+    }
+
     @Test
     protected void testRuntimeTableGatewayCollectionCriteriaAgainstDatabase() {
         super.testRuntimeTableGatewayCollectionCriteriaAgainstDatabase();
@@ -65,6 +89,12 @@ public abstract class MuYunDatabaseCoreOpsTestBase extends MuYunDatabaseBaseTest
         super.testQuery();
     }
 
+    @Test
+    @Override
+    protected void testStreamQuery() {
+        super.testStreamQuery();
+    }
+
     @Test
     @Override
     protected void testJdbiConnectionClosedWhenException() throws SQLException {
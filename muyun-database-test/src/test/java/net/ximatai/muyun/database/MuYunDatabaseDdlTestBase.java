@@ -22,6 +22,24 @@ public abstract class MuYunDatabaseDdlTestBase extends MuYunDatabaseCoreOpsTestB
         super.testTableBuilderWithoutDefaultSchema();
     }
 
+    @Test
+    @Override
+    protected void testLazyMetadataResolvesSchemasOnDemand() {
+        super.testLazyMetadataResolvesSchemasOnDemand();
+    }
+
+    @Test
+    @Override
+    protected void testPrefetchMetadataMatchesPerTableLoading() {
+        super.testPrefetchMetadataMatchesPerTableLoading();
+    }
+
+    @Test
+    @Override
+    protected void testMetadataSnapshotRestoresAndRevalidates() throws Exception {
+        super.testMetadataSnapshotRestoresAndRevalidates();
+    }
+
     @Test
     @Override
     protected void testTableAndColumnCommentsLoadedFromMetadata() {
@@ -1,14 +1,27 @@
 package net.ximatai.muyun.database;
 
+import net.ximatai.muyun.database.core.builder.Column;
+import net.ximatai.muyun.database.core.builder.ColumnType;
+import net.ximatai.muyun.database.core.builder.TableBuilder;
+import net.ximatai.muyun.database.core.builder.TableWrapper;
 import net.ximatai.muyun.database.core.orm.*;
+import net.ximatai.muyun.database.core.sql.SqlPlanBuilder;
+import net.ximatai.muyun.database.jdbi.JdbiDatabaseOperations;
+import net.ximatai.muyun.database.jdbi.JdbiStatementCache;
+import net.ximatai.muyun.database.jdbi.JdbiTransactionRunner;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,6 +59,322 @@ public abstract class MuYunDatabaseOrmTestBase extends MuYunDatabaseDdlTestBase
         assertEquals(1, deleted);
     }
 
+    @Test
+    void testSimpleOrmInsertAllWithMultiRowStatements() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        List<Object> entities = new ArrayList<>();
+        int baseCode = 20000 + (int) (System.currentTimeMillis() % 10000);
+        for (int i = 0; i < 5; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", "orm_batch_" + i);
+            setField(entity, "age", i);
+            entities.add(entity);
+        }
+
+        db.setMultiRowInsertMaxRows(2);
+        List<Object> ids;
+        try {
+            ids = orm.insertAll(entities);
+        } finally {
+            db.setMultiRowInsertMaxRows(SqlPlanBuilder.DEFAULT_MULTI_ROW_INSERT_ROWS);
+        }
+
+        assertEquals(5, ids.size());
+        assertEquals(5, new LinkedHashSet<>(ids).size());
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(ids.get(i));
+            assertEquals(ids.get(i), getField(entities.get(i), "id"));
+            Object loaded = orm.findById((Class) entityClass, ids.get(i));
+            assertEquals("orm_batch_" + i, getField(loaded, "name"));
+            assertEquals(i, getField(loaded, "age"));
+        }
+    }
+
+    @Test
+    void testSimpleOrmUpsertAllSplitsChunksOnRepeatedIds() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        List<Object> entities = new ArrayList<>();
+        int baseCode = 30000 + (int) (System.currentTimeMillis() % 10000);
+        for (int i = 0; i < 3; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", "orm_upsert_" + i);
+            setField(entity, "age", i);
+            entities.add(entity);
+        }
+        List<Object> ids = orm.insertAll(entities);
+
+        Object first = entities.get(0);
+        Object firstAgain = entityClass.getDeclaredConstructor().newInstance();
+        setField(firstAgain, "id", ids.get(0));
+        setField(firstAgain, "code", baseCode);
+        setField(firstAgain, "name", "orm_upsert_0_last");
+        setField(firstAgain, "age", 10);
+        setField(first, "name", "orm_upsert_0_first");
+        setField(entities.get(1), "name", "orm_upsert_1_changed");
+        setField(entities.get(2), "name", "orm_upsert_2_changed");
+
+        db.setMultiRowInsertMaxRows(2);
+        int[] affected;
+        int[] unchanged;
+        try {
+            affected = orm.upsertAll(List.of(first, firstAgain, entities.get(1), entities.get(2)));
+            // 无变化的更新在 MySQL 中影响行数为 0，返回值仍为各分片处理的行数
+            unchanged = orm.upsertAll(List.of(firstAgain, entities.get(1), entities.get(2)));
+        } finally {
+            db.setMultiRowInsertMaxRows(SqlPlanBuilder.DEFAULT_MULTI_ROW_INSERT_ROWS);
+        }
+
+        assertArrayEquals(new int[]{1, 2, 1}, affected);
+        assertArrayEquals(new int[]{2, 1}, unchanged);
+        Object loaded = orm.findById((Class) entityClass, ids.get(0));
+        assertEquals("orm_upsert_0_last", getField(loaded, "name"));
+        assertEquals(10, getField(loaded, "age"));
+        assertEquals("orm_upsert_2_changed", getField(orm.findById((Class) entityClass, ids.get(2)), "name"));
+    }
+
+    @Test
+    void testSimpleOrmKeysetQueryWalksTiesWithoutGapsOrDuplicates() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        String prefix = "keyset_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 40000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            setField(entity, "age", i < 3 ? 7 : 8);
+            entities.add(entity);
+        }
+        orm.insertAll(entities);
+
+        Criteria criteria = Criteria.of().like("name", prefix + "%");
+        List<Object> expected = orm.list((Class) entityClass, criteria, Sort.asc("age"), Sort.asc("id"));
+        List<Object> walked = new ArrayList<>();
+        int pages = 0;
+        KeysetRequest request = KeysetRequest.first(2);
+        while (true) {
+            KeysetPage<?> page = orm.keysetQuery((Class) entityClass, criteria, request, Sort.asc("age"));
+            walked.addAll(page.getRecords());
+            pages++;
+            if (!page.hasNext()) {
+                break;
+            }
+            request = KeysetRequest.after(page.getNextCursor(), 2);
+        }
+
+        assertEquals(3, pages);
+        assertEquals(5, expected.size());
+        assertEquals(expected.size(), walked.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(getField(expected.get(i), "name"), getField(walked.get(i), "name"));
+        }
+    }
+
+    @Test
+    void testSimpleOrmProjectionReadsOnlySelectedColumns() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        String prefix = "proj_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 50000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            setField(entity, "age", 40 + i);
+            entities.add(entity);
+        }
+        orm.insertAll(entities);
+
+        List<NameAge> projected = orm.listAs(entityClass, NameAge.class, Criteria.of().like("name", prefix + "%"), Sort.asc("code"));
+        assertEquals(List.of(new NameAge(prefix + 0, 40), new NameAge(prefix + 1, 41)), projected);
+
+        List<?> partial = orm.list((Class) entityClass, Criteria.of().select("name").like("name", prefix + "%"), Sort.asc("code"));
+        assertEquals(2, partial.size());
+        assertEquals(prefix + 0, getField(partial.getFirst(), "name"));
+        assertEquals(0, getField(partial.getFirst(), "code"));
+    }
+
+    record NameAge(String name, int age) {
+    }
+
+    @Test
+    void testStatementCacheReusesPreparedStatementsWithinTransaction() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+        JdbiStatementCache cache = new JdbiStatementCache(8);
+        JdbiTransactionRunner<String> cachedRunner = new JdbiTransactionRunner<>(jdbi, loader, String.class, "id")
+                .setStatementCache(cache);
+
+        String prefix = "stc_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 70000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            entities.add(entity);
+        }
+
+        cachedRunner.inTransactionVoid(tx -> {
+            SimpleEntityManager cachedOrm = tx.getEntityManager();
+            entities.forEach(cachedOrm::insert);
+            for (int round = 0; round < 3; round++) {
+                List<?> rows = cachedOrm.list((Class) entityClass, Criteria.of().like("name", prefix + "%"), Sort.asc("code"));
+                assertEquals(3, rows.size());
+                try (Stream<?> stream = cachedOrm.stream((Class) entityClass, Criteria.of().like("name", prefix + "%"))) {
+                    assertEquals(3, stream.count());
+                }
+            }
+            assertTrue(cache.size() > 0 && cache.size() <= 8);
+        });
+
+        assertTrue(cache.hitCount() > 0, "expected cached statements to be reused within the transaction");
+        // 事务结束、句柄关闭后缓存的语句全部关闭
+        assertEquals(0, cache.size());
+
+        // 单次调用的句柄关闭后同样不留语句
+        SimpleEntityManager cachedOrm = new DefaultSimpleEntityManager(
+                new JdbiDatabaseOperations<>(jdbi, loader, String.class, "id").setStatementCache(cache));
+        assertEquals(3, cachedOrm.list((Class) entityClass, Criteria.of().like("name", prefix + "%"), Sort.asc("code")).size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testResultSetMappingMatchesRowMapMapping() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+        JdbiDatabaseOperations<String> direct = new JdbiDatabaseOperations<>(jdbi, loader, String.class, "id");
+        JdbiDatabaseOperations<String> mapped = new JdbiDatabaseOperations<>(jdbi, loader, String.class, "id")
+                .setRowMapper(new org.jdbi.v3.core.mapper.MapMapper());
+        assertTrue(direct.supportsResultSetMapping());
+        assertFalse(mapped.supportsResultSetMapping());
+        SimpleEntityManager directOrm = new DefaultSimpleEntityManager(direct);
+        SimpleEntityManager mappedOrm = new DefaultSimpleEntityManager(mapped);
+
+        String prefix = "rsm_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 80000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            ids.add(orm.insert(entity));
+        }
+
+        Criteria criteria = Criteria.of().like("name", prefix + "%");
+        List<?> directRows = directOrm.list((Class) entityClass, criteria, Sort.asc("code"));
+        List<?> mappedRows = mappedOrm.list((Class) entityClass, criteria, Sort.asc("code"));
+        List<?> directPage = directOrm.query((Class) entityClass, criteria, PageRequest.of(1, 2), Sort.asc("code"));
+        assertEquals(3, directRows.size());
+        assertEquals(2, directPage.size());
+        for (int i = 0; i < 3; i++) {
+            for (String field : List.of("id", "code", "name")) {
+                assertEquals(getField(mappedRows.get(i), field), getField(directRows.get(i), field));
+            }
+        }
+
+        Object found = directOrm.findById((Class) entityClass, ids.getFirst());
+        assertEquals(getField(directRows.getFirst(), "name"), getField(found, "name"));
+        assertNull(directOrm.findById((Class) entityClass, "missing-" + prefix));
+        try (Stream<?> stream = directOrm.stream((Class) entityClass, criteria)) {
+            assertEquals(3, stream.count());
+        }
+    }
+
+    @Test
+    void testSimpleOrmInListStrategiesMatchExactResults() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        String prefix = "inl_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 60000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> entities = new ArrayList<>();
+        List<Integer> codes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            entities.add(entity);
+            codes.add(baseCode + i);
+        }
+        orm.insertAll(entities);
+
+        for (InListStrategy strategy : InListStrategy.values()) {
+            SimpleEntityManager strategyOrm = new DefaultSimpleEntityManager(
+                    db,
+                    UpsertStrategy.ATOMIC_PREFERRED,
+                    new EntityMetaResolver(),
+                    DatabaseValueConverter.DEFAULT,
+                    CriteriaCompileOptions.defaults().withInListStrategy(strategy).withInListChunkSize(2)
+            );
+            List<?> in = strategyOrm.list((Class) entityClass,
+                    Criteria.of().in("code", codes.subList(0, 3)), Sort.asc("code"));
+            List<?> notIn = strategyOrm.list((Class) entityClass,
+                    Criteria.of().like("name", prefix + "%").notIn("code", codes.subList(0, 3)), Sort.asc("code"));
+
+            assertEquals(3, in.size(), strategy.name());
+            assertEquals(prefix + 2, getField(in.getLast(), "name"));
+            assertEquals(2, notIn.size(), strategy.name());
+            assertEquals(prefix + 3, getField(notIn.getFirst(), "name"));
+        }
+    }
+
+    @Test
+    void testSimpleOrmInListStrategiesWithTimestampAndDecimalValues() throws Exception {
+        Class<?> entityClass = getEntityClass();
+        orm.ensureTable(entityClass);
+
+        String prefix = "inl_ts_" + (System.currentTimeMillis() % 100000) + "_";
+        int baseCode = 80000 + (int) (System.currentTimeMillis() % 10000);
+        List<Object> entities = new ArrayList<>();
+        List<Timestamp> times = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Timestamp time = Timestamp.valueOf(LocalDateTime.of(2031, 1, 2, 3, 4, i));
+            Object entity = entityClass.getDeclaredConstructor().newInstance();
+            setField(entity, "code", baseCode + i);
+            setField(entity, "name", prefix + i);
+            setField(entity, "price", 10.25 + i);
+            setField(entity, "creatTime", time);
+            entities.add(entity);
+            times.add(time);
+        }
+        orm.insertAll(entities);
+
+        for (InListStrategy strategy : InListStrategy.values()) {
+            SimpleEntityManager strategyOrm = new DefaultSimpleEntityManager(
+                    db,
+                    UpsertStrategy.ATOMIC_PREFERRED,
+                    new EntityMetaResolver(),
+                    DatabaseValueConverter.DEFAULT,
+                    CriteriaCompileOptions.defaults().withInListStrategy(strategy)
+            );
+            Criteria byPrefix = Criteria.of().like("name", prefix + "%");
+            List<?> byTime = strategyOrm.list((Class) entityClass,
+                    Criteria.copyOf(byPrefix).in("creatTime", times.subList(0, 2)), Sort.asc("code"));
+            List<?> byDecimal = strategyOrm.list((Class) entityClass,
+                    Criteria.copyOf(byPrefix).notIn("price", List.of(new BigDecimal("10.25"), new BigDecimal("11.25"))),
+                    Sort.asc("code"));
+            List<?> mixed = strategyOrm.list((Class) entityClass,
+                    Criteria.copyOf(byPrefix).in("code", List.of(baseCode, (long) baseCode + 2)), Sort.asc("code"));
+
+            assertEquals(2, byTime.size(), strategy.name());
+            assertEquals(prefix + 1, getField(byTime.getLast(), "name"));
+            assertEquals(1, byDecimal.size(), strategy.name());
+            assertEquals(prefix + 2, getField(byDecimal.getFirst(), "name"));
+            assertEquals(2, mixed.size(), strategy.name());
+        }
+    }
+
     @Test
     void testSimpleOrmInstantRoundTrip() {
         orm.ensureTable(OrmInstantEntity.class);
@@ -224,6 +553,70 @@ public abstract class MuYunDatabaseOrmTestBase extends MuYunDatabaseDdlTestBase
         assertEquals(1, page.getPageSize());
         assertEquals(1, page.getRecords().size());
         assertEquals(20, page.getRecords().getFirst().age);
+
+        PageResult<OrmPatchEntity> windowPage = orm.pageQuery(
+                OrmPatchEntity.class,
+                Criteria.of().eq("v_name", marker),
+                PageRequest.of(2, 1).withCountStrategy(CountStrategy.WINDOW),
+                Sort.asc("i_age")
+        );
+
+        assertEquals(3, windowPage.getTotal());
+        assertEquals(3, windowPage.getPages());
+        assertEquals(1, windowPage.getRecords().size());
+        assertEquals(20, windowPage.getRecords().getFirst().age);
+
+        Criteria byMarker = Criteria.of().eq("v_name", marker);
+        PageResult<OrmPatchEntity> cappedPage = orm.pageQuery(OrmPatchEntity.class, byMarker, PageRequest.of(1, 1).withCappedCount(2));
+        assertTrue(cappedPage.isTotalCapped());
+        assertEquals(2, cappedPage.getTotal());
+
+        PageResult<OrmPatchEntity> estimatedPage = orm.pageQuery(
+                OrmPatchEntity.class, byMarker, PageRequest.of(1, 1).withCountStrategy(CountStrategy.ESTIMATED));
+        assertTrue(estimatedPage.isTotalKnown());
+        assertEquals(1, estimatedPage.getRecords().size());
+
+        PageResult<OrmPatchEntity> uncountedPage = orm.pageQuery(
+                OrmPatchEntity.class, byMarker, PageRequest.of(1, 1).withCountStrategy(CountStrategy.NONE));
+        assertFalse(uncountedPage.isTotalKnown());
+        assertEquals(1, uncountedPage.getRecords().size());
+    }
+
+    @Test
+    void testEstimatedCountStaysCloseToExactCountAfterAnalyze() {
+        String tableName = "estimated_count_record";
+        new TableBuilder(db).build(TableWrapper.withName(tableName)
+                .setPrimaryKey(getPrimaryKey())
+                .addColumn(Column.of("i_bucket").setType(ColumnType.INT)));
+        db.execute("delete from " + tableName);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Map.of("i_bucket", i % 100));
+        }
+        db.insertRows(db.getDefaultSchemaName(), tableName, rows);
+        db.execute(getDatabaseType() == DatabaseType.MYSQL ? "analyze table " + tableName : "analyze " + tableName);
+
+        RuntimeTableGateway gateway = new RuntimeTableGateway(
+                db, db.getDefaultSchemaName(), tableName, RuntimeColumnMapper.of(Map.of("id", "id", "bucket", "i_bucket")));
+        PageRequest estimated = PageRequest.of(1, 10).withCountStrategy(CountStrategy.ESTIMATED);
+
+        PageResult<Map<String, Object>> all = gateway.pageQuery(Criteria.of(), estimated);
+        assertTrue(all.isTotalEstimated());
+        assertTrue(all.getTotal() >= 750 && all.getTotal() <= 1250, "estimate of 1000 rows: " + all.getTotal());
+        assertEquals(10, all.getRecords().size());
+
+        Criteria lowBuckets = Criteria.of().lt("bucket", 25);
+        PageResult<Map<String, Object>> filtered = gateway.pageQuery(lowBuckets, estimated);
+        assertEquals(250, gateway.count(lowBuckets));
+        if (getDatabaseType() == DatabaseType.POSTGRESQL) {
+            // PostgreSQL 取 EXPLAIN 的行数估计，ANALYZE 后的直方图应接近实际值
+            assertTrue(filtered.isTotalEstimated());
+            assertTrue(filtered.getTotal() >= 150 && filtered.getTotal() <= 350, "estimate of 250 rows: " + filtered.getTotal());
+        } else {
+            // MySQL 带条件时没有可用估计，回退为精确计数
+            assertFalse(filtered.isTotalEstimated());
+            assertEquals(250, filtered.getTotal());
+        }
     }
 
     @Test
@@ -3,8 +3,10 @@ rootProject.name = "MuYunDatabase"
 include(":muyun-database-core")
 include(":muyun-database-core-json-jackson")
 include(":muyun-database-jdbi")
+include(":muyun-database-processor")
 include(":muyun-database-spring-boot-starter")
 include(":muyun-database-quarkus")
 include(":muyun-database-quarkus-deployment")
+include(":muyun-database-benchmarks")
 include(":muyun-database-quarkus-integration-test")
 include(":muyun-database-test")